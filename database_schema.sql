@@ -3,6 +3,8 @@
 -- Database Schema with Enhanced Features
 -- ============================================
 
+-- For NEW installations only. Existing databases are upgraded in place by
+-- MigrationRunner at application startup (src/main/resources/db/migration).
 -- Drop existing database if exists (CAUTION: This will delete all data)
 DROP DATABASE IF EXISTS inventory_management;
 
@@ -67,6 +69,7 @@ CREATE TABLE Product (
     supplier_id INT NOT NULL,
     barcode VARCHAR(50),
     sku VARCHAR(50),
+    version INT NOT NULL DEFAULT 0,  -- Bumped by every edit (optimistic locking); stock movements do not bump it
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
     FOREIGN KEY (category_id) REFERENCES Category(category_id) ON DELETE RESTRICT,
@@ -74,6 +77,7 @@ CREATE TABLE Product (
     INDEX idx_product_name (name),
     INDEX idx_barcode (barcode),
     INDEX idx_stock_level (quantity_in_stock),
+    INDEX idx_product_updated (updated_at),  -- ChangePoller reads rows changed since its last poll
     CHECK (quantity_in_stock >= 0),
     CHECK (price >= 0)
 );
@@ -82,21 +86,65 @@ CREATE TABLE Product (
 -- TABLE 5: Sale
 -- ============================================
 CREATE TABLE Sale (
-    sale_id INT PRIMARY KEY AUTO_INCREMENT,
+    sale_id INT AUTO_INCREMENT,
     product_id INT NOT NULL,
     quantity_sold INT NOT NULL,
     unit_price DECIMAL(10, 2) NOT NULL,  -- Price at time of sale
     total_amount DECIMAL(10, 2) NOT NULL,
-    sale_date TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    sale_date TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
     user_id INT,  -- Who made the sale
     payment_method ENUM('CASH', 'CARD', 'MOBILE', 'OTHER') DEFAULT 'CASH',
     notes TEXT,
-    FOREIGN KEY (product_id) REFERENCES Product(product_id) ON DELETE RESTRICT,
-    FOREIGN KEY (user_id) REFERENCES User(user_id) ON DELETE SET NULL,
-    INDEX idx_sale_date (sale_date),
+    unit_cost DECIMAL(10, 2) NULL,  -- Product cost at time of sale (margin reports)
+    -- sale_date is part of the key because the table is partitioned on it.
+    -- Partitioned tables cannot have foreign keys: ProductDAO.deleteProduct refuses
+    -- products with sales and UserDAO.deleteUser clears user_id instead.
+    PRIMARY KEY (sale_id, sale_date),
+    INDEX idx_sale_date_product (sale_date, product_id, quantity_sold, total_amount),  -- covers date-range reports
     INDEX idx_product_sale (product_id),
+    INDEX idx_sale_user (user_id),  -- UserDAO.deleteUser clears user_id without a table scan
     CHECK (quantity_sold > 0),
     CHECK (unit_price >= 0)
+)
+-- One partition per month (pYYYYMM), added ahead of time by PartitionMaintenance
+PARTITION BY RANGE (UNIX_TIMESTAMP(sale_date)) (
+    PARTITION pmax VALUES LESS THAN MAXVALUE
+);
+
+-- Months older than partition.saleRetentionMonths, moved out of Sale
+CREATE TABLE SaleArchive (
+    sale_id INT NOT NULL,
+    product_id INT NOT NULL,
+    quantity_sold INT NOT NULL,
+    unit_price DECIMAL(10, 2) NOT NULL,
+    total_amount DECIMAL(10, 2) NOT NULL,
+    sale_date TIMESTAMP NOT NULL,
+    user_id INT,
+    payment_method ENUM('CASH', 'CARD', 'MOBILE', 'OTHER') DEFAULT 'CASH',
+    notes TEXT,
+    unit_cost DECIMAL(10, 2) NULL,
+    PRIMARY KEY (sale_id, sale_date),
+    INDEX idx_sale_date (sale_date),
+    INDEX idx_product_sale (product_id),
+    INDEX idx_sale_user (user_id)
+) ROW_FORMAT=COMPRESSED;
+
+-- Units, revenue and cost per product and day, updated in the sale transaction
+-- by SaleDAO; category and supplier are those of the product at its first sale
+-- of the day. Margin reports read this instead of joining every sale.
+CREATE TABLE SalesMargin (
+    sale_day DATE NOT NULL,
+    product_id INT NOT NULL,
+    category_id INT NULL,
+    supplier_id INT NULL,
+    sales_count INT NOT NULL DEFAULT 0,
+    units INT NOT NULL DEFAULT 0,
+    revenue DECIMAL(14, 2) NOT NULL DEFAULT 0,
+    cost DECIMAL(14, 2) NOT NULL DEFAULT 0,
+    PRIMARY KEY (sale_day, product_id),
+    INDEX idx_margin_product (product_id, sale_day),
+    INDEX idx_margin_category (category_id, sale_day),
+    INDEX idx_margin_supplier (supplier_id, sale_day)
 );
 
 -- ============================================
@@ -119,27 +167,47 @@ CREATE TABLE PurchaseOrder (
     FOREIGN KEY (product_id) REFERENCES Product(product_id) ON DELETE RESTRICT,
     FOREIGN KEY (user_id) REFERENCES User(user_id) ON DELETE SET NULL,
     INDEX idx_order_date (order_date),
-    INDEX idx_status (status)
+    INDEX idx_status (status),
+    INDEX idx_status_product (status, product_id)  -- open quantity per product (replenishment)
 );
 
 -- ============================================
 -- TABLE 7: Audit Log (Activity Tracking)
 -- ============================================
 CREATE TABLE AuditLog (
-    log_id INT PRIMARY KEY AUTO_INCREMENT,
-    user_id INT,
+    log_id INT AUTO_INCREMENT,
+    user_id INT,  -- No foreign key (partitioned); cleared by UserDAO.deleteUser
     action VARCHAR(50) NOT NULL,  -- CREATE, UPDATE, DELETE, LOGIN, LOGOUT
     table_name VARCHAR(50),
     record_id INT,
     old_value TEXT,
     new_value TEXT,
     ip_address VARCHAR(45),
-    timestamp TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-    FOREIGN KEY (user_id) REFERENCES User(user_id) ON DELETE SET NULL,
+    timestamp TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (log_id, timestamp),
     INDEX idx_user_action (user_id, action),
     INDEX idx_timestamp (timestamp)
+)
+PARTITION BY RANGE (UNIX_TIMESTAMP(timestamp)) (
+    PARTITION pmax VALUES LESS THAN MAXVALUE
 );
 
+-- Months older than partition.auditRetentionMonths, moved out of AuditLog
+CREATE TABLE AuditLogArchive (
+    log_id INT NOT NULL,
+    user_id INT,
+    action VARCHAR(50) NOT NULL,
+    table_name VARCHAR(50),
+    record_id INT,
+    old_value TEXT,
+    new_value TEXT,
+    ip_address VARCHAR(45),
+    timestamp TIMESTAMP NOT NULL,
+    PRIMARY KEY (log_id, timestamp),
+    INDEX idx_user (user_id),
+    INDEX idx_timestamp (timestamp)
+) ROW_FORMAT=COMPRESSED;
+
 -- ============================================
 -- TABLE 8: System Settings (New)
 -- ============================================
@@ -153,6 +221,91 @@ CREATE TABLE SystemSettings (
     FOREIGN KEY (updated_by) REFERENCES User(user_id) ON DELETE SET NULL
 );
 
+-- ============================================
+-- TABLE 9: Product Forecast (Replenishment)
+-- ============================================
+-- Fitted demand model per product (exponential smoothing and Croston), as of
+-- the last complete day folded in. Refit incrementally by the nightly
+-- replenishment run.
+CREATE TABLE ProductForecast (
+    product_id INT PRIMARY KEY,
+    as_of DATE NOT NULL,
+    smoothed_rate DOUBLE NOT NULL DEFAULT 0,     -- Smoothed units/day
+    demand_size DOUBLE NOT NULL DEFAULT 0,       -- Croston: smoothed units of a day with sales
+    demand_interval DOUBLE NOT NULL DEFAULT 1,   -- Croston: smoothed days between days with sales
+    last_demand DATE NULL,
+    mad DOUBLE NOT NULL DEFAULT 0,               -- Smoothed absolute one-day forecast error
+    FOREIGN KEY (product_id) REFERENCES Product(product_id) ON DELETE CASCADE
+);
+
+-- ============================================
+-- TABLE 10: Replenishment Runs
+-- ============================================
+-- One row per replenishment run; sales_through is the watermark for the next run
+CREATE TABLE ReplenishmentRun (
+    run_id INT PRIMARY KEY AUTO_INCREMENT,
+    started_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    finished_at TIMESTAMP NULL,
+    sales_through DATE NOT NULL,  -- Last complete sales day folded into ProductForecast
+    products_evaluated INT DEFAULT 0,
+    orders_created INT DEFAULT 0,
+    status ENUM('RUNNING', 'COMPLETED', 'PARTIAL', 'FAILED') DEFAULT 'RUNNING',
+    failed_suppliers VARCHAR(1000) NULL,  -- PARTIAL: suppliers whose orders could not be written
+    INDEX idx_run_status (status, sales_through)
+);
+
+-- ============================================
+-- TABLE 11: Product Classes (ABC/XYZ)
+-- ============================================
+-- Revenue-share (ABC) and demand-variability (XYZ) class of every product,
+-- recomputed daily by InventoryClassifier; products that did not sell are CZ
+CREATE TABLE ProductClass (
+    product_id INT PRIMARY KEY,
+    abc_class CHAR(1) NOT NULL,
+    xyz_class CHAR(1) NOT NULL,
+    revenue DECIMAL(14, 2) NOT NULL DEFAULT 0,   -- Over the classification period
+    cumulative_share DOUBLE NOT NULL DEFAULT 100,  -- % of revenue from this and better sellers
+    demand_cv DOUBLE NULL,                       -- Std. dev. / mean of units per day
+    classified_at TIMESTAMP NOT NULL,
+    INDEX idx_class (abc_class, xyz_class),
+    FOREIGN KEY (product_id) REFERENCES Product(product_id) ON DELETE CASCADE
+);
+
+-- ============================================
+-- Schema versions (MigrationRunner)
+-- ============================================
+-- Versions this script already contains; checksums are filled in at first start
+CREATE TABLE SchemaMigration (
+    version INT PRIMARY KEY,
+    description VARCHAR(200) NOT NULL,
+    checksum BIGINT NULL,
+    installed_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    execution_ms BIGINT NOT NULL DEFAULT 0
+);
+
+-- Statements completed by a migration that failed partway (resumed on the next start)
+CREATE TABLE SchemaMigrationProgress (
+    version INT NOT NULL,
+    statement_no INT NOT NULL,
+    checksum BIGINT NOT NULL,
+    applied_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (version, statement_no)
+);
+
+INSERT INTO SchemaMigration (version, description) VALUES
+(1, 'Baseline (database_schema.sql before versioning)'),
+(2, 'Product version column'),
+(3, 'Replenishment tables'),
+(4, 'Drop product audit trigger'),
+(5, 'Partition Sale and AuditLog by month'),
+(6, 'Sale covering index'),
+(7, 'Sale cost snapshots'),
+(8, 'Demand forecast'),
+(9, 'Product classes'),
+(10, 'Replenishment partial runs'),
+(11, 'Sale user index'),
+(12, 'Product updated_at index');
+
 -- ============================================
 -- INSERT SAMPLE DATA
 -- ============================================
@@ -217,6 +370,14 @@ UPDATE Product SET quantity_in_stock = quantity_in_stock - 5 WHERE product_id =
 UPDATE Product SET quantity_in_stock = quantity_in_stock - 3 WHERE product_id = 6;
 UPDATE Product SET quantity_in_stock = quantity_in_stock - 2 WHERE product_id = 11;
 
+-- Cost snapshots and margin totals of the sample sales
+UPDATE Sale s JOIN Product p ON s.product_id = p.product_id SET s.unit_cost = p.cost_price;
+INSERT INTO SalesMargin (sale_day, product_id, category_id, supplier_id, sales_count, units, revenue, cost)
+SELECT DATE(s.sale_date), s.product_id, p.category_id, p.supplier_id,
+       COUNT(*), SUM(s.quantity_sold), SUM(s.total_amount), SUM(s.quantity_sold * s.unit_cost)
+FROM Sale s JOIN Product p ON s.product_id = p.product_id
+GROUP BY DATE(s.sale_date), s.product_id, p.category_id, p.supplier_id;
+
 -- Sample System Settings
 INSERT INTO SystemSettings (setting_key, setting_value, description) VALUES
 ('LOW_STOCK_THRESHOLD', '20', 'Default low stock alert threshold'),
@@ -289,10 +450,14 @@ CREATE PROCEDURE sp_record_sale(
 )
 BEGIN
     DECLARE v_price DECIMAL(10,2);
+    DECLARE v_cost DECIMAL(10,2);
+    DECLARE v_category INT;
+    DECLARE v_supplier INT;
     DECLARE v_stock INT;
 
-    -- Get current price and stock
-    SELECT price, quantity_in_stock INTO v_price, v_stock
+    -- Get current price, cost and stock
+    SELECT price, COALESCE(cost_price, 0), category_id, supplier_id, quantity_in_stock
+    INTO v_price, v_cost, v_category, v_supplier, v_stock
     FROM Product WHERE product_id = p_product_id;
 
     -- Check stock availability
@@ -305,8 +470,14 @@ BEGIN
     START TRANSACTION;
 
     -- Insert sale
-    INSERT INTO Sale (product_id, quantity_sold, unit_price, total_amount, user_id, payment_method)
-    VALUES (p_product_id, p_quantity, v_price, v_price * p_quantity, p_user_id, p_payment_method);
+    INSERT INTO Sale (product_id, quantity_sold, unit_price, total_amount, user_id, payment_method, unit_cost)
+    VALUES (p_product_id, p_quantity, v_price, v_price * p_quantity, p_user_id, p_payment_method, v_cost);
+
+    -- Margin totals of the day
+    INSERT INTO SalesMargin (sale_day, product_id, category_id, supplier_id, sales_count, units, revenue, cost)
+    VALUES (CURRENT_DATE, p_product_id, v_category, v_supplier, 1, p_quantity, v_price * p_quantity, v_cost * p_quantity)
+    ON DUPLICATE KEY UPDATE sales_count = sales_count + 1, units = units + VALUES(units),
+        revenue = revenue + VALUES(revenue), cost = cost + VALUES(cost);
 
     -- Update stock
     UPDATE Product
@@ -321,23 +492,9 @@ DELIMITER ;
 -- TRIGGERS
 -- ============================================
 
--- Trigger: Log product updates
-DELIMITER //
-CREATE TRIGGER trg_product_update_log
-AFTER UPDATE ON Product
-FOR EACH ROW
-BEGIN
-    INSERT INTO AuditLog (user_id, action, table_name, record_id, old_value, new_value)
-    VALUES (
-        NULL,
-        'UPDATE',
-        'Product',
-        NEW.product_id,
-        CONCAT('Stock: ', OLD.quantity_in_stock, ', Price: ', OLD.price),
-        CONCAT('Stock: ', NEW.quantity_in_stock, ', Price: ', NEW.price)
-    );
-END //
-DELIMITER ;
+-- Product changes are audited by the application (AuditTrail), which knows the
+-- user making the change and writes AuditLog in batches outside the sale
+-- transaction. Existing databases: DROP TRIGGER IF EXISTS trg_product_update_log;
 
 -- ============================================
 -- SAMPLE QUERIES FOR REPORTS
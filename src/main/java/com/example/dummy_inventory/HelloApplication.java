@@ -1,6 +1,21 @@
 package com.example.dummy_inventory;
 
+import com.example.dummy_inventory.auth.AuthService;
+import com.example.dummy_inventory.auth.PasswordPolicy;
 import com.example.dummy_inventory.db.DatabaseConnection;
+import com.example.dummy_inventory.db.MigrationRunner;
+import com.example.dummy_inventory.event.ChangePoller;
+import com.example.dummy_inventory.service.AuditTrail;
+import com.example.dummy_inventory.service.InventoryClassifier;
+import com.example.dummy_inventory.service.LiveSalesAnalytics;
+import com.example.dummy_inventory.service.LowStockTracker;
+import com.example.dummy_inventory.service.PartitionMaintenance;
+import com.example.dummy_inventory.service.ReplenishmentEngine;
+import com.example.dummy_inventory.service.ReportQueries;
+import com.example.dummy_inventory.service.ReportRenderer;
+import com.example.dummy_inventory.service.ReportScheduler;
+import com.example.dummy_inventory.service.SalesMetrics;
+import com.example.dummy_inventory.util.SettingsCache;
 import javafx.application.Application;
 import javafx.application.Platform;
 import javafx.fxml.FXMLLoader;
@@ -33,6 +48,40 @@ public class HelloApplication extends Application {
         }
 
         System.out.println("✓ Database connection verified");
+
+        // Bring an existing database up to this build's schema (stops startup on failure)
+        MigrationRunner.migrate();
+
+        // Load SystemSettings once and watch updated_at for edits (0 = load only)
+        SettingsCache.getInstance().start(DatabaseConnection.getIntProperty("settings.pollSeconds", 30));
+
+        // Index products below their reorder level (screens fall back to queries if this fails)
+        LowStockTracker.getInstance().load();
+
+        // Live top sellers / distinct counts: replay the last week of sales in the background
+        LiveSalesAnalytics.getInstance().start();
+
+        // Per-minute sales counters behind the dashboard chart (fed by sale events from now on)
+        SalesMetrics.getInstance();
+
+        // Nightly purchase order generation (replenishment.runAt, blank = disabled)
+        ReplenishmentEngine.getInstance().scheduleNightly(DatabaseConnection.getProperty("replenishment.runAt", ""));
+
+        // Monthly Sale/AuditLog partitions and archiving of old months (daily, in the background)
+        PartitionMaintenance.getInstance().start();
+
+        // Precompute the standard reports at reports.precomputeAt (and now, if missed)
+        ReportScheduler.getInstance().start();
+
+        // ABC/XYZ product classes: load them, refresh if stale, then daily at classification.runAt
+        InventoryClassifier.getInstance().start();
+
+        // Optionally pick up changes made by other application nodes (0 = disabled)
+        int pollSeconds = DatabaseConnection.getIntProperty("events.pollSeconds", 0);
+        ChangePoller.getInstance().start(pollSeconds);
+
+        // Pick the BCrypt cost for this host before anyone logs in
+        PasswordPolicy.getInstance().calibrate();
     }
 
     /**
@@ -102,6 +151,18 @@ public class HelloApplication extends Application {
         System.out.println("Application stopping...");
 
         // Cleanup resources here
+        ChangePoller.getInstance().stop();
+        SettingsCache.getInstance().stop();
+        LowStockTracker.getInstance().shutdown();
+        ReplenishmentEngine.getInstance().stop();
+        PartitionMaintenance.getInstance().stop();
+        ReportQueries.getInstance().shutdown();
+        ReportScheduler.getInstance().stop();
+        InventoryClassifier.getInstance().stop();
+        ReportRenderer.getInstance().shutdown();
+        AuthService.getInstance().shutdown();
+        AuditTrail.getInstance().shutdown();   // last: flushes entries recorded by the above
+
         // If using HikariCP connection pooling:
         // DatabaseConnectionPooled.shutdown();
 
@@ -0,0 +1,277 @@
+package com.example.dummy_inventory.auth;
+
+import com.example.dummy_inventory.dao.UserDAO;
+import com.example.dummy_inventory.db.DatabaseConnection;
+import com.example.dummy_inventory.event.EventBus;
+import com.example.dummy_inventory.event.UserChanged;
+import com.example.dummy_inventory.model.User;
+import org.mindrot.jbcrypt.BCrypt;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Login verification off the UI thread with bounded CPU usage
+ *
+ * BCrypt verification is deliberately slow (~250 ms at cost 12). When many
+ * users log in at once, running each check on its own thread makes them all
+ * compete for the CPU and every login gets slower. This service:
+ * - runs verifications on a dedicated executor with a fixed number of threads
+ *   and a bounded queue (auth.parallelism, auth.queueCapacity)
+ * - remembers recently verified credentials for a short time (auth.cacheTtlSeconds)
+ *   so re-authentication / unlock skips BCrypt. Only a salted SHA-256 fingerprint
+ *   of the password and stored hash is kept, never the password itself; entries
+ *   are dropped on UserChanged events and whenever the stored hash changes
+ * - collects last_login timestamps and writes them in one batch every
+ *   auth.lastLoginFlushMillis instead of one UPDATE per login
+ * - after a successful login, upgrades hashes whose cost differs from
+ *   PasswordPolicy on a separate low-priority thread, so the user never waits
+ *   for the extra hashpw()
+ *
+ * USAGE:
+ *   User user = AuthService.getInstance().login(username, password);   // blocking
+ *   AuthService.getInstance().loginAsync(username, password).thenAccept(...);
+ */
+public final class AuthService {
+
+    private static final int MAX_CACHED_CREDENTIALS = 256;
+
+    private final UserDAO userDAO = new UserDAO();
+    private final ExecutorService executor;
+    private final ScheduledExecutorService lastLoginFlusher;
+    private final ExecutorService rehashExecutor;
+    private final long cacheTtlMillis;
+
+    // userId -> verified credential, LRU bounded
+    private final Map<Integer, VerifiedCredential> verified = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, VerifiedCredential> eldest) {
+            return size() > MAX_CACHED_CREDENTIALS;
+        }
+    };
+
+    // userId -> latest login time not yet written
+    private final Map<Integer, LocalDateTime> pendingLastLogin = new ConcurrentHashMap<>();
+
+    // Users whose hash upgrade is queued or running
+    private final Set<Integer> rehashInFlight = ConcurrentHashMap.newKeySet();
+
+    // Per-process salt so cached fingerprints are useless outside this JVM
+    private final byte[] fingerprintSalt = new byte[16];
+
+    private AuthService() {
+        int parallelism = DatabaseConnection.getIntProperty("auth.parallelism", Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
+        int queueCapacity = DatabaseConnection.getIntProperty("auth.queueCapacity", 256);
+        this.cacheTtlMillis = DatabaseConnection.getIntProperty("auth.cacheTtlSeconds", 300) * 1000L;
+        long flushMillis = DatabaseConnection.getIntProperty("auth.lastLoginFlushMillis", 2000);
+
+        this.executor = newAuthExecutor(parallelism, queueCapacity);
+        new SecureRandom().nextBytes(fingerprintSalt);
+
+        this.lastLoginFlusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "last-login-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.rehashExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "password-rehash");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        lastLoginFlusher.scheduleWithFixedDelay(this::flushLastLogins, flushMillis, flushMillis, TimeUnit.MILLISECONDS);
+
+        EventBus.getInstance().subscribe(UserChanged.class, event -> invalidateUser(event.getUserId()));
+    }
+
+    public static AuthService getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    // Created on first use, so the static helpers work without database.properties
+    private static final class Holder {
+        static final AuthService INSTANCE = new AuthService();
+    }
+
+    /**
+     * Create the bounded executor used for password verification
+     * Shared with LoginBenchmark so the benchmark measures the real configuration.
+     *
+     * @param parallelism Number of verification threads
+     * @param queueCapacity Logins allowed to wait for a thread before new ones are rejected
+     */
+    static ExecutorService newAuthExecutor(int parallelism, int queueCapacity) {
+        AtomicInteger counter = new AtomicInteger();
+        return new ThreadPoolExecutor(parallelism, parallelism, 30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "auth-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Verify credentials on the auth executor
+     *
+     * @return Future completing with the user, or null if the credentials are invalid
+     * @throws RejectedExecutionException if too many logins are already waiting
+     */
+    public CompletableFuture<User> loginAsync(String username, String password) {
+        return CompletableFuture.supplyAsync(() -> authenticate(username, password), executor);
+    }
+
+    /**
+     * Verify credentials, blocking the calling (background) thread until done
+     * Must not be called on the FX thread.
+     *
+     * @return The authenticated user, or null if the credentials are invalid
+     */
+    public User login(String username, String password) {
+        try {
+            return loginAsync(username, password).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException("Login failed", cause);
+        }
+    }
+
+    /**
+     * Forget cached credentials of a user (password change, deactivation, deletion)
+     */
+    public void invalidateUser(int userId) {
+        synchronized (verified) {
+            verified.remove(userId);
+        }
+    }
+
+    /**
+     * Write pending last_login values and stop the auth threads
+     */
+    public void shutdown() {
+        lastLoginFlusher.shutdown();
+        flushLastLogins();
+        executor.shutdown();
+        rehashExecutor.shutdown();
+    }
+
+    private User authenticate(String username, String password) {
+        User user = userDAO.findActiveUserForLogin(username);
+        if (user == null || user.getPassword() == null) {
+            return null;
+        }
+
+        byte[] fingerprint = fingerprint(user.getPassword(), password);
+        if (!isRecentlyVerified(user.getUserId(), fingerprint)) {
+            if (!BCrypt.checkpw(password, user.getPassword())) {
+                return null;
+            }
+            synchronized (verified) {
+                verified.put(user.getUserId(), new VerifiedCredential(fingerprint, System.currentTimeMillis()));
+            }
+        }
+
+        pendingLastLogin.put(user.getUserId(), LocalDateTime.now());
+        scheduleRehashIfNeeded(user.getUserId(), user.getPassword(), password);
+        return user;
+    }
+
+    /**
+     * Queue a hash upgrade when the stored cost differs from the policy cost
+     * The update only applies if the stored hash is still the one we verified,
+     * so a concurrent password change is never overwritten.
+     */
+    private void scheduleRehashIfNeeded(int userId, String storedHash, String password) {
+        if (!PasswordPolicy.getInstance().needsRehash(storedHash) || !rehashInFlight.add(userId)) {
+            return;
+        }
+        try {
+            rehashExecutor.execute(() -> {
+                try {
+                    String newHash = PasswordPolicy.getInstance().hash(password);
+                    if (userDAO.replacePasswordHash(userId, storedHash, newHash)) {
+                        System.out.println("Upgraded password hash of user " + userId
+                                + " to cost " + PasswordPolicy.getInstance().getCost());
+                    }
+                } finally {
+                    rehashInFlight.remove(userId);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Shutting down - try again on the next login
+            rehashInFlight.remove(userId);
+        }
+    }
+
+    private boolean isRecentlyVerified(int userId, byte[] fingerprint) {
+        VerifiedCredential credential;
+        synchronized (verified) {
+            credential = verified.get(userId);
+        }
+        return credential != null
+                && System.currentTimeMillis() - credential.verifiedAt < cacheTtlMillis
+                && MessageDigest.isEqual(credential.fingerprint, fingerprint);
+    }
+
+    /**
+     * Salted SHA-256 over the stored hash and the candidate password
+     * Including the stored hash means a password changed elsewhere never matches.
+     */
+    private byte[] fingerprint(String storedHash, String password) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(fingerprintSalt);
+            digest.update(storedHash.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(password.getBytes(StandardCharsets.UTF_8));
+            return digest.digest();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private void flushLastLogins() {
+        if (pendingLastLogin.isEmpty()) {
+            return;
+        }
+
+        Map<Integer, LocalDateTime> batch = new HashMap<>();
+        for (Integer userId : pendingLastLogin.keySet()) {
+            LocalDateTime time = pendingLastLogin.remove(userId);
+            if (time != null) {
+                batch.put(userId, time);
+            }
+        }
+
+        if (!batch.isEmpty() && !userDAO.updateLastLogins(batch)) {
+            // Keep them for the next attempt unless a newer login replaced them
+            batch.forEach(pendingLastLogin::putIfAbsent);
+        }
+    }
+
+    private static final class VerifiedCredential {
+        final byte[] fingerprint;
+        final long verifiedAt;
+
+        VerifiedCredential(byte[] fingerprint, long verifiedAt) {
+            this.fingerprint = fingerprint;
+            this.verifiedAt = verifiedAt;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.dummy_inventory.auth;
+
+import org.mindrot.jbcrypt.BCrypt;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Login throughput benchmark for the shift-change case (many logins at once)
+ *
+ * Compares the old model (one thread per login, all verifying at the same time)
+ * with the bounded auth executor used by AuthService. Only the BCrypt check is
+ * measured - it dominates login time - so no database is needed.
+ *
+ * RUN:
+ *   java -cp <classpath> com.example.dummy_inventory.auth.LoginBenchmark [logins] [cost] [parallelism]
+ *   defaults: 40 logins, cost 12, parallelism = CPU cores - 1
+ *
+ * Reports total wall time, logins/second and p50/p95/max latency per login
+ * (measured from the moment the login was requested).
+ */
+public class LoginBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int logins = args.length > 0 ? Integer.parseInt(args[0]) : 40;
+        int cost = args.length > 1 ? Integer.parseInt(args[1]) : 12;
+        int parallelism = args.length > 2 ? Integer.parseInt(args[2])
+                : Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+
+        String password = "shift-change-password";
+        String hash = BCrypt.hashpw(password, BCrypt.gensalt(cost));
+
+        System.out.println(String.format("Login benchmark: %d logins, cost %d, %d cores, auth parallelism %d",
+                logins, cost, Runtime.getRuntime().availableProcessors(), parallelism));
+
+        // Warm up JIT on the BCrypt code path
+        for (int i = 0; i < 3; i++) {
+            BCrypt.checkpw(password, hash);
+        }
+
+        report("thread per login", threadPerLogin(logins, password, hash));
+        report("bounded executor", boundedExecutor(logins, parallelism, password, hash));
+    }
+
+    private static Result threadPerLogin(int logins, String password, String hash) throws InterruptedException {
+        long[] latencies = new long[logins];
+        CountDownLatch done = new CountDownLatch(logins);
+        long start = System.nanoTime();
+
+        for (int i = 0; i < logins; i++) {
+            int index = i;
+            Thread thread = new Thread(() -> {
+                BCrypt.checkpw(password, hash);
+                latencies[index] = System.nanoTime() - start;
+                done.countDown();
+            });
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        done.await();
+        return new Result(System.nanoTime() - start, latencies);
+    }
+
+    private static Result boundedExecutor(int logins, int parallelism, String password, String hash) throws Exception {
+        ExecutorService executor = AuthService.newAuthExecutor(parallelism, logins);
+        long[] latencies = new long[logins];
+        List<Future<?>> futures = new ArrayList<>();
+        long start = System.nanoTime();
+
+        for (int i = 0; i < logins; i++) {
+            int index = i;
+            futures.add(executor.submit(() -> {
+                BCrypt.checkpw(password, hash);
+                latencies[index] = System.nanoTime() - start;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+
+        long elapsed = System.nanoTime() - start;
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+        return new Result(elapsed, latencies);
+    }
+
+    private static void report(String label, Result result) {
+        long[] sorted = result.latencies.clone();
+        Arrays.sort(sorted);
+        double seconds = result.elapsedNanos / 1_000_000_000.0;
+
+        System.out.println(String.format("%-18s total %6.2f s, %6.1f logins/s, p50 %6.0f ms, p95 %6.0f ms, max %6.0f ms",
+                label, seconds, sorted.length / seconds,
+                millis(sorted[sorted.length / 2]),
+                millis(sorted[Math.min(sorted.length - 1, (int) Math.ceil(sorted.length * 0.95) - 1)]),
+                millis(sorted[sorted.length - 1])));
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static final class Result {
+        final long elapsedNanos;
+        final long[] latencies;
+
+        Result(long elapsedNanos, long[] latencies) {
+            this.elapsedNanos = elapsedNanos;
+            this.latencies = latencies;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.dummy_inventory.auth;
+
+import com.example.dummy_inventory.db.DatabaseConnection;
+import org.mindrot.jbcrypt.BCrypt;
+
+/**
+ * Chooses the BCrypt cost for new password hashes
+ *
+ * Instead of a hardcoded cost, the host is benchmarked once at startup and the
+ * highest cost whose verification stays within auth.bcrypt.targetMillis is
+ * used (clamped to auth.bcrypt.minCost..maxCost). Each cost step doubles the
+ * work, so one measurement at the minimum cost is enough to extrapolate.
+ * Setting auth.bcrypt.cost skips the benchmark and forces a cost.
+ *
+ * Existing hashes with a different cost are upgraded by AuthService after the
+ * next successful login (see needsRehash()).
+ *
+ * USAGE:
+ *   PasswordPolicy.getInstance().calibrate();          // once, at startup
+ *   String hash = PasswordPolicy.getInstance().hash(plainPassword);
+ */
+public final class PasswordPolicy {
+
+    private static final int DEFAULT_COST = 12;
+    private static final String SAMPLE_PASSWORD = "calibration-sample";
+
+    private volatile int cost = DEFAULT_COST;
+    private volatile boolean calibrated = false;
+
+    private PasswordPolicy() {
+    }
+
+    public static PasswordPolicy getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    private static final class Holder {
+        static final PasswordPolicy INSTANCE = new PasswordPolicy();
+    }
+
+    /**
+     * Pick the cost for this host; safe to call more than once
+     */
+    public synchronized void calibrate() {
+        int minCost = DatabaseConnection.getIntProperty("auth.bcrypt.minCost", 10);
+        int maxCost = DatabaseConnection.getIntProperty("auth.bcrypt.maxCost", 14);
+        int fixedCost = DatabaseConnection.getIntProperty("auth.bcrypt.cost", 0);
+        long targetMillis = DatabaseConnection.getIntProperty("auth.bcrypt.targetMillis", 250);
+
+        if (fixedCost > 0) {
+            cost = clamp(fixedCost, 4, 31);
+        } else {
+            cost = benchmarkCost(targetMillis, minCost, maxCost);
+        }
+        calibrated = true;
+        System.out.println("✓ BCrypt cost " + cost + " (target " + targetMillis + " ms per verification)");
+    }
+
+    /**
+     * Measure verification time at minCost and extrapolate to the target latency
+     *
+     * @return Highest cost in [minCost, maxCost] expected to verify within targetMillis
+     */
+    static int benchmarkCost(long targetMillis, int minCost, int maxCost) {
+        String hash = BCrypt.hashpw(SAMPLE_PASSWORD, BCrypt.gensalt(minCost));
+        BCrypt.checkpw(SAMPLE_PASSWORD, hash); // warm-up
+
+        int runs = 3;
+        long start = System.nanoTime();
+        for (int i = 0; i < runs; i++) {
+            BCrypt.checkpw(SAMPLE_PASSWORD, hash);
+        }
+        double millisAtMin = (System.nanoTime() - start) / 1_000_000.0 / runs;
+
+        int chosen = minCost;
+        double expected = millisAtMin;
+        while (chosen < maxCost && expected * 2 <= targetMillis) {
+            expected *= 2;
+            chosen++;
+        }
+        return chosen;
+    }
+
+    /**
+     * Current cost for new hashes
+     */
+    public int getCost() {
+        return cost;
+    }
+
+    public boolean isCalibrated() {
+        return calibrated;
+    }
+
+    /**
+     * Hash a password with the current cost
+     */
+    public String hash(String plainTextPassword) {
+        return BCrypt.hashpw(plainTextPassword, BCrypt.gensalt(cost));
+    }
+
+    /**
+     * True when a stored hash was made with a different cost than the current one
+     * Only meaningful after calibrate(); before that nothing is rehashed.
+     */
+    public boolean needsRehash(String storedHash) {
+        if (!calibrated) {
+            return false;
+        }
+        int storedCost = costOf(storedHash);
+        return storedCost > 0 && storedCost != cost;
+    }
+
+    /**
+     * Read the cost from a "$2a$10$..." hash
+     *
+     * @return The cost, or -1 if the hash is not in BCrypt format
+     */
+    static int costOf(String hash) {
+        if (hash == null || hash.length() < 7 || hash.charAt(0) != '$' || hash.charAt(3) != '$' || hash.charAt(6) != '$') {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(hash.substring(4, 6));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static int clamp(int value, int min, int max) {
+        return Math.max(min, Math.min(max, value));
+    }
+}
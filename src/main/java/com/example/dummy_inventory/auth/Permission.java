@@ -0,0 +1,34 @@
+package com.example.dummy_inventory.auth;
+
+import com.example.dummy_inventory.model.User;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Actions guarded by role
+ * Mirrors the can*() checks on User, resolved once per session instead of per check.
+ */
+public enum Permission {
+    MANAGE_USERS,
+    VIEW_REPORTS,
+    MANAGE_INVENTORY;
+
+    private static final Map<User.Role, Set<Permission>> BY_ROLE = new EnumMap<>(User.Role.class);
+
+    static {
+        BY_ROLE.put(User.Role.ADMIN, Collections.unmodifiableSet(EnumSet.allOf(Permission.class)));
+        BY_ROLE.put(User.Role.MANAGER, Collections.unmodifiableSet(EnumSet.of(VIEW_REPORTS, MANAGE_INVENTORY)));
+        BY_ROLE.put(User.Role.USER, Collections.unmodifiableSet(EnumSet.noneOf(Permission.class)));
+    }
+
+    /**
+     * Permissions granted to a role (shared, unmodifiable)
+     */
+    public static Set<Permission> forRole(User.Role role) {
+        return role == null ? BY_ROLE.get(User.Role.USER) : BY_ROLE.get(role);
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.dummy_inventory.auth;
+
+import com.example.dummy_inventory.model.User;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+/**
+ * One logged-in user, as tracked by SessionManager
+ * The user snapshot and permission set are refreshed when the account changes,
+ * so permission checks never need to re-query the User table.
+ */
+public final class Session {
+
+    private final String id;
+    private final String token;
+    private final LocalDateTime createdAt = LocalDateTime.now();
+
+    private volatile User user;
+    private volatile Set<Permission> permissions;
+    private volatile long lastActivityMillis = System.currentTimeMillis();
+
+    Session(String id, String token, User user) {
+        this.id = id;
+        this.token = token;
+        refresh(user);
+    }
+
+    String getId() {
+        return id;
+    }
+
+    /**
+     * Signed token identifying this session
+     */
+    public String getToken() {
+        return token;
+    }
+
+    public User getUser() {
+        return user;
+    }
+
+    public int getUserId() {
+        return user.getUserId();
+    }
+
+    public Set<Permission> getPermissions() {
+        return permissions;
+    }
+
+    public boolean hasPermission(Permission permission) {
+        return permissions.contains(permission);
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    long getLastActivityMillis() {
+        return lastActivityMillis;
+    }
+
+    void touch() {
+        lastActivityMillis = System.currentTimeMillis();
+    }
+
+    void refresh(User user) {
+        this.user = user;
+        this.permissions = Permission.forRole(user.getRole());
+    }
+}
@@ -0,0 +1,279 @@
+package com.example.dummy_inventory.auth;
+
+import com.example.dummy_inventory.dao.UserDAO;
+import com.example.dummy_inventory.event.EventBus;
+import com.example.dummy_inventory.event.UserChanged;
+import com.example.dummy_inventory.model.User;
+import com.example.dummy_inventory.service.AuditTrail;
+import com.example.dummy_inventory.util.SettingsCache;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * In-memory sessions for logged-in users
+ *
+ * A session is created at login and identified by a signed token
+ * ("<random id>.<HMAC-SHA256 of id>", key generated per process), so a token
+ * that was not issued by this process is rejected without a lookup.
+ *
+ * Each session caches the user and the role's permission set, so checks such as
+ * hasPermission(Permission.VIEW_REPORTS) are a set lookup instead of relying on a
+ * stale User object or re-querying the User table. The cache is kept correct
+ * through UserChanged events: deleted users lose their sessions immediately;
+ * updated users are reloaded once on a background thread (the event may be
+ * published on the FX thread), and lose their sessions if deactivated.
+ *
+ * Sessions expire after SESSION_TIMEOUT minutes (SystemSettings) without
+ * activity; 0 disables the timeout. Activity is recorded by touch(), which the
+ * main scene calls on user input; input after the timeout ends the session
+ * instead of renewing it. The main scene also calls expireIfIdle() periodically
+ * and returns to the login screen once it reports no live session. Background
+ * code that only needs to know who is logged in (e.g. the audit writer) uses
+ * peekUser(), which is not activity.
+ *
+ * USAGE:
+ *   SessionManager.getInstance().open(user);                          // after login
+ *   if (SessionManager.getInstance().hasPermission(Permission.VIEW_REPORTS)) { ... }
+ *   SessionManager.getInstance().close();                             // logout
+ */
+public final class SessionManager {
+
+    private final UserDAO userDAO = new UserDAO();
+    private final SecureRandom random = new SecureRandom();
+    private final byte[] signingKey = new byte[32];
+
+    // session id -> session
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+
+    private volatile Session current;
+
+    // Reloads users named by UserChanged events off the publishing thread
+    private final ExecutorService refresher = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "session-refresh");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private SessionManager() {
+        random.nextBytes(signingKey);
+        EventBus.getInstance().subscribe(UserChanged.class, this::onUserChanged);
+    }
+
+    public static SessionManager getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    private static final class Holder {
+        static final SessionManager INSTANCE = new SessionManager();
+    }
+
+    /**
+     * Start a session for an authenticated user and make it the current one
+     */
+    public Session open(User user) {
+        byte[] idBytes = new byte[16];
+        random.nextBytes(idBytes);
+        String id = Base64.getUrlEncoder().withoutPadding().encodeToString(idBytes);
+
+        Session session = new Session(id, id + "." + sign(id), user);
+        sessions.put(id, session);
+
+        Session previous = current;
+        current = session;
+        if (previous != null) {
+            sessions.remove(previous.getId());
+        }
+        AuditTrail.getInstance().record(user.getUserId(), AuditTrail.LOGIN, "User", user.getUserId(), null, null);
+        return session;
+    }
+
+    /**
+     * Look up a session by token, rejecting forged, unknown or idle-expired tokens
+     * A successful lookup counts as activity.
+     *
+     * @return The session, or null if the token is not valid
+     */
+    public Session validate(String token) {
+        if (token == null) {
+            return null;
+        }
+        int dot = token.indexOf('.');
+        if (dot <= 0) {
+            return null;
+        }
+
+        String id = token.substring(0, dot);
+        byte[] expected = sign(id).getBytes(StandardCharsets.US_ASCII);
+        byte[] actual = token.substring(dot + 1).getBytes(StandardCharsets.US_ASCII);
+        if (!MessageDigest.isEqual(expected, actual)) {
+            return null;
+        }
+
+        Session session = sessions.get(id);
+        if (session == null) {
+            return null;
+        }
+        if (isExpired(session)) {
+            expire(session);
+            return null;
+        }
+        session.touch();
+        return session;
+    }
+
+    /**
+     * The current session, or null if nobody is logged in or it has expired
+     */
+    public Session current() {
+        Session session = current;
+        return session == null ? null : validate(session.getToken());
+    }
+
+    /**
+     * The user of the current session, or null
+     */
+    public User currentUser() {
+        Session session = current();
+        return session == null ? null : session.getUser();
+    }
+
+    /**
+     * The user of the current session without counting as activity, or null if
+     * nobody is logged in or the session has expired
+     */
+    public User peekUser() {
+        Session session = current;
+        if (session == null || isExpired(session)) {
+            return null;
+        }
+        return session.getUser();
+    }
+
+    /**
+     * True if there is a live session whose role grants the permission
+     */
+    public boolean hasPermission(Permission permission) {
+        Session session = current();
+        return session != null && session.hasPermission(permission);
+    }
+
+    /**
+     * Record user activity on the current session (cheap enough for input event filters)
+     * An idle-expired session is ended rather than renewed.
+     */
+    public void touch() {
+        Session session = current;
+        if (session == null) {
+            return;
+        }
+        if (isExpired(session)) {
+            expire(session);
+        } else {
+            session.touch();
+        }
+    }
+
+    /**
+     * End the current session if it has been idle longer than SESSION_TIMEOUT
+     * Does not count as activity.
+     *
+     * @return true if there is no live session (expired now or earlier, closed, or never opened)
+     */
+    public boolean expireIfIdle() {
+        Session session = current;
+        if (session == null) {
+            return true;
+        }
+        if (isExpired(session)) {
+            expire(session);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * End the current session (logout)
+     */
+    public void close() {
+        Session session = current;
+        current = null;
+        if (session != null) {
+            sessions.remove(session.getId());
+            AuditTrail.getInstance().record(session.getUserId(), AuditTrail.LOGOUT, "User", session.getUserId(),
+                    null, null);
+        }
+    }
+
+    private boolean isExpired(Session session) {
+        long timeout = Math.max(0, SettingsCache.get().getSessionTimeoutMinutes()) * 60_000L;
+        return timeout > 0 && System.currentTimeMillis() - session.getLastActivityMillis() > timeout;
+    }
+
+    private void expire(Session session) {
+        sessions.remove(session.getId());
+        if (current == session) {
+            current = null;
+            System.out.println("Session expired for user: " + session.getUser().getUsername());
+        }
+    }
+
+    private void onUserChanged(UserChanged event) {
+        int userId = event.getUserId();
+        if (event.getKind() == UserChanged.Kind.DELETED) {
+            for (Session session : sessions.values()) {
+                if (session.getUserId() == userId) {
+                    expire(session);
+                }
+            }
+        } else if (event.getKind() == UserChanged.Kind.UPDATED && hasSessionFor(userId)) {
+            refresher.execute(() -> reloadUser(userId));
+        }
+    }
+
+    private boolean hasSessionFor(int userId) {
+        for (Session session : sessions.values()) {
+            if (session.getUserId() == userId) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Runs on the refresher thread
+     */
+    private void reloadUser(int userId) {
+        User fresh = userDAO.getUserById(userId);
+        for (Session session : sessions.values()) {
+            if (session.getUserId() != userId) {
+                continue;
+            }
+            if (fresh == null || !fresh.isActive()) {
+                expire(session);
+            } else {
+                session.refresh(fresh);
+            }
+        }
+    }
+
+    private String sign(String id) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(signingKey, "HmacSHA256"));
+            byte[] signature = mac.doFinal(id.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(signature);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 not available", e);
+        }
+    }
+}
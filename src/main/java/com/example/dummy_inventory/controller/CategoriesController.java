@@ -2,8 +2,11 @@ package com.example.dummy_inventory.controller;
 
 import com.example.dummy_inventory.dao.CategoryDAO;
 import com.example.dummy_inventory.model.Category;
+import com.example.dummy_inventory.util.KeyedListUpdater;
+import com.example.dummy_inventory.util.LiveSearch;
 
 import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
@@ -11,6 +14,7 @@ import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.scene.paint.Color;
 
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 
 /**
@@ -32,7 +36,9 @@ public class CategoriesController {
     @FXML private Label totalLabel;
     @FXML private Button saveButton;
 
-    private ObservableList<Category> categoryList;
+    private final ObservableList<Category> categoryList = FXCollections.observableArrayList();
+    private KeyedListUpdater<Category, Integer> categoryUpdater;
+    private LiveSearch<Category, Integer> liveSearch;
     private Category selectedCategory = null;
     private boolean isEditMode = false;
 
@@ -42,8 +48,10 @@ public class CategoriesController {
     @FXML
     public void initialize() {
         setupTableColumns();
+        setupTableItems();
         loadCategories();
         setupTableSelection();
+        setupSearchListener();
     }
 
     /**
@@ -55,6 +63,27 @@ public class CategoriesController {
         colDescription.setCellValueFactory(new PropertyValueFactory<>("description"));
     }
 
+    /**
+     * Bind the table to a single long-lived list that is updated row by row
+     */
+    private void setupTableItems() {
+        categoryTable.setItems(categoryList);
+        categoryUpdater = new KeyedListUpdater<>(categoryList, Category::getCategoryId,
+                (a, b) -> Objects.equals(a.getName(), b.getName())
+                        && Objects.equals(a.getDescription(), b.getDescription()));
+        categoryList.addListener((ListChangeListener<Category>) change -> updateTotalLabel());
+    }
+
+    /**
+     * Setup real-time search - debounced, streamed, cancels superseded queries
+     */
+    private void setupSearchListener() {
+        liveSearch = new LiveSearch<>(searchField, categoryUpdater, categoryDAO::streamSearchCategories,
+                this::loadCategories,
+                (term, count) -> setStatus("Found " + count + " category(ies)", true),
+                term -> setStatus("Search failed - check the database connection", false));
+    }
+
     /**
      * Setup table row selection listener
      */
@@ -80,9 +109,7 @@ public class CategoriesController {
      */
     private void loadCategories() {
         List<Category> categories = categoryDAO.getAllCategories();
-        categoryList = FXCollections.observableArrayList(categories);
-        categoryTable.setItems(categoryList);
-        updateTotalLabel();
+        categoryUpdater.replaceAll(categories);
         setStatus("Categories loaded", true);
     }
 
@@ -134,10 +161,11 @@ public class CategoriesController {
             selectedCategory.setDescription(description);
 
             if (categoryDAO.updateCategory(selectedCategory)) {
+                categoryUpdater.upsert(selectedCategory);
+                liveSearch.invalidate();
                 showAlert(Alert.AlertType.INFORMATION, "Success", "Category updated successfully!");
                 setStatus("Category updated: " + name, true);
                 clearForm();
-                loadCategories();
             } else {
                 showAlert(Alert.AlertType.ERROR, "Error", "Failed to update category.");
                 setStatus("Failed to update category", false);
@@ -147,10 +175,11 @@ public class CategoriesController {
             Category newCategory = new Category(name, description);
 
             if (categoryDAO.createCategory(newCategory)) {
+                categoryUpdater.upsert(newCategory);
+                liveSearch.invalidate();
                 showAlert(Alert.AlertType.INFORMATION, "Success", "Category added successfully!");
                 setStatus("Category added: " + name, true);
                 clearForm();
-                loadCategories();
             } else {
                 showAlert(Alert.AlertType.ERROR, "Error", "Failed to add category.");
                 setStatus("Failed to add category", false);
@@ -177,10 +206,11 @@ public class CategoriesController {
         Optional<ButtonType> result = confirm.showAndWait();
         if (result.isPresent() && result.get() == ButtonType.OK) {
             if (categoryDAO.deleteCategory(selectedCategory.getCategoryId())) {
+                categoryUpdater.remove(selectedCategory.getCategoryId());
+                liveSearch.invalidate();
                 showAlert(Alert.AlertType.INFORMATION, "Success", "Category deleted successfully!");
                 setStatus("Category deleted", true);
                 clearForm();
-                loadCategories();
                 selectedCategory = null;
             } else {
                 showAlert(Alert.AlertType.ERROR, "Error", "Cannot delete. Category may be in use by products.");
@@ -203,18 +233,7 @@ public class CategoriesController {
      */
     @FXML
     private void handleSearch() {
-        String searchTerm = searchField.getText().trim();
-
-        if (searchTerm.isEmpty()) {
-            loadCategories();
-            return;
-        }
-
-        List<Category> results = categoryDAO.searchCategories(searchTerm);
-        categoryList = FXCollections.observableArrayList(results);
-        categoryTable.setItems(categoryList);
-        updateTotalLabel();
-        setStatus("Found " + results.size() + " category(ies)", true);
+        liveSearch.searchNow();
     }
 
     /**
@@ -1,25 +1,46 @@
 package com.example.dummy_inventory.controller;
 
+import com.example.dummy_inventory.auth.SessionManager;
 import com.example.dummy_inventory.db.DatabaseConnection;
+import com.example.dummy_inventory.event.EventBus;
+import com.example.dummy_inventory.event.LowStockChanged;
+import com.example.dummy_inventory.event.SaleRecorded;
+import com.example.dummy_inventory.event.SaleReversed;
+import com.example.dummy_inventory.model.LowStockItem;
+import com.example.dummy_inventory.model.ProductSales;
 import com.example.dummy_inventory.model.User;
+import com.example.dummy_inventory.service.LiveSalesAnalytics;
+import com.example.dummy_inventory.service.LowStockTracker;
+import com.example.dummy_inventory.service.SalesMetrics;
+import com.example.dummy_inventory.util.CellFormat;
+import com.example.dummy_inventory.util.SettingsCache;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
 import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
+import javafx.scene.chart.AreaChart;
+import javafx.scene.chart.XYChart;
 import javafx.scene.control.Button;
+import javafx.scene.control.ComboBox;
 import javafx.scene.control.Label;
 import javafx.scene.layout.StackPane;
 import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
+import javafx.util.Duration;
 
 import java.io.IOException;
 import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -81,6 +102,26 @@ public class DashboardController {
     @FXML
     private Label lowStockLabel;
 
+    // Live sales chart
+    @FXML
+    private ComboBox<String> liveMetricComboBox;
+
+    @FXML
+    private Label liveMetricsLabel;
+
+    @FXML
+    private AreaChart<Number, Number> liveSalesChart;
+
+    // Live top sellers panel
+    @FXML
+    private ComboBox<LiveSalesAnalytics.Window> salesWindowComboBox;
+
+    @FXML
+    private Label liveSalesSummaryLabel;
+
+    @FXML
+    private Label topSellersLabel;
+
     // Status bar
     @FXML
     private Label statusLabel;
@@ -88,6 +129,27 @@ public class DashboardController {
     // Store current user
     private User currentUser;
 
+    private EventBus.Subscription lowStockSubscription;
+    private final List<EventBus.Subscription> salesSubscriptions = new ArrayList<>();
+
+    // Redraws the top sellers once a minute, so sales that slide out of the window disappear
+    private Timeline topSellersClock;
+    private final AtomicBoolean topSellersRedrawPending = new AtomicBoolean();
+
+    // One data point per minute; only their y values change on redraw
+    private final XYChart.Series<Number, Number> liveSalesSeries = new XYChart.Series<>();
+    private Timeline liveSalesClock;
+
+    // Returns to the login screen once the session has idled past SESSION_TIMEOUT
+    private Timeline sessionClock;
+
+    private static final String METRIC_REVENUE = "Revenue";
+    private static final String METRIC_UNITS = "Units";
+    private static final String METRIC_TRANSACTIONS = "Transactions";
+
+    private static final int LOW_STOCK_PANEL_SIZE = 5;
+    private static final int TOP_SELLERS_PANEL_SIZE = 5;
+
     /**
      * Initialize method - called after FXML is loaded
      */
@@ -103,6 +165,24 @@ public class DashboardController {
         // Load dashboard statistics
         loadDashboardStats();
 
+        // Redraw the low stock panel whenever the low stock list changes, while the dashboard pane is shown
+        startLowStockUpdates();
+        lowStockLabel.sceneProperty().addListener((observable, oldScene, newScene) -> {
+            if (newScene == null) {
+                stopLowStockUpdates();
+            } else {
+                startLowStockUpdates();
+                refreshLowStockPanel();
+            }
+        });
+
+        setupLiveSalesChart();
+        setupTopSellersPanel();
+
+        sessionClock = new Timeline(new KeyFrame(Duration.seconds(10), e -> checkSessionExpiry()));
+        sessionClock.setCycleCount(Timeline.INDEFINITE);
+        sessionClock.play();
+
         // Set dashboard as active tab
         setActiveTab(btnDashboard);
 
@@ -117,7 +197,7 @@ public class DashboardController {
      */
     private void loadDashboardStats() {
         new Thread(() -> {
-            try (Connection conn = DatabaseConnection.getConnection();
+            try (Connection conn = DatabaseConnection.getReadConnection();
                  Statement stmt = conn.createStatement()) {
 
                 // Get total products
@@ -144,23 +224,10 @@ public class DashboardController {
                     totalSales = rs4.next() ? rs4.getInt("count") : 0;
                 }
 
-                // Get low stock products (quantity < 20)
-                final StringBuilder lowStockText = new StringBuilder();
-                try (ResultSet rs5 = stmt.executeQuery(
-                        "SELECT name, quantity_in_stock FROM Product " +
-                                "WHERE quantity_in_stock < 20 ORDER BY quantity_in_stock ASC LIMIT 5")) {
-
-                    if (!rs5.next()) {
-                        lowStockText.append("All products are well stocked! ✓");
-                    } else {
-                        do {
-                            lowStockText.append(String.format("• %s (Stock: %d)\n",
-                                    rs5.getString("name"),
-                                    rs5.getInt("quantity_in_stock")
-                            ));
-                        } while (rs5.next());
-                    }
-                }
+                // Get the 5 most urgent low stock products (in memory unless the index failed to load)
+                final String lowStockText = formatLowStock(LowStockTracker.getInstance().isLoaded()
+                        ? LowStockTracker.getInstance().top(LOW_STOCK_PANEL_SIZE)
+                        : queryLowStock(conn));
 
                 // Update UI on JavaFX thread
                 Platform.runLater(() -> {
@@ -168,7 +235,7 @@ public class DashboardController {
                     totalCategoriesLabel.setText(String.valueOf(totalCategories));
                     totalSuppliersLabel.setText(String.valueOf(totalSuppliers));
                     totalSalesLabel.setText(String.valueOf(totalSales));
-                    lowStockLabel.setText(lowStockText.toString());
+                    lowStockLabel.setText(lowStockText);
                 });
 
             } catch (SQLException e) {
@@ -179,6 +246,199 @@ public class DashboardController {
         }).start();
     }
 
+    private void startLowStockUpdates() {
+        if (lowStockSubscription == null) {
+            lowStockSubscription = EventBus.getInstance().subscribe(LowStockChanged.class,
+                    e -> Platform.runLater(this::refreshLowStockPanel));
+        }
+    }
+
+    private void stopLowStockUpdates() {
+        if (lowStockSubscription != null) {
+            lowStockSubscription.close();
+            lowStockSubscription = null;
+        }
+    }
+
+    /**
+     * Redraw the low stock panel from the in-memory index (no query)
+     */
+    private void refreshLowStockPanel() {
+        if (LowStockTracker.getInstance().isLoaded()) {
+            lowStockLabel.setText(formatLowStock(LowStockTracker.getInstance().top(LOW_STOCK_PANEL_SIZE)));
+        }
+    }
+
+    /**
+     * Per-minute chart of the last hour, drawn from SalesMetrics every two seconds
+     */
+    private void setupLiveSalesChart() {
+        liveMetricComboBox.getItems().setAll(METRIC_REVENUE, METRIC_UNITS, METRIC_TRANSACTIONS);
+        liveMetricComboBox.setValue(METRIC_REVENUE);
+        liveMetricComboBox.valueProperty().addListener((observable, oldMetric, newMetric) -> refreshLiveSalesChart());
+
+        for (int i = 0; i < SalesMetrics.MINUTES; i++) {
+            liveSalesSeries.getData().add(new XYChart.Data<>(i - (SalesMetrics.MINUTES - 1), 0));
+        }
+        liveSalesChart.getData().add(liveSalesSeries);
+
+        liveSalesClock = new Timeline(new KeyFrame(Duration.seconds(2), e -> refreshLiveSalesChart()));
+        liveSalesClock.setCycleCount(Timeline.INDEFINITE);
+        liveSalesClock.play();
+        // The dashboard pane is detached while another view is shown and put back by showDashboard()
+        liveSalesChart.sceneProperty().addListener((observable, oldScene, newScene) -> {
+            if (newScene == null) {
+                liveSalesClock.stop();
+            } else {
+                refreshLiveSalesChart();
+                liveSalesClock.play();
+            }
+        });
+        refreshLiveSalesChart();
+    }
+
+    private void refreshLiveSalesChart() {
+        SalesMetrics.Minute[] minutes = SalesMetrics.getInstance().lastHour();
+        String metric = liveMetricComboBox.getValue();
+
+        double revenue = 0;
+        long units = 0;
+        long transactions = 0;
+        for (int i = 0; i < minutes.length; i++) {
+            SalesMetrics.Minute minute = minutes[i];
+            revenue += minute.getRevenue();
+            units += minute.getUnits();
+            transactions += minute.getTransactions();
+
+            Number value;
+            if (METRIC_UNITS.equals(metric)) {
+                value = minute.getUnits();
+            } else if (METRIC_TRANSACTIONS.equals(metric)) {
+                value = minute.getTransactions();
+            } else {
+                value = minute.getRevenue();
+            }
+            XYChart.Data<Number, Number> point = liveSalesSeries.getData().get(i);
+            if (!value.equals(point.getYValue())) {
+                point.setYValue(value);
+            }
+        }
+
+        liveMetricsLabel.setText(String.format("%d sales · %d units · %s in the last hour · this minute: %s",
+                transactions, units, CellFormat.currency(revenue),
+                CellFormat.currency(minutes[minutes.length - 1].getRevenue())));
+    }
+
+    /**
+     * Live top sellers from LiveSalesAnalytics; redrawn after sales (a burst of sales
+     * gives one redraw) and every minute, without querying the database
+     */
+    private void setupTopSellersPanel() {
+        salesWindowComboBox.getItems().setAll(LiveSalesAnalytics.Window.values());
+        salesWindowComboBox.setValue(LiveSalesAnalytics.Window.LAST_DAY);
+        salesWindowComboBox.valueProperty().addListener((observable, oldWindow, newWindow) -> refreshTopSellersPanel());
+
+        topSellersClock = new Timeline(new KeyFrame(Duration.minutes(1), e -> refreshTopSellersPanel()));
+        topSellersClock.setCycleCount(Timeline.INDEFINITE);
+
+        // Only follow sales while the dashboard pane is shown
+        topSellersLabel.sceneProperty().addListener((observable, oldScene, newScene) -> {
+            if (newScene == null) {
+                stopTopSellersUpdates();
+            } else {
+                startTopSellersUpdates();
+            }
+        });
+        startTopSellersUpdates();
+    }
+
+    private void startTopSellersUpdates() {
+        if (salesSubscriptions.isEmpty()) {
+            EventBus bus = EventBus.getInstance();
+            salesSubscriptions.add(bus.subscribe(SaleRecorded.class, e -> requestTopSellersRedraw()));
+            salesSubscriptions.add(bus.subscribe(SaleReversed.class, e -> requestTopSellersRedraw()));
+        }
+        topSellersClock.play();
+        refreshTopSellersPanel();
+    }
+
+    private void stopTopSellersUpdates() {
+        salesSubscriptions.forEach(EventBus.Subscription::close);
+        salesSubscriptions.clear();
+        topSellersClock.stop();
+    }
+
+    /**
+     * Called from the publishing thread; coalesces a burst of sales into one redraw
+     */
+    private void requestTopSellersRedraw() {
+        if (topSellersRedrawPending.compareAndSet(false, true)) {
+            Platform.runLater(() -> {
+                topSellersRedrawPending.set(false);
+                refreshTopSellersPanel();
+            });
+        }
+    }
+
+    private void refreshTopSellersPanel() {
+        LiveSalesAnalytics analytics = LiveSalesAnalytics.getInstance();
+        LiveSalesAnalytics.Snapshot snapshot = analytics.snapshot(salesWindowComboBox.getValue(), TOP_SELLERS_PANEL_SIZE);
+
+        liveSalesSummaryLabel.setText(String.format("%d sales · %d units · %s · ~%d products · ~%d cashiers%s",
+                snapshot.getSales(), snapshot.getUnits(), CellFormat.currency(snapshot.getRevenue()),
+                snapshot.getDistinctProducts(), snapshot.getDistinctCashiers(),
+                analytics.isLoaded() ? "" : " (loading history...)"));
+
+        List<ProductSales> top = snapshot.getTopSellers();
+        if (top.isEmpty()) {
+            topSellersLabel.setText("No sales in this period");
+            return;
+        }
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < top.size() && i < TOP_SELLERS_PANEL_SIZE; i++) {
+            ProductSales product = top.get(i);
+            text.append(String.format("%d. %s (%d sold, %s)\n", i + 1, product.getProductName(),
+                    product.getQuantitySold(), CellFormat.currency(product.getRevenue())));
+        }
+        topSellersLabel.setText(text.toString());
+    }
+
+    /**
+     * Most urgent low stock products straight from the database
+     * Only used when LowStockTracker could not be loaded.
+     */
+    private List<LowStockItem> queryLowStock(Connection conn) throws SQLException {
+        int threshold = SettingsCache.get().getLowStockThreshold();
+        List<LowStockItem> items = new ArrayList<>();
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "SELECT product_id, name, quantity_in_stock, reorder_level FROM Product " +
+                        "WHERE quantity_in_stock < IF(reorder_level > 0, reorder_level, ?) " +
+                        "ORDER BY quantity_in_stock / IF(reorder_level > 0, reorder_level, ?) ASC, quantity_in_stock ASC " +
+                        "LIMIT " + LOW_STOCK_PANEL_SIZE)) {
+            pstmt.setInt(1, threshold);
+            pstmt.setInt(2, threshold);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    items.add(new LowStockItem(rs.getInt("product_id"), rs.getString("name"),
+                            rs.getInt("quantity_in_stock"), rs.getInt("reorder_level"), null, null));
+                }
+            }
+        }
+        return items;
+    }
+
+    private static String formatLowStock(List<LowStockItem> items) {
+        if (items.isEmpty()) {
+            return "All products are well stocked! ✓";
+        }
+        StringBuilder text = new StringBuilder();
+        for (LowStockItem item : items) {
+            text.append(String.format("• %s (Stock: %d / %d)\n",
+                    item.getProductName(), item.getQuantityInStock(), item.getReorderLevel()));
+        }
+        return text.toString();
+    }
+
     /**
      * Shows the dashboard view
      */
@@ -299,22 +559,12 @@ public class DashboardController {
      */
     @FXML
     private void handleLogout() {
+        stopLiveUpdates();
         try {
             // Clear current user
             LoginController.logout();
 
-            // Load login view
-            FXMLLoader loader = new FXMLLoader(
-                    getClass().getResource("/fxml/LoginView.fxml")
-            );
-            Parent loginRoot = loader.load();
-
-            // Get current stage and switch to log in scene
-            Stage stage = (Stage) logoutButton.getScene().getWindow();
-            Scene loginScene = new Scene(loginRoot);
-            stage.setScene(loginScene);
-            stage.setTitle("Inventory Management - Login");
-            stage.centerOnScreen();
+            showLoginScene();
 
             System.out.println("User logged out successfully");
 
@@ -325,6 +575,54 @@ public class DashboardController {
         }
     }
 
+    /**
+     * Return to the login screen if the session has expired (idle timeout or user deactivated)
+     */
+    private void checkSessionExpiry() {
+        if (!SessionManager.getInstance().expireIfIdle()) {
+            return;
+        }
+        stopLiveUpdates();
+        try {
+            showLoginScene().showSessionExpired();
+            System.out.println("Returned to login: session expired");
+        } catch (IOException e) {
+            System.err.println("Error showing login after session expiry:");
+            e.printStackTrace();
+            setStatus("Session expired - please log in again");
+        }
+    }
+
+    /**
+     * Replace the dashboard with the login scene
+     */
+    private LoginController showLoginScene() throws IOException {
+        FXMLLoader loader = new FXMLLoader(
+                getClass().getResource("/fxml/LoginView.fxml")
+        );
+        Parent loginRoot = loader.load();
+
+        // Get current stage and switch to log in scene
+        Stage stage = (Stage) logoutButton.getScene().getWindow();
+        Scene loginScene = new Scene(loginRoot);
+        stage.setScene(loginScene);
+        stage.setTitle("Inventory Management - Login");
+        stage.centerOnScreen();
+        return loader.getController();
+    }
+
+    /**
+     * Stop the live panels and the session check for good - the dashboard is being replaced
+     * by the login scene (replacing the scene does not detach the pane, so the scene
+     * listeners never see it)
+     */
+    private void stopLiveUpdates() {
+        sessionClock.stop();
+        liveSalesClock.stop();
+        stopTopSellersUpdates();
+        stopLowStockUpdates();
+    }
+
     /**
      * Safely get all navigation buttons, filtering out null values
      * FIXED: Added null safety for buttons that may not be injected from FXML
@@ -415,7 +713,7 @@ DASHBOARD CONTROLLER FEATURES:
    ✅ Total categories count
    ✅ Total suppliers count
    ✅ Total sales count
-   ✅ Low stock alerts (products < 20)
+   ✅ Low stock alerts (products below their reorder level)
    ✅ Background thread (non-blocking)
 
 3. NAVIGATION:
@@ -1,6 +1,7 @@
 package com.example.dummy_inventory.controller;
 
-import com.example.dummy_inventory.dao.UserDAO;
+import com.example.dummy_inventory.auth.AuthService;
+import com.example.dummy_inventory.auth.SessionManager;
 import com.example.dummy_inventory.model.User;
 import javafx.animation.PauseTransition;
 import javafx.animation.TranslateTransition;
@@ -14,11 +15,13 @@ import javafx.scene.control.Button;
 import javafx.scene.control.Label;
 import javafx.scene.control.PasswordField;
 import javafx.scene.control.TextField;
+import javafx.scene.input.InputEvent;
 import javafx.scene.paint.Color;
 import javafx.stage.Stage;
 import javafx.util.Duration;
 
 import java.io.IOException;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * Controller for the Login View
@@ -42,9 +45,6 @@ public class LoginController {
     @FXML
     private javafx.scene.control.Hyperlink registerLink;
 
-    // Store logged-in user info
-    private static User currentUser;
-
     /**
      * Initialize method - called automatically after FXML is loaded
      */
@@ -90,7 +90,12 @@ public class LoginController {
         Task<User> loginTask = new Task<>() {
             @Override
             protected User call() {
-                return validateLogin(username, password);
+                User user = validateLogin(username, password);
+                if (user != null) {
+                    // Opened here, off the FX thread - it reads SESSION_TIMEOUT
+                    SessionManager.getInstance().open(user);
+                }
+                return user;
             }
         };
 
@@ -99,7 +104,6 @@ public class LoginController {
             loginButton.setDisable(false);
 
             if (user != null) {
-                currentUser = user;
                 setStatusMessage("✓ Login Successful!", Color.web("#27ae60"));
 
                 // FIXED: Use PauseTransition instead of Thread.sleep - NON-BLOCKING!
@@ -136,11 +140,12 @@ public class LoginController {
      * @return User object if valid, null otherwise
      */
     private User validateLogin(String username, String password) {
-        UserDAO userDAO = new UserDAO();
-
         try {
-            // Use UserDAO.login() which handles BCrypt verification
-            return userDAO.login(username, password);
+            // AuthService runs the BCrypt check on its bounded auth executor
+            return AuthService.getInstance().login(username, password);
+        } catch (RejectedExecutionException e) {
+            // Auth queue is full - fail the task so the message is shown instead of "invalid password"
+            throw new IllegalStateException("Too many logins in progress. Please try again.", e);
         } catch (Exception e) {
             System.err.println("Error during login validation:");
             e.printStackTrace();
@@ -169,13 +174,16 @@ public class LoginController {
             // Create new scene
             Scene dashboardScene = new Scene(dashboardRoot);
 
+            // Any input counts as session activity for the idle timeout
+            dashboardScene.addEventFilter(InputEvent.ANY, e -> SessionManager.getInstance().touch());
+
             // Get current stage and switch scene
             Stage stage = (Stage) loginButton.getScene().getWindow();
             stage.setScene(dashboardScene);
             stage.setTitle("Inventory Management - Dashboard");
             stage.centerOnScreen();
 
-            System.out.println("User logged in: " + currentUser.getUsername());
+            System.out.println("User logged in: " + getCurrentUser().getUsername());
 
         } catch (IOException e) {
             System.err.println("Error loading dashboard:");
@@ -184,6 +192,13 @@ public class LoginController {
         }
     }
 
+    /**
+     * Explain why the login screen is shown (called when an idle session times out)
+     */
+    public void showSessionExpired() {
+        setStatusMessage("⚠ Session expired. Please log in again.", Color.web("#e74c3c"));
+    }
+
     /**
      * Adds a shake animation to the login button for visual feedback
      * FIXED: Uses JavaFX TranslateTransition instead of Thread.sleep()
@@ -245,18 +260,20 @@ public class LoginController {
 
     /**
      * Get the currently logged-in user
+     * Backed by SessionManager: returns null once the session has expired or the
+     * account was deactivated, and reflects role changes made by an admin.
      *
      * @return Current User object
      */
     public static User getCurrentUser() {
-        return currentUser;
+        return SessionManager.getInstance().currentUser();
     }
 
     /**
-     * Logout - clear current user
+     * Logout - end the current session
      */
     public static void logout() {
-        currentUser = null;
+        SessionManager.getInstance().close();
     }
 }
 
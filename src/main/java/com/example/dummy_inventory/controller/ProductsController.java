@@ -3,25 +3,53 @@ package com.example.dummy_inventory.controller;
 import com.example.dummy_inventory.dao.ProductDAO;
 import com.example.dummy_inventory.dao.CategoryDAO;
 import com.example.dummy_inventory.dao.SupplierDAO;
+import com.example.dummy_inventory.event.EventBus;
+import com.example.dummy_inventory.event.ProductChanged;
+import com.example.dummy_inventory.event.ProductClassesChanged;
+import com.example.dummy_inventory.event.SettingsChanged;
+import com.example.dummy_inventory.event.StockChanged;
 import com.example.dummy_inventory.model.Product;
 import com.example.dummy_inventory.model.Category;
 import com.example.dummy_inventory.model.Supplier;
+import com.example.dummy_inventory.util.CellFormat;
+import com.example.dummy_inventory.util.KeyedListUpdater;
+import com.example.dummy_inventory.util.LiveSearch;
+import com.example.dummy_inventory.service.InventoryClassifier;
+import com.example.dummy_inventory.service.LowStockTracker;
 
+import javafx.application.Platform;
 import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
+import javafx.collections.transformation.FilteredList;
+import javafx.collections.transformation.SortedList;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
-import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.scene.paint.Color;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * Controller for Products CRUD operations
  */
 public class ProductsController {
 
+    // First entry of the class filters: no filtering
+    private static final String ALL_CLASSES = "All";
+
+    // Re-reads rows after change events off the FX thread; a single daemon thread
+    // so the re-reads of one product are applied in the order of its events
+    private static final ExecutorService ROW_LOADER = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "products-row-loader");
+        thread.setDaemon(true);
+        return thread;
+    });
+
     // DAOs
     private ProductDAO productDAO = new ProductDAO();
     private CategoryDAO categoryDAO = new CategoryDAO();
@@ -35,6 +63,7 @@ public class ProductsController {
     @FXML private TableColumn<Product, String> colSupplier;
     @FXML private TableColumn<Product, Integer> colQuantity;
     @FXML private TableColumn<Product, Double> colPrice;
+    @FXML private TableColumn<Product, String> colClass;
 
     // Form fields
     @FXML private TextField idField;
@@ -44,6 +73,8 @@ public class ProductsController {
     @FXML private TextField quantityField;
     @FXML private TextField priceField;
     @FXML private TextField searchField;
+    @FXML private ComboBox<String> abcFilterComboBox;
+    @FXML private ComboBox<String> xyzFilterComboBox;
 
     // Labels and buttons
     @FXML private Label statusLabel;
@@ -51,21 +82,33 @@ public class ProductsController {
     @FXML private Button saveButton;
 
     // Data
-    private ObservableList<Product> productList;
+    private final ObservableList<Product> productList = FXCollections.observableArrayList();
+    private FilteredList<Product> visibleProducts;
+    private KeyedListUpdater<Product, Integer> productUpdater;
+    private LiveSearch<Product, Integer> liveSearch;
     private Product selectedProduct = null;
     private boolean isEditMode = false;
 
+    // Stock shown in the form when editing started (stock can move while the form is open)
+    private int editQuantity;
+
+    // Event subscriptions, released when the view leaves the scene
+    private final List<EventBus.Subscription> subscriptions = new ArrayList<>();
+
     /**
      * Initialize method - called after FXML is loaded
      */
     @FXML
     public void initialize() {
         setupTableColumns();
+        setupTableItems();
         loadProducts();
         loadCategories();
         loadSuppliers();
         setupTableSelection();
         setupSearchListener();
+        setupClassFilter();
+        subscribeToEvents();
 
         // Configure ComboBox display
         categoryComboBox.setConverter(new javafx.util.StringConverter<Category>() {
@@ -97,25 +140,17 @@ public class ProductsController {
      * Setup table columns with property bindings
      */
     private void setupTableColumns() {
-        colId.setCellValueFactory(new PropertyValueFactory<>("productId"));
-        colName.setCellValueFactory(new PropertyValueFactory<>("name"));
-        colCategory.setCellValueFactory(new PropertyValueFactory<>("categoryName"));
-        colSupplier.setCellValueFactory(new PropertyValueFactory<>("supplierName"));
-        colQuantity.setCellValueFactory(new PropertyValueFactory<>("quantityInStock"));
-        colPrice.setCellValueFactory(new PropertyValueFactory<>("price"));
+        colId.setCellValueFactory(CellFormat.value(Product::getProductId));
+        colName.setCellValueFactory(CellFormat.value(Product::getName));
+        colCategory.setCellValueFactory(CellFormat.value(Product::getCategoryName));
+        colSupplier.setCellValueFactory(CellFormat.value(Product::getSupplierName));
+        colQuantity.setCellValueFactory(CellFormat.value(Product::getQuantityInStock));
+        colPrice.setCellValueFactory(CellFormat.value(Product::getPrice));
+        colClass.setCellValueFactory(CellFormat.value(
+                product -> InventoryClassifier.getInstance().classOf(product.getProductId())));
 
         // Format price column
-        colPrice.setCellFactory(column -> new TableCell<Product, Double>() {
-            @Override
-            protected void updateItem(Double price, boolean empty) {
-                super.updateItem(price, empty);
-                if (empty || price == null) {
-                    setText(null);
-                } else {
-                    setText(String.format("$%.2f", price));
-                }
-            }
-        });
+        colPrice.setCellFactory(CellFormat.currencyCell());
 
         // Color code low stock items
         colQuantity.setCellFactory(column -> new TableCell<Product, Integer>() {
@@ -127,7 +162,9 @@ public class ProductsController {
                     setStyle("");
                 } else {
                     setText(String.valueOf(quantity));
-                    if (quantity < 20) {
+                    Product product = getTableRow() != null ? getTableRow().getItem() : null;
+                    int reorderLevel = product != null ? product.getReorderLevel() : 0;
+                    if (LowStockTracker.getInstance().isLow(quantity, reorderLevel)) {
                         setStyle("-fx-text-fill: red; -fx-font-weight: bold;");
                     } else {
                         setStyle("");
@@ -137,6 +174,31 @@ public class ProductsController {
         });
     }
 
+    /**
+     * Bind the table to a single long-lived list that is updated row by row
+     * The table shows it through the class filter and its own sort order, so
+     * neither ever reorders the list the updater maintains.
+     */
+    private void setupTableItems() {
+        visibleProducts = new FilteredList<>(productList);
+        SortedList<Product> sortedProducts = new SortedList<>(visibleProducts);
+        sortedProducts.comparatorProperty().bind(productTable.comparatorProperty());
+        productTable.setItems(sortedProducts);
+        productUpdater = new KeyedListUpdater<>(productList, Product::getProductId, ProductsController::sameRow);
+        visibleProducts.addListener((ListChangeListener<Product>) change -> updateTotalLabel());
+    }
+
+    /**
+     * True when two versions of a product render the same row
+     */
+    private static boolean sameRow(Product a, Product b) {
+        return a.getQuantityInStock() == b.getQuantityInStock()
+                && Double.compare(a.getPrice(), b.getPrice()) == 0
+                && Objects.equals(a.getName(), b.getName())
+                && Objects.equals(a.getCategoryName(), b.getCategoryName())
+                && Objects.equals(a.getSupplierName(), b.getSupplierName());
+    }
+
     /**
      * Setup table row selection listener
      */
@@ -159,24 +221,123 @@ public class ProductsController {
     }
 
     /**
-     * Setup real-time search
+     * Setup real-time search - debounced, streamed, cancels superseded queries
      */
     private void setupSearchListener() {
-        searchField.textProperty().addListener((observable, oldValue, newValue) -> {
-            if (newValue.isEmpty()) {
-                loadProducts();
+        liveSearch = new LiveSearch<>(searchField, productUpdater, productDAO::streamSearchProducts,
+                this::loadProducts,
+                (term, count) -> setStatus("Found " + count + " product(s)", true),
+                term -> setStatus("Search failed - check the database connection", false));
+    }
+
+    /**
+     * ABC / XYZ filters over the loaded rows, using the classes InventoryClassifier
+     * holds in memory - changing the filter runs no query
+     */
+    private void setupClassFilter() {
+        abcFilterComboBox.getItems().setAll(ALL_CLASSES, "A", "B", "C");
+        xyzFilterComboBox.getItems().setAll(ALL_CLASSES, "X", "Y", "Z");
+        abcFilterComboBox.setValue(ALL_CLASSES);
+        xyzFilterComboBox.setValue(ALL_CLASSES);
+        abcFilterComboBox.valueProperty().addListener((observable, oldValue, newValue) -> applyClassFilter());
+        xyzFilterComboBox.valueProperty().addListener((observable, oldValue, newValue) -> applyClassFilter());
+    }
+
+    private void applyClassFilter() {
+        String abc = abcFilterComboBox.getValue();
+        String xyz = xyzFilterComboBox.getValue();
+        boolean anyAbc = abc == null || ALL_CLASSES.equals(abc);
+        boolean anyXyz = xyz == null || ALL_CLASSES.equals(xyz);
+        if (anyAbc && anyXyz) {
+            visibleProducts.setPredicate(null);
+            return;
+        }
+        InventoryClassifier classifier = InventoryClassifier.getInstance();
+        visibleProducts.setPredicate(product -> {
+            String productClass = classifier.classOf(product.getProductId());
+            return productClass != null
+                    && (anyAbc || productClass.charAt(0) == abc.charAt(0))
+                    && (anyXyz || productClass.charAt(1) == xyz.charAt(0));
+        });
+    }
+
+    /**
+     * Keep rows in sync with product, stock, class and settings changes from any screen
+     */
+    private void subscribeToEvents() {
+        EventBus bus = EventBus.getInstance();
+        subscriptions.add(bus.subscribe(StockChanged.class, e -> Platform.runLater(() -> onStockChanged(e))));
+        subscriptions.add(bus.subscribe(ProductChanged.class, this::onProductChanged));
+        // Re-colour low stock cells when LOW_STOCK_THRESHOLD changes
+        subscriptions.add(bus.subscribe(SettingsChanged.class, e -> Platform.runLater(productTable::refresh)));
+        // New ABC/XYZ classes: re-run the class filter and redraw the class column
+        subscriptions.add(bus.subscribe(ProductClassesChanged.class, e -> Platform.runLater(() -> {
+            applyClassFilter();
+            productTable.refresh();
+        })));
+
+        productTable.sceneProperty().addListener((observable, oldScene, newScene) -> {
+            if (newScene == null) {
+                subscriptions.forEach(EventBus.Subscription::close);
+                subscriptions.clear();
             }
         });
     }
 
+    private void onStockChanged(StockChanged event) {
+        Product product = productUpdater.find(event.getProductId());
+        if (product != null) {
+            product.applyStockChange(event.getNewQuantity());
+            productUpdater.upsert(product);
+        }
+    }
+
+    /**
+     * Called on the publishing thread (often the FX thread); the row is re-read on ROW_LOADER
+     */
+    private void onProductChanged(ProductChanged event) {
+        int productId = event.getProductId();
+        if (event.getKind() == ProductChanged.Kind.DELETED) {
+            // Queued behind any re-read of the same product, so it cannot bring the row back
+            ROW_LOADER.execute(() -> Platform.runLater(() -> {
+                liveSearch.invalidate();
+                productUpdater.remove(productId);
+            }));
+            return;
+        }
+        ROW_LOADER.execute(() -> {
+            Product fresh = productDAO.getProductById(productId);
+            Platform.runLater(() -> {
+                liveSearch.invalidate();
+                if (fresh != null) {
+                    productUpdater.upsert(fresh);
+                }
+            });
+        });
+    }
+
+    /**
+     * Replace a row whose in-memory edits could not be saved with the database state
+     */
+    private void reloadProduct(int productId) {
+        ROW_LOADER.execute(() -> {
+            Product fresh = productDAO.getProductById(productId);
+            Platform.runLater(() -> {
+                if (fresh != null) {
+                    productUpdater.upsert(fresh);
+                } else {
+                    productUpdater.remove(productId);
+                }
+            });
+        });
+    }
+
     /**
      * Load all products from database
      */
     private void loadProducts() {
         List<Product> products = productDAO.getAllProducts();
-        productList = FXCollections.observableArrayList(products);
-        productTable.setItems(productList);
-        updateTotalLabel();
+        productUpdater.replaceAll(products);
         setStatus("Products loaded successfully", true);
     }
 
@@ -225,6 +386,7 @@ public class ProductsController {
         nameField.setText(selectedProduct.getName());
         quantityField.setText(String.valueOf(selectedProduct.getQuantityInStock()));
         priceField.setText(String.valueOf(selectedProduct.getPrice()));
+        editQuantity = selectedProduct.getQuantityInStock();
 
         // Select category in combo box
         for (Category category : categoryComboBox.getItems()) {
@@ -270,21 +432,44 @@ public class ProductsController {
             }
 
             if (isEditMode && selectedProduct != null) {
-                // UPDATE existing product
+                // UPDATE existing product - only the fields the user changed are written
+                if (quantity != editQuantity) {
+                    if (selectedProduct.getQuantityInStock() != editQuantity) {
+                        // A sale or receipt moved the stock while the form was open - do not overwrite it
+                        editQuantity = selectedProduct.getQuantityInStock();
+                        quantityField.setText(String.valueOf(editQuantity));
+                        showAlert(Alert.AlertType.WARNING, "Stock Changed",
+                                "Stock changed to " + editQuantity + " while you were editing. " +
+                                "Please check the quantity and save again.");
+                        return;
+                    }
+                    selectedProduct.setQuantityInStock(quantity);
+                }
                 selectedProduct.setName(name);
-                selectedProduct.setQuantityInStock(quantity);
                 selectedProduct.setPrice(price);
                 selectedProduct.setCategoryId(category.getCategoryId());
                 selectedProduct.setSupplierId(supplier.getSupplierId());
 
-                if (productDAO.updateProduct(selectedProduct)) {
-                    showAlert(Alert.AlertType.INFORMATION, "Success", "Product updated successfully!");
-                    setStatus("Product updated: " + name, true);
-                    clearForm();
-                    loadProducts();
-                } else {
-                    showAlert(Alert.AlertType.ERROR, "Error", "Failed to update product.");
-                    setStatus("Failed to update product", false);
+                switch (productDAO.updateChangedColumns(selectedProduct)) {
+                    case UPDATED:
+                    case UNCHANGED:
+                        // Row was edited in place - repaint it now, the change event refreshes joined names
+                        productUpdater.upsert(selectedProduct);
+                        showAlert(Alert.AlertType.INFORMATION, "Success", "Product updated successfully!");
+                        setStatus("Product updated: " + name, true);
+                        clearForm();
+                        break;
+                    case CONFLICT:
+                        reloadProduct(selectedProduct.getProductId());
+                        showAlert(Alert.AlertType.WARNING, "Product Changed",
+                                "This product was changed by someone else. It has been reloaded - please apply your changes again.");
+                        setStatus("Update conflict: " + name, false);
+                        clearForm();
+                        break;
+                    default:
+                        reloadProduct(selectedProduct.getProductId());
+                        showAlert(Alert.AlertType.ERROR, "Error", "Failed to update product.");
+                        setStatus("Failed to update product", false);
                 }
 
             } else {
@@ -301,7 +486,6 @@ public class ProductsController {
                     showAlert(Alert.AlertType.INFORMATION, "Success", "Product added successfully!");
                     setStatus("Product added: " + name, true);
                     clearForm();
-                    loadProducts();
                 } else {
                     showAlert(Alert.AlertType.ERROR, "Error", "Failed to add product.");
                     setStatus("Failed to add product", false);
@@ -335,7 +519,6 @@ public class ProductsController {
                 showAlert(Alert.AlertType.INFORMATION, "Success", "Product deleted successfully!");
                 setStatus("Product deleted", true);
                 clearForm();
-                loadProducts();
                 selectedProduct = null;
             } else {
                 showAlert(Alert.AlertType.ERROR, "Error", "Failed to delete product. It may be referenced by sales.");
@@ -358,18 +541,7 @@ public class ProductsController {
      */
     @FXML
     private void handleSearch() {
-        String searchTerm = searchField.getText().trim();
-
-        if (searchTerm.isEmpty()) {
-            loadProducts();
-            return;
-        }
-
-        List<Product> results = productDAO.searchProducts(searchTerm);
-        productList = FXCollections.observableArrayList(results);
-        productTable.setItems(productList);
-        updateTotalLabel();
-        setStatus("Found " + results.size() + " product(s)", true);
+        liveSearch.searchNow();
     }
 
     /**
@@ -378,7 +550,7 @@ public class ProductsController {
     @FXML
     private void handleShowAll() {
         searchField.clear();
-        loadProducts();
+        liveSearch.searchNow();
     }
 
     /**
@@ -450,7 +622,11 @@ public class ProductsController {
      * Update total products label
      */
     private void updateTotalLabel() {
-        totalLabel.setText("Total Products: " + productList.size());
+        if (visibleProducts.size() == productList.size()) {
+            totalLabel.setText("Total Products: " + productList.size());
+        } else {
+            totalLabel.setText("Showing " + visibleProducts.size() + " of " + productList.size() + " products");
+        }
     }
 
     /**
@@ -502,7 +678,7 @@ PRODUCTS CONTROLLER FEATURES
    - Clear form button
    - Edit/New mode switching
    - Confirmation dialogs
-   - Color-coded low stock (red if < 20)
+   - Color-coded low stock (red if below the product's reorder level)
    - Real-time search
 
 ✅ Error Handling:
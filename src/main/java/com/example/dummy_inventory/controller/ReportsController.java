@@ -1,21 +1,48 @@
 package com.example.dummy_inventory.controller;
 
+import com.example.dummy_inventory.auth.Permission;
+import com.example.dummy_inventory.auth.SessionManager;
 import com.example.dummy_inventory.dao.*;
 import com.example.dummy_inventory.model.*;
+import com.example.dummy_inventory.service.DemandForecaster;
+import com.example.dummy_inventory.service.LowStockTracker;
+import com.example.dummy_inventory.service.ReportCache;
+import com.example.dummy_inventory.service.ReportQueries;
+import com.example.dummy_inventory.service.ReportRenderer;
+import com.example.dummy_inventory.service.ReportScheduler;
+import com.example.dummy_inventory.service.ReportStore;
 import com.example.dummy_inventory.util.CSVExporter;
+import com.example.dummy_inventory.util.CellFormat;
+import com.example.dummy_inventory.util.ReportPreview;
+import com.example.dummy_inventory.util.ReportSink;
+import com.example.dummy_inventory.util.SettingsCache;
+import javafx.application.Platform;
 import javafx.fxml.FXML;
+import javafx.scene.chart.LineChart;
+import javafx.scene.chart.XYChart;
 import javafx.scene.control.*;
 import javafx.scene.paint.Color;
 import javafx.stage.FileChooser;
 
 import java.io.File;
+import java.io.IOException;
 import java.time.LocalDate;
-import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 public class ReportsController {
 
+    // Lines kept in the preview pane; longer reports are exported to see them in full
+    private static final int PREVIEW_LINES = 10_000;
+
+    // Days of sales and of forecast shown in the forecast chart
+    private static final int FORECAST_HISTORY_DAYS = 60;
+    private static final int FORECAST_HORIZON_DAYS = 30;
+
     @FXML private Label totalRevenueLabel;
     @FXML private Label totalProductsLabel;
     @FXML private Label totalCategoriesLabel;
@@ -23,16 +50,30 @@ public class ReportsController {
     @FXML private Label inventoryValueLabel;
     @FXML private Label totalProfitLabel;
 
-    @FXML private TextArea reportTextArea;
+    @FXML private ListView<String> reportListView;
     @FXML private DatePicker startDatePicker;
     @FXML private DatePicker endDatePicker;
     @FXML private ComboBox<String> reportTypeComboBox;
     @FXML private Label statusLabel;
 
+    @FXML private TextField forecastProductField;
+    @FXML private LineChart<Number, Number> forecastChart;
+    @FXML private Label forecastSummaryLabel;
+
     private ReportsDAO reportsDAO;
     private ProductDAO productDAO;
     private CategoryDAO categoryDAO;
     private SaleDAO saleDAO;
+    private ForecastDAO forecastDAO;
+    private ReportPreview preview;
+
+    // Report being rendered into the preview (FX thread only)
+    private ReportRenderer.Job currentJob;
+
+    // Bumped per load so late results from an earlier load or report are dropped (FX thread only)
+    private int dashboardLoad;
+    private int reportRun;
+    private int forecastRun;
 
     @FXML
     public void initialize() {
@@ -40,10 +81,11 @@ public class ReportsController {
         productDAO = new ProductDAO();
         categoryDAO = new CategoryDAO();
         saleDAO = new SaleDAO();
+        forecastDAO = new ForecastDAO();
+        preview = new ReportPreview(reportListView, PREVIEW_LINES);
 
         // Check permissions
-        User currentUser = LoginController.getCurrentUser();
-        if (currentUser == null || !currentUser.canViewReports()) {
+        if (!SessionManager.getInstance().hasPermission(Permission.VIEW_REPORTS)) {
             showError("Access Denied: Manager/Admin privileges required");
 
             // Disable all controls to prevent unauthorized access
@@ -55,16 +97,10 @@ public class ReportsController {
         }
 
         // Setup report types
-        reportTypeComboBox.getItems().addAll(
-            "Top Selling Products",
-            "Sales by Category",
-            "Low Stock Report",
-            "Inventory Valuation",
-            "Monthly Sales Summary"
-        );
+        reportTypeComboBox.getItems().addAll(ReportRenderer.reportTypes());
 
         // Load dashboard stats
-        loadDashboardStats();
+        loadDashboardStats(false);
     }
 
     /**
@@ -74,7 +110,8 @@ public class ReportsController {
         if (reportTypeComboBox != null) reportTypeComboBox.setDisable(true);
         if (startDatePicker != null) startDatePicker.setDisable(true);
         if (endDatePicker != null) endDatePicker.setDisable(true);
-        if (reportTextArea != null) reportTextArea.setDisable(true);
+        if (reportListView != null) reportListView.setDisable(true);
+        if (forecastProductField != null) forecastProductField.setDisable(true);
     }
 
     /**
@@ -87,23 +124,68 @@ public class ReportsController {
         if (lowStockCountLabel != null) lowStockCountLabel.setText("N/A");
         if (inventoryValueLabel != null) inventoryValueLabel.setText("N/A");
         if (totalProfitLabel != null) totalProfitLabel.setText("N/A");
-        if (reportTextArea != null) reportTextArea.setText("Access denied. This feature requires Manager or Admin privileges.");
+        if (reportListView != null) reportListView.getItems().setAll("Access denied. This feature requires Manager or Admin privileges.");
     }
 
-    private void loadDashboardStats() {
-        totalRevenueLabel.setText("$" + String.format("%.2f", reportsDAO.getTotalRevenue()));
-        totalProductsLabel.setText(String.valueOf(reportsDAO.getTotalProductCount()));
-        totalCategoriesLabel.setText(String.valueOf(reportsDAO.getTotalCategoryCount()));
-        lowStockCountLabel.setText(String.valueOf(reportsDAO.getLowStockProductCount(20)));
-        inventoryValueLabel.setText("$" + String.format("%.2f", reportsDAO.getTotalInventoryValue()));
-        totalProfitLabel.setText("$" + String.format("%.2f", reportsDAO.getTotalProfit()));
+    /**
+     * Query all dashboard figures at once; each label is filled in as its query returns
+     *
+     * @param announce Report the outcome in the status label when everything has arrived
+     */
+    private void loadDashboardStats(boolean announce) {
+        int load = ++dashboardLoad;
+        long started = System.currentTimeMillis();
+        LowStockTracker lowStock = LowStockTracker.getInstance();
+        int threshold = SettingsCache.get().getLowStockThreshold();
+
+        CompletableFuture<?>[] figures = {
+            showWhenReady(load, totalRevenueLabel,
+                    query("total revenue", List.of(), reportsDAO::getTotalRevenue), CellFormat::currency),
+            showWhenReady(load, totalProductsLabel,
+                    query("product count", List.of(), reportsDAO::getTotalProductCount), String::valueOf),
+            showWhenReady(load, totalCategoriesLabel,
+                    query("category count", List.of(), reportsDAO::getTotalCategoryCount), String::valueOf),
+            showWhenReady(load, lowStockCountLabel, lowStock.isLoaded()
+                    ? CompletableFuture.completedFuture(lowStock.count())
+                    : query("low stock count", List.of(threshold), () -> reportsDAO.getLowStockProductCount(threshold)), String::valueOf),
+            showWhenReady(load, inventoryValueLabel,
+                    query("inventory value", List.of(), reportsDAO::getTotalInventoryValue), CellFormat::currency),
+            showWhenReady(load, totalProfitLabel,
+                    query("total profit", List.of(), reportsDAO::getTotalProfit), CellFormat::currency)
+        };
+
+        CompletableFuture.allOf(figures).whenComplete((ignored, error) -> Platform.runLater(() -> {
+            if (load != dashboardLoad) {
+                return;
+            }
+            long failed = Arrays.stream(figures).filter(CompletableFuture::isCompletedExceptionally).count();
+            if (failed > 0) {
+                showError(failed + " dashboard figure(s) could not be loaded");
+            } else if (announce) {
+                showSuccess("Dashboard refreshed in " + (System.currentTimeMillis() - started) + " ms");
+            }
+        }));
+    }
+
+    private <T> CompletableFuture<T> showWhenReady(int load, Label label, CompletableFuture<T> value,
+                                                   Function<T, String> format) {
+        label.setText("…");
+        return value.whenComplete((result, error) -> Platform.runLater(() -> {
+            if (load != dashboardLoad) {
+                return;
+            }
+            if (error == null) {
+                label.setText(format.apply(result));
+            } else {
+                label.setText(ReportQueries.isTimeout(error) ? "timed out" : "error");
+            }
+        }));
     }
 
     @FXML
     private void handleGenerateReport() {
         // Verify permissions before generating report
-        User currentUser = LoginController.getCurrentUser();
-        if (currentUser == null || !currentUser.canViewReports()) {
+        if (!SessionManager.getInstance().hasPermission(Permission.VIEW_REPORTS)) {
             showError("Access Denied: Manager/Admin privileges required");
             return;
         }
@@ -114,96 +196,320 @@ public class ReportsController {
             return;
         }
 
-        StringBuilder report = new StringBuilder();
+        LocalDate[] range = selectedRange();
+        if (range == null) {
+            return;
+        }
+
+        int run = startRun();
+
+        // Standard reports open from the precomputed copy; only custom ranges are rendered now
+        if (ReportScheduler.isPrecomputed(reportType)) {
+            Optional<ReportStore.StoredReport> stored = ReportStore.getInstance().latest(reportType);
+            if (stored.isPresent()) {
+                showStoredReport(run, reportType, stored.get());
+                return;
+            }
+        }
+
+        if (ReportRenderer.INVENTORY_VALUATION.equals(reportType)) {
+            generateInventoryValuationReport(run);
+            return;
+        }
+
+        // Rows are rendered on the report thread and reach the preview in batches
+        showSuccess("Generating report...");
+        currentJob = ReportRenderer.getInstance().render(reportType, range[0], range[1], preview.open());
+        currentJob.getResult().whenComplete((rows, error) -> Platform.runLater(() -> {
+            if (run != reportRun) {
+                return;
+            }
+            if (error != null) {
+                showError("Report could not be generated.");
+            } else {
+                showSuccess("Report generated successfully! (" + rows + " rows)");
+            }
+        }));
+    }
+
+    private void showStoredReport(int run, String reportType, ReportStore.StoredReport stored) {
+        currentJob = ReportRenderer.getInstance().replay(reportType, stored.getFile(), preview.open());
+        currentJob.getResult().whenComplete((lines, error) -> Platform.runLater(() -> {
+            if (run != reportRun) {
+                return;
+            }
+            if (error != null) {
+                showError("Stored report could not be read.");
+            } else {
+                showSuccess("Report precomputed at " + CellFormat.format(CellFormat.DATE_TIME, stored.getGeneratedAt()) +
+                        " (export for a current copy)");
+            }
+        }));
+    }
+
+    /**
+     * Render the selected report into a file (text, CSV or Excel) and the preview
+     * The file is written row by row on the report thread, however large the report.
+     */
+    @FXML
+    private void handleExportReport() {
+        if (!SessionManager.getInstance().hasPermission(Permission.VIEW_REPORTS)) {
+            showError("Access Denied: Manager/Admin privileges required");
+            return;
+        }
+
+        String reportType = reportTypeComboBox.getValue();
+        if (reportType == null) {
+            showError("Please select a report type.");
+            return;
+        }
+        LocalDate[] range = selectedRange();
+        if (range == null) {
+            return;
+        }
+
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle("Export Report");
+        fileChooser.getExtensionFilters().addAll(
+            new FileChooser.ExtensionFilter("Excel Workbook", "*.xlsx"),
+            new FileChooser.ExtensionFilter("CSV Files", "*.csv"),
+            new FileChooser.ExtensionFilter("PDF Files", "*.pdf"),
+            new FileChooser.ExtensionFilter("Text Files", "*.txt"));
+        fileChooser.setInitialFileName(reportType.toLowerCase().replace(' ', '_') + ".xlsx");
 
-        switch (reportType) {
-            case "Top Selling Products":
-                generateTopSellingReport(report);
-                break;
-            case "Sales by Category":
-                generateSalesByCategoryReport(report);
-                break;
-            case "Low Stock Report":
-                generateLowStockReport(report);
-                break;
-            case "Inventory Valuation":
-                generateInventoryValuationReport(report);
-                break;
-            case "Monthly Sales Summary":
-                generateMonthlySalesReport(report);
-                break;
+        File file = fileChooser.showSaveDialog(null);
+        if (file == null) {
+            return;
         }
 
-        reportTextArea.setText(report.toString());
-        showSuccess("Report generated successfully!");
+        ReportSink fileSink;
+        try {
+            fileSink = ReportSink.forFile(file);
+        } catch (IOException e) {
+            System.err.println("Error creating report file:");
+            e.printStackTrace();
+            showError("Could not create " + file.getName());
+            return;
+        }
+
+        int run = startRun();
+        showSuccess("Exporting report...");
+        currentJob = ReportRenderer.getInstance().render(reportType, range[0], range[1],
+                ReportSink.tee(preview.open(), fileSink));
+        currentJob.getResult().whenComplete((rows, error) -> Platform.runLater(() -> {
+            if (error != null) {
+                if (run == reportRun) {
+                    showError("Failed to export report.");
+                }
+                file.delete();
+                return;
+            }
+            if (run == reportRun) {
+                showSuccess("Report exported to " + file.getName() + " (" + rows + " rows)");
+            }
+        }));
     }
 
-    private void generateTopSellingReport(StringBuilder report) {
-        report.append("=== TOP 10 SELLING PRODUCTS ===\n\n");
-        Map<String, Object> topProducts = reportsDAO.getTopSellingProducts(10);
-        int rank = 1;
-        for (Map.Entry<String, Object> entry : topProducts.entrySet()) {
-            @SuppressWarnings("unchecked")
-            Map<String, Object> data = (Map<String, Object>) entry.getValue();
-            report.append(String.format("%d. %s\n", rank++, entry.getKey()));
-            report.append(String.format("   Quantity Sold: %d\n", data.get("total_sold")));
-            report.append(String.format("   Revenue: $%.2f\n\n", data.get("revenue")));
+    /**
+     * Cancel the report still rendering, if any, and start a new run
+     */
+    private int startRun() {
+        if (currentJob != null) {
+            currentJob.cancel();
+            currentJob = null;
         }
+        return ++reportRun;
     }
 
-    private void generateSalesByCategoryReport(StringBuilder report) {
-        report.append("=== SALES BY CATEGORY ===\n\n");
-        Map<String, Double> salesByCategory = reportsDAO.getSalesByCategory();
-        for (Map.Entry<String, Double> entry : salesByCategory.entrySet()) {
-            report.append(String.format("%s: $%.2f\n", entry.getKey(), entry.getValue()));
+    /**
+     * Days covered by date-range reports: the pickers, defaulting to this month so far
+     *
+     * @return {from, to} (both inclusive), or null if the range is invalid
+     */
+    private LocalDate[] selectedRange() {
+        LocalDate to = endDatePicker.getValue() != null ? endDatePicker.getValue() : LocalDate.now();
+        LocalDate from = startDatePicker.getValue() != null ? startDatePicker.getValue() : to.withDayOfMonth(1);
+        if (from.isAfter(to)) {
+            showError("Start date must be before end date.");
+            return null;
         }
+        return new LocalDate[] {from, to};
     }
 
-    private void generateLowStockReport(StringBuilder report) {
-        report.append("=== LOW STOCK ALERT ===\n\n");
-        List<Map<String, Object>> lowStockItems = reportsDAO.getLowStockReport(20);
-        for (Map<String, Object> item : lowStockItems) {
-            report.append(String.format("Product: %s\n", item.get("product_name")));
-            report.append(String.format("Current Stock: %d\n", item.get("stock")));
-            report.append(String.format("Reorder Level: %d\n", item.get("reorder_level")));
-            report.append(String.format("Category: %s\n", item.get("category")));
-            report.append(String.format("Supplier: %s\n\n", item.get("supplier")));
+    /**
+     * Four independent queries run together; the text is redrawn as each one returns
+     */
+    private void generateInventoryValuationReport(int run) {
+        CompletableFuture<Double> value = query("inventory value", List.of(), reportsDAO::getTotalInventoryValue);
+        CompletableFuture<Integer> products = query("product count", List.of(), reportsDAO::getTotalProductCount);
+        CompletableFuture<Integer> categories = query("category count", List.of(), reportsDAO::getTotalCategoryCount);
+        CompletableFuture<List<CategoryTotal>> byCategory =
+                query("products by category", List.of(), reportsDAO::getProductCountByCategory);
+
+        Runnable render = () -> {
+            if (run == reportRun) {
+                preview.show(inventoryValuationReport(value, products, categories, byCategory));
+            }
+        };
+        render.run();
+
+        CompletableFuture<?>[] parts = {value, products, categories, byCategory};
+        for (CompletableFuture<?> part : parts) {
+            part.whenComplete((result, error) -> Platform.runLater(render));
         }
+        CompletableFuture.allOf(parts).whenComplete((ignored, error) -> Platform.runLater(() -> {
+            if (run != reportRun) {
+                return;
+            }
+            if (error != null) {
+                showError("Report incomplete: some figures could not be loaded.");
+            } else {
+                showSuccess("Report generated successfully!");
+            }
+        }));
     }
 
-    private void generateInventoryValuationReport(StringBuilder report) {
+    private static String inventoryValuationReport(CompletableFuture<Double> value,
+                                                   CompletableFuture<Integer> products,
+                                                   CompletableFuture<Integer> categories,
+                                                   CompletableFuture<List<CategoryTotal>> byCategory) {
+        StringBuilder report = new StringBuilder();
         report.append("=== INVENTORY VALUATION REPORT ===\n\n");
-        report.append(String.format("Total Inventory Value: $%.2f\n", reportsDAO.getTotalInventoryValue()));
-        report.append(String.format("Total Products: %d\n", reportsDAO.getTotalProductCount()));
-        report.append(String.format("Total Categories: %d\n\n", reportsDAO.getTotalCategoryCount()));
+        report.append("Total Inventory Value: ").append(part(value, CellFormat::currency)).append('\n');
+        report.append("Total Products: ").append(part(products, String::valueOf)).append('\n');
+        report.append("Total Categories: ").append(part(categories, String::valueOf)).append("\n\n");
 
-        Map<String, Integer> productsByCategory = reportsDAO.getProductCountByCategory();
         report.append("Products by Category:\n");
-        for (Map.Entry<String, Integer> entry : productsByCategory.entrySet()) {
-            report.append(String.format("  %s: %d products\n", entry.getKey(), entry.getValue()));
+        List<CategoryTotal> productsByCategory = ReportQueries.resultNow(byCategory);
+        if (productsByCategory == null) {
+            report.append(byCategory.isDone() ? "  (unavailable)\n" : "  (loading...)\n");
+            return report.toString();
+        }
+        for (CategoryTotal category : productsByCategory) {
+            report.append(String.format("  %s: %d products\n", category.getCategoryName(), (long) category.getValue()));
         }
+        return report.toString();
     }
 
-    private void generateMonthlySalesReport(StringBuilder report) {
-        LocalDate now = LocalDate.now();
-        report.append(String.format("=== SALES SUMMARY - %s %d ===\n\n",
-                                     now.getMonth(), now.getYear()));
-
-        Map<String, Double> monthlySales = reportsDAO.getMonthlySalesReport(
-                                                        now.getYear(), now.getMonthValue());
-        double total = 0;
-        for (Map.Entry<String, Double> entry : monthlySales.entrySet()) {
-            report.append(String.format("%s: $%.2f\n", entry.getKey(), entry.getValue()));
-            total += entry.getValue();
+    /**
+     * Chart the last FORECAST_HISTORY_DAYS days of sales of the product matching the
+     * typed name and its forecast for the next FORECAST_HORIZON_DAYS days
+     * The model is the one refit nightly, caught up with the days since (DemandForecaster).
+     */
+    @FXML
+    private void handleShowForecast() {
+        if (!SessionManager.getInstance().hasPermission(Permission.VIEW_REPORTS)) {
+            showError("Access Denied: Manager/Admin privileges required");
+            return;
+        }
+        String name = forecastProductField.getText() != null ? forecastProductField.getText().trim() : "";
+        if (name.isEmpty()) {
+            showError("Enter a product name to forecast.");
+            return;
+        }
+
+        int run = ++forecastRun;
+        forecastSummaryLabel.setText("Fitting forecast...");
+        ReportQueries.getInstance().submit("demand forecast", () -> loadForecast(name))
+                .whenComplete((chart, error) -> Platform.runLater(() -> {
+                    if (run != forecastRun) {
+                        return;
+                    }
+                    if (error != null) {
+                        forecastSummaryLabel.setText("");
+                        showError("Forecast could not be loaded.");
+                    } else if (chart == null) {
+                        forecastSummaryLabel.setText("");
+                        showError("No product matches \"" + name + "\".");
+                    } else {
+                        showForecast(chart);
+                    }
+                }));
+    }
+
+    private ForecastChart loadForecast(String name) {
+        Optional<Product> product = productDAO.findFirstMatch(name);
+        if (product.isEmpty()) {
+            return null;
+        }
+        int productId = product.get().getProductId();
+        LocalDate today = LocalDate.now();
+        return new ForecastChart(product.get(),
+                DemandForecaster.getInstance().forecastFor(productId),
+                forecastDAO.getDailySales(productId, today.minusDays(FORECAST_HISTORY_DAYS), today.minusDays(1)));
+    }
+
+    private void showForecast(ForecastChart chart) {
+        LocalDate today = LocalDate.now();
+        DemandForecaster forecaster = DemandForecaster.getInstance();
+        double perDay = chart.forecast.rateAt(today.minusDays(1), forecaster.getAlpha());
+        double deviation = chart.forecast.getDailyDeviation();
+
+        XYChart.Series<Number, Number> sold = new XYChart.Series<>();
+        sold.setName("Sold");
+        int[] units = new int[FORECAST_HISTORY_DAYS];
+        for (ForecastDAO.DailySales day : chart.history) {
+            units[(int) (FORECAST_HISTORY_DAYS + day.getDay().toEpochDay() - today.toEpochDay())] = day.getQuantity();
+        }
+        for (int i = 0; i < FORECAST_HISTORY_DAYS; i++) {
+            sold.getData().add(new XYChart.Data<>(i - FORECAST_HISTORY_DAYS, units[i]));
+        }
+
+        XYChart.Series<Number, Number> expected = new XYChart.Series<>();
+        expected.setName("Forecast");
+        XYChart.Series<Number, Number> high = new XYChart.Series<>();
+        high.setName("Forecast + 1 std. dev.");
+        for (int i = 0; i < FORECAST_HORIZON_DAYS; i++) {
+            expected.getData().add(new XYChart.Data<>(i, perDay));
+            high.getData().add(new XYChart.Data<>(i, perDay + deviation));
+        }
+        forecastChart.getData().setAll(List.of(sold, expected, high));
+
+        Product product = chart.product;
+        String cover = perDay > 0
+                ? String.format("%.0f days of stock", product.getQuantityInStock() / perDay)
+                : "not selling";
+        forecastSummaryLabel.setText(String.format("%s: %.2f units/day (%s), %d in stock - %s",
+                product.getName(), perDay, chart.forecast.getModel(), product.getQuantityInStock(), cover));
+    }
+
+    /**
+     * What the forecast chart shows for one product
+     */
+    private static final class ForecastChart {
+        final Product product;
+        final DemandForecast forecast;
+        final List<ForecastDAO.DailySales> history;
+
+        ForecastChart(Product product, DemandForecast forecast, List<ForecastDAO.DailySales> history) {
+            this.product = product;
+            this.forecast = forecast;
+            this.history = history;
+        }
+    }
+
+    /**
+     * Run a report query on the report pool, served from ReportCache while the data is unchanged
+     */
+    private <T> CompletableFuture<T> query(String name, List<?> params, Supplier<T> query) {
+        return ReportQueries.getInstance().submit(name, () -> ReportCache.getInstance().get(name, params, query));
+    }
+
+    /**
+     * A report figure, or a placeholder while it loads or if it failed
+     */
+    private static <T> String part(CompletableFuture<T> future, Function<T, String> format) {
+        if (!future.isDone()) {
+            return "(loading...)";
         }
-        report.append(String.format("\nTotal Revenue: $%.2f\n", total));
+        T result = ReportQueries.resultNow(future);
+        return result != null ? format.apply(result) : "(unavailable)";
     }
 
     @FXML
     private void handleExportProducts() {
         // Verify permissions before exporting
-        User currentUser = LoginController.getCurrentUser();
-        if (currentUser == null || !currentUser.canViewReports()) {
+        if (!SessionManager.getInstance().hasPermission(Permission.VIEW_REPORTS)) {
             showError("Access Denied: Manager/Admin privileges required");
             return;
         }
@@ -228,8 +534,7 @@ public class ReportsController {
     @FXML
     private void handleExportSales() {
         // Verify permissions before exporting
-        User currentUser = LoginController.getCurrentUser();
-        if (currentUser == null || !currentUser.canViewReports()) {
+        if (!SessionManager.getInstance().hasPermission(Permission.VIEW_REPORTS)) {
             showError("Access Denied: Manager/Admin privileges required");
             return;
         }
@@ -253,8 +558,7 @@ public class ReportsController {
 
     @FXML
     private void handleRefresh() {
-        loadDashboardStats();
-        showSuccess("Dashboard refreshed!");
+        loadDashboardStats(true);
     }
 
     private void showSuccess(String message) {
@@ -2,23 +2,43 @@ package com.example.dummy_inventory.controller;
 
 import com.example.dummy_inventory.dao.SaleDAO;
 import com.example.dummy_inventory.dao.ProductDAO;
+import com.example.dummy_inventory.event.EventBus;
+import com.example.dummy_inventory.event.ProductChanged;
+import com.example.dummy_inventory.event.SaleRecorded;
+import com.example.dummy_inventory.event.SaleReversed;
+import com.example.dummy_inventory.event.StockChanged;
 import com.example.dummy_inventory.model.Sale;
 import com.example.dummy_inventory.model.Product;
+import com.example.dummy_inventory.util.CellFormat;
+import com.example.dummy_inventory.util.FrameTimeMonitor;
+import com.example.dummy_inventory.util.KeyedListUpdater;
 
+import javafx.application.Platform;
 import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
-import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.scene.paint.Color;
 
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 public class SalesController {
 
+    // Re-reads products after change events off the FX thread; a single daemon thread
+    // so the re-reads of one product are applied in the order of its events
+    private static final ExecutorService ROW_LOADER = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "sales-product-loader");
+        thread.setDaemon(true);
+        return thread;
+    });
+
     private SaleDAO saleDAO = new SaleDAO();
     private ProductDAO productDAO = new ProductDAO();
 
@@ -28,7 +48,7 @@ public class SalesController {
     @FXML private TableColumn<Sale, Integer> colQuantity;
     @FXML private TableColumn<Sale, Double> colPrice;
     @FXML private TableColumn<Sale, Double> colTotal;
-    @FXML private TableColumn<Sale, String> colDate;
+    @FXML private TableColumn<Sale, LocalDateTime> colDate;
 
     @FXML private ComboBox<Product> productComboBox;
     @FXML private TextField quantityField;
@@ -39,56 +59,173 @@ public class SalesController {
     @FXML private Label totalLabel;
     @FXML private Label revenueLabel;
 
-    private ObservableList<Sale> salesList;
+    private final ObservableList<Sale> salesList = FXCollections.observableArrayList();
+    private KeyedListUpdater<Sale, Integer> salesUpdater;
     private Sale selectedSale = null;
+    private double totalRevenue;
+
+    // Event subscriptions, released when the view leaves the scene
+    private final List<EventBus.Subscription> subscriptions = new ArrayList<>();
 
     @FXML
     public void initialize() {
         setupTableColumns();
+        setupTableItems();
         loadSales();
         loadProducts();
         setupProductSelection();
         setupQuantityListener();
+        // The FXML placeholders are "$0.00"; show the configured currency symbol
+        priceLabel.setText(CellFormat.currency(0));
+        totalAmountLabel.setText(CellFormat.currency(0));
         updateRevenue();
+        subscribeToEvents();
     }
 
-    private void setupTableColumns() {
-        colId.setCellValueFactory(new PropertyValueFactory<>("saleId"));
-        colProduct.setCellValueFactory(new PropertyValueFactory<>("productName"));
-        colQuantity.setCellValueFactory(new PropertyValueFactory<>("quantitySold"));
-        colPrice.setCellValueFactory(new PropertyValueFactory<>("productPrice"));
-
-        // Calculate total column
-        colTotal.setCellValueFactory(cellData -> {
-            Sale sale = cellData.getValue();
-            double total = sale.getQuantitySold() * sale.getProductPrice();
-            return new javafx.beans.property.SimpleDoubleProperty(total).asObject();
+    /**
+     * Apply sale and stock changes to the table, product list and totals as they
+     * happen, instead of reloading everything after each sale
+     */
+    private void subscribeToEvents() {
+        EventBus bus = EventBus.getInstance();
+        subscriptions.add(bus.subscribe(SaleRecorded.class, e -> Platform.runLater(() -> onSaleRecorded(e.getSale()))));
+        subscriptions.add(bus.subscribe(SaleReversed.class, e -> Platform.runLater(() -> onSaleReversed(e))));
+        subscriptions.add(bus.subscribe(StockChanged.class, e -> Platform.runLater(() -> onStockChanged(e))));
+        subscriptions.add(bus.subscribe(ProductChanged.class, this::onProductChanged));
+
+        salesTable.sceneProperty().addListener((observable, oldScene, newScene) -> {
+            if (newScene == null) {
+                subscriptions.forEach(EventBus.Subscription::close);
+                subscriptions.clear();
+            }
         });
+    }
 
-        colDate.setCellValueFactory(cellData -> {
-            LocalDateTime date = cellData.getValue().getSaleDate();
-            String formatted = date.format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm"));
-            return new javafx.beans.property.SimpleStringProperty(formatted);
-        });
+    private void onSaleRecorded(Sale sale) {
+        if (salesUpdater.find(sale.getSaleId()) != null) {
+            return;
+        }
 
-        // Format currency columns
-        colPrice.setCellFactory(column -> new TableCell<Sale, Double>() {
-            @Override
-            protected void updateItem(Double price, boolean empty) {
-                super.updateItem(price, empty);
-                setText(empty || price == null ? null : String.format("$%.2f", price));
+        if (sale.getProductName() == null || sale.getProductPrice() == 0) {
+            Product product = findProduct(sale.getProductId());
+            if (product != null) {
+                sale.setProductName(product.getName());
+                sale.setProductPrice(product.getPrice());
             }
-        });
+        }
 
-        colTotal.setCellFactory(column -> new TableCell<Sale, Double>() {
-            @Override
-            protected void updateItem(Double total, boolean empty) {
-                super.updateItem(total, empty);
-                setText(empty || total == null ? null : String.format("$%.2f", total));
+        salesUpdater.upsert(sale);
+        totalRevenue += sale.getTotalAmount();
+        updateRevenueLabel();
+    }
+
+    private void onSaleReversed(SaleReversed event) {
+        if (salesUpdater.find(event.getSaleId()) != null) {
+            salesUpdater.remove(event.getSaleId());
+            totalRevenue -= event.getTotalAmount();
+            updateRevenueLabel();
+        }
+    }
+
+    private void onStockChanged(StockChanged event) {
+        Product product = findProduct(event.getProductId());
+        if (product != null) {
+            product.applyStockChange(event.getNewQuantity());
+            if (product == productComboBox.getValue()) {
+                stockLabel.setText(String.valueOf(product.getQuantityInStock()));
+            }
+        }
+    }
+
+    /**
+     * Called on the publishing thread (often the FX thread); the product is re-read on ROW_LOADER
+     */
+    private void onProductChanged(ProductChanged event) {
+        int productId = event.getProductId();
+        if (event.getKind() == ProductChanged.Kind.DELETED) {
+            // Queued behind any re-read of the same product, so it cannot bring it back
+            ROW_LOADER.execute(() -> Platform.runLater(() -> onProductDeleted(productId)));
+            return;
+        }
+        ROW_LOADER.execute(() -> {
+            Product fresh = productDAO.getProductById(productId);
+            if (fresh != null) {
+                Platform.runLater(() -> onProductReloaded(fresh));
             }
         });
     }
 
+    private void onProductDeleted(int productId) {
+        Product current = findProduct(productId);
+        if (current != null && current != productComboBox.getValue()) {
+            productComboBox.getItems().remove(current);
+        }
+    }
+
+    private void onProductReloaded(Product fresh) {
+        ObservableList<Product> products = productComboBox.getItems();
+        Product current = findProduct(fresh.getProductId());
+        if (current == null) {
+            products.add(fresh);
+        } else if (current != productComboBox.getValue()) {
+            products.set(products.indexOf(current), fresh);
+        } else {
+            // Keep the selected instance so the form is not reset mid-entry
+            current.setName(fresh.getName());
+            current.setPrice(fresh.getPrice());
+            current.applyStockChange(fresh.getQuantityInStock());
+            stockLabel.setText(String.valueOf(current.getQuantityInStock()));
+            priceLabel.setText(CellFormat.currency(current.getPrice()));
+            updateTotalAmount();
+        }
+    }
+
+    private Product findProduct(int productId) {
+        for (Product product : productComboBox.getItems()) {
+            if (product.getProductId() == productId) {
+                return product;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Bind the table to a single long-lived list; new sales go on top
+     */
+    private void setupTableItems() {
+        salesTable.setItems(salesList);
+        salesUpdater = new KeyedListUpdater<>(salesList, Sale::getSaleId, SalesController::sameRow);
+        salesUpdater.setInsertAtTop(true);
+        salesList.addListener((ListChangeListener<Sale>) change -> updateTotalLabel());
+    }
+
+    private static boolean sameRow(Sale a, Sale b) {
+        return a.getQuantitySold() == b.getQuantitySold()
+                && Double.compare(a.getTotalAmount(), b.getTotalAmount()) == 0
+                && Double.compare(a.getProductPrice(), b.getProductPrice()) == 0
+                && Objects.equals(a.getProductName(), b.getProductName());
+    }
+
+    private void setupTableColumns() {
+        colId.setCellValueFactory(CellFormat.value(Sale::getSaleId));
+        colProduct.setCellValueFactory(CellFormat.value(Sale::getProductName));
+        colQuantity.setCellValueFactory(CellFormat.value(Sale::getQuantitySold));
+        colPrice.setCellValueFactory(CellFormat.value(Sale::getProductPrice));
+
+        // Calculate total column
+        colTotal.setCellValueFactory(CellFormat.value(sale -> sale.getQuantitySold() * sale.getProductPrice()));
+
+        // Date kept as LocalDateTime so the column sorts chronologically; formatted in the cell
+        colDate.setCellValueFactory(CellFormat.value(Sale::getSaleDate));
+        colDate.setCellFactory(CellFormat.dateTimeCell());
+
+        // Format currency columns
+        colPrice.setCellFactory(CellFormat.currencyCell());
+        colTotal.setCellFactory(CellFormat.currencyCell());
+
+        FrameTimeMonitor.attachIfEnabled(salesTable, "Sales");
+    }
+
     private void setupProductSelection() {
         productComboBox.setConverter(new javafx.util.StringConverter<Product>() {
             @Override
@@ -105,12 +242,12 @@ public class SalesController {
         productComboBox.valueProperty().addListener((observable, oldValue, newValue) -> {
             if (newValue != null) {
                 stockLabel.setText(String.valueOf(newValue.getQuantityInStock()));
-                priceLabel.setText(String.format("$%.2f", newValue.getPrice()));
+                priceLabel.setText(CellFormat.currency(newValue.getPrice()));
                 updateTotalAmount();
             } else {
                 stockLabel.setText("-");
-                priceLabel.setText("$0.00");
-                totalAmountLabel.setText("$0.00");
+                priceLabel.setText(CellFormat.currency(0));
+                totalAmountLabel.setText(CellFormat.currency(0));
             }
         });
     }
@@ -129,23 +266,21 @@ public class SalesController {
                 if (qtyText != null && !qtyText.trim().isEmpty()) {
                     int quantity = Integer.parseInt(qtyText.trim());
                     double total = quantity * selected.getPrice();
-                    totalAmountLabel.setText(String.format("$%.2f", total));
+                    totalAmountLabel.setText(CellFormat.currency(total));
                 } else {
-                    totalAmountLabel.setText("$0.00");
+                    totalAmountLabel.setText(CellFormat.currency(0));
                 }
             } catch (NumberFormatException e) {
-                totalAmountLabel.setText("$0.00");
+                totalAmountLabel.setText(CellFormat.currency(0));
             }
         } else {
-            totalAmountLabel.setText("$0.00");
+            totalAmountLabel.setText(CellFormat.currency(0));
         }
     }
 
     private void loadSales() {
         List<Sale> sales = saleDAO.getAllSales();
-        salesList = FXCollections.observableArrayList(sales);
-        salesTable.setItems(salesList);
-        updateTotalLabel();
+        salesUpdater.replaceAll(sales);
     }
 
     private void loadProducts() {
@@ -186,14 +321,12 @@ public class SalesController {
         Sale sale = new Sale(product.getProductId(), quantity, product.getPrice(), LocalDateTime.now());
         if (saleDAO.createSale(sale)) {
             showAlert(Alert.AlertType.INFORMATION, "Success",
-                    String.format("Sale recorded!\n%d x %s = $%.2f\n\nStock updated automatically.",
-                            quantity, product.getName(), quantity * product.getPrice()));
+                    String.format("Sale recorded!\n%d x %s = %s\n\nStock updated automatically.",
+                            quantity, product.getName(), CellFormat.currency(quantity * product.getPrice())));
 
             setStatus(String.format("Sale recorded: %s", product.getName()), true);
             clearForm();
-            loadSales();
-            loadProducts(); // Refresh to show updated stock
-            updateRevenue();
+            // Table, stock and revenue are updated by the SaleRecorded/StockChanged events
         } else {
             showAlert(Alert.AlertType.ERROR, "Error",
                     "Failed to record sale. Product may not exist or insufficient stock.");
@@ -218,8 +351,7 @@ public class SalesController {
             if (saleDAO.deleteSale(selectedSale.getSaleId())) {
                 showAlert(Alert.AlertType.INFORMATION, "Success", "Sale record deleted!");
                 setStatus("Sale deleted", true);
-                loadSales();
-                updateRevenue();
+                // Row and revenue are updated by the SaleReversed event
                 selectedSale = null;
             } else {
                 showAlert(Alert.AlertType.ERROR, "Error", "Failed to delete sale.");
@@ -240,8 +372,8 @@ public class SalesController {
         productComboBox.setValue(null);
         quantityField.clear();
         stockLabel.setText("-");
-        priceLabel.setText("$0.00");
-        totalAmountLabel.setText("$0.00");
+        priceLabel.setText(CellFormat.currency(0));
+        totalAmountLabel.setText(CellFormat.currency(0));
         statusLabel.setText("");
     }
 
@@ -277,8 +409,12 @@ public class SalesController {
     }
 
     private void updateRevenue() {
-        double revenue = saleDAO.getTotalRevenue();
-        revenueLabel.setText(String.format("Total Revenue: $%.2f", revenue));
+        totalRevenue = saleDAO.getTotalRevenue();
+        updateRevenueLabel();
+    }
+
+    private void updateRevenueLabel() {
+        revenueLabel.setText("Total Revenue: " + CellFormat.currency(totalRevenue));
     }
 
     private void setStatus(String message, boolean success) {
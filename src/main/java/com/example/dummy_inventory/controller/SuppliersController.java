@@ -2,8 +2,11 @@ package com.example.dummy_inventory.controller;
 
 import com.example.dummy_inventory.dao.SupplierDAO;
 import com.example.dummy_inventory.model.Supplier;
+import com.example.dummy_inventory.util.KeyedListUpdater;
+import com.example.dummy_inventory.util.LiveSearch;
 
 import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
@@ -11,6 +14,7 @@ import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.scene.paint.Color;
 
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 
 public class SuppliersController {
@@ -33,15 +37,19 @@ public class SuppliersController {
     @FXML private Label totalLabel;
     @FXML private Button saveButton;
 
-    private ObservableList<Supplier> supplierList;
+    private final ObservableList<Supplier> supplierList = FXCollections.observableArrayList();
+    private KeyedListUpdater<Supplier, Integer> supplierUpdater;
+    private LiveSearch<Supplier, Integer> liveSearch;
     private Supplier selectedSupplier = null;
     private boolean isEditMode = false;
 
     @FXML
     public void initialize() {
         setupTableColumns();
+        setupTableItems();
         loadSuppliers();
         setupTableSelection();
+        setupSearchListener();
     }
 
     private void setupTableColumns() {
@@ -52,6 +60,26 @@ public class SuppliersController {
         colPhone.setCellValueFactory(new PropertyValueFactory<>("phone"));
     }
 
+    private void setupTableItems() {
+        supplierTable.setItems(supplierList);
+        supplierUpdater = new KeyedListUpdater<>(supplierList, Supplier::getSupplierId, SuppliersController::sameRow);
+        supplierList.addListener((ListChangeListener<Supplier>) change -> updateTotalLabel());
+    }
+
+    private static boolean sameRow(Supplier a, Supplier b) {
+        return Objects.equals(a.getName(), b.getName())
+                && Objects.equals(a.getContactPerson(), b.getContactPerson())
+                && Objects.equals(a.getEmail(), b.getEmail())
+                && Objects.equals(a.getPhone(), b.getPhone());
+    }
+
+    private void setupSearchListener() {
+        liveSearch = new LiveSearch<>(searchField, supplierUpdater, supplierDAO::streamSearchSuppliers,
+                this::loadSuppliers,
+                (term, count) -> setStatus("Found " + count + " supplier(s)", true),
+                term -> setStatus("Search failed - check the database connection", false));
+    }
+
     private void setupTableSelection() {
         supplierTable.getSelectionModel().selectedItemProperty().addListener(
                 (observable, oldValue, newValue) -> {
@@ -70,9 +98,7 @@ public class SuppliersController {
 
     private void loadSuppliers() {
         List<Supplier> suppliers = supplierDAO.getAllSuppliers();
-        supplierList = FXCollections.observableArrayList(suppliers);
-        supplierTable.setItems(supplierList);
-        updateTotalLabel();
+        supplierUpdater.replaceAll(suppliers);
         setStatus("Suppliers loaded", true);
     }
 
@@ -120,10 +146,11 @@ public class SuppliersController {
             selectedSupplier.setPhone(phone);
 
             if (supplierDAO.updateSupplier(selectedSupplier)) {
+                supplierUpdater.upsert(selectedSupplier);
+                liveSearch.invalidate();
                 showAlert(Alert.AlertType.INFORMATION, "Success", "Supplier updated successfully!");
                 setStatus("Supplier updated: " + name, true);
                 clearForm();
-                loadSuppliers();
             } else {
                 showAlert(Alert.AlertType.ERROR, "Error", "Failed to update supplier.");
                 setStatus("Failed to update supplier", false);
@@ -132,10 +159,11 @@ public class SuppliersController {
             Supplier newSupplier = new Supplier(name, contact, email, phone);
 
             if (supplierDAO.createSupplier(newSupplier)) {
+                supplierUpdater.upsert(newSupplier);
+                liveSearch.invalidate();
                 showAlert(Alert.AlertType.INFORMATION, "Success", "Supplier added successfully!");
                 setStatus("Supplier added: " + name, true);
                 clearForm();
-                loadSuppliers();
             } else {
                 showAlert(Alert.AlertType.ERROR, "Error", "Failed to add supplier.");
                 setStatus("Failed to add supplier", false);
@@ -158,10 +186,11 @@ public class SuppliersController {
         Optional<ButtonType> result = confirm.showAndWait();
         if (result.isPresent() && result.get() == ButtonType.OK) {
             if (supplierDAO.deleteSupplier(selectedSupplier.getSupplierId())) {
+                supplierUpdater.remove(selectedSupplier.getSupplierId());
+                liveSearch.invalidate();
                 showAlert(Alert.AlertType.INFORMATION, "Success", "Supplier deleted!");
                 setStatus("Supplier deleted", true);
                 clearForm();
-                loadSuppliers();
                 selectedSupplier = null;
             } else {
                 showAlert(Alert.AlertType.ERROR, "Error", "Cannot delete. Supplier may be in use.");
@@ -178,18 +207,7 @@ public class SuppliersController {
 
     @FXML
     private void handleSearch() {
-        String searchTerm = searchField.getText().trim();
-
-        if (searchTerm.isEmpty()) {
-            loadSuppliers();
-            return;
-        }
-
-        List<Supplier> results = supplierDAO.searchSuppliers(searchTerm);
-        supplierList = FXCollections.observableArrayList(results);
-        supplierTable.setItems(supplierList);
-        updateTotalLabel();
-        setStatus("Found " + results.size() + " supplier(s)", true);
+        liveSearch.searchNow();
     }
 
     private void clearForm() {
@@ -1,5 +1,7 @@
 package com.example.dummy_inventory.controller;
 
+import com.example.dummy_inventory.auth.Permission;
+import com.example.dummy_inventory.auth.SessionManager;
 import com.example.dummy_inventory.dao.UserDAO;
 import com.example.dummy_inventory.model.User;
 import javafx.collections.FXCollections;
@@ -45,8 +47,7 @@ public class UserManagementController {
         usersList = FXCollections.observableArrayList();
 
         // Check permissions
-        User currentUser = LoginController.getCurrentUser();
-        if (currentUser == null || !currentUser.canManageUsers()) {
+        if (!SessionManager.getInstance().hasPermission(Permission.MANAGE_USERS)) {
             showError("Access Denied: Admin privileges required");
             saveButton.setDisable(true);
             return;
@@ -0,0 +1,53 @@
+package com.example.dummy_inventory.dao;
+
+import com.example.dummy_inventory.model.AuditEntry;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+
+/**
+ * Data access for the AuditLog table
+ * Rows are written by AuditTrail in batches, never inside a business transaction.
+ */
+public class AuditLogDAO extends BaseDAO {
+
+    /**
+     * Insert a batch of entries in one transaction
+     *
+     * @return true if every entry was written
+     */
+    public boolean insertEntries(List<AuditEntry> entries) {
+        if (entries.isEmpty()) {
+            return true;
+        }
+
+        String sql = "INSERT INTO AuditLog (user_id, action, table_name, record_id, old_value, new_value, timestamp) " +
+                     "VALUES (?, ?, ?, ?, ?, ?, ?)";
+        return executeInTransaction(conn -> {
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                for (AuditEntry entry : entries) {
+                    if (entry.getUserId() != null) {
+                        pstmt.setInt(1, entry.getUserId());
+                    } else {
+                        pstmt.setNull(1, Types.INTEGER);
+                    }
+                    pstmt.setString(2, entry.getAction());
+                    pstmt.setString(3, entry.getTableName());
+                    if (entry.getRecordId() != null) {
+                        pstmt.setInt(4, entry.getRecordId());
+                    } else {
+                        pstmt.setNull(4, Types.INTEGER);
+                    }
+                    pstmt.setString(5, entry.getOldValue());
+                    pstmt.setString(6, entry.getNewValue());
+                    pstmt.setTimestamp(7, Timestamp.valueOf(entry.getTimestamp()));
+                    pstmt.addBatch();
+                }
+                pstmt.executeBatch();
+            }
+            return true;
+        }).isPresent();
+    }
+}
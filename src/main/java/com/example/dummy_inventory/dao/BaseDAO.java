@@ -10,6 +10,8 @@ import java.util.Optional;
 /**
  * Base DAO class providing common database operations
  * All DAOs should extend this class for consistent error handling and connection management
+ * Query helpers read through DatabaseConnection.getReadConnection() (replica-aware),
+ * update helpers write to the primary and record the write for read-your-writes.
  *
  * BENEFITS:
  * - Reduces code duplication across DAOs
@@ -30,7 +32,7 @@ public abstract class BaseDAO {
     protected <T> List<T> executeQuery(String sql, ResultSetMapper<T> mapper, Object... params) {
         List<T> results = new ArrayList<>();
 
-        try (Connection conn = DatabaseConnection.getConnection();
+        try (Connection conn = DatabaseConnection.getReadConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
             setParameters(pstmt, params);
@@ -56,14 +58,14 @@ public abstract class BaseDAO {
      * @return Optional containing result or empty if not found
      */
     protected <T> Optional<T> executeSingleQuery(String sql, ResultSetMapper<T> mapper, Object... params) {
-        try (Connection conn = DatabaseConnection.getConnection();
+        try (Connection conn = DatabaseConnection.getReadConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
             setParameters(pstmt, params);
 
             try (ResultSet rs = pstmt.executeQuery()) {
                 if (rs.next()) {
-                    return Optional.of(mapper.map(rs));
+                    return Optional.ofNullable(mapper.map(rs));
                 }
             }
         } catch (SQLException e) {
@@ -73,6 +75,60 @@ public abstract class BaseDAO {
         return Optional.empty();
     }
 
+    /**
+     * Execute a query and hand rows to a RowStream as they arrive from the server
+     * Uses MySQL row streaming (fetch size Integer.MIN_VALUE) so the first rows can
+     * be shown before the whole result is read. The running statement is passed to
+     * stream.started() so it can be cancelled from another thread.
+     *
+     * @param sql SQL query to execute
+     * @param mapper Function to map ResultSet to object
+     * @param maxRows Upper bound on rows read (0 = no limit)
+     * @param stream Receives each row; returning false stops reading
+     * @param params Query parameters
+     * @return Number of rows delivered
+     */
+    protected <T> int streamQuery(String sql, ResultSetMapper<T> mapper, int maxRows,
+                                  RowStream<? super T> stream, Object... params) {
+        int delivered = 0;
+
+        try (Connection conn = DatabaseConnection.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql,
+                     ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+
+            setParameters(pstmt, params);
+            pstmt.setFetchSize(Integer.MIN_VALUE);
+            if (maxRows > 0) {
+                pstmt.setMaxRows(maxRows);
+            }
+            stream.started(pstmt);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    delivered++;
+                    if (!stream.accept(mapper.map(rs))) {
+                        break;
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            // A cancelled statement surfaces as an exception - expected, not an error
+            if (!stream.isCancelled()) {
+                logError("Streaming query failed", sql, e);
+                stream.failed(e);
+            }
+        }
+
+        return delivered;
+    }
+
+    /**
+     * Escape LIKE wildcards so user input is matched literally
+     */
+    protected static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
     /**
      * Execute an update (INSERT, UPDATE, DELETE)
      *
@@ -85,7 +141,9 @@ public abstract class BaseDAO {
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
             setParameters(pstmt, params);
-            return pstmt.executeUpdate() > 0;
+            boolean updated = pstmt.executeUpdate() > 0;
+            DatabaseConnection.recordWrite();
+            return updated;
 
         } catch (SQLException e) {
             logError("Update execution failed", sql, e);
@@ -106,6 +164,7 @@ public abstract class BaseDAO {
 
             setParameters(pstmt, params);
             int affected = pstmt.executeUpdate();
+            DatabaseConnection.recordWrite();
 
             if (affected > 0) {
                 try (ResultSet keys = pstmt.getGeneratedKeys()) {
@@ -135,6 +194,7 @@ public abstract class BaseDAO {
 
             T result = callback.execute(conn);
             conn.commit();
+            DatabaseConnection.recordWrite();
             return Optional.ofNullable(result);
 
         } catch (SQLException e) {
@@ -167,7 +227,7 @@ public abstract class BaseDAO {
      * @return Count result or 0 if failed
      */
     protected int executeCount(String sql, Object... params) {
-        try (Connection conn = DatabaseConnection.getConnection();
+        try (Connection conn = DatabaseConnection.getReadConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
             setParameters(pstmt, params);
@@ -192,7 +252,7 @@ public abstract class BaseDAO {
      * @return Sum result or 0.0 if failed
      */
     protected double executeSum(String sql, Object... params) {
-        try (Connection conn = DatabaseConnection.getConnection();
+        try (Connection conn = DatabaseConnection.getReadConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
             setParameters(pstmt, params);
@@ -212,7 +272,7 @@ public abstract class BaseDAO {
     /**
      * Set parameters on a PreparedStatement with proper type handling
      */
-    private void setParameters(PreparedStatement pstmt, Object... params) throws SQLException {
+    protected void setParameters(PreparedStatement pstmt, Object... params) throws SQLException {
         for (int i = 0; i < params.length; i++) {
             Object param = params[i];
             int index = i + 1;
@@ -266,6 +326,35 @@ public abstract class BaseDAO {
         T map(ResultSet rs) throws SQLException;
     }
 
+    /**
+     * Receiver for rows produced by streamQuery
+     */
+    public interface RowStream<T> {
+        /**
+         * Called with the running statement before rows are read
+         */
+        default void started(Statement statement) {
+        }
+
+        /**
+         * @return false to stop reading further rows
+         */
+        boolean accept(T row);
+
+        /**
+         * True once the consumer has cancelled the query
+         */
+        default boolean isCancelled() {
+            return false;
+        }
+
+        /**
+         * Called (after logging) if the query failed other than by cancellation
+         */
+        default void failed(SQLException e) {
+        }
+    }
+
     /**
      * Functional interface for transaction operations
      */
@@ -6,17 +6,26 @@ import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
 
-public class CategoryDAO {
+public class CategoryDAO extends BaseDAO {
     public boolean createCategory(Category category) {
         String sql = "INSERT INTO Category (name, description) VALUES (?, ?)";
 
         try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+             PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
 
             pstmt.setString(1, category.getName());
             pstmt.setString(2, category.getDescription());
 
-            return pstmt.executeUpdate() > 0;
+            boolean updated = pstmt.executeUpdate() > 0;
+            DatabaseConnection.recordWrite();
+            if (updated) {
+                try (ResultSet keys = pstmt.getGeneratedKeys()) {
+                    if (keys.next()) {
+                        category.setCategoryId(keys.getInt(1));
+                    }
+                }
+            }
+            return updated;
 
         } catch (SQLException e) {
             System.err.println("Error creating category:");
@@ -29,7 +38,7 @@ public class CategoryDAO {
         List<Category> categories = new ArrayList<>();
         String sql = "SELECT category_id, name, description FROM Category";
 
-        try (Connection conn = DatabaseConnection.getConnection();
+        try (Connection conn = DatabaseConnection.getReadConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
 
@@ -51,7 +60,7 @@ public class CategoryDAO {
     public Category getCategoryById(int categoryId) {
         String sql = "SELECT category_id, name, description FROM Category WHERE category_id = ?";
 
-        try (Connection conn = DatabaseConnection.getConnection();
+        try (Connection conn = DatabaseConnection.getReadConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
             pstmt.setInt(1, categoryId);
@@ -83,7 +92,9 @@ public class CategoryDAO {
             pstmt.setString(2, category.getDescription());
             pstmt.setInt(3, category.getCategoryId());
 
-            return pstmt.executeUpdate() > 0;
+            boolean updated = pstmt.executeUpdate() > 0;
+            DatabaseConnection.recordWrite();
+            return updated;
 
         } catch (SQLException e) {
             System.err.println("Error updating category:");
@@ -99,7 +110,9 @@ public class CategoryDAO {
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
             pstmt.setInt(1, categoryId);
-            return pstmt.executeUpdate() > 0;
+            boolean updated = pstmt.executeUpdate() > 0;
+            DatabaseConnection.recordWrite();
+            return updated;
 
         } catch (SQLException e) {
             System.err.println("Error deleting category:");
@@ -112,7 +125,7 @@ public class CategoryDAO {
         List<Category> categories = new ArrayList<>();
         String sql = "SELECT category_id, name, description FROM Category WHERE name LIKE ?";
 
-        try (Connection conn = DatabaseConnection.getConnection();
+        try (Connection conn = DatabaseConnection.getReadConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
             pstmt.setString(1, "%" + searchTerm + "%");
@@ -134,4 +147,23 @@ public class CategoryDAO {
         return categories;
     }
 
+    /**
+     * Stream search results for as-you-type search, prefix matches first
+     *
+     * @param searchTerm Text typed by the user
+     * @param maxRows Maximum number of rows to deliver
+     * @param stream Receives rows as they are read
+     */
+    public void streamSearchCategories(String searchTerm, int maxRows, RowStream<? super Category> stream) {
+        String escaped = escapeLike(searchTerm);
+        String sql = "SELECT category_id, name, description FROM Category WHERE name LIKE ? " +
+                "ORDER BY name NOT LIKE ?, name";
+
+        streamQuery(sql, rs -> new Category(
+                rs.getInt("category_id"),
+                rs.getString("name"),
+                rs.getString("description")
+        ), maxRows, stream, "%" + escaped + "%", escaped + "%");
+    }
+
 }
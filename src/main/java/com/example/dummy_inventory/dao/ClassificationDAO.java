@@ -0,0 +1,177 @@
+package com.example.dummy_inventory.dao;
+
+import com.example.dummy_inventory.model.ProductClassification;
+
+import java.sql.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Data access for InventoryClassifier (ProductClass and the demand it is computed from)
+ *
+ * The bulk reads are streamed so 500k products never sit in a JDBC result
+ * buffer; writes are batched in chunks of BATCH_SIZE rows per transaction.
+ */
+public class ClassificationDAO extends BaseDAO {
+
+    private static final int BATCH_SIZE = 1000;
+
+    /**
+     * Revenue and daily units of every product that sold in [from, to), one row per product
+     * Read from the SalesMargin day totals in product order (idx_margin_product).
+     */
+    public int streamDemand(LocalDate from, LocalDate to, RowStream<? super ProductDemand> stream) {
+        String sql = "SELECT product_id, SUM(revenue) AS revenue, SUM(units) AS units, " +
+                     "SUM(units * units) AS units_squared " +
+                     "FROM SalesMargin WHERE sale_day >= ? AND sale_day < ? " +
+                     "GROUP BY product_id";
+        return streamQuery(sql, rs -> new ProductDemand(
+                rs.getInt("product_id"),
+                rs.getDouble("revenue"),
+                rs.getLong("units"),
+                rs.getDouble("units_squared")
+        ), 0, stream, from, to);
+    }
+
+    /**
+     * Every stored class, in product id order
+     */
+    public int streamClassifications(RowStream<? super ProductClassification> stream) {
+        String sql = "SELECT product_id, abc_class, xyz_class, revenue, cumulative_share, demand_cv " +
+                     "FROM ProductClass ORDER BY product_id";
+        return streamQuery(sql, rs -> new ProductClassification(
+                rs.getInt("product_id"),
+                rs.getString("abc_class").charAt(0),
+                rs.getString("xyz_class").charAt(0),
+                rs.getDouble("revenue"),
+                rs.getDouble("cumulative_share"),
+                rs.getObject("demand_cv", Double.class)
+        ), 0, stream);
+    }
+
+    /**
+     * When the last classification finished, or empty if products were never classified
+     */
+    public Optional<LocalDateTime> getLastClassified() {
+        return executeSingleQuery("SELECT MAX(classified_at) FROM ProductClass", rs -> {
+            Timestamp at = rs.getTimestamp(1);
+            return at != null ? at.toLocalDateTime() : null;
+        });
+    }
+
+    /**
+     * Insert or update classes in batched transactions
+     *
+     * @param classifiedAt Stamp of this classification run
+     * @return false if any batch failed (earlier batches stay committed)
+     */
+    public boolean saveClassifications(Collection<ProductClassification> classifications, LocalDateTime classifiedAt) {
+        String sql = "INSERT INTO ProductClass (product_id, abc_class, xyz_class, revenue, cumulative_share, " +
+                     "demand_cv, classified_at) VALUES (?, ?, ?, ?, ?, ?, ?) " +
+                     "ON DUPLICATE KEY UPDATE abc_class = VALUES(abc_class), xyz_class = VALUES(xyz_class), " +
+                     "revenue = VALUES(revenue), cumulative_share = VALUES(cumulative_share), " +
+                     "demand_cv = VALUES(demand_cv), classified_at = VALUES(classified_at)";
+
+        List<ProductClassification> batch = new ArrayList<>(BATCH_SIZE);
+        for (ProductClassification classification : classifications) {
+            batch.add(classification);
+            if (batch.size() == BATCH_SIZE) {
+                if (!saveBatch(sql, batch, classifiedAt)) {
+                    return false;
+                }
+                batch.clear();
+            }
+        }
+        return batch.isEmpty() || saveBatch(sql, batch, classifiedAt);
+    }
+
+    private boolean saveBatch(String sql, List<ProductClassification> batch, LocalDateTime classifiedAt) {
+        return executeInTransaction(conn -> {
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                for (ProductClassification classification : batch) {
+                    pstmt.setInt(1, classification.getProductId());
+                    pstmt.setString(2, String.valueOf(classification.getAbcClass()));
+                    pstmt.setString(3, String.valueOf(classification.getXyzClass()));
+                    pstmt.setDouble(4, classification.getRevenue());
+                    pstmt.setDouble(5, classification.getCumulativeShare());
+                    if (classification.getDemandCv() != null) {
+                        pstmt.setDouble(6, classification.getDemandCv());
+                    } else {
+                        pstmt.setNull(6, Types.DOUBLE);
+                    }
+                    pstmt.setTimestamp(7, Timestamp.valueOf(classifiedAt));
+                    pstmt.addBatch();
+                }
+                pstmt.executeBatch();
+            }
+            return true;
+        }).isPresent();
+    }
+
+    /**
+     * Put every product not saved by this run (it did not sell) in class CZ
+     *
+     * @param classifiedAt Stamp of this classification run
+     */
+    public boolean classifyUnsold(LocalDateTime classifiedAt) {
+        return executeInTransaction(conn -> {
+            Timestamp at = Timestamp.valueOf(classifiedAt);
+            try (PreparedStatement pstmt = conn.prepareStatement(
+                    "UPDATE ProductClass SET abc_class = 'C', xyz_class = 'Z', revenue = 0, cumulative_share = 100, " +
+                    "demand_cv = NULL, classified_at = ? WHERE classified_at < ?")) {
+                pstmt.setTimestamp(1, at);
+                pstmt.setTimestamp(2, at);
+                pstmt.executeUpdate();
+            }
+            try (PreparedStatement pstmt = conn.prepareStatement(
+                    "INSERT INTO ProductClass (product_id, abc_class, xyz_class, revenue, cumulative_share, " +
+                    "demand_cv, classified_at) " +
+                    "SELECT p.product_id, 'C', 'Z', 0, 100, NULL, ? FROM Product p " +
+                    "LEFT JOIN ProductClass c ON c.product_id = p.product_id WHERE c.product_id IS NULL")) {
+                pstmt.setTimestamp(1, at);
+                pstmt.executeUpdate();
+            }
+            return true;
+        }).isPresent();
+    }
+
+    /**
+     * Revenue and units of one product over the classification period
+     */
+    public static final class ProductDemand {
+        private final int productId;
+        private final double revenue;
+        private final long units;
+        private final double unitsSquared;
+
+        ProductDemand(int productId, double revenue, long units, double unitsSquared) {
+            this.productId = productId;
+            this.revenue = revenue;
+            this.units = units;
+            this.unitsSquared = unitsSquared;
+        }
+
+        public int getProductId() {
+            return productId;
+        }
+
+        public double getRevenue() {
+            return revenue;
+        }
+
+        public long getUnits() {
+            return units;
+        }
+
+        /**
+         * Sum over the days of (units sold that day)^2
+         */
+        public double getUnitsSquared() {
+            return unitsSquared;
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.dummy_inventory.dao;
+
+import com.example.dummy_inventory.model.DemandForecast;
+
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Data access for DemandForecaster: fitted models (ProductForecast) and the
+ * daily sales they are fitted from (SalesMargin day totals)
+ *
+ * The bulk reads are streamed so 500k products never sit in a JDBC result
+ * buffer; writes are batched in chunks of BATCH_SIZE rows per transaction.
+ */
+public class ForecastDAO extends BaseDAO {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private static final String FORECAST_SELECT = "SELECT product_id, as_of, smoothed_rate, demand_size, " +
+            "demand_interval, last_demand, mad FROM ProductForecast";
+
+    /**
+     * Units sold per product and day in [from, to), ordered by product then day
+     * Days whose sales were all reversed are left out.
+     */
+    public int streamDailySales(LocalDate from, LocalDate to, RowStream<? super DailySales> stream) {
+        String sql = "SELECT product_id, sale_day, units FROM SalesMargin " +
+                     "WHERE sale_day >= ? AND sale_day < ? AND units > 0 " +
+                     "ORDER BY product_id, sale_day";
+        return streamQuery(sql, ForecastDAO::mapDailySalesRow, 0, stream, from, to);
+    }
+
+    /**
+     * Units of one product sold per day in [from, to], oldest first; days without sales omitted
+     */
+    public List<DailySales> getDailySales(int productId, LocalDate from, LocalDate to) {
+        String sql = "SELECT product_id, sale_day, units FROM SalesMargin " +
+                     "WHERE product_id = ? AND sale_day BETWEEN ? AND ? AND units > 0 " +
+                     "ORDER BY sale_day";
+        return executeQuery(sql, ForecastDAO::mapDailySalesRow, productId, from, to);
+    }
+
+    public int streamForecasts(RowStream<? super DemandForecast> stream) {
+        return streamQuery(FORECAST_SELECT, ForecastDAO::mapForecastRow, 0, stream);
+    }
+
+    public Optional<DemandForecast> getForecast(int productId) {
+        return executeSingleQuery(FORECAST_SELECT + " WHERE product_id = ?", ForecastDAO::mapForecastRow, productId);
+    }
+
+    /**
+     * Insert or update fitted models in batched transactions
+     *
+     * @return false if any batch failed (earlier batches stay committed)
+     */
+    public boolean saveForecasts(Collection<DemandForecast> forecasts) {
+        String sql = "INSERT INTO ProductForecast (product_id, as_of, smoothed_rate, demand_size, demand_interval, " +
+                     "last_demand, mad) VALUES (?, ?, ?, ?, ?, ?, ?) " +
+                     "ON DUPLICATE KEY UPDATE as_of = VALUES(as_of), smoothed_rate = VALUES(smoothed_rate), " +
+                     "demand_size = VALUES(demand_size), demand_interval = VALUES(demand_interval), " +
+                     "last_demand = VALUES(last_demand), mad = VALUES(mad)";
+
+        List<DemandForecast> batch = new ArrayList<>(BATCH_SIZE);
+        for (DemandForecast forecast : forecasts) {
+            batch.add(forecast);
+            if (batch.size() == BATCH_SIZE) {
+                if (!saveForecastBatch(sql, batch)) {
+                    return false;
+                }
+                batch.clear();
+            }
+        }
+        return batch.isEmpty() || saveForecastBatch(sql, batch);
+    }
+
+    private boolean saveForecastBatch(String sql, List<DemandForecast> batch) {
+        return executeInTransaction(conn -> {
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                for (DemandForecast forecast : batch) {
+                    pstmt.setInt(1, forecast.getProductId());
+                    pstmt.setDate(2, Date.valueOf(forecast.getAsOf()));
+                    pstmt.setDouble(3, forecast.getSmoothedRate());
+                    pstmt.setDouble(4, forecast.getDemandSize());
+                    pstmt.setDouble(5, forecast.getDemandInterval());
+                    if (forecast.getLastDemand() != null) {
+                        pstmt.setDate(6, Date.valueOf(forecast.getLastDemand()));
+                    } else {
+                        pstmt.setNull(6, Types.DATE);
+                    }
+                    pstmt.setDouble(7, forecast.getMad());
+                    pstmt.addBatch();
+                }
+                pstmt.executeBatch();
+            }
+            return true;
+        }).isPresent();
+    }
+
+    private static DailySales mapDailySalesRow(ResultSet rs) throws SQLException {
+        return new DailySales(
+                rs.getInt("product_id"),
+                rs.getDate("sale_day").toLocalDate(),
+                rs.getInt("units"));
+    }
+
+    private static DemandForecast mapForecastRow(ResultSet rs) throws SQLException {
+        Date lastDemand = rs.getDate("last_demand");
+        return new DemandForecast(
+                rs.getInt("product_id"),
+                rs.getDate("as_of").toLocalDate(),
+                rs.getDouble("smoothed_rate"),
+                rs.getDouble("demand_size"),
+                rs.getDouble("demand_interval"),
+                lastDemand != null ? lastDemand.toLocalDate() : null,
+                rs.getDouble("mad"));
+    }
+
+    /**
+     * Units of one product sold on one day
+     */
+    public static final class DailySales {
+        private final int productId;
+        private final LocalDate day;
+        private final int quantity;
+
+        DailySales(int productId, LocalDate day, int quantity) {
+            this.productId = productId;
+            this.day = day;
+            this.quantity = quantity;
+        }
+
+        public int getProductId() {
+            return productId;
+        }
+
+        public LocalDate getDay() {
+            return day;
+        }
+
+        public int getQuantity() {
+            return quantity;
+        }
+    }
+}
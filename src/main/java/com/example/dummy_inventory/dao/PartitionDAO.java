@@ -0,0 +1,208 @@
+package com.example.dummy_inventory.dao;
+
+import com.example.dummy_inventory.db.DatabaseConnection;
+
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.StringJoiner;
+
+/**
+ * Monthly RANGE partitions and archive tables (used by PartitionMaintenance)
+ *
+ * A partitioned table is split on UNIX_TIMESTAMP(<date column>) into one
+ * partition per month, named pYYYYMM, followed by the catch-all "pmax".
+ * Table and column names passed here are constants from PartitionMaintenance,
+ * never user input. Everything reads and writes the primary: partition layout
+ * must not come from a lagging replica.
+ */
+public class PartitionDAO extends BaseDAO {
+
+    public static final String FUTURE_PARTITION = "pmax";
+
+    private static final DateTimeFormatter PARTITION_NAME = DateTimeFormatter.ofPattern("'p'yyyyMM");
+
+    public static String partitionName(YearMonth month) {
+        return month.format(PARTITION_NAME);
+    }
+
+    /**
+     * Month held by a pYYYYMM partition, or empty for pmax and foreign names
+     */
+    public static Optional<YearMonth> monthOf(String partitionName) {
+        try {
+            return Optional.of(YearMonth.parse(partitionName, PARTITION_NAME));
+        } catch (DateTimeParseException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * True if the table exists in the current schema
+     */
+    public boolean tableExists(String table) {
+        String sql = "SELECT COUNT(*) FROM information_schema.TABLES WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ?";
+        return primaryQuery(sql, rs -> rs.getInt(1) > 0, table).orElse(false);
+    }
+
+    /**
+     * Partition names in order, or an empty list if the table is not partitioned
+     */
+    public List<String> getPartitionNames(String table) {
+        String sql = "SELECT PARTITION_NAME FROM information_schema.PARTITIONS " +
+                     "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND PARTITION_NAME IS NOT NULL " +
+                     "ORDER BY PARTITION_ORDINAL_POSITION";
+        List<String> names = new ArrayList<>();
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, table);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    names.add(rs.getString(1));
+                }
+            }
+        } catch (SQLException e) {
+            logError("Reading partitions of " + table + " failed", sql, e);
+        }
+        return names;
+    }
+
+    /**
+     * Oldest or newest value of a date column
+     *
+     * @param aggregate "MIN" or "MAX"
+     */
+    public Optional<LocalDateTime> getDateBound(String table, String dateColumn, String aggregate) {
+        String sql = "SELECT " + aggregate + "(" + dateColumn + ") FROM " + table;
+        return primaryQuery(sql, rs -> {
+            Timestamp value = rs.getTimestamp(1);
+            return value != null ? value.toLocalDateTime() : null;
+        });
+    }
+
+    /**
+     * Split the catch-all partition into one partition per month
+     * Cheap while pmax is empty, which maintenance keeps true by staying months ahead.
+     *
+     * @param months Consecutive months after the last monthly partition
+     */
+    public boolean addMonthlyPartitions(String table, List<YearMonth> months) {
+        return executeDdl(splitStatement(table, months));
+    }
+
+    /**
+     * The statement addMonthlyPartitions runs, for printing when it must be run offline
+     */
+    public static String splitStatement(String table, List<YearMonth> months) {
+        return "ALTER TABLE " + table + " REORGANIZE PARTITION " + FUTURE_PARTITION + " INTO " + partitionList(months);
+    }
+
+    /**
+     * "(PARTITION pYYYYMM VALUES LESS THAN (...), ..., PARTITION pmax VALUES LESS THAN MAXVALUE)"
+     *
+     * @param months Consecutive months
+     */
+    public static String partitionList(List<YearMonth> months) {
+        StringJoiner partitions = new StringJoiner(", ", "(", ")");
+        for (YearMonth month : months) {
+            partitions.add("PARTITION " + partitionName(month) + " VALUES LESS THAN (UNIX_TIMESTAMP('" +
+                    month.plusMonths(1).atDay(1) + " 00:00:00'))");
+        }
+        partitions.add("PARTITION " + FUTURE_PARTITION + " VALUES LESS THAN MAXVALUE");
+        return partitions.toString();
+    }
+
+    /**
+     * Copy one partition into the archive table in id batches, verify, then drop it
+     *
+     * Copies use INSERT IGNORE on the archive's (id, date) key, so a run that was
+     * interrupted between copying and dropping simply copies again. The partition
+     * is dropped only when every row is present in the archive.
+     *
+     * @param columns Column list shared by the table and its archive
+     * @return Rows in the dropped partition, or -1 if it was not archived
+     */
+    public long archivePartition(String table, String archiveTable, String idColumn, String columns,
+                                 String partition, int batchSize) {
+        String from = table + " PARTITION (" + partition + ")";
+        String rangeSql = "SELECT MIN(" + idColumn + "), MAX(" + idColumn + "), COUNT(*) FROM " + from;
+        String copySql = "INSERT IGNORE INTO " + archiveTable + " (" + columns + ") SELECT " + columns +
+                         " FROM " + from + " WHERE " + idColumn + " BETWEEN ? AND ?";
+        String missingSql = "SELECT COUNT(*) FROM " + from + " t WHERE NOT EXISTS (SELECT 1 FROM " +
+                            archiveTable + " a WHERE a." + idColumn + " = t." + idColumn + ")";
+
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            long minId;
+            long maxId;
+            long rows;
+            try (Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery(rangeSql)) {
+                rs.next();
+                minId = rs.getLong(1);
+                maxId = rs.getLong(2);
+                rows = rs.getLong(3);
+            }
+
+            if (rows > 0) {
+                try (PreparedStatement pstmt = conn.prepareStatement(copySql)) {
+                    for (long low = minId; low <= maxId; low += batchSize) {
+                        pstmt.setLong(1, low);
+                        pstmt.setLong(2, Math.min(maxId, low + batchSize - 1));
+                        pstmt.executeUpdate();
+                    }
+                }
+                try (Statement stmt = conn.createStatement();
+                     ResultSet rs = stmt.executeQuery(missingSql)) {
+                    rs.next();
+                    if (rs.getLong(1) > 0) {
+                        System.err.println("Archiving " + from + ": " + rs.getLong(1) +
+                                " rows missing from " + archiveTable + ", partition kept");
+                        return -1;
+                    }
+                }
+            }
+
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("ALTER TABLE " + table + " DROP PARTITION " + partition);
+            }
+            DatabaseConnection.recordWrite();
+            return rows;
+
+        } catch (SQLException e) {
+            logError("Archiving " + from + " failed", copySql, e);
+            return -1;
+        }
+    }
+
+    private boolean executeDdl(String sql) {
+        try (Connection conn = DatabaseConnection.getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute(sql);
+            DatabaseConnection.recordWrite();
+            return true;
+        } catch (SQLException e) {
+            logError("Partition DDL failed", sql, e);
+            return false;
+        }
+    }
+
+    private <T> Optional<T> primaryQuery(String sql, ResultSetMapper<T> mapper, Object... params) {
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            setParameters(pstmt, params);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return Optional.ofNullable(mapper.map(rs));
+                }
+            }
+        } catch (SQLException e) {
+            logError("Query execution failed", sql, e);
+        }
+        return Optional.empty();
+    }
+}
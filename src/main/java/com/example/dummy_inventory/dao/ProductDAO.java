@@ -1,18 +1,43 @@
 package com.example.dummy_inventory.dao;
 import com.example.dummy_inventory.db.DatabaseConnection;
+import com.example.dummy_inventory.event.EventBus;
+import com.example.dummy_inventory.event.ProductChanged;
+import com.example.dummy_inventory.model.LowStockItem;
 import com.example.dummy_inventory.model.Product;
+import com.example.dummy_inventory.service.AuditTrail;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.StringJoiner;
 
 
-public class ProductDAO {
+public class ProductDAO extends BaseDAO {
+
+    private static final String SEARCH_SELECT = "SELECT p.product_id, p.name, p.description, p.quantity_in_stock, p.price, p.cost_price, " +
+            "p.category_id, p.supplier_id, p.reorder_level, p.barcode, p.sku, p.version, " +
+            "c.name AS category_name, s.name AS supplier_name " +
+            "FROM Product p " +
+            "JOIN Category c ON p.category_id = c.category_id " +
+            "JOIN Supplier s ON p.supplier_id = s.supplier_id ";
+
+    private static final String STOCK_LEVEL_SELECT = "SELECT p.product_id, p.name, p.quantity_in_stock, p.reorder_level, " +
+            "c.name AS category_name, s.name AS supplier_name " +
+            "FROM Product p " +
+            "JOIN Category c ON p.category_id = c.category_id " +
+            "JOIN Supplier s ON p.supplier_id = s.supplier_id ";
+
     public boolean createProduct(Product product) {
         String sql = "INSERT INTO Product (name, description, quantity_in_stock, price, cost_price, category_id, supplier_id, reorder_level, barcode, sku) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
 
         try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+             PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
 
             pstmt.setString(1, product.getName());
             pstmt.setString(2, product.getDescription());
@@ -25,7 +50,23 @@ public class ProductDAO {
             pstmt.setString(9, product.getBarcode());
             pstmt.setString(10, product.getSku());
 
-            return pstmt.executeUpdate() > 0;
+            boolean updated = pstmt.executeUpdate() > 0;
+            DatabaseConnection.recordWrite();
+            if (updated) {
+                try (ResultSet keys = pstmt.getGeneratedKeys()) {
+                    if (keys.next()) {
+                        product.setProductId(keys.getInt(1));
+                    }
+                }
+                product.setVersion(0);
+                product.markClean();
+                EventBus.getInstance().publish(
+                        new ProductChanged(product.getProductId(), ProductChanged.Kind.CREATED));
+                AuditTrail.getInstance().record(AuditTrail.CREATE, "Product", product.getProductId(), null,
+                        "Name: " + product.getName() + ", Stock: " + product.getQuantityInStock() +
+                        ", Price: " + product.getPrice());
+            }
+            return updated;
 
         } catch (SQLException e) {
             System.err.println("Error creating product:");
@@ -37,32 +78,18 @@ public class ProductDAO {
     public List<Product> getAllProducts() {
         List<Product> products = new ArrayList<>();
         String sql = "SELECT p.product_id, p.name, p.description, p.quantity_in_stock, p.price, p.cost_price, " +
-                "p.category_id, p.supplier_id, p.reorder_level, p.barcode, p.sku, " +
+                "p.category_id, p.supplier_id, p.reorder_level, p.barcode, p.sku, p.version, " +
                 "c.name AS category_name, s.name AS supplier_name " +
                 "FROM Product p " +
                 "JOIN Category c ON p.category_id = c.category_id " +
                 "JOIN Supplier s ON p.supplier_id = s.supplier_id";
 
-        try (Connection conn = DatabaseConnection.getConnection();
+        try (Connection conn = DatabaseConnection.getReadConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
 
             while (rs.next()) {
-                Product product = new Product(
-                        rs.getInt("product_id"),
-                        rs.getString("name"),
-                        rs.getInt("quantity_in_stock"),
-                        rs.getDouble("price"),
-                        rs.getInt("category_id"),
-                        rs.getInt("supplier_id")
-                );
-                product.setDescription(rs.getString("description"));
-                product.setCostPrice(rs.getDouble("cost_price"));
-                product.setReorderLevel(rs.getInt("reorder_level"));
-                product.setBarcode(rs.getString("barcode"));
-                product.setSku(rs.getString("sku"));
-                product.setCategoryName(rs.getString("category_name"));
-                product.setSupplierName(rs.getString("supplier_name"));
+                Product product = mapProductRow(rs);
                 products.add(product);
             }
         } catch (SQLException e) {
@@ -75,35 +102,21 @@ public class ProductDAO {
 
     public Product getProductById(int productId) {
         String sql = "SELECT p.product_id, p.name, p.description, p.quantity_in_stock, p.price, p.cost_price, " +
-                "p.category_id, p.supplier_id, p.reorder_level, p.barcode, p.sku, " +
+                "p.category_id, p.supplier_id, p.reorder_level, p.barcode, p.sku, p.version, " +
                 "c.name AS category_name, s.name AS supplier_name " +
                 "FROM Product p " +
                 "JOIN Category c ON p.category_id = c.category_id " +
                 "JOIN Supplier s ON p.supplier_id = s.supplier_id " +
                 "WHERE p.product_id = ?";
 
-        try (Connection conn = DatabaseConnection.getConnection();
+        try (Connection conn = DatabaseConnection.getReadConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
             pstmt.setInt(1, productId);
 
             try (ResultSet rs = pstmt.executeQuery()) {
                 if (rs.next()) {
-                    Product product = new Product(
-                            rs.getInt("product_id"),
-                            rs.getString("name"),
-                            rs.getInt("quantity_in_stock"),
-                            rs.getDouble("price"),
-                            rs.getInt("category_id"),
-                            rs.getInt("supplier_id")
-                    );
-                    product.setDescription(rs.getString("description"));
-                    product.setCostPrice(rs.getDouble("cost_price"));
-                    product.setReorderLevel(rs.getInt("reorder_level"));
-                    product.setBarcode(rs.getString("barcode"));
-                    product.setSku(rs.getString("sku"));
-                    product.setCategoryName(rs.getString("category_name"));
-                    product.setSupplierName(rs.getString("supplier_name"));
+                    Product product = mapProductRow(rs);
                     return product;
                 }
             }
@@ -115,41 +128,133 @@ public class ProductDAO {
         return null;
     }
 
+    /**
+     * Outcome of updateChangedColumns()
+     */
+    public enum UpdateResult {
+        UPDATED,    // Changed columns were written
+        UNCHANGED,  // Nothing was dirty - no statement was sent
+        CONFLICT,   // The row was edited (version) or its stock moved since it was loaded, or it was deleted
+        FAILED      // Database error
+    }
+
+    /**
+     * Save a product's edits
+     *
+     * @return true if the edits were written (or there were none)
+     * @see #updateChangedColumns(Product)
+     */
     public boolean updateProduct(Product product) {
-        String sql = "UPDATE Product SET name = ?, description = ?, quantity_in_stock = ?, price = ?, cost_price = ?, category_id = ?, supplier_id = ?, reorder_level = ?, barcode = ?, sku = ? WHERE product_id = ?";
+        UpdateResult result = updateChangedColumns(product);
+        return result == UpdateResult.UPDATED || result == UpdateResult.UNCHANGED;
+    }
+
+    /**
+     * Write only the columns changed since the product was loaded, with optimistic locking
+     *
+     * The update succeeds only if Product.version still matches the loaded value, so
+     * two people editing the same product cannot silently overwrite each other.
+     * Stock movements (sales, receipts) do not bump the version, so they never make
+     * an edit fail - and an edit that does not touch quantity_in_stock never writes it.
+     * An edited quantity is written only if the stock is still what the editor saw.
+     *
+     * @return UPDATED, UNCHANGED, CONFLICT (reload and retry) or FAILED
+     */
+    public UpdateResult updateChangedColumns(Product product) {
+        Set<Product.Column> columns = product.getDirtyColumns();
+        if (columns.isEmpty()) {
+            return UpdateResult.UNCHANGED;
+        }
+
+        StringBuilder sql = new StringBuilder("UPDATE Product SET ");
+        List<Object> params = new ArrayList<>();
+        for (Product.Column column : columns) {
+            sql.append(column.getColumnName()).append(" = ?, ");
+            params.add(columnValue(product, column));
+        }
+        sql.append("version = version + 1 WHERE product_id = ? AND version = ?");
+        params.add(product.getProductId());
+        params.add(product.getVersion());
+        if (columns.contains(Product.Column.QUANTITY_IN_STOCK)) {
+            sql.append(" AND quantity_in_stock = ?");
+            params.add(product.getLoadedQuantityInStock());
+        }
 
         try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+             PreparedStatement pstmt = conn.prepareStatement(sql.toString())) {
 
-            pstmt.setString(1, product.getName());
-            pstmt.setString(2, product.getDescription());
-            pstmt.setInt(3, product.getQuantityInStock());
-            pstmt.setDouble(4, product.getPrice());
-            pstmt.setDouble(5, product.getCostPrice());
-            pstmt.setInt(6, product.getCategoryId());
-            pstmt.setInt(7, product.getSupplierId());
-            pstmt.setInt(8, product.getReorderLevel());
-            pstmt.setString(9, product.getBarcode());
-            pstmt.setString(10, product.getSku());
-            pstmt.setInt(11, product.getProductId());
+            setParameters(pstmt, params.toArray());
+
+            boolean updated = pstmt.executeUpdate() > 0;
+            DatabaseConnection.recordWrite();
+            if (!updated) {
+                return UpdateResult.CONFLICT;
+            }
 
-            return pstmt.executeUpdate() > 0;
+            // Old and new values of the written columns, e.g. "price: 9.5" -> "price: 10.0"
+            StringJoiner oldValues = new StringJoiner(", ");
+            StringJoiner newValues = new StringJoiner(", ");
+            for (Product.Column column : columns) {
+                oldValues.add(column.getColumnName() + ": " + product.getOriginalValue(column));
+                newValues.add(column.getColumnName() + ": " + columnValue(product, column));
+            }
+
+            product.setVersion(product.getVersion() + 1);
+            product.markClean();
+            AuditTrail.getInstance().record(AuditTrail.UPDATE, "Product", product.getProductId(),
+                    oldValues.toString(), newValues.toString());
+            EventBus.getInstance().publish(
+                    new ProductChanged(product.getProductId(), ProductChanged.Kind.UPDATED));
+            return UpdateResult.UPDATED;
 
         } catch (SQLException e) {
             System.err.println("Error updating product:");
             e.printStackTrace();
-            return false;
+            return UpdateResult.FAILED;
         }
     }
 
+    private static Object columnValue(Product product, Product.Column column) {
+        switch (column) {
+            case NAME: return product.getName();
+            case DESCRIPTION: return product.getDescription();
+            case QUANTITY_IN_STOCK: return product.getQuantityInStock();
+            case PRICE: return product.getPrice();
+            case COST_PRICE: return product.getCostPrice();
+            case CATEGORY_ID: return product.getCategoryId();
+            case SUPPLIER_ID: return product.getSupplierId();
+            case REORDER_LEVEL: return product.getReorderLevel();
+            case BARCODE: return product.getBarcode();
+            case SKU: return product.getSku();
+            default: throw new IllegalArgumentException("Unknown column: " + column);
+        }
+    }
+
+    /**
+     * Delete a product that has never been sold
+     * Sale is partitioned and cannot carry a foreign key, so the ON DELETE RESTRICT
+     * it used to have is checked here (archived sales included).
+     *
+     * @return false if the product does not exist or has sales
+     */
     public boolean deleteProduct(int productId) {
-        String sql = "DELETE FROM Product WHERE product_id = ?";
+        String sql = "DELETE FROM Product WHERE product_id = ? " +
+                     "AND NOT EXISTS (SELECT 1 FROM Sale WHERE product_id = ?) " +
+                     "AND NOT EXISTS (SELECT 1 FROM SaleArchive WHERE product_id = ?)";
 
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
             pstmt.setInt(1, productId);
-            return pstmt.executeUpdate() > 0;
+            pstmt.setInt(2, productId);
+            pstmt.setInt(3, productId);
+            boolean updated = pstmt.executeUpdate() > 0;
+            DatabaseConnection.recordWrite();
+            if (updated) {
+                EventBus.getInstance().publish(new ProductChanged(productId, ProductChanged.Kind.DELETED));
+                AuditTrail.getInstance().record(AuditTrail.DELETE, "Product", productId, null, null);
+            }
+            return updated;
 
         } catch (SQLException e) {
             System.err.println("Error deleting product:");
@@ -161,35 +266,21 @@ public class ProductDAO {
     public List<Product> searchProducts(String searchTerm) {
         List<Product> products = new ArrayList<>();
         String sql = "SELECT p.product_id, p.name, p.description, p.quantity_in_stock, p.price, p.cost_price, " +
-                "p.category_id, p.supplier_id, p.reorder_level, p.barcode, p.sku, " +
+                "p.category_id, p.supplier_id, p.reorder_level, p.barcode, p.sku, p.version, " +
                 "c.name AS category_name, s.name AS supplier_name " +
                 "FROM Product p " +
                 "JOIN Category c ON p.category_id = c.category_id " +
                 "JOIN Supplier s ON p.supplier_id = s.supplier_id " +
                 "WHERE p.name LIKE ?";
 
-        try (Connection conn = DatabaseConnection.getConnection();
+        try (Connection conn = DatabaseConnection.getReadConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
             pstmt.setString(1, "%" + searchTerm + "%");
 
             try (ResultSet rs = pstmt.executeQuery()) {
                 while (rs.next()) {
-                    Product product = new Product(
-                            rs.getInt("product_id"),
-                            rs.getString("name"),
-                            rs.getInt("quantity_in_stock"),
-                            rs.getDouble("price"),
-                            rs.getInt("category_id"),
-                            rs.getInt("supplier_id")
-                    );
-                    product.setDescription(rs.getString("description"));
-                    product.setCostPrice(rs.getDouble("cost_price"));
-                    product.setReorderLevel(rs.getInt("reorder_level"));
-                    product.setBarcode(rs.getString("barcode"));
-                    product.setSku(rs.getString("sku"));
-                    product.setCategoryName(rs.getString("category_name"));
-                    product.setSupplierName(rs.getString("supplier_name"));
+                    Product product = mapProductRow(rs);
                     products.add(product);
                 }
             }
@@ -201,39 +292,163 @@ public class ProductDAO {
         return products;
     }
 
+    /**
+     * Stream search results for as-you-type search
+     * Prefix matches come first (range scan on idx_product_name, cheap even on a
+     * large catalogue), then the remaining substring matches up to maxRows.
+     *
+     * @param searchTerm Text typed by the user
+     * @param maxRows Maximum number of rows to deliver across both phases
+     * @param stream Receives rows as they are read
+     */
+    public void streamSearchProducts(String searchTerm, int maxRows, RowStream<? super Product> stream) {
+        String escaped = escapeLike(searchTerm);
+
+        int delivered = streamQuery(SEARCH_SELECT + "WHERE p.name LIKE ? ORDER BY p.name",
+                ProductDAO::mapProductRow, maxRows, stream, escaped + "%");
+
+        if (delivered < maxRows && !stream.isCancelled()) {
+            streamQuery(SEARCH_SELECT + "WHERE p.name LIKE ? AND p.name NOT LIKE ? ORDER BY p.name",
+                    ProductDAO::mapProductRow, maxRows - delivered, stream, "%" + escaped + "%", escaped + "%");
+        }
+    }
+
+    /**
+     * Best match for a typed name: the first product whose name starts with it,
+     * else the first that contains it
+     */
+    public Optional<Product> findFirstMatch(String searchTerm) {
+        Product[] first = {null};
+        streamSearchProducts(searchTerm, 1, product -> {
+            first[0] = product;
+            return false;
+        });
+        return Optional.ofNullable(first[0]);
+    }
+
+    private static Product mapProductRow(ResultSet rs) throws SQLException {
+        Product product = new Product(
+                rs.getInt("product_id"),
+                rs.getString("name"),
+                rs.getInt("quantity_in_stock"),
+                rs.getDouble("price"),
+                rs.getInt("category_id"),
+                rs.getInt("supplier_id")
+        );
+        product.setDescription(rs.getString("description"));
+        product.setCostPrice(rs.getDouble("cost_price"));
+        product.setReorderLevel(rs.getInt("reorder_level"));
+        product.setBarcode(rs.getString("barcode"));
+        product.setSku(rs.getString("sku"));
+        product.setCategoryName(rs.getString("category_name"));
+        product.setSupplierName(rs.getString("supplier_name"));
+        product.setVersion(rs.getInt("version"));
+        product.markClean();
+        return product;
+    }
+
+    /**
+     * Stream the stock position of every product (used to build LowStockTracker)
+     * Rows are streamed, so the whole catalogue is never held as Product objects.
+     *
+     * @param stream Receives one LowStockItem per product
+     * @return Number of rows delivered
+     */
+    public int streamStockLevels(RowStream<? super LowStockItem> stream) {
+        return streamQuery(STOCK_LEVEL_SELECT, ProductDAO::mapStockLevelRow, 0, stream);
+    }
+
+    /**
+     * Stock position of one product
+     *
+     * @return The stock level, or empty if the product does not exist
+     */
+    public Optional<LowStockItem> getStockLevel(int productId) {
+        return executeSingleQuery(STOCK_LEVEL_SELECT + "WHERE p.product_id = ?",
+                ProductDAO::mapStockLevelRow, productId);
+    }
+
+    /**
+     * Apply relative stock changes inside the caller's transaction
+     * Uses quantity_in_stock = quantity_in_stock + ?, so concurrent sales and other
+     * adjustments are never overwritten, and sends all products as one batch.
+     * Rows are updated in product_id order to keep lock order consistent
+     * between concurrent transactions.
+     *
+     * @param conn Connection with an open transaction (on the primary)
+     * @param deltas product_id -> signed change, sorted by product_id
+     * @return product_id -> quantity_in_stock after the change
+     */
+    static Map<Integer, Integer> applyStockDeltas(Connection conn, SortedMap<Integer, Integer> deltas) throws SQLException {
+        if (deltas.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "UPDATE Product SET quantity_in_stock = quantity_in_stock + ? WHERE product_id = ?")) {
+            for (Map.Entry<Integer, Integer> delta : deltas.entrySet()) {
+                pstmt.setInt(1, delta.getValue());
+                pstmt.setInt(2, delta.getKey());
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+        }
+
+        // Rows are locked by the update above, so these are the committed values
+        Map<Integer, Integer> quantities = new HashMap<>();
+        String placeholders = String.join(", ", Collections.nCopies(deltas.size(), "?"));
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "SELECT product_id, quantity_in_stock FROM Product WHERE product_id IN (" + placeholders + ")")) {
+            int index = 1;
+            for (Integer productId : deltas.keySet()) {
+                pstmt.setInt(index++, productId);
+            }
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    quantities.put(rs.getInt("product_id"), rs.getInt("quantity_in_stock"));
+                }
+            }
+        }
+        return quantities;
+    }
+
+    private static LowStockItem mapStockLevelRow(ResultSet rs) throws SQLException {
+        return new LowStockItem(
+                rs.getInt("product_id"),
+                rs.getString("name"),
+                rs.getInt("quantity_in_stock"),
+                rs.getInt("reorder_level"),
+                rs.getString("category_name"),
+                rs.getString("supplier_name")
+        );
+    }
+
+    /**
+     * Products below their reorder level, most urgent (lowest stock/reorder_level) first
+     * Live screens read LowStockTracker instead; this query is the uncached fallback.
+     *
+     * @param threshold Reorder level used for products without one (LOW_STOCK_THRESHOLD)
+     */
     public List<Product> getLowStockProducts(int threshold) {
         List<Product> products = new ArrayList<>();
         String sql = "SELECT p.product_id, p.name, p.description, p.quantity_in_stock, p.price, p.cost_price, " +
-                "p.category_id, p.supplier_id, p.reorder_level, p.barcode, p.sku, " +
+                "p.category_id, p.supplier_id, p.reorder_level, p.barcode, p.sku, p.version, " +
                 "c.name AS category_name, s.name AS supplier_name " +
                 "FROM Product p " +
                 "JOIN Category c ON p.category_id = c.category_id " +
                 "JOIN Supplier s ON p.supplier_id = s.supplier_id " +
-                "WHERE p.quantity_in_stock < ? " +
-                "ORDER BY p.quantity_in_stock ASC";
+                "WHERE p.quantity_in_stock < IF(p.reorder_level > 0, p.reorder_level, ?) " +
+                "ORDER BY p.quantity_in_stock / IF(p.reorder_level > 0, p.reorder_level, ?) ASC, p.quantity_in_stock ASC";
 
-        try (Connection conn = DatabaseConnection.getConnection();
+        try (Connection conn = DatabaseConnection.getReadConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
             pstmt.setInt(1, threshold);
+            pstmt.setInt(2, threshold);
 
             try (ResultSet rs = pstmt.executeQuery()) {
                 while (rs.next()) {
-                    Product product = new Product(
-                            rs.getInt("product_id"),
-                            rs.getString("name"),
-                            rs.getInt("quantity_in_stock"),
-                            rs.getDouble("price"),
-                            rs.getInt("category_id"),
-                            rs.getInt("supplier_id")
-                    );
-                    product.setDescription(rs.getString("description"));
-                    product.setCostPrice(rs.getDouble("cost_price"));
-                    product.setReorderLevel(rs.getInt("reorder_level"));
-                    product.setBarcode(rs.getString("barcode"));
-                    product.setSku(rs.getString("sku"));
-                    product.setCategoryName(rs.getString("category_name"));
-                    product.setSupplierName(rs.getString("supplier_name"));
+                    Product product = mapProductRow(rs);
                     products.add(product);
                 }
             }
@@ -0,0 +1,243 @@
+package com.example.dummy_inventory.dao;
+
+import com.example.dummy_inventory.event.EventBus;
+import com.example.dummy_inventory.event.StockChanged;
+import com.example.dummy_inventory.model.PurchaseOrder;
+import com.example.dummy_inventory.service.AuditTrail;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Data access for the PurchaseOrder table
+ * Orders are created manually or in bulk by the ReplenishmentEngine, and
+ * closed by receivePurchaseOrders() when the goods arrive.
+ */
+public class PurchaseOrderDAO extends BaseDAO {
+
+    private static final String SELECT = "SELECT po.order_id, po.supplier_id, po.product_id, po.quantity, po.unit_cost, " +
+            "po.total_cost, po.order_date, po.expected_delivery, po.status, po.received_date, po.user_id, po.notes, " +
+            "p.name AS product_name, s.name AS supplier_name " +
+            "FROM PurchaseOrder po " +
+            "JOIN Product p ON po.product_id = p.product_id " +
+            "JOIN Supplier s ON po.supplier_id = s.supplier_id ";
+
+    private static final String INSERT = "INSERT INTO PurchaseOrder (supplier_id, product_id, quantity, unit_cost, total_cost, " +
+            "expected_delivery, status, user_id, notes) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    /**
+     * Create a single purchase order
+     *
+     * @return true if the order was inserted; its orderId is set
+     */
+    public boolean createPurchaseOrder(PurchaseOrder order) {
+        Optional<Integer> key = executeInsertWithKey(INSERT,
+                order.getSupplierId(),
+                order.getProductId(),
+                order.getQuantity(),
+                order.getUnitCost(),
+                order.getTotalCost(),
+                order.getExpectedDelivery(),
+                order.getStatus().name(),
+                order.getUserId(),
+                order.getNotes());
+        key.ifPresent(order::setOrderId);
+        return key.isPresent();
+    }
+
+    /**
+     * Insert many orders in one transaction with a single batched statement
+     * Either all orders are created or none; generated ids are set on success.
+     *
+     * @return Number of orders created (0 if the transaction failed)
+     */
+    public int createPurchaseOrders(List<PurchaseOrder> orders) {
+        if (orders.isEmpty()) {
+            return 0;
+        }
+
+        return executeInTransaction(conn -> {
+            try (PreparedStatement pstmt = conn.prepareStatement(INSERT, Statement.RETURN_GENERATED_KEYS)) {
+                for (PurchaseOrder order : orders) {
+                    pstmt.setInt(1, order.getSupplierId());
+                    pstmt.setInt(2, order.getProductId());
+                    pstmt.setInt(3, order.getQuantity());
+                    pstmt.setDouble(4, order.getUnitCost());
+                    pstmt.setDouble(5, order.getTotalCost());
+                    if (order.getExpectedDelivery() != null) {
+                        pstmt.setDate(6, Date.valueOf(order.getExpectedDelivery()));
+                    } else {
+                        pstmt.setNull(6, Types.DATE);
+                    }
+                    pstmt.setString(7, order.getStatus().name());
+                    if (order.getUserId() != null) {
+                        pstmt.setInt(8, order.getUserId());
+                    } else {
+                        pstmt.setNull(8, Types.INTEGER);
+                    }
+                    pstmt.setString(9, order.getNotes());
+                    pstmt.addBatch();
+                }
+                pstmt.executeBatch();
+
+                try (ResultSet keys = pstmt.getGeneratedKeys()) {
+                    for (int i = 0; i < orders.size() && keys.next(); i++) {
+                        orders.get(i).setOrderId(keys.getInt(1));
+                    }
+                }
+            }
+            return orders.size();
+        }).orElse(0);
+    }
+
+    public Optional<PurchaseOrder> getPurchaseOrderById(int orderId) {
+        return executeSingleQuery(SELECT + "WHERE po.order_id = ?", PurchaseOrderDAO::mapRow, orderId);
+    }
+
+    /**
+     * Orders with the given status, newest first
+     */
+    public List<PurchaseOrder> getPurchaseOrdersByStatus(PurchaseOrder.Status status) {
+        return executeQuery(SELECT + "WHERE po.status = ? ORDER BY po.order_date DESC, po.order_id DESC",
+                PurchaseOrderDAO::mapRow, status.name());
+    }
+
+    /**
+     * Pending orders for one supplier (what a supplier will deliver next)
+     */
+    public List<PurchaseOrder> getPendingOrdersBySupplier(int supplierId) {
+        return executeQuery(SELECT + "WHERE po.status = 'PENDING' AND po.supplier_id = ? ORDER BY po.order_id",
+                PurchaseOrderDAO::mapRow, supplierId);
+    }
+
+    /**
+     * Cancel an order that has not been received yet
+     *
+     * @return true if the order was pending and is now cancelled
+     */
+    public boolean cancelPurchaseOrder(int orderId) {
+        return executeUpdate("UPDATE PurchaseOrder SET status = 'CANCELLED' WHERE order_id = ? AND status = 'PENDING'",
+                orderId);
+    }
+
+    /**
+     * Receive one order (see receivePurchaseOrders)
+     *
+     * @return true if the order was pending and is now received
+     */
+    public boolean receivePurchaseOrder(int orderId) {
+        return receivePurchaseOrders(Collections.singletonList(orderId)) == 1;
+    }
+
+    /**
+     * Mark orders RECEIVED and add their quantities to stock, all in one transaction
+     *
+     * The pending orders are locked first, so an order received twice (double
+     * click, two terminals) only adds stock once; orders that are not PENDING are
+     * skipped. Quantities are summed per product and applied as relative updates
+     * (quantity_in_stock + ?) in a single batch, so receiving never overwrites a
+     * sale that happened meanwhile.
+     *
+     * @param orderIds Orders to receive
+     * @return Number of orders received (0 if none were pending or the transaction failed)
+     */
+    public int receivePurchaseOrders(Collection<Integer> orderIds) {
+        if (orderIds.isEmpty()) {
+            return 0;
+        }
+        // Sorted ids: concurrent receipts lock orders in the same order
+        List<Integer> ids = new ArrayList<>(new TreeSet<>(orderIds));
+        String placeholders = String.join(", ", Collections.nCopies(ids.size(), "?"));
+
+        List<Integer> received = new ArrayList<>();
+        Optional<List<StockChanged>> changes = executeInTransaction(conn -> {
+            // Lock the orders that are still pending and total their quantities per product
+            List<Integer> pending = new ArrayList<>();
+            SortedMap<Integer, Integer> deltas = new TreeMap<>();
+            try (PreparedStatement pstmt = conn.prepareStatement(
+                    "SELECT order_id, product_id, quantity FROM PurchaseOrder " +
+                    "WHERE order_id IN (" + placeholders + ") AND status = 'PENDING' ORDER BY order_id FOR UPDATE")) {
+                for (int i = 0; i < ids.size(); i++) {
+                    pstmt.setInt(i + 1, ids.get(i));
+                }
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        pending.add(rs.getInt("order_id"));
+                        deltas.merge(rs.getInt("product_id"), rs.getInt("quantity"), Integer::sum);
+                    }
+                }
+            }
+            if (pending.isEmpty()) {
+                return Collections.<StockChanged>emptyList();
+            }
+
+            try (PreparedStatement pstmt = conn.prepareStatement(
+                    "UPDATE PurchaseOrder SET status = 'RECEIVED', received_date = CURRENT_TIMESTAMP WHERE order_id = ?")) {
+                for (Integer orderId : pending) {
+                    pstmt.setInt(1, orderId);
+                    pstmt.addBatch();
+                }
+                pstmt.executeBatch();
+            }
+
+            Map<Integer, Integer> quantities = ProductDAO.applyStockDeltas(conn, deltas);
+
+            List<StockChanged> events = new ArrayList<>(deltas.size());
+            for (Map.Entry<Integer, Integer> delta : deltas.entrySet()) {
+                events.add(new StockChanged(delta.getKey(), delta.getValue(),
+                        quantities.getOrDefault(delta.getKey(), 0)));
+            }
+            received.addAll(pending);
+            return events;
+        });
+
+        if (changes.isEmpty()) {
+            return 0;
+        }
+        EventBus bus = EventBus.getInstance();
+        changes.get().forEach(bus::publish);
+
+        AuditTrail audit = AuditTrail.getInstance();
+        for (Integer orderId : received) {
+            audit.record(AuditTrail.UPDATE, "PurchaseOrder", orderId, "Status: PENDING", "Status: RECEIVED");
+        }
+        for (StockChanged change : changes.get()) {
+            audit.record(AuditTrail.UPDATE, "Product", change.getProductId(),
+                    "Stock: " + (change.getNewQuantity() - change.getDelta()), "Stock: " + change.getNewQuantity());
+        }
+        return received.size();
+    }
+
+    private static PurchaseOrder mapRow(ResultSet rs) throws SQLException {
+        PurchaseOrder order = new PurchaseOrder();
+        order.setOrderId(rs.getInt("order_id"));
+        order.setSupplierId(rs.getInt("supplier_id"));
+        order.setProductId(rs.getInt("product_id"));
+        order.setQuantity(rs.getInt("quantity"));
+        order.setUnitCost(rs.getDouble("unit_cost"));
+        order.setTotalCost(rs.getDouble("total_cost"));
+
+        Timestamp orderDate = rs.getTimestamp("order_date");
+        order.setOrderDate(orderDate != null ? orderDate.toLocalDateTime() : null);
+        Date expectedDelivery = rs.getDate("expected_delivery");
+        order.setExpectedDelivery(expectedDelivery != null ? expectedDelivery.toLocalDate() : null);
+        order.setStatus(PurchaseOrder.Status.valueOf(rs.getString("status")));
+        Timestamp receivedDate = rs.getTimestamp("received_date");
+        order.setReceivedDate(receivedDate != null ? receivedDate.toLocalDateTime() : null);
+
+        int userId = rs.getInt("user_id");
+        order.setUserId(rs.wasNull() ? null : userId);
+        order.setNotes(rs.getString("notes"));
+        order.setProductName(rs.getString("product_name"));
+        order.setSupplierName(rs.getString("supplier_name"));
+        return order;
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.dummy_inventory.dao;
+
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Data access for the nightly replenishment run
+ * (ReplenishmentRun and the bulk reads the engine needs; forecasts are in ForecastDAO)
+ *
+ * The bulk reads are streamed so 500k products never sit in a JDBC result buffer.
+ */
+public class ReplenishmentDAO extends BaseDAO {
+
+    /**
+     * Last sales day folded into ProductForecast by a completed run
+     * A PARTIAL run saved its forecasts too; only some suppliers' orders failed.
+     *
+     * @return The watermark, or empty if no run has completed yet
+     */
+    public Optional<LocalDate> getSalesWatermark() {
+        return executeSingleQuery("SELECT MAX(sales_through) FROM ReplenishmentRun WHERE status IN ('COMPLETED', 'PARTIAL')", rs -> {
+            Date date = rs.getDate(1);
+            return date != null ? date.toLocalDate() : null;
+        });
+    }
+
+    /**
+     * Stock, reorder level, cost and quantity already on order for every product
+     */
+    public int streamStockPositions(RowStream<? super StockPosition> stream) {
+        String sql = "SELECT p.product_id, p.supplier_id, p.quantity_in_stock, p.reorder_level, p.cost_price, " +
+                     "COALESCE(o.open_quantity, 0) AS open_quantity " +
+                     "FROM Product p " +
+                     "LEFT JOIN (SELECT product_id, SUM(quantity) AS open_quantity FROM PurchaseOrder " +
+                     "           WHERE status = 'PENDING' GROUP BY product_id) o ON o.product_id = p.product_id";
+        return streamQuery(sql, rs -> new StockPosition(
+                rs.getInt("product_id"),
+                rs.getInt("supplier_id"),
+                rs.getInt("quantity_in_stock"),
+                rs.getInt("reorder_level"),
+                rs.getDouble("cost_price"),
+                rs.getInt("open_quantity")
+        ), 0, stream);
+    }
+
+    /**
+     * Record the start of a run
+     *
+     * @param salesThrough Last complete sales day this run folds in
+     * @return run_id, or empty if the row could not be inserted
+     */
+    public Optional<Integer> startRun(LocalDate salesThrough) {
+        return executeInsertWithKey("INSERT INTO ReplenishmentRun (sales_through) VALUES (?)", salesThrough);
+    }
+
+    public boolean finishRun(int runId, boolean completed, int productsEvaluated, int ordersCreated) {
+        return finishRun(runId, completed, productsEvaluated, ordersCreated, List.of());
+    }
+
+    /**
+     * Record the end of a run
+     *
+     * @param failedSuppliers Suppliers whose orders could not be written; a completed
+     *                        run with any of them is recorded as PARTIAL
+     */
+    public boolean finishRun(int runId, boolean completed, int productsEvaluated, int ordersCreated,
+                             List<Integer> failedSuppliers) {
+        String status = !completed ? "FAILED" : failedSuppliers.isEmpty() ? "COMPLETED" : "PARTIAL";
+        String failed = failedSuppliers.isEmpty() ? null
+                : failedSuppliers.stream().map(String::valueOf).collect(Collectors.joining(","));
+        if (failed != null && failed.length() > 1000) {
+            failed = failed.substring(0, failed.lastIndexOf(',', 996)) + ",...";
+        }
+        return executeUpdate("UPDATE ReplenishmentRun SET finished_at = CURRENT_TIMESTAMP, status = ?, " +
+                             "products_evaluated = ?, orders_created = ?, failed_suppliers = ? WHERE run_id = ?",
+                status, productsEvaluated, ordersCreated, failed, runId);
+    }
+
+    /**
+     * What the engine needs to know about one product to decide on an order
+     */
+    public static final class StockPosition {
+        private final int productId;
+        private final int supplierId;
+        private final int quantityInStock;
+        private final int reorderLevel;
+        private final double costPrice;
+        private final int openOrderQuantity;
+
+        StockPosition(int productId, int supplierId, int quantityInStock, int reorderLevel,
+                      double costPrice, int openOrderQuantity) {
+            this.productId = productId;
+            this.supplierId = supplierId;
+            this.quantityInStock = quantityInStock;
+            this.reorderLevel = reorderLevel;
+            this.costPrice = costPrice;
+            this.openOrderQuantity = openOrderQuantity;
+        }
+
+        public int getProductId() {
+            return productId;
+        }
+
+        public int getSupplierId() {
+            return supplierId;
+        }
+
+        public int getQuantityInStock() {
+            return quantityInStock;
+        }
+
+        public int getReorderLevel() {
+            return reorderLevel;
+        }
+
+        public double getCostPrice() {
+            return costPrice;
+        }
+
+        /**
+         * Units on PENDING purchase orders
+         */
+        public int getOpenOrderQuantity() {
+            return openOrderQuantity;
+        }
+    }
+}
@@ -1,21 +1,49 @@
 package com.example.dummy_inventory.dao;
 
 import com.example.dummy_inventory.db.DatabaseConnection;
+import com.example.dummy_inventory.model.CategoryTotal;
+import com.example.dummy_inventory.model.DailyRevenue;
+import com.example.dummy_inventory.model.LowStockItem;
+import com.example.dummy_inventory.model.MarginTotal;
+import com.example.dummy_inventory.model.ProductSales;
+import com.example.dummy_inventory.model.Sale;
 
 import java.sql.*;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.*;
 
-public class ReportsDAO {
+/**
+ * Aggregates for the Reports screen and the dashboard
+ * The get* methods return small, complete results (cached by ReportCache);
+ * the stream* methods read long reports row by row with a server-side cursor,
+ * for rendering straight into an export file or the preview pane.
+ *
+ * A failed get* query throws IllegalStateException rather than returning 0 or
+ * an empty list, so a transient database error is reported as an error and is
+ * never cached as a real (empty) result.
+ */
+public class ReportsDAO extends BaseDAO {
+
+    private static final String LOW_STOCK_SQL =
+            "SELECT p.product_id, p.name, p.quantity_in_stock, p.reorder_level, c.name AS category, s.name AS supplier " +
+            "FROM Product p " +
+            "JOIN Category c ON p.category_id = c.category_id " +
+            "JOIN Supplier s ON p.supplier_id = s.supplier_id " +
+            "WHERE p.quantity_in_stock < IF(p.reorder_level > 0, p.reorder_level, ?) " +
+            "ORDER BY p.quantity_in_stock / IF(p.reorder_level > 0, p.reorder_level, ?) ASC, p.quantity_in_stock ASC";
+
+    private static final String MARGIN_SUMS =
+            "SUM(m.units) AS units, SUM(m.revenue) AS revenue, SUM(m.cost) AS cost, " +
+            "SUM(m.revenue) - SUM(m.cost) AS profit ";
 
     // Sales Reports
     
     public double getTotalRevenue() {
         // Use persisted total_amount for consistency with Sale records
-        String sql = "SELECT SUM(s.total_amount) AS total_revenue FROM Sale s";
+        String sql = "SELECT SUM(s.total_amount) AS total_revenue FROM " + SaleArchive.source(null) + " s";
 
-        try (Connection conn = DatabaseConnection.getConnection();
+        try (Connection conn = DatabaseConnection.getReadConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
 
@@ -23,8 +51,7 @@ public class ReportsDAO {
                 return rs.getDouble("total_revenue");
             }
         } catch (SQLException e) {
-            System.err.println("Error getting total revenue:");
-            e.printStackTrace();
+            throw queryFailed("Error getting total revenue", e);
         }
 
         return 0.0;
@@ -32,9 +59,10 @@ public class ReportsDAO {
     
     public double getRevenueByDateRange(LocalDateTime startDate, LocalDateTime endDate) {
         // Use persisted total_amount for consistency with Sale records
-        String sql = "SELECT SUM(s.total_amount) AS revenue FROM Sale s WHERE s.sale_date BETWEEN ? AND ?";
+        String sql = "SELECT SUM(s.total_amount) AS revenue FROM " + SaleArchive.source(startDate) + " s " +
+                     "WHERE s.sale_date BETWEEN ? AND ?";
 
-        try (Connection conn = DatabaseConnection.getConnection();
+        try (Connection conn = DatabaseConnection.getReadConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
             pstmt.setTimestamp(1, Timestamp.valueOf(startDate));
@@ -46,58 +74,62 @@ public class ReportsDAO {
                 }
             }
         } catch (SQLException e) {
-            System.err.println("Error getting revenue by date range:");
-            e.printStackTrace();
+            throw queryFailed("Error getting revenue by date range", e);
         }
 
         return 0.0;
     }
     
-    public Map<String, Object> getTopSellingProducts(int limit) {
-        Map<String, Object> result = new LinkedHashMap<>();
-        String sql = "SELECT p.name, SUM(s.quantity_sold) AS total_sold, SUM(s.total_amount) AS revenue " +
-                     "FROM Sale s JOIN Product p ON s.product_id = p.product_id " +
+    /**
+     * Best sellers by units sold, all time
+     */
+    public List<ProductSales> getTopSellingProducts(int limit) {
+        List<ProductSales> result = new ArrayList<>();
+        String sql = "SELECT p.product_id, p.name, SUM(s.quantity_sold) AS total_sold, SUM(s.total_amount) AS revenue " +
+                     "FROM " + SaleArchive.source(null) + " s JOIN Product p ON s.product_id = p.product_id " +
                      "GROUP BY p.product_id ORDER BY total_sold DESC LIMIT ?";
         
-        try (Connection conn = DatabaseConnection.getConnection();
+        try (Connection conn = DatabaseConnection.getReadConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
             pstmt.setInt(1, limit);
             
             try (ResultSet rs = pstmt.executeQuery()) {
                 while (rs.next()) {
-                    Map<String, Object> productData = new HashMap<>();
-                    productData.put("total_sold", rs.getInt("total_sold"));
-                    productData.put("revenue", rs.getDouble("revenue"));
-                    result.put(rs.getString("name"), productData);
+                    result.add(new ProductSales(
+                            rs.getInt("product_id"),
+                            rs.getString("name"),
+                            rs.getInt("total_sold"),
+                            rs.getDouble("revenue")));
                 }
             }
         } catch (SQLException e) {
-            System.err.println("Error getting top selling products:");
-            e.printStackTrace();
+            throw queryFailed("Error getting top selling products", e);
         }
         
         return result;
     }
     
-    public Map<String, Double> getSalesByCategory() {
-        Map<String, Double> result = new LinkedHashMap<>();
-        String sql = "SELECT c.name, SUM(s.total_amount) AS revenue " +
-                     "FROM Sale s " +
+    /**
+     * Revenue per category, highest first
+     */
+    public List<CategoryTotal> getSalesByCategory() {
+        List<CategoryTotal> result = new ArrayList<>();
+        String sql = "SELECT c.category_id, c.name, SUM(s.total_amount) AS revenue " +
+                     "FROM " + SaleArchive.source(null) + " s " +
                      "JOIN Product p ON s.product_id = p.product_id " +
                      "JOIN Category c ON p.category_id = c.category_id " +
                      "GROUP BY c.category_id ORDER BY revenue DESC";
         
-        try (Connection conn = DatabaseConnection.getConnection();
+        try (Connection conn = DatabaseConnection.getReadConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
             
             while (rs.next()) {
-                result.put(rs.getString("name"), rs.getDouble("revenue"));
+                result.add(new CategoryTotal(rs.getInt("category_id"), rs.getString("name"), rs.getDouble("revenue")));
             }
         } catch (SQLException e) {
-            System.err.println("Error getting sales by category:");
-            e.printStackTrace();
+            throw queryFailed("Error getting sales by category", e);
         }
         
         return result;
@@ -108,7 +140,7 @@ public class ReportsDAO {
     public double getTotalInventoryValue() {
         String sql = "SELECT SUM(quantity_in_stock * price) AS total_value FROM Product";
         
-        try (Connection conn = DatabaseConnection.getConnection();
+        try (Connection conn = DatabaseConnection.getReadConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
             
@@ -116,62 +148,66 @@ public class ReportsDAO {
                 return rs.getDouble("total_value");
             }
         } catch (SQLException e) {
-            System.err.println("Error getting inventory value:");
-            e.printStackTrace();
+            throw queryFailed("Error getting inventory value", e);
         }
         
         return 0.0;
     }
     
-    public List<Map<String, Object>> getLowStockReport(int threshold) {
-        List<Map<String, Object>> result = new ArrayList<>();
-        String sql = "SELECT p.name, p.quantity_in_stock, p.reorder_level, c.name AS category, s.name AS supplier " +
-                     "FROM Product p " +
-                     "JOIN Category c ON p.category_id = c.category_id " +
-                     "JOIN Supplier s ON p.supplier_id = s.supplier_id " +
-                     "WHERE p.quantity_in_stock < ? ORDER BY p.quantity_in_stock ASC";
+    /**
+     * Products below their reorder level (threshold applies to products without one)
+     * Uncached fallback for LowStockTracker.
+     */
+    public List<LowStockItem> getLowStockReport(int threshold) {
+        List<LowStockItem> result = new ArrayList<>();
+        String sql = LOW_STOCK_SQL;
         
-        try (Connection conn = DatabaseConnection.getConnection();
+        try (Connection conn = DatabaseConnection.getReadConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
             pstmt.setInt(1, threshold);
+            pstmt.setInt(2, threshold);
             
             try (ResultSet rs = pstmt.executeQuery()) {
                 while (rs.next()) {
-                    Map<String, Object> item = new HashMap<>();
-                    item.put("product_name", rs.getString("name"));
-                    item.put("stock", rs.getInt("quantity_in_stock"));
-                    item.put("reorder_level", rs.getInt("reorder_level"));
-                    item.put("category", rs.getString("category"));
-                    item.put("supplier", rs.getString("supplier"));
-                    result.add(item);
+                    result.add(mapLowStockRow(rs));
                 }
             }
         } catch (SQLException e) {
-            System.err.println("Error getting low stock report:");
-            e.printStackTrace();
+            throw queryFailed("Error getting low stock report", e);
         }
         
         return result;
     }
+
+    /**
+     * Same rows as getLowStockReport, streamed
+     *
+     * @return Number of rows delivered
+     */
+    public int streamLowStockReport(int threshold, RowStream<? super LowStockItem> stream) {
+        return streamQuery(LOW_STOCK_SQL, ReportsDAO::mapLowStockRow, 0, stream, threshold, threshold);
+    }
     
-    public Map<String, Integer> getProductCountByCategory() {
-        Map<String, Integer> result = new LinkedHashMap<>();
-        String sql = "SELECT c.name, COUNT(p.product_id) AS product_count " +
+    /**
+     * Number of products per category (value = count), largest first
+     */
+    public List<CategoryTotal> getProductCountByCategory() {
+        List<CategoryTotal> result = new ArrayList<>();
+        String sql = "SELECT c.category_id, c.name, COUNT(p.product_id) AS product_count " +
                      "FROM Category c " +
                      "LEFT JOIN Product p ON c.category_id = p.category_id " +
                      "GROUP BY c.category_id ORDER BY product_count DESC";
         
-        try (Connection conn = DatabaseConnection.getConnection();
+        try (Connection conn = DatabaseConnection.getReadConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
             
             while (rs.next()) {
-                result.put(rs.getString("name"), rs.getInt("product_count"));
+                result.add(new CategoryTotal(rs.getInt("category_id"), rs.getString("name"), rs.getInt("product_count")));
             }
         } catch (SQLException e) {
-            System.err.println("Error getting product count by category:");
-            e.printStackTrace();
+            throw queryFailed("Error getting product count by category", e);
         }
         
         return result;
@@ -182,7 +218,7 @@ public class ReportsDAO {
     public int getTotalProductCount() {
         String sql = "SELECT COUNT(*) AS count FROM Product";
         
-        try (Connection conn = DatabaseConnection.getConnection();
+        try (Connection conn = DatabaseConnection.getReadConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
             
@@ -190,8 +226,7 @@ public class ReportsDAO {
                 return rs.getInt("count");
             }
         } catch (SQLException e) {
-            System.err.println("Error getting product count:");
-            e.printStackTrace();
+            throw queryFailed("Error getting product count", e);
         }
         
         return 0;
@@ -200,7 +235,7 @@ public class ReportsDAO {
     public int getTotalCategoryCount() {
         String sql = "SELECT COUNT(*) AS count FROM Category";
         
-        try (Connection conn = DatabaseConnection.getConnection();
+        try (Connection conn = DatabaseConnection.getReadConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
             
@@ -208,8 +243,7 @@ public class ReportsDAO {
                 return rs.getInt("count");
             }
         } catch (SQLException e) {
-            System.err.println("Error getting category count:");
-            e.printStackTrace();
+            throw queryFailed("Error getting category count", e);
         }
         
         return 0;
@@ -218,7 +252,7 @@ public class ReportsDAO {
     public int getTotalSupplierCount() {
         String sql = "SELECT COUNT(*) AS count FROM Supplier";
         
-        try (Connection conn = DatabaseConnection.getConnection();
+        try (Connection conn = DatabaseConnection.getReadConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
             
@@ -226,17 +260,16 @@ public class ReportsDAO {
                 return rs.getInt("count");
             }
         } catch (SQLException e) {
-            System.err.println("Error getting supplier count:");
-            e.printStackTrace();
+            throw queryFailed("Error getting supplier count", e);
         }
         
         return 0;
     }
     
     public int getTotalSalesCount() {
-        String sql = "SELECT COUNT(*) AS count FROM Sale";
+        String sql = "SELECT COUNT(*) AS count FROM " + SaleArchive.source(null) + " s";
         
-        try (Connection conn = DatabaseConnection.getConnection();
+        try (Connection conn = DatabaseConnection.getReadConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
             
@@ -244,17 +277,21 @@ public class ReportsDAO {
                 return rs.getInt("count");
             }
         } catch (SQLException e) {
-            System.err.println("Error getting sales count:");
-            e.printStackTrace();
+            throw queryFailed("Error getting sales count", e);
         }
         
         return 0;
     }
     
+    /**
+     * Number of products below their reorder level (threshold applies to products without one)
+     * Uncached fallback for LowStockTracker.
+     */
     public int getLowStockProductCount(int threshold) {
-        String sql = "SELECT COUNT(*) AS count FROM Product WHERE quantity_in_stock < ?";
+        String sql = "SELECT COUNT(*) AS count FROM Product " +
+                     "WHERE quantity_in_stock < IF(reorder_level > 0, reorder_level, ?)";
         
-        try (Connection conn = DatabaseConnection.getConnection();
+        try (Connection conn = DatabaseConnection.getReadConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
             pstmt.setInt(1, threshold);
@@ -265,8 +302,7 @@ public class ReportsDAO {
                 }
             }
         } catch (SQLException e) {
-            System.err.println("Error getting low stock count:");
-            e.printStackTrace();
+            throw queryFailed("Error getting low stock count", e);
         }
         
         return 0;
@@ -274,72 +310,195 @@ public class ReportsDAO {
     
     // Time-based Reports
     
-    public Map<String, Double> getDailySalesReport(LocalDate date) {
-        Map<String, Double> result = new LinkedHashMap<>();
-        String sql = "SELECT DATE(sale_date) AS sale_day, SUM(total_amount) AS daily_revenue " +
-                     "FROM Sale WHERE DATE(sale_date) = ? GROUP BY DATE(sale_date)";
+    /**
+     * Revenue of one day (empty if there were no sales)
+     */
+    public Optional<DailyRevenue> getDailySalesReport(LocalDate date) {
+        // Half-open range on sale_date (not DATE(sale_date) = ?) so the index and partition pruning apply
+        String sql = "SELECT DATE(s.sale_date) AS sale_day, SUM(s.total_amount) AS daily_revenue " +
+                     "FROM " + SaleArchive.source(date.atStartOfDay()) + " s " +
+                     "WHERE s.sale_date >= ? AND s.sale_date < ? GROUP BY DATE(s.sale_date)";
         
-        try (Connection conn = DatabaseConnection.getConnection();
+        try (Connection conn = DatabaseConnection.getReadConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
-            pstmt.setDate(1, java.sql.Date.valueOf(date));
+            pstmt.setTimestamp(1, Timestamp.valueOf(date.atStartOfDay()));
+            pstmt.setTimestamp(2, Timestamp.valueOf(date.plusDays(1).atStartOfDay()));
             
             try (ResultSet rs = pstmt.executeQuery()) {
                 if (rs.next()) {
-                    result.put(rs.getDate("sale_day").toString(), rs.getDouble("daily_revenue"));
+                    return Optional.of(new DailyRevenue(rs.getDate("sale_day").toLocalDate(), rs.getDouble("daily_revenue")));
                 }
             }
         } catch (SQLException e) {
-            System.err.println("Error getting daily sales:");
-            e.printStackTrace();
+            throw queryFailed("Error getting daily sales", e);
         }
         
-        return result;
+        return Optional.empty();
     }
     
-    public Map<String, Double> getMonthlySalesReport(int year, int month) {
-        Map<String, Double> result = new LinkedHashMap<>();
-        String sql = "SELECT DATE(sale_date) AS sale_day, SUM(total_amount) AS daily_revenue " +
-                     "FROM Sale WHERE YEAR(sale_date) = ? AND MONTH(sale_date) = ? " +
-                     "GROUP BY DATE(sale_date) ORDER BY sale_day";
+    /**
+     * Revenue per day of one month, days without sales omitted
+     */
+    public List<DailyRevenue> getMonthlySalesReport(int year, int month) {
+        List<DailyRevenue> result = new ArrayList<>();
+        // Reads only the month's partition (YEAR()/MONTH() on the column would scan them all)
+        LocalDateTime monthStart = LocalDate.of(year, month, 1).atStartOfDay();
+        String sql = "SELECT DATE(s.sale_date) AS sale_day, SUM(s.total_amount) AS daily_revenue " +
+                     "FROM " + SaleArchive.source(monthStart) + " s " +
+                     "WHERE s.sale_date >= ? AND s.sale_date < ? " +
+                     "GROUP BY DATE(s.sale_date) ORDER BY sale_day";
         
-        try (Connection conn = DatabaseConnection.getConnection();
+        try (Connection conn = DatabaseConnection.getReadConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
-            pstmt.setInt(1, year);
-            pstmt.setInt(2, month);
+            pstmt.setTimestamp(1, Timestamp.valueOf(monthStart));
+            pstmt.setTimestamp(2, Timestamp.valueOf(monthStart.plusMonths(1)));
             
             try (ResultSet rs = pstmt.executeQuery()) {
                 while (rs.next()) {
-                    result.put(rs.getDate("sale_day").toString(), rs.getDouble("daily_revenue"));
+                    result.add(new DailyRevenue(rs.getDate("sale_day").toLocalDate(), rs.getDouble("daily_revenue")));
                 }
             }
         } catch (SQLException e) {
-            System.err.println("Error getting monthly sales:");
-            e.printStackTrace();
+            throw queryFailed("Error getting monthly sales", e);
         }
         
         return result;
     }
+
+    /**
+     * Every sale in [start, end), oldest first, streamed (the "Sales Detail" report)
+     *
+     * @return Number of rows delivered
+     */
+    public int streamSales(LocalDateTime start, LocalDateTime end, RowStream<? super Sale> stream) {
+        String sql = "SELECT s.sale_id, s.product_id, s.quantity_sold, s.unit_price, s.total_amount, " +
+                     "s.sale_date, s.user_id, s.payment_method, s.notes, p.name AS product_name " +
+                     "FROM " + SaleArchive.source(start) + " s " +
+                     "JOIN Product p ON s.product_id = p.product_id " +
+                     "WHERE s.sale_date >= ? AND s.sale_date < ? " +
+                     "ORDER BY s.sale_date, s.sale_id";
+        return streamQuery(sql, rs -> {
+            String paymentMethod = rs.getString("payment_method");
+            Sale sale = new Sale(
+                    rs.getInt("sale_id"),
+                    rs.getInt("product_id"),
+                    rs.getInt("quantity_sold"),
+                    rs.getDouble("unit_price"),
+                    rs.getDouble("total_amount"),
+                    rs.getTimestamp("sale_date").toLocalDateTime(),
+                    (Integer) rs.getObject("user_id"),
+                    paymentMethod != null ? Sale.PaymentMethod.valueOf(paymentMethod) : Sale.PaymentMethod.CASH,
+                    rs.getString("notes"));
+            sale.setProductName(rs.getString("product_name"));
+            return sale;
+        }, 0, stream, start, end);
+    }
     
-    // Profit Analysis (requires cost_price field)
+    // Profit Analysis (SalesMargin: per-day totals kept by SaleDAO at the cost of each sale)
     
+    /**
+     * Profit of all sales at the cost each was sold at, from the SalesMargin totals
+     */
     public double getTotalProfit() {
-        String sql = "SELECT SUM(s.quantity_sold * (s.unit_price - COALESCE(p.cost_price, 0))) AS profit " +
-                     "FROM Sale s JOIN Product p ON s.product_id = p.product_id";
-        
-        try (Connection conn = DatabaseConnection.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-            
-            if (rs.next()) {
-                return rs.getDouble("profit");
+        return querySum("SELECT SUM(revenue - cost) FROM SalesMargin");
+    }
+
+    /**
+     * Margin per product in [from, to], most profitable first
+     */
+    public List<MarginTotal> getMarginByProduct(LocalDate from, LocalDate to, int limit) {
+        String sql = "SELECT m.product_id AS id, p.name, " + MARGIN_SUMS +
+                     "FROM SalesMargin m JOIN Product p ON m.product_id = p.product_id " +
+                     "WHERE m.sale_day BETWEEN ? AND ? " +
+                     "GROUP BY m.product_id, p.name ORDER BY profit DESC LIMIT ?";
+        return queryList(sql, ReportsDAO::mapMarginRow, from, to, limit);
+    }
+
+    /**
+     * Margin per category in [from, to], most profitable first
+     */
+    public List<MarginTotal> getMarginByCategory(LocalDate from, LocalDate to) {
+        String sql = "SELECT m.category_id AS id, COALESCE(c.name, 'Uncategorized') AS name, " + MARGIN_SUMS +
+                     "FROM SalesMargin m LEFT JOIN Category c ON m.category_id = c.category_id " +
+                     "WHERE m.sale_day BETWEEN ? AND ? " +
+                     "GROUP BY m.category_id, c.name ORDER BY profit DESC";
+        return queryList(sql, ReportsDAO::mapMarginRow, from, to);
+    }
+
+    /**
+     * Margin per supplier in [from, to], most profitable first
+     */
+    public List<MarginTotal> getMarginBySupplier(LocalDate from, LocalDate to) {
+        String sql = "SELECT m.supplier_id AS id, COALESCE(s.name, 'No supplier') AS name, " + MARGIN_SUMS +
+                     "FROM SalesMargin m LEFT JOIN Supplier s ON m.supplier_id = s.supplier_id " +
+                     "WHERE m.sale_day BETWEEN ? AND ? " +
+                     "GROUP BY m.supplier_id, s.name ORDER BY profit DESC";
+        return queryList(sql, ReportsDAO::mapMarginRow, from, to);
+    }
+
+    /**
+     * Margin per day in [from, to], oldest first; days without sales omitted (name is the ISO date)
+     */
+    public List<MarginTotal> getMarginByDay(LocalDate from, LocalDate to) {
+        String sql = "SELECT 0 AS id, m.sale_day AS name, " + MARGIN_SUMS +
+                     "FROM SalesMargin m " +
+                     "WHERE m.sale_day BETWEEN ? AND ? " +
+                     "GROUP BY m.sale_day ORDER BY m.sale_day";
+        return queryList(sql, ReportsDAO::mapMarginRow, from, to);
+    }
+
+    /**
+     * executeQuery that throws instead of returning an empty list on failure
+     */
+    private <T> List<T> queryList(String sql, ResultSetMapper<T> mapper, Object... params) {
+        List<T> results = new ArrayList<>();
+        try (Connection conn = DatabaseConnection.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            setParameters(pstmt, params);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    results.add(mapper.map(rs));
+                }
             }
         } catch (SQLException e) {
-            System.err.println("Error getting total profit:");
-            e.printStackTrace();
+            logError("Report query failed", sql, e);
+            throw new IllegalStateException("Report query failed", e);
         }
-        
-        return 0.0;
+        return results;
+    }
+
+    /**
+     * executeSum that throws instead of returning 0 on failure
+     */
+    private double querySum(String sql, Object... params) {
+        List<Double> sum = queryList(sql, rs -> rs.getDouble(1), params);
+        return sum.isEmpty() ? 0.0 : sum.get(0);
+    }
+
+    private static IllegalStateException queryFailed(String message, SQLException e) {
+        System.err.println(message + ":");
+        e.printStackTrace();
+        return new IllegalStateException(message, e);
+    }
+
+    private static MarginTotal mapMarginRow(ResultSet rs) throws SQLException {
+        return new MarginTotal(
+                rs.getInt("id"),
+                rs.getString("name"),
+                rs.getLong("units"),
+                rs.getDouble("revenue"),
+                rs.getDouble("cost"));
+    }
+
+    private static LowStockItem mapLowStockRow(ResultSet rs) throws SQLException {
+        return new LowStockItem(
+                rs.getInt("product_id"),
+                rs.getString("name"),
+                rs.getInt("quantity_in_stock"),
+                rs.getInt("reorder_level"),
+                rs.getString("category"),
+                rs.getString("supplier"));
     }
 }
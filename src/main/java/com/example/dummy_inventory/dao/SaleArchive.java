@@ -0,0 +1,46 @@
+package com.example.dummy_inventory.dao;
+
+import java.time.LocalDateTime;
+
+/**
+ * Where sales history is stored
+ *
+ * Recent months live in Sale (one partition per month). PartitionMaintenance
+ * moves months older than partition.saleRetentionMonths into SaleArchive and
+ * sets the horizon: the first instant still held by Sale.
+ *
+ * Report queries take their FROM clause from source(start). A range starting at
+ * or after the horizon reads Sale alone (and MySQL prunes it to the partitions
+ * of that range); only ranges reaching further back, and all-time totals once
+ * something has been archived, read both tables.
+ */
+public final class SaleArchive {
+
+    public static final String COLUMNS = "sale_id, product_id, quantity_sold, unit_price, total_amount, sale_date, " +
+            "user_id, payment_method, notes, unit_cost";
+
+    // null while nothing has been archived
+    private static volatile LocalDateTime horizon;
+
+    private SaleArchive() {
+    }
+
+    public static LocalDateTime getHorizon() {
+        return horizon;
+    }
+
+    public static void setHorizon(LocalDateTime horizon) {
+        SaleArchive.horizon = horizon;
+    }
+
+    /**
+     * Table expression for sales from start onwards (null: all sales); callers add an alias
+     */
+    static String source(LocalDateTime start) {
+        LocalDateTime current = horizon;
+        if (current == null || (start != null && !start.isBefore(current))) {
+            return "Sale";
+        }
+        return "(SELECT " + COLUMNS + " FROM Sale UNION ALL SELECT " + COLUMNS + " FROM SaleArchive)";
+    }
+}
@@ -1,49 +1,72 @@
 package com.example.dummy_inventory.dao;
 import com.example.dummy_inventory.db.DatabaseConnection;
+import com.example.dummy_inventory.event.EventBus;
+import com.example.dummy_inventory.event.SaleRecorded;
+import com.example.dummy_inventory.event.SaleReversed;
+import com.example.dummy_inventory.event.StockChanged;
 import com.example.dummy_inventory.model.Sale;
-import com.example.dummy_inventory.model.Product;
+import com.example.dummy_inventory.service.AuditTrail;
 
 import java.sql.*;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
 
 public class SaleDAO {
-    private ProductDAO productDAO = new ProductDAO();
-
     public boolean createSale(Sale sale) {
         try (Connection conn = DatabaseConnection.getConnection()) {
             conn.setAutoCommit(false);
 
             try {
-                // Fetch product to get current price and check stock
-                Product product = productDAO.getProductById(sale.getProductId());
-                if (product == null) {
-                    System.err.println("Product not found");
-                    conn.rollback();
-                    return false;
+                // Fetch current price and stock on the primary, inside the transaction.
+                // Never read this from a replica: a lagging stock value would allow overselling.
+                double currentPrice;
+                double currentCost;
+                Integer categoryId;
+                Integer supplierId;
+                int currentStock;
+                String productSql = "SELECT price, cost_price, category_id, supplier_id, quantity_in_stock " +
+                        "FROM Product WHERE product_id = ? FOR UPDATE";
+                try (PreparedStatement pstmt = conn.prepareStatement(productSql)) {
+                    pstmt.setInt(1, sale.getProductId());
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        if (!rs.next()) {
+                            System.err.println("Product not found");
+                            conn.rollback();
+                            return false;
+                        }
+                        currentPrice = rs.getDouble("price");
+                        currentCost = rs.getDouble("cost_price");
+                        categoryId = (Integer) rs.getObject("category_id");
+                        supplierId = (Integer) rs.getObject("supplier_id");
+                        currentStock = rs.getInt("quantity_in_stock");
+                    }
                 }
 
                 // Check stock availability
-                if (product.getQuantityInStock() < sale.getQuantitySold()) {
-                    System.err.println("Insufficient stock. Available: " + product.getQuantityInStock());
+                if (currentStock < sale.getQuantitySold()) {
+                    System.err.println("Insufficient stock. Available: " + currentStock);
                     conn.rollback();
                     return false;
                 }
 
                 // Set unit price from product if not already set
                 if (sale.getUnitPrice() == 0) {
-                    sale.setUnitPrice(product.getPrice());
+                    sale.setUnitPrice(currentPrice);
                 }
 
                 // Calculate total amount
                 double totalAmount = sale.getQuantitySold() * sale.getUnitPrice();
                 sale.setTotalAmount(totalAmount);
 
+                // Cost snapshot: margins stay right when the product's cost changes later
+                sale.setUnitCost(currentCost);
+
                 // Insert sale with all required fields
-                String insertSql = "INSERT INTO Sale (product_id, quantity_sold, unit_price, total_amount, sale_date, user_id, payment_method, notes) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
-                try (PreparedStatement pstmt = conn.prepareStatement(insertSql)) {
+                String insertSql = "INSERT INTO Sale (product_id, quantity_sold, unit_price, total_amount, sale_date, user_id, payment_method, notes, unit_cost) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+                try (PreparedStatement pstmt = conn.prepareStatement(insertSql, Statement.RETURN_GENERATED_KEYS)) {
                     pstmt.setInt(1, sale.getProductId());
                     pstmt.setInt(2, sale.getQuantitySold());
                     pstmt.setDouble(3, sale.getUnitPrice());
@@ -70,8 +93,14 @@ public class SaleDAO {
                     } else {
                         pstmt.setNull(8, java.sql.Types.VARCHAR);
                     }
+                    pstmt.setDouble(9, sale.getUnitCost());
 
                     pstmt.executeUpdate();
+                    try (ResultSet keys = pstmt.getGeneratedKeys()) {
+                        if (keys.next()) {
+                            sale.setSaleId(keys.getInt(1));
+                        }
+                    }
                 }
 
                 // Update product stock
@@ -82,7 +111,25 @@ public class SaleDAO {
                     pstmt.executeUpdate();
                 }
 
+                // The product row is already locked, so its margin row adds no contention
+                applyMargin(conn, sale.getSaleDate().toLocalDate(), sale.getProductId(), categoryId, supplierId,
+                        1, sale.getQuantitySold(), totalAmount, sale.getQuantitySold() * currentCost);
+
                 conn.commit();
+                DatabaseConnection.recordWrite();
+
+                EventBus bus = EventBus.getInstance();
+                bus.publish(new SaleRecorded(sale));
+                bus.publish(new StockChanged(sale.getProductId(), -sale.getQuantitySold(),
+                        currentStock - sale.getQuantitySold()));
+
+                AuditTrail audit = AuditTrail.getInstance();
+                audit.record(sale.getUserId(), AuditTrail.CREATE, "Sale", sale.getSaleId(), null,
+                        "Product: " + sale.getProductId() + ", Qty: " + sale.getQuantitySold() +
+                        ", Total: " + totalAmount);
+                audit.record(sale.getUserId(), AuditTrail.UPDATE, "Product", sale.getProductId(),
+                        "Stock: " + currentStock + ", Price: " + currentPrice,
+                        "Stock: " + (currentStock - sale.getQuantitySold()) + ", Price: " + currentPrice);
                 return true;
 
             } catch (SQLException e) {
@@ -107,6 +154,9 @@ public class SaleDAO {
         }
     }
 
+    /**
+     * Sales still held in Sale; months moved to SaleArchive appear only in reports
+     */
     public List<Sale> getAllSales() {
         List<Sale> sales = new ArrayList<>();
         String sql = "SELECT s.sale_id, s.product_id, s.quantity_sold, s.unit_price, s.total_amount, " +
@@ -116,7 +166,7 @@ public class SaleDAO {
                 "JOIN Product p ON s.product_id = p.product_id " +
                 "ORDER BY s.sale_date DESC";
 
-        try (Connection conn = DatabaseConnection.getConnection();
+        try (Connection conn = DatabaseConnection.getReadConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
 
@@ -153,7 +203,7 @@ public class SaleDAO {
                 "JOIN Product p ON s.product_id = p.product_id " +
                 "WHERE s.sale_id = ?";
 
-        try (Connection conn = DatabaseConnection.getConnection();
+        try (Connection conn = DatabaseConnection.getReadConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
             pstmt.setInt(1, saleId);
@@ -191,9 +241,17 @@ public class SaleDAO {
 
             try {
                 // First, get the sale details to restore stock
-                String getSaleSql = "SELECT product_id, quantity_sold FROM Sale WHERE sale_id = ?";
+                String getSaleSql = "SELECT s.product_id, s.quantity_sold, s.total_amount, s.sale_date, s.unit_cost, " +
+                        "p.quantity_in_stock, p.price " +
+                        "FROM Sale s JOIN Product p ON s.product_id = p.product_id " +
+                        "WHERE s.sale_id = ? FOR UPDATE";
                 int productId = 0;
                 int quantitySold = 0;
+                double totalAmount = 0;
+                int currentStock = 0;
+                double price = 0;
+                double unitCost = 0;
+                LocalDateTime saleDate = null;
 
                 try (PreparedStatement pstmt = conn.prepareStatement(getSaleSql)) {
                     pstmt.setInt(1, saleId);
@@ -201,6 +259,11 @@ public class SaleDAO {
                         if (rs.next()) {
                             productId = rs.getInt("product_id");
                             quantitySold = rs.getInt("quantity_sold");
+                            totalAmount = rs.getDouble("total_amount");
+                            currentStock = rs.getInt("quantity_in_stock");
+                            price = rs.getDouble("price");
+                            saleDate = rs.getTimestamp("sale_date").toLocalDateTime();
+                            unitCost = rs.getDouble("unit_cost");
                         } else {
                             // Sale not found
                             conn.rollback();
@@ -224,7 +287,22 @@ public class SaleDAO {
                     pstmt.executeUpdate();
                 }
 
+                applyMargin(conn, saleDate.toLocalDate(), productId, null, null,
+                        -1, -quantitySold, -totalAmount, -quantitySold * unitCost);
+
                 conn.commit();
+                DatabaseConnection.recordWrite();
+
+                EventBus bus = EventBus.getInstance();
+                bus.publish(new SaleReversed(saleId, productId, quantitySold, totalAmount, saleDate));
+                bus.publish(new StockChanged(productId, quantitySold, currentStock + quantitySold));
+
+                AuditTrail audit = AuditTrail.getInstance();
+                audit.record(AuditTrail.DELETE, "Sale", saleId,
+                        "Product: " + productId + ", Qty: " + quantitySold + ", Total: " + totalAmount, null);
+                audit.record(AuditTrail.UPDATE, "Product", productId,
+                        "Stock: " + currentStock + ", Price: " + price,
+                        "Stock: " + (currentStock + quantitySold) + ", Price: " + price);
                 return true;
 
             } catch (SQLException e) {
@@ -249,17 +327,42 @@ public class SaleDAO {
         }
     }
 
+    /**
+     * Add a sale (or, with negative figures, its reversal) to the day's SalesMargin row
+     * Runs inside the caller's transaction, so the totals always match the Sale table.
+     * Category and supplier are only written when the row is created.
+     */
+    private static void applyMargin(Connection conn, LocalDate day, int productId, Integer categoryId,
+                                    Integer supplierId, int sales, int units, double revenue, double cost)
+            throws SQLException {
+        String sql = "INSERT INTO SalesMargin (sale_day, product_id, category_id, supplier_id, sales_count, units, revenue, cost) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?) " +
+                "ON DUPLICATE KEY UPDATE sales_count = sales_count + VALUES(sales_count), units = units + VALUES(units), " +
+                "revenue = revenue + VALUES(revenue), cost = cost + VALUES(cost)";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setDate(1, Date.valueOf(day));
+            pstmt.setInt(2, productId);
+            pstmt.setObject(3, categoryId, Types.INTEGER);
+            pstmt.setObject(4, supplierId, Types.INTEGER);
+            pstmt.setInt(5, sales);
+            pstmt.setInt(6, units);
+            pstmt.setDouble(7, revenue);
+            pstmt.setDouble(8, cost);
+            pstmt.executeUpdate();
+        }
+    }
+
     public List<Sale> getSalesByDateRange(LocalDateTime startDate, LocalDateTime endDate) {
         List<Sale> sales = new ArrayList<>();
         String sql = "SELECT s.sale_id, s.product_id, s.quantity_sold, s.unit_price, s.total_amount, " +
                 "s.sale_date, s.user_id, s.payment_method, s.notes, " +
                 "p.name AS product_name, p.price " +
-                "FROM Sale s " +
+                "FROM " + SaleArchive.source(startDate) + " s " +
                 "JOIN Product p ON s.product_id = p.product_id " +
                 "WHERE s.sale_date BETWEEN ? AND ? " +
                 "ORDER BY s.sale_date DESC";
 
-        try (Connection conn = DatabaseConnection.getConnection();
+        try (Connection conn = DatabaseConnection.getReadConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
             pstmt.setTimestamp(1, Timestamp.valueOf(startDate));
@@ -295,9 +398,9 @@ public class SaleDAO {
     public double getTotalRevenue() {
         // Use total_amount from Sale table for accurate revenue calculation
         // This accounts for the actual price at time of sale, not current product price
-        String sql = "SELECT SUM(total_amount) AS total_revenue FROM Sale";
+        String sql = "SELECT SUM(s.total_amount) AS total_revenue FROM " + SaleArchive.source(null) + " s";
 
-        try (Connection conn = DatabaseConnection.getConnection();
+        try (Connection conn = DatabaseConnection.getReadConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
 
@@ -0,0 +1,88 @@
+package com.example.dummy_inventory.dao;
+
+import com.example.dummy_inventory.db.DatabaseConnection;
+import com.example.dummy_inventory.model.AppSettings;
+
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Data access for the SystemSettings key/value table
+ * Application code reads settings through SettingsCache; this DAO is only hit
+ * at startup, by the change poll and when a setting is saved.
+ */
+public class SettingsDAO extends BaseDAO {
+
+    /**
+     * Read one setting value
+     *
+     * @param key setting_key, e.g. "SESSION_TIMEOUT"
+     * @return The value, or empty if the key does not exist or the query failed
+     */
+    public Optional<String> getSetting(String key) {
+        String sql = "SELECT setting_value FROM SystemSettings WHERE setting_key = ?";
+        return executeSingleQuery(sql, rs -> rs.getString("setting_value"), key);
+    }
+
+    /**
+     * Read the whole table into a typed snapshot
+     *
+     * @return The snapshot, or empty if the table could not be read
+     */
+    public Optional<AppSettings> loadSettings() {
+        String sql = "SELECT setting_key, setting_value, updated_at FROM SystemSettings";
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+
+            Map<String, String> values = new HashMap<>();
+            LocalDateTime lastUpdated = null;
+            while (rs.next()) {
+                String value = rs.getString("setting_value");
+                if (value != null) {
+                    values.put(rs.getString("setting_key"), value);
+                }
+                Timestamp updatedAt = rs.getTimestamp("updated_at");
+                if (updatedAt != null && (lastUpdated == null || updatedAt.toLocalDateTime().isAfter(lastUpdated))) {
+                    lastUpdated = updatedAt.toLocalDateTime();
+                }
+            }
+            return Optional.of(new AppSettings(values, lastUpdated));
+
+        } catch (SQLException e) {
+            logError("Loading settings failed", sql, e);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Latest updated_at in the table - a cheap check whether settings changed
+     *
+     * @return MAX(updated_at), or empty if the table is empty or the query failed
+     */
+    public Optional<LocalDateTime> getLastUpdated() {
+        String sql = "SELECT MAX(updated_at) FROM SystemSettings";
+        return executeSingleQuery(sql, rs -> {
+            Timestamp timestamp = rs.getTimestamp(1);
+            return timestamp != null ? timestamp.toLocalDateTime() : null;
+        });
+    }
+
+    /**
+     * Insert or update a setting
+     *
+     * @param key setting_key
+     * @param value New value
+     * @param userId User making the change (stored in updated_by), or null
+     * @return true if the row was written
+     */
+    public boolean saveSetting(String key, String value, Integer userId) {
+        String sql = "INSERT INTO SystemSettings (setting_key, setting_value, updated_by) VALUES (?, ?, ?) " +
+                     "ON DUPLICATE KEY UPDATE setting_value = VALUES(setting_value), updated_by = VALUES(updated_by)";
+        return executeUpdate(sql, key, value, userId);
+    }
+}
@@ -6,12 +6,15 @@ import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
 
-public class SupplierDAO {
+public class SupplierDAO extends BaseDAO {
+    /**
+     * Insert a supplier; on success its generated supplierId is set
+     */
     public boolean createSupplier(Supplier supplier) {
         String sql = "INSERT INTO Supplier (name, contact_person, email, phone, address) VALUES (?, ?, ?, ?, ?)";
 
         try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+             PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
 
             pstmt.setString(1, supplier.getName());
             pstmt.setString(2, supplier.getContactPerson());
@@ -19,7 +22,16 @@ public class SupplierDAO {
             pstmt.setString(4, supplier.getPhone());
             pstmt.setString(5, supplier.getAddress());
 
-            return pstmt.executeUpdate() > 0;
+            boolean updated = pstmt.executeUpdate() > 0;
+            DatabaseConnection.recordWrite();
+            if (updated) {
+                try (ResultSet keys = pstmt.getGeneratedKeys()) {
+                    if (keys.next()) {
+                        supplier.setSupplierId(keys.getInt(1));
+                    }
+                }
+            }
+            return updated;
 
         } catch (SQLException e) {
             System.err.println("Error creating supplier:");
@@ -32,7 +44,7 @@ public class SupplierDAO {
         List<Supplier> suppliers = new ArrayList<>();
         String sql = "SELECT supplier_id, name, contact_person, email, phone, address FROM Supplier";
 
-        try (Connection conn = DatabaseConnection.getConnection();
+        try (Connection conn = DatabaseConnection.getReadConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
 
@@ -57,7 +69,7 @@ public class SupplierDAO {
     public Supplier getSupplierById(int supplierId) {
         String sql = "SELECT supplier_id, name, contact_person, email, phone, address FROM Supplier WHERE supplier_id = ?";
 
-        try (Connection conn = DatabaseConnection.getConnection();
+        try (Connection conn = DatabaseConnection.getReadConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
             pstmt.setInt(1, supplierId);
@@ -95,7 +107,9 @@ public class SupplierDAO {
             pstmt.setString(5, supplier.getAddress());
             pstmt.setInt(6, supplier.getSupplierId());
 
-            return pstmt.executeUpdate() > 0;
+            boolean updated = pstmt.executeUpdate() > 0;
+            DatabaseConnection.recordWrite();
+            return updated;
 
         } catch (SQLException e) {
             System.err.println("Error updating supplier:");
@@ -111,7 +125,9 @@ public class SupplierDAO {
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
             pstmt.setInt(1, supplierId);
-            return pstmt.executeUpdate() > 0;
+            boolean updated = pstmt.executeUpdate() > 0;
+            DatabaseConnection.recordWrite();
+            return updated;
 
         } catch (SQLException e) {
             System.err.println("Error deleting supplier:");
@@ -124,7 +140,7 @@ public class SupplierDAO {
         List<Supplier> suppliers = new ArrayList<>();
         String sql = "SELECT supplier_id, name, contact_person, email, phone, address FROM Supplier WHERE name LIKE ? OR contact_person LIKE ? OR phone LIKE ?";
 
-        try (Connection conn = DatabaseConnection.getConnection();
+        try (Connection conn = DatabaseConnection.getReadConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
             String search = "%" + searchTerm + "%";
@@ -152,4 +168,28 @@ public class SupplierDAO {
         return suppliers;
     }
 
+    /**
+     * Stream search results for as-you-type search, name prefix matches first
+     *
+     * @param searchTerm Text typed by the user
+     * @param maxRows Maximum number of rows to deliver
+     * @param stream Receives rows as they are read
+     */
+    public void streamSearchSuppliers(String searchTerm, int maxRows, RowStream<? super Supplier> stream) {
+        String escaped = escapeLike(searchTerm);
+        String search = "%" + escaped + "%";
+        String sql = "SELECT supplier_id, name, contact_person, email, phone, address FROM Supplier " +
+                "WHERE name LIKE ? OR contact_person LIKE ? OR phone LIKE ? " +
+                "ORDER BY name NOT LIKE ?, name";
+
+        streamQuery(sql, rs -> new Supplier(
+                rs.getInt("supplier_id"),
+                rs.getString("name"),
+                rs.getString("contact_person"),
+                rs.getString("email"),
+                rs.getString("phone"),
+                rs.getString("address")
+        ), maxRows, stream, search, search, search, escaped + "%");
+    }
+
 }
@@ -1,5 +1,8 @@
 package com.example.dummy_inventory.dao;
+import com.example.dummy_inventory.auth.PasswordPolicy;
 import com.example.dummy_inventory.db.DatabaseConnection;
+import com.example.dummy_inventory.event.EventBus;
+import com.example.dummy_inventory.event.UserChanged;
 import com.example.dummy_inventory.model.User;
 import org.mindrot.jbcrypt.BCrypt;
 
@@ -7,65 +10,96 @@ import java.sql.*;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 public class UserDAO {
 
-    // Paste this inside UserDAO.java, replacing the existing login method
-
-public User login(String username, String password) {
-    String sql = "SELECT user_id, username, password, role, full_name, email, is_active, " +
-                 "created_at, last_login FROM User WHERE username = ? AND is_active = TRUE";
+    // Authentication always reads the primary so a just-changed password or
+    // deactivation is never served from a lagging replica.
+    // Interactive logins go through AuthService (bounded executor, credential
+    // cache, batched last_login); this method remains for direct callers.
+    public User login(String username, String password) {
+        User user = findActiveUserForLogin(username);
+        if (user != null && user.getPassword() != null && BCrypt.checkpw(password, user.getPassword())) {
+            updateLastLogins(Map.of(user.getUserId(), LocalDateTime.now()));
+            return user;
+        }
+        return null;
+    }
 
-    try (Connection conn = DatabaseConnection.getConnection();
-         PreparedStatement pstmt = conn.prepareStatement(sql)) {
+    /**
+     * Load an active user including the password hash, from the primary
+     *
+     * @return The user, or null if no active user has this username
+     */
+    public User findActiveUserForLogin(String username) {
+        String sql = "SELECT user_id, username, password, role, full_name, email, is_active, " +
+                     "created_at, last_login FROM User WHERE username = ? AND is_active = TRUE";
 
-        pstmt.setString(1, username);
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
-        try (ResultSet rs = pstmt.executeQuery()) {
-            if (rs.next()) {
-                String dbHash = rs.getString("password");
+            pstmt.setString(1, username);
 
-                // Check password match
-                if (BCrypt.checkpw(password, dbHash)) {
-                    User user = new User(
-                        rs.getInt("user_id"),
-                        rs.getString("username"),
-                        dbHash,
-                        User.Role.valueOf(rs.getString("role")),
-                        rs.getString("full_name"),
-                        rs.getString("email"),
-                        rs.getBoolean("is_active"),
-                        rs.getTimestamp("created_at") != null ?
-                            rs.getTimestamp("created_at").toLocalDateTime() : null,
-                        rs.getTimestamp("last_login") != null ?
-                            rs.getTimestamp("last_login").toLocalDateTime() : null
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return new User(
+                            rs.getInt("user_id"),
+                            rs.getString("username"),
+                            rs.getString("password"),
+                            User.Role.valueOf(rs.getString("role")),
+                            rs.getString("full_name"),
+                            rs.getString("email"),
+                            rs.getBoolean("is_active"),
+                            rs.getTimestamp("created_at") != null ? rs.getTimestamp("created_at").toLocalDateTime() : null,
+                            rs.getTimestamp("last_login") != null ? rs.getTimestamp("last_login").toLocalDateTime() : null
                     );
-                    updateLastLogin(user.getUserId());
-                    return user;
                 }
             }
+        } catch (SQLException e) {
+            System.err.println("Error during login:");
+            e.printStackTrace();
         }
-    } catch (SQLException e) {
-        System.err.println("Error during login:");
-        e.printStackTrace();
+        return null;
     }
-    return null;
-}
 
-    private void updateLastLogin(int userId) {
-        String sql = "UPDATE User SET last_login = CURRENT_TIMESTAMP WHERE user_id = ?";
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setInt(1, userId);
-            pstmt.executeUpdate();
+    /**
+     * Write several last_login values in one batched transaction
+     *
+     * @param lastLogins userId -> login time
+     * @return true if the batch was committed
+     */
+    public boolean updateLastLogins(Map<Integer, LocalDateTime> lastLogins) {
+        String sql = "UPDATE User SET last_login = ? WHERE user_id = ?";
+
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                for (Map.Entry<Integer, LocalDateTime> entry : lastLogins.entrySet()) {
+                    pstmt.setTimestamp(1, Timestamp.valueOf(entry.getValue()));
+                    pstmt.setInt(2, entry.getKey());
+                    pstmt.addBatch();
+                }
+                pstmt.executeBatch();
+                conn.commit();
+                DatabaseConnection.recordWrite();
+                return true;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
         } catch (SQLException e) {
             System.err.println("Error updating last login:");
             e.printStackTrace();
+            return false;
         }
     }
 
     public static String hashPassword(String plainTextPassword) {
-        return BCrypt.hashpw(plainTextPassword, BCrypt.gensalt(12));
+        // Cost is chosen per host by PasswordPolicy (benchmarked at startup)
+        return PasswordPolicy.getInstance().hash(plainTextPassword);
     }
 
     public static boolean verifyPassword(String plainTextPassword, String hashedPassword) {
@@ -85,7 +119,9 @@ public User login(String username, String password) {
             pstmt.setString(5, user.getEmail());
             pstmt.setBoolean(6, user.isActive());
 
-            return pstmt.executeUpdate() > 0;
+            boolean updated = pstmt.executeUpdate() > 0;
+            DatabaseConnection.recordWrite();
+            return updated;
 
         } catch (SQLException e) {
             System.err.println("Error creating user:");
@@ -99,7 +135,7 @@ public User login(String username, String password) {
         List<User> users = new ArrayList<>();
         String sql = "SELECT user_id, username, password, role, full_name, email, is_active, created_at, last_login FROM User ORDER BY created_at DESC";
 
-        try (Connection conn = DatabaseConnection.getConnection();
+        try (Connection conn = DatabaseConnection.getReadConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
 
@@ -199,7 +235,12 @@ public User login(String username, String password) {
             pstmt.setBoolean(5, user.isActive());
             pstmt.setInt(6, user.getUserId());
 
-            return pstmt.executeUpdate() > 0;
+            boolean updated = pstmt.executeUpdate() > 0;
+            DatabaseConnection.recordWrite();
+            if (updated) {
+                EventBus.getInstance().publish(new UserChanged(user.getUserId(), UserChanged.Kind.UPDATED));
+            }
+            return updated;
 
         } catch (SQLException e) {
             System.err.println("Error updating user:");
@@ -217,7 +258,12 @@ public User login(String username, String password) {
             pstmt.setString(1, hashPassword(newPassword));
             pstmt.setInt(2, userId);
 
-            return pstmt.executeUpdate() > 0;
+            boolean updated = pstmt.executeUpdate() > 0;
+            DatabaseConnection.recordWrite();
+            if (updated) {
+                EventBus.getInstance().publish(new UserChanged(userId, UserChanged.Kind.PASSWORD_CHANGED));
+            }
+            return updated;
 
         } catch (SQLException e) {
             System.err.println("Error updating password:");
@@ -226,17 +272,82 @@ public User login(String username, String password) {
         }
     }
 
-    public boolean deleteUser(int userId) {
-        String sql = "DELETE FROM User WHERE user_id = ?";
+    /**
+     * Swap a password hash for an upgraded one (same password, new cost)
+     * Compare-and-set on the old hash so a password changed in the meantime is kept.
+     * No UserChanged event: the account and its credentials are unchanged.
+     *
+     * @return true if the hash was replaced
+     */
+    public boolean replacePasswordHash(int userId, String expectedHash, String newHash) {
+        String sql = "UPDATE User SET password = ? WHERE user_id = ? AND password = ?";
 
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
-            pstmt.setInt(1, userId);
-            return pstmt.executeUpdate() > 0;
+            pstmt.setString(1, newHash);
+            pstmt.setInt(2, userId);
+            pstmt.setString(3, expectedHash);
+
+            boolean updated = pstmt.executeUpdate() > 0;
+            DatabaseConnection.recordWrite();
+            return updated;
+
+        } catch (SQLException e) {
+            System.err.println("Error upgrading password hash:");
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    /**
+     * Delete a user; their sales and audit entries are kept with user_id cleared
+     * (ON DELETE SET NULL done by hand: the partitioned Sale and AuditLog have no foreign keys)
+     */
+    public boolean deleteUser(int userId) {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+
+            try {
+                for (String table : new String[] {"Sale", "SaleArchive", "AuditLog", "AuditLogArchive"}) {
+                    try (PreparedStatement pstmt = conn.prepareStatement(
+                            "UPDATE " + table + " SET user_id = NULL WHERE user_id = ?")) {
+                        pstmt.setInt(1, userId);
+                        pstmt.executeUpdate();
+                    }
+                }
+
+                boolean updated;
+                try (PreparedStatement pstmt = conn.prepareStatement("DELETE FROM User WHERE user_id = ?")) {
+                    pstmt.setInt(1, userId);
+                    updated = pstmt.executeUpdate() > 0;
+                }
+                if (!updated) {
+                    conn.rollback();
+                    return false;
+                }
+
+                conn.commit();
+                DatabaseConnection.recordWrite();
+                EventBus.getInstance().publish(new UserChanged(userId, UserChanged.Kind.DELETED));
+                return true;
+
+            } catch (SQLException e) {
+                System.err.println("Error deleting user:");
+                e.printStackTrace();
+                conn.rollback();
+                return false;
+            } finally {
+                try {
+                    conn.setAutoCommit(true);
+                } catch (SQLException e) {
+                    System.err.println("Error restoring autocommit:");
+                    e.printStackTrace();
+                }
+            }
 
         } catch (SQLException e) {
-            System.err.println("Error deleting user:");
+            System.err.println("Error with database connection:");
             e.printStackTrace();
             return false;
         }
@@ -246,7 +357,7 @@ public User login(String username, String password) {
         List<User> users = new ArrayList<>();
         String sql = "SELECT user_id, username, password, role, full_name, email, is_active, created_at, last_login FROM User WHERE username LIKE ? OR full_name LIKE ? ORDER BY username";
 
-        try (Connection conn = DatabaseConnection.getConnection();
+        try (Connection conn = DatabaseConnection.getReadConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
             String search = "%" + searchTerm + "%";
@@ -280,7 +391,7 @@ public User login(String username, String password) {
         List<User> users = new ArrayList<>();
         String sql = "SELECT user_id, username, password, role, full_name, email, is_active, created_at, last_login FROM User WHERE role = ? ORDER BY username";
 
-        try (Connection conn = DatabaseConnection.getConnection();
+        try (Connection conn = DatabaseConnection.getReadConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
             pstmt.setString(1, role.name());
@@ -317,7 +428,12 @@ public User login(String username, String password) {
             pstmt.setBoolean(1, isActive);
             pstmt.setInt(2, userId);
 
-            return pstmt.executeUpdate() > 0;
+            boolean updated = pstmt.executeUpdate() > 0;
+            DatabaseConnection.recordWrite();
+            if (updated) {
+                EventBus.getInstance().publish(new UserChanged(userId, UserChanged.Kind.UPDATED));
+            }
+            return updated;
 
         } catch (SQLException e) {
             System.err.println("Error updating user status:");
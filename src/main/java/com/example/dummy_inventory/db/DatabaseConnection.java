@@ -4,13 +4,27 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.sql.Connection;
 import java.sql.DriverManager;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * DatabaseConnection class manages MySQL database connections
  * Uses Singleton pattern to ensure only one connection instance
  * Reads database credentials from database.properties file
+ *
+ * READ/WRITE SPLITTING:
+ * - getConnection() always returns a connection to the primary (use for writes)
+ * - getReadConnection() returns a connection to a read replica when one is
+ *   configured (db.replica.urls), healthy and not lagging more than
+ *   db.replica.maxLagSeconds; otherwise it falls back to the primary
+ * - recordWrite() pins reads to the primary for db.replica.stickySeconds so
+ *   this session always sees its own writes (e.g. a sale it just recorded)
  */
 public class DatabaseConnection {
 
@@ -19,6 +33,19 @@ public class DatabaseConnection {
     private static final String DATABASE_USER;
     private static final String DATABASE_PASSWORD;
     private static final String FULL_URL;
+    private static final Properties PROPERTIES;
+
+    // Read replica configuration - optional, empty list means "primary only"
+    private static final List<Replica> REPLICAS;
+    private static final long MAX_REPLICA_LAG_SECONDS;
+    private static final long REPLICA_STICKY_MILLIS;
+    private static final long LAG_CHECK_INTERVAL_MILLIS;
+
+    // Round-robin cursor across healthy replicas
+    private static final AtomicInteger nextReplica = new AtomicInteger();
+
+    // Time of the last write made by this session (epoch millis)
+    private static volatile long lastWriteMillis = 0;
 
     // Static block to load database configuration from properties file
     static {
@@ -33,14 +60,34 @@ public class DatabaseConnection {
             }
 
             props.load(input);
+            PROPERTIES = props;
 
             DATABASE_URL = props.getProperty("db.url");
             DATABASE_USER = props.getProperty("db.user");
             DATABASE_PASSWORD = props.getProperty("db.password");
-            String connectionParams = props.getProperty("db.connection.params", "");
+            String connectionParams = withBatchRewrite(props.getProperty("db.connection.params", "").trim());
             FULL_URL = DATABASE_URL + connectionParams;
 
+            List<Replica> replicas = new ArrayList<>();
+            String replicaUrls = props.getProperty("db.replica.urls", "").trim();
+            if (!replicaUrls.isEmpty()) {
+                String replicaUser = props.getProperty("db.replica.user", DATABASE_USER);
+                String replicaPassword = props.getProperty("db.replica.password", DATABASE_PASSWORD);
+                for (String url : replicaUrls.split(",")) {
+                    if (!url.trim().isEmpty()) {
+                        replicas.add(new Replica(url.trim() + connectionParams, replicaUser, replicaPassword));
+                    }
+                }
+            }
+            REPLICAS = Collections.unmodifiableList(replicas);
+            MAX_REPLICA_LAG_SECONDS = Long.parseLong(props.getProperty("db.replica.maxLagSeconds", "5").trim());
+            REPLICA_STICKY_MILLIS = Long.parseLong(props.getProperty("db.replica.stickySeconds", "10").trim()) * 1000;
+            LAG_CHECK_INTERVAL_MILLIS = Long.parseLong(props.getProperty("db.replica.lagCheckIntervalMs", "2000").trim());
+
             System.out.println("Database configuration loaded successfully from database.properties");
+            if (!REPLICAS.isEmpty()) {
+                System.out.println("Read replicas configured: " + REPLICAS.size());
+            }
 
         } catch (IOException e) {
             System.err.println("ERROR: Failed to load database configuration!");
@@ -49,6 +96,22 @@ public class DatabaseConnection {
         }
     }
 
+    /**
+     * Make sure Connector/J rewrites JDBC batches into multi-row statements
+     * Without rewriteBatchedStatements every addBatch() row is still sent as its own
+     * statement, and the batched writes (stock receipts, purchase orders, audit log,
+     * forecasts) save no round trips. An explicit setting in the params is kept.
+     */
+    private static String withBatchRewrite(String params) {
+        if (params.contains("rewriteBatchedStatements=")) {
+            return params;
+        }
+        if (params.isEmpty()) {
+            return "?rewriteBatchedStatements=true";
+        }
+        return params + (params.contains("?") ? "&" : "?") + "rewriteBatchedStatements=true";
+    }
+
     /**
      * Private constructor to prevent instantiation
      */
@@ -106,6 +169,99 @@ public class DatabaseConnection {
         }
     }
 
+    /**
+     * Returns a connection suitable for read-only queries
+     * Routes to a read replica when one is available and caught up, and falls
+     * back to the primary when no replica is configured, all replicas are lagging
+     * or unreachable, or this session wrote recently (read-your-writes).
+     *
+     * @return Connection object or null if connection fails
+     */
+    public static Connection getReadConnection() {
+        if (REPLICAS.isEmpty() || System.currentTimeMillis() - lastWriteMillis < REPLICA_STICKY_MILLIS) {
+            return getConnection();
+        }
+
+        int start = Math.floorMod(nextReplica.getAndIncrement(), REPLICAS.size());
+        for (int i = 0; i < REPLICAS.size(); i++) {
+            Replica replica = REPLICAS.get((start + i) % REPLICAS.size());
+            Connection conn = replica.connectIfCaughtUp();
+            if (conn != null) {
+                return conn;
+            }
+        }
+
+        return getConnection();
+    }
+
+    /**
+     * Records that this session has just written to the primary
+     * Subsequent getReadConnection() calls are served by the primary until the
+     * sticky window expires, so the session never reads stale data it wrote itself.
+     */
+    public static void recordWrite() {
+        lastWriteMillis = System.currentTimeMillis();
+    }
+
+    /**
+     * Read an optional application setting from database.properties
+     *
+     * @param key Property key
+     * @param defaultValue Value returned when the key is missing or blank
+     * @return Trimmed property value or defaultValue
+     */
+    public static String getProperty(String key, String defaultValue) {
+        String value = PROPERTIES.getProperty(key);
+        return value == null || value.trim().isEmpty() ? defaultValue : value.trim();
+    }
+
+    /**
+     * Read an optional integer setting from database.properties
+     *
+     * @param key Property key
+     * @param defaultValue Value returned when the key is missing, blank or not a number
+     * @return Parsed property value or defaultValue
+     */
+    public static int getIntProperty(String key, int defaultValue) {
+        String value = getProperty(key, null);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            System.err.println("Invalid value for " + key + ": " + value + " (using " + defaultValue + ")");
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Read an optional decimal setting from database.properties
+     *
+     * @param key Property key
+     * @param defaultValue Value returned when the key is missing, blank or not a number
+     * @return Parsed property value or defaultValue
+     */
+    public static double getDoubleProperty(String key, double defaultValue) {
+        String value = getProperty(key, null);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            System.err.println("Invalid value for " + key + ": " + value + " (using " + defaultValue + ")");
+            return defaultValue;
+        }
+    }
+
+    /**
+     * @return true if at least one read replica is configured
+     */
+    public static boolean hasReplicas() {
+        return !REPLICAS.isEmpty();
+    }
+
     /**
      * Tests if the connection is valid
      *
@@ -156,6 +312,82 @@ public class DatabaseConnection {
 
         System.out.println("================================");
     }
+
+    /**
+     * A read replica endpoint with a cached replication lag measurement
+     * Lag is re-checked at most once per db.replica.lagCheckIntervalMs so the
+     * check does not add a round trip to every read.
+     */
+    private static final class Replica {
+        private final String url;
+        private final String user;
+        private final String password;
+
+        private volatile long lagCheckedAtMillis = 0;
+        private volatile boolean caughtUp = false;
+
+        Replica(String url, String user, String password) {
+            this.url = url;
+            this.user = user;
+            this.password = password;
+        }
+
+        /**
+         * @return a connection to this replica, or null if it is lagging or unreachable
+         */
+        Connection connectIfCaughtUp() {
+            long now = System.currentTimeMillis();
+            boolean recheck = now - lagCheckedAtMillis >= LAG_CHECK_INTERVAL_MILLIS;
+            if (!recheck && !caughtUp) {
+                return null;
+            }
+
+            try {
+                Connection conn = DriverManager.getConnection(url, user, password);
+                if (recheck) {
+                    caughtUp = measureLagSeconds(conn) <= MAX_REPLICA_LAG_SECONDS;
+                    lagCheckedAtMillis = now;
+                    if (!caughtUp) {
+                        conn.close();
+                        return null;
+                    }
+                }
+                return conn;
+            } catch (SQLException e) {
+                System.err.println("Read replica unavailable, falling back: " + e.getMessage());
+                caughtUp = false;
+                lagCheckedAtMillis = now;
+                return null;
+            }
+        }
+
+        /**
+         * Reads Seconds_Behind_Source from the replica status
+         * A NULL value means replication is stopped, which is treated as infinite lag.
+         */
+        private long measureLagSeconds(Connection conn) throws SQLException {
+            try (Statement stmt = conn.createStatement()) {
+                ResultSet rs;
+                String column;
+                try {
+                    rs = stmt.executeQuery("SHOW REPLICA STATUS");
+                    column = "Seconds_Behind_Source";
+                } catch (SQLException e) {
+                    // MySQL < 8.0.22
+                    rs = stmt.executeQuery("SHOW SLAVE STATUS");
+                    column = "Seconds_Behind_Master";
+                }
+                try (ResultSet status = rs) {
+                    if (!status.next()) {
+                        // Not configured as a replica - nothing to lag behind
+                        return 0;
+                    }
+                    long lag = status.getLong(column);
+                    return status.wasNull() ? Long.MAX_VALUE : lag;
+                }
+            }
+        }
+    }
 }
 
 /*
@@ -0,0 +1,30 @@
+package com.example.dummy_inventory.db;
+
+import java.sql.SQLException;
+
+/**
+ * One versioned schema change, applied at most once per database by MigrationRunner
+ *
+ * SQL migrations are resources (see SqlMigration); changes that need to look at
+ * the database first, such as dropping foreign keys with generated names, are
+ * written in Java against MigrationContext.
+ *
+ * MySQL DDL is not transactional, so a migration can fail partway. SQL
+ * migrations resume after their last completed statement; a Java migration is
+ * simply run again and must therefore check the schema before each change
+ * (tableExists, isPartitioned, IF NOT EXISTS...) or use executeStep().
+ */
+public interface Migration {
+
+    int getVersion();
+
+    String getDescription();
+
+    /**
+     * Checksum of the migration's content, recorded when it is applied and
+     * verified on every start; null if the migration cannot be checksummed
+     */
+    Long getChecksum();
+
+    void apply(MigrationContext context) throws SQLException;
+}
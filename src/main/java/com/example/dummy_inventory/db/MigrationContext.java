@@ -0,0 +1,170 @@
+package com.example.dummy_inventory.db;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Connection wrapper handed to migrations
+ *
+ * Every statement run through execute() is timed and reported, so a slow
+ * ALTER shows up in the startup log. Index changes should go through
+ * addIndex(), which asks MySQL for an online build (ALGORITHM=INPLACE,
+ * LOCK=NONE): if the server cannot build the index without blocking writes the
+ * statement fails instead of silently locking the table.
+ *
+ * Statements run through executeStep() are recorded in SchemaMigrationProgress
+ * as they complete, so a migration that failed partway resumes after its last
+ * completed statement instead of re-running it against the half-migrated schema.
+ */
+public final class MigrationContext {
+
+    private final Connection conn;
+
+    // Migration being applied, and its statements completed by earlier attempts (number -> CRC32)
+    private int version;
+    private Map<Integer, Long> completedSteps = new HashMap<>();
+
+    MigrationContext(Connection conn) {
+        this.conn = conn;
+    }
+
+    /**
+     * Start applying a migration: read what earlier, failed attempts completed
+     */
+    void begin(int version) throws SQLException {
+        this.version = version;
+        completedSteps = new HashMap<>();
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "SELECT statement_no, checksum FROM SchemaMigrationProgress WHERE version = ?")) {
+            pstmt.setInt(1, version);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    completedSteps.put(rs.getInt(1), rs.getLong(2));
+                }
+            }
+        }
+    }
+
+    /**
+     * Run statement number statementNo of the current migration unless an earlier
+     * attempt already completed it, and record it as completed
+     *
+     * @throws SQLException also if the statement was completed by an earlier attempt
+     *                      but has been edited since
+     */
+    public void executeStep(int statementNo, String sql) throws SQLException {
+        CRC32 crc = new CRC32();
+        crc.update(sql.getBytes(StandardCharsets.UTF_8));
+        long checksum = crc.getValue();
+
+        Long done = completedSteps.get(statementNo);
+        if (done != null) {
+            if (done != checksum) {
+                throw new SQLException("Statement " + statementNo + " was applied by an earlier attempt " +
+                        "and has been edited since - restore it, or fix the schema by hand and delete its " +
+                        "SchemaMigrationProgress row");
+            }
+            System.out.printf("    %9s  statement %d already applied by an earlier attempt%n", "skipped", statementNo);
+            return;
+        }
+
+        execute(sql);
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "INSERT INTO SchemaMigrationProgress (version, statement_no, checksum) VALUES (?, ?, ?)")) {
+            pstmt.setInt(1, version);
+            pstmt.setInt(2, statementNo);
+            pstmt.setLong(3, checksum);
+            pstmt.executeUpdate();
+        }
+        completedSteps.put(statementNo, checksum);
+    }
+
+    public Connection getConnection() {
+        return conn;
+    }
+
+    /**
+     * Run one statement and print how long it took
+     */
+    public void execute(String sql) throws SQLException {
+        long started = System.currentTimeMillis();
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute(sql);
+        }
+        String firstLine = sql.strip().lines().findFirst().orElse("");
+        if (firstLine.length() > 100) {
+            firstLine = firstLine.substring(0, 97) + "...";
+        }
+        System.out.printf("    %6d ms  %s%n", System.currentTimeMillis() - started, firstLine);
+    }
+
+    /**
+     * Add an index without blocking reads or writes (skipped if it already exists)
+     *
+     * @param columns Column list, e.g. "status, product_id"
+     */
+    public void addIndex(String table, String index, String columns) throws SQLException {
+        if (indexExists(table, index)) {
+            return;
+        }
+        execute("ALTER TABLE " + table + " ADD INDEX " + index + " (" + columns + "), ALGORITHM=INPLACE, LOCK=NONE");
+    }
+
+    public boolean tableExists(String table) throws SQLException {
+        return count("SELECT COUNT(*) FROM information_schema.TABLES " +
+                "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ?", table) > 0;
+    }
+
+    public boolean columnExists(String table, String column) throws SQLException {
+        return count("SELECT COUNT(*) FROM information_schema.COLUMNS " +
+                "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND COLUMN_NAME = ?", table, column) > 0;
+    }
+
+    public boolean indexExists(String table, String index) throws SQLException {
+        return count("SELECT COUNT(*) FROM information_schema.STATISTICS " +
+                "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND INDEX_NAME = ?", table, index) > 0;
+    }
+
+    public boolean isPartitioned(String table) throws SQLException {
+        return count("SELECT COUNT(*) FROM information_schema.PARTITIONS " +
+                "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND PARTITION_NAME IS NOT NULL", table) > 0;
+    }
+
+    /**
+     * Names of the foreign keys declared on a table
+     */
+    public List<String> getForeignKeys(String table) throws SQLException {
+        List<String> names = new ArrayList<>();
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "SELECT CONSTRAINT_NAME FROM information_schema.REFERENTIAL_CONSTRAINTS " +
+                "WHERE CONSTRAINT_SCHEMA = DATABASE() AND TABLE_NAME = ?")) {
+            pstmt.setString(1, table);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    names.add(rs.getString(1));
+                }
+            }
+        }
+        return names;
+    }
+
+    private int count(String sql, String... params) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            for (int i = 0; i < params.length; i++) {
+                pstmt.setString(i + 1, params[i]);
+            }
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        }
+    }
+}
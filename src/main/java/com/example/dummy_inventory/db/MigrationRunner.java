@@ -0,0 +1,247 @@
+package com.example.dummy_inventory.db;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Brings an existing database up to the schema this build expects
+ *
+ * database_schema.sql creates a new database at the latest version and records
+ * every version it contains in SchemaMigration. Databases created before
+ * versioning have no SchemaMigration table; they are recorded as version 1
+ * (the original script) and receive every migration after it.
+ *
+ * On each start, under a MySQL named lock so nodes do not migrate concurrently:
+ * 1. Checksums of applied migrations are compared with the migrations in this
+ *    build. A mismatch means an applied migration was edited and stops startup.
+ *    Rows written by database_schema.sql have no checksum; it is filled in.
+ * 2. Pending migrations run in version order. Each statement is timed, and each
+ *    migration's duration is stored in SchemaMigration.execution_ms.
+ *
+ * DDL is not transactional in MySQL: a failed migration is not recorded, the
+ * error is reported and startup stops, so it can be fixed and retried. The
+ * statements it did complete are kept in SchemaMigrationProgress and skipped on
+ * the retry (see MigrationContext.executeStep); the rows are removed once the
+ * migration is recorded.
+ *
+ * ADDING A MIGRATION:
+ *   1. Add src/main/resources/db/migration/V<n>__<Description>.sql (or a Java Migration)
+ *   2. Register it in MIGRATIONS below
+ *   3. Apply the same change to database_schema.sql and add its SchemaMigration row
+ *
+ * Tuning (database.properties): migrations.lockWaitSeconds
+ */
+public final class MigrationRunner {
+
+    private static final String LOCK_NAME = "inventory.migrations";
+
+    // Schema created by database_schema.sql before SchemaMigration existed
+    private static final int BASELINE_VERSION = 1;
+
+    private static final List<Migration> MIGRATIONS = List.of(
+            new SqlMigration("/db/migration/V2__Product_version_column.sql"),
+            new SqlMigration("/db/migration/V3__Replenishment_tables.sql"),
+            new SqlMigration("/db/migration/V4__Drop_product_audit_trigger.sql"),
+            new PartitionHistoryMigration(),
+            new SqlMigration("/db/migration/V6__Sale_covering_index.sql"),
+            new SqlMigration("/db/migration/V7__Sale_cost_snapshots.sql"),
+            new SqlMigration("/db/migration/V8__Demand_forecast.sql"),
+            new SqlMigration("/db/migration/V9__Product_classes.sql"),
+            new SqlMigration("/db/migration/V10__Replenishment_partial_runs.sql"),
+            new SqlMigration("/db/migration/V11__Sale_user_index.sql"),
+            new SqlMigration("/db/migration/V12__Product_updated_at_index.sql"));
+
+    private MigrationRunner() {
+    }
+
+    /**
+     * Verify applied migrations and apply pending ones
+     *
+     * @return Number of migrations applied
+     * @throws IllegalStateException if the schema cannot be brought up to date
+     */
+    public static int migrate() {
+        try (Connection conn = DatabaseConnection.getNewConnection()) {
+            if (!acquireLock(conn)) {
+                throw new IllegalStateException("Timed out waiting for another node to finish migrating");
+            }
+            try {
+                return migrateLocked(conn);
+            } finally {
+                releaseLock(conn);
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Schema migration failed: " + e.getMessage(), e);
+        }
+    }
+
+    private static int migrateLocked(Connection conn) throws SQLException {
+        MigrationContext context = new MigrationContext(conn);
+
+        // Fail fast instead of queueing behind long transactions holding metadata locks
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("SET SESSION lock_wait_timeout = " +
+                    Math.max(1, DatabaseConnection.getIntProperty("migrations.lockWaitSeconds", 30)));
+        }
+
+        if (!context.tableExists("SchemaMigration")) {
+            if (!context.tableExists("Product")) {
+                throw new IllegalStateException("Database is empty - create it with database_schema.sql");
+            }
+            createMetadataTable(conn);
+            record(conn, BASELINE_VERSION, "Baseline (database_schema.sql before versioning)", null, 0);
+            System.out.println("✓ Existing database recorded as schema version " + BASELINE_VERSION);
+        }
+        createProgressTable(conn);
+
+        // 1. Verify what has been applied
+        Map<Integer, Long> applied = new HashMap<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT version, checksum FROM SchemaMigration")) {
+            while (rs.next()) {
+                long checksum = rs.getLong("checksum");
+                applied.put(rs.getInt("version"), rs.wasNull() ? null : checksum);
+            }
+        }
+
+        List<String> mismatches = new ArrayList<>();
+        for (Migration migration : MIGRATIONS) {
+            if (!applied.containsKey(migration.getVersion()) || migration.getChecksum() == null) {
+                continue;
+            }
+            Long recorded = applied.get(migration.getVersion());
+            if (recorded == null) {
+                updateChecksum(conn, migration);
+            } else if (!recorded.equals(migration.getChecksum())) {
+                mismatches.add("V" + migration.getVersion() + " " + migration.getDescription());
+            }
+        }
+        if (!mismatches.isEmpty()) {
+            throw new IllegalStateException("Applied migrations were modified: " + mismatches +
+                    " (restore the original files, or clear SchemaMigration.checksum to accept them)");
+        }
+
+        int latest = applied.keySet().stream().mapToInt(Integer::intValue).max().orElse(BASELINE_VERSION);
+        int known = MIGRATIONS.get(MIGRATIONS.size() - 1).getVersion();
+        if (latest > known) {
+            System.err.println("Database schema version " + latest + " is newer than this application (" + known + ")");
+        }
+
+        // 2. Apply what is pending
+        long started = System.currentTimeMillis();
+        int count = 0;
+        for (Migration migration : MIGRATIONS) {
+            if (applied.containsKey(migration.getVersion())) {
+                continue;
+            }
+            System.out.println("  Migrating to V" + migration.getVersion() + ": " + migration.getDescription());
+            long migrationStarted = System.currentTimeMillis();
+            try {
+                context.begin(migration.getVersion());
+                migration.apply(context);
+            } catch (SQLException e) {
+                throw new SQLException("V" + migration.getVersion() + " " + migration.getDescription() +
+                        " failed: " + e.getMessage(), e.getSQLState(), e.getErrorCode(), e);
+            }
+            long elapsed = System.currentTimeMillis() - migrationStarted;
+            record(conn, migration.getVersion(), migration.getDescription(), migration.getChecksum(), elapsed);
+            clearProgress(conn, migration.getVersion());
+            System.out.println("  ✓ V" + migration.getVersion() + " applied in " + elapsed + " ms");
+            count++;
+        }
+
+        int version = count > 0 ? Math.max(latest, known) : latest;
+        if (count > 0) {
+            System.out.println("✓ Schema migrated to version " + version + " (" + count + " migrations, " +
+                    (System.currentTimeMillis() - started) + " ms)");
+        } else {
+            System.out.println("✓ Schema up to date (version " + version + ")");
+        }
+        return count;
+    }
+
+    private static void createMetadataTable(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE SchemaMigration (" +
+                    "version INT PRIMARY KEY, " +
+                    "description VARCHAR(200) NOT NULL, " +
+                    "checksum BIGINT NULL, " +
+                    "installed_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP, " +
+                    "execution_ms BIGINT NOT NULL DEFAULT 0)");
+        }
+    }
+
+    /**
+     * Statements completed by migrations that have not been recorded yet (databases
+     * from before progress tracking get the table here)
+     */
+    private static void createProgressTable(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE IF NOT EXISTS SchemaMigrationProgress (" +
+                    "version INT NOT NULL, " +
+                    "statement_no INT NOT NULL, " +
+                    "checksum BIGINT NOT NULL, " +
+                    "applied_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP, " +
+                    "PRIMARY KEY (version, statement_no))");
+        }
+    }
+
+    private static void clearProgress(Connection conn, int version) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement("DELETE FROM SchemaMigrationProgress WHERE version = ?")) {
+            pstmt.setInt(1, version);
+            pstmt.executeUpdate();
+        }
+    }
+
+    private static void record(Connection conn, int version, String description, Long checksum, long elapsedMillis)
+            throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "INSERT INTO SchemaMigration (version, description, checksum, execution_ms) VALUES (?, ?, ?, ?)")) {
+            pstmt.setInt(1, version);
+            pstmt.setString(2, description);
+            if (checksum != null) {
+                pstmt.setLong(3, checksum);
+            } else {
+                pstmt.setNull(3, Types.BIGINT);
+            }
+            pstmt.setLong(4, elapsedMillis);
+            pstmt.executeUpdate();
+        }
+    }
+
+    private static void updateChecksum(Connection conn, Migration migration) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "UPDATE SchemaMigration SET checksum = ? WHERE version = ?")) {
+            pstmt.setLong(1, migration.getChecksum());
+            pstmt.setInt(2, migration.getVersion());
+            pstmt.executeUpdate();
+        }
+    }
+
+    private static boolean acquireLock(Connection conn) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement("SELECT GET_LOCK(?, 300)")) {
+            pstmt.setString(1, LOCK_NAME);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() && rs.getInt(1) == 1;
+            }
+        }
+    }
+
+    private static void releaseLock(Connection conn) {
+        try (PreparedStatement pstmt = conn.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+            pstmt.setString(1, LOCK_NAME);
+            pstmt.execute();
+        } catch (SQLException e) {
+            // The lock is released anyway when the connection closes
+            System.err.println("Error releasing migration lock: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.dummy_inventory.db;
+
+import com.example.dummy_inventory.dao.PartitionDAO;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * V5: monthly partitioning of Sale and AuditLog, plus their archive tables
+ *
+ * Partitioned InnoDB tables cannot have foreign keys, and every unique key must
+ * contain the partitioning column, so for each table this drops the foreign keys
+ * (whose names MySQL generated, hence a Java migration), widens the primary key
+ * with the date column and partitions into one partition per month from the
+ * oldest row up to the current month, plus an empty pmax. The history is copied
+ * once, by the rebuild this migration needs anyway; PartitionMaintenance then only
+ * splits future months out of the empty pmax, which is metadata-only.
+ * Databases migrated before this put all history in pmax; PartitionMaintenance
+ * leaves those alone and prints the one-time split, which must be run offline.
+ *
+ * Unlike the index migrations this rebuilds both tables (ALGORITHM=COPY) and
+ * blocks writes to them while it runs.
+ */
+final class PartitionHistoryMigration implements Migration {
+
+    @Override
+    public int getVersion() {
+        return 5;
+    }
+
+    @Override
+    public String getDescription() {
+        return "Partition Sale and AuditLog by month";
+    }
+
+    @Override
+    public Long getChecksum() {
+        return null;
+    }
+
+    @Override
+    public void apply(MigrationContext context) throws SQLException {
+        partition(context, "Sale", "sale_id", "sale_date");
+        partition(context, "AuditLog", "log_id", "timestamp");
+
+        context.execute("CREATE TABLE IF NOT EXISTS SaleArchive (" +
+                "sale_id INT NOT NULL, " +
+                "product_id INT NOT NULL, " +
+                "quantity_sold INT NOT NULL, " +
+                "unit_price DECIMAL(10, 2) NOT NULL, " +
+                "total_amount DECIMAL(10, 2) NOT NULL, " +
+                "sale_date TIMESTAMP NOT NULL, " +
+                "user_id INT, " +
+                "payment_method ENUM('CASH', 'CARD', 'MOBILE', 'OTHER') DEFAULT 'CASH', " +
+                "notes TEXT, " +
+                "PRIMARY KEY (sale_id, sale_date), " +
+                "INDEX idx_sale_date (sale_date), " +
+                "INDEX idx_product_sale (product_id)" +
+                ") ROW_FORMAT=COMPRESSED");
+        context.execute("CREATE TABLE IF NOT EXISTS AuditLogArchive (" +
+                "log_id INT NOT NULL, " +
+                "user_id INT, " +
+                "action VARCHAR(50) NOT NULL, " +
+                "table_name VARCHAR(50), " +
+                "record_id INT, " +
+                "old_value TEXT, " +
+                "new_value TEXT, " +
+                "ip_address VARCHAR(45), " +
+                "timestamp TIMESTAMP NOT NULL, " +
+                "PRIMARY KEY (log_id, timestamp), " +
+                "INDEX idx_timestamp (timestamp)" +
+                ") ROW_FORMAT=COMPRESSED");
+    }
+
+    private static void partition(MigrationContext context, String table, String idColumn, String dateColumn)
+            throws SQLException {
+        if (context.isPartitioned(table)) {
+            return;
+        }
+        for (String foreignKey : context.getForeignKeys(table)) {
+            context.execute("ALTER TABLE " + table + " DROP FOREIGN KEY " + foreignKey);
+        }
+        context.execute("UPDATE " + table + " SET " + dateColumn + " = CURRENT_TIMESTAMP WHERE " + dateColumn + " IS NULL");
+        context.execute("ALTER TABLE " + table +
+                " MODIFY " + dateColumn + " TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP," +
+                " DROP PRIMARY KEY, ADD PRIMARY KEY (" + idColumn + ", " + dateColumn + ")");
+        context.execute("ALTER TABLE " + table + " PARTITION BY RANGE (UNIX_TIMESTAMP(" + dateColumn + ")) " +
+                monthlyPartitions(context, table, dateColumn));
+    }
+
+    /**
+     * One partition per month from the table's oldest row to the current month, then pmax
+     */
+    private static String monthlyPartitions(MigrationContext context, String table, String dateColumn)
+            throws SQLException {
+        YearMonth current = YearMonth.now();
+        YearMonth first = current;
+        try (PreparedStatement pstmt = context.getConnection().prepareStatement(
+                "SELECT MIN(" + dateColumn + ") FROM " + table);
+             ResultSet rs = pstmt.executeQuery()) {
+            Timestamp oldest = rs.next() ? rs.getTimestamp(1) : null;
+            if (oldest != null && oldest.toLocalDateTime().isBefore(current.atDay(1).atStartOfDay())) {
+                first = YearMonth.from(oldest.toLocalDateTime());
+            }
+        }
+
+        List<YearMonth> months = new ArrayList<>();
+        for (YearMonth month = first; !month.isAfter(current); month = month.plusMonths(1)) {
+            months.add(month);
+        }
+        return PartitionDAO.partitionList(months);
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.dummy_inventory.db;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+/**
+ * Migration read from a classpath resource named V<version>__<Description>.sql
+ *
+ * Statements end with ';' at the end of a line; lines starting with "--" are
+ * comments. DELIMITER blocks (triggers, procedures) are not supported - write
+ * those as Java migrations. The checksum is a CRC32 of the file with line
+ * endings normalised, so editing an applied migration is detected at startup.
+ *
+ * Statements are applied one by one through MigrationContext.executeStep(), so if
+ * one fails the next start skips the statements before it and retries from there.
+ */
+public final class SqlMigration implements Migration {
+
+    private static final Pattern NAME = Pattern.compile("V(\\d+)__(.+)\\.sql");
+
+    private final String resource;
+    private final int version;
+    private final String description;
+    private final String script;
+    private final long checksum;
+
+    /**
+     * @param resource Absolute resource path, e.g. "/db/migration/V2__Product_version_column.sql"
+     * @throws IllegalArgumentException if the name does not follow the convention or the resource is missing
+     */
+    public SqlMigration(String resource) {
+        String fileName = resource.substring(resource.lastIndexOf('/') + 1);
+        Matcher matcher = NAME.matcher(fileName);
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException("Migration name must be V<version>__<Description>.sql: " + resource);
+        }
+        this.resource = resource;
+        this.version = Integer.parseInt(matcher.group(1));
+        this.description = matcher.group(2).replace('_', ' ');
+
+        try (InputStream in = SqlMigration.class.getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IllegalArgumentException("Migration not found on classpath: " + resource);
+            }
+            this.script = new String(in.readAllBytes(), StandardCharsets.UTF_8).replace("\r\n", "\n");
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Migration could not be read: " + resource, e);
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(script.getBytes(StandardCharsets.UTF_8));
+        this.checksum = crc.getValue();
+    }
+
+    @Override
+    public int getVersion() {
+        return version;
+    }
+
+    @Override
+    public String getDescription() {
+        return description;
+    }
+
+    @Override
+    public Long getChecksum() {
+        return checksum;
+    }
+
+    @Override
+    public void apply(MigrationContext context) throws SQLException {
+        List<String> statements = statements();
+        for (int i = 0; i < statements.size(); i++) {
+            context.executeStep(i + 1, statements.get(i));
+        }
+    }
+
+    private List<String> statements() {
+        List<String> statements = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        for (String line : script.split("\n")) {
+            String trimmed = line.strip();
+            if (trimmed.isEmpty() || trimmed.startsWith("--")) {
+                continue;
+            }
+            current.append(line).append('\n');
+            if (trimmed.endsWith(";")) {
+                String sql = current.toString().strip();
+                statements.add(sql.substring(0, sql.length() - 1));
+                current.setLength(0);
+            }
+        }
+        if (!current.toString().isBlank()) {
+            throw new IllegalStateException(resource + ": last statement is not terminated with ';'");
+        }
+        return statements;
+    }
+
+    @Override
+    public String toString() {
+        return "V" + version + " " + description;
+    }
+}
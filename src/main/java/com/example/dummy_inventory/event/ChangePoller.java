@@ -0,0 +1,243 @@
+package com.example.dummy_inventory.event;
+
+import com.example.dummy_inventory.db.DatabaseConnection;
+import com.example.dummy_inventory.model.Sale;
+
+import java.sql.*;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Optional poller that turns changes made by other application nodes into
+ * remote domain events
+ *
+ * Every interval it reads:
+ * - Product rows whose updated_at moved past the last watermark -> ProductChanged(UPDATED, remote)
+ * - Sale rows with sale_id above the last watermark             -> SaleRecorded(remote)
+ *
+ * Sale ids are allocated at insert but become visible at commit, so a sale can
+ * appear after one with a higher id was already read. Each poll therefore also
+ * re-reads sales dated within SALE_OVERLAP_SECONDS of the previous poll (sale_date
+ * is set by the node that recorded the sale, so the window also absorbs clock
+ * skew) and skips the ids it has already delivered.
+ *
+ * Changes this process already published locally are skipped, so subscribers
+ * do not see every local change twice. Deletions on other nodes cannot be
+ * detected from these watermarks; views pick them up on their next manual refresh.
+ */
+public final class ChangePoller {
+
+    private static final ChangePoller INSTANCE = new ChangePoller();
+
+    private static final int SALE_OVERLAP_SECONDS = 300;
+
+    private ScheduledExecutorService scheduler;
+    private long intervalMillis;
+
+    // Watermarks
+    private Timestamp lastProductUpdate;
+    private final Set<Integer> productsAtWatermark = new HashSet<>();
+    private int lastSaleId;
+    // Server time at the start of the previous sale poll
+    private Timestamp lastSalePoll;
+    // Sales already read that are still inside the overlap window (id -> sale_date millis)
+    private final Map<Integer, Long> deliveredSales = new HashMap<>();
+
+    // Recently published local changes (id -> publish time), used to suppress echoes
+    private final Map<Integer, Long> localProductChanges = new ConcurrentHashMap<>();
+    private final Map<Integer, Long> localSales = new ConcurrentHashMap<>();
+
+    private ChangePoller() {
+        EventBus bus = EventBus.getInstance();
+        bus.subscribe(ProductChanged.class, e -> {
+            if (!e.isRemote()) localProductChanges.put(e.getProductId(), System.currentTimeMillis());
+        });
+        bus.subscribe(StockChanged.class, e -> {
+            if (!e.isRemote()) localProductChanges.put(e.getProductId(), System.currentTimeMillis());
+        });
+        bus.subscribe(SaleRecorded.class, e -> {
+            if (!e.isRemote()) localSales.put(e.getSale().getSaleId(), System.currentTimeMillis());
+        });
+    }
+
+    public static ChangePoller getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Start polling; does nothing if already running or intervalSeconds <= 0
+     *
+     * @param intervalSeconds Poll interval in seconds
+     */
+    public synchronized void start(int intervalSeconds) {
+        if (scheduler != null || intervalSeconds <= 0) {
+            return;
+        }
+        intervalMillis = intervalSeconds * 1000L;
+
+        if (!initializeWatermarks()) {
+            System.err.println("Change poller not started: could not read initial watermarks");
+            return;
+        }
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "change-poller");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(this::poll, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+        System.out.println("✓ Change poller started (every " + intervalSeconds + "s)");
+    }
+
+    /**
+     * Stop polling - call on application exit
+     */
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    private boolean initializeWatermarks() {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            if (conn == null) {
+                return false;
+            }
+
+            try (Statement stmt = conn.createStatement()) {
+                try (ResultSet rs = stmt.executeQuery("SELECT COALESCE(MAX(updated_at), CURRENT_TIMESTAMP) FROM Product")) {
+                    lastProductUpdate = rs.next() ? rs.getTimestamp(1) : new Timestamp(System.currentTimeMillis());
+                }
+                try (ResultSet rs = stmt.executeQuery("SELECT COALESCE(MAX(sale_id), 0) FROM Sale")) {
+                    lastSaleId = rs.next() ? rs.getInt(1) : 0;
+                }
+            }
+            lastSalePoll = serverTime(conn);
+
+            // Sales inside the first overlap window happened before start - do not report them
+            try (PreparedStatement pstmt = conn.prepareStatement(
+                    "SELECT sale_id, sale_date FROM Sale WHERE sale_date >= ?")) {
+                pstmt.setTimestamp(1, overlapStart(lastSalePoll));
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        deliveredSales.put(rs.getInt(1), rs.getTimestamp(2).getTime());
+                    }
+                }
+            }
+            return true;
+
+        } catch (SQLException e) {
+            System.err.println("Error initializing change poller:");
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    private void poll() {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            if (conn == null) {
+                return;
+            }
+            pollProducts(conn);
+            pollSales(conn);
+        } catch (SQLException | RuntimeException e) {
+            System.err.println("Change poll failed: " + e.getMessage());
+        }
+
+        // Forget local changes older than two poll intervals (plus the re-read window for sales)
+        long cutoff = System.currentTimeMillis() - 2 * intervalMillis;
+        localProductChanges.values().removeIf(time -> time < cutoff);
+        localSales.values().removeIf(time -> time < cutoff - SALE_OVERLAP_SECONDS * 1000L);
+    }
+
+    private void pollProducts(Connection conn) throws SQLException {
+        // updated_at has one-second resolution, so re-read the watermark second
+        // and skip the rows already delivered for it
+        String sql = "SELECT product_id, updated_at FROM Product WHERE updated_at >= ? ORDER BY updated_at";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setTimestamp(1, lastProductUpdate);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    int productId = rs.getInt("product_id");
+                    Timestamp updatedAt = rs.getTimestamp("updated_at");
+
+                    if (updatedAt.after(lastProductUpdate)) {
+                        lastProductUpdate = updatedAt;
+                        productsAtWatermark.clear();
+                    } else if (productsAtWatermark.contains(productId)) {
+                        continue;
+                    }
+                    productsAtWatermark.add(productId);
+
+                    if (!localProductChanges.containsKey(productId)) {
+                        EventBus.getInstance().publish(
+                                new ProductChanged(productId, ProductChanged.Kind.UPDATED, true));
+                    }
+                }
+            }
+        }
+    }
+
+    private void pollSales(Connection conn) throws SQLException {
+        String sql = "SELECT s.sale_id, s.product_id, s.quantity_sold, s.unit_price, s.total_amount, " +
+                "s.sale_date, s.user_id, s.payment_method, s.notes, " +
+                "p.name AS product_name, p.price " +
+                "FROM Sale s JOIN Product p ON s.product_id = p.product_id " +
+                "WHERE s.sale_id > ? OR s.sale_date >= ? ORDER BY s.sale_id";
+        Timestamp pollStart = serverTime(conn);
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, lastSaleId);
+            pstmt.setTimestamp(2, overlapStart(lastSalePoll));
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    int saleId = rs.getInt("sale_id");
+                    Timestamp saleDate = rs.getTimestamp("sale_date");
+                    lastSaleId = Math.max(lastSaleId, saleId);
+                    if (deliveredSales.put(saleId, saleDate.getTime()) != null || localSales.containsKey(saleId)) {
+                        continue;
+                    }
+
+                    Sale sale = new Sale(
+                            saleId,
+                            rs.getInt("product_id"),
+                            rs.getInt("quantity_sold"),
+                            rs.getDouble("unit_price"),
+                            rs.getDouble("total_amount"),
+                            saleDate.toLocalDateTime(),
+                            (Integer) rs.getObject("user_id"),
+                            rs.getString("payment_method") != null ?
+                                    Sale.PaymentMethod.valueOf(rs.getString("payment_method")) : Sale.PaymentMethod.CASH,
+                            rs.getString("notes")
+                    );
+                    sale.setProductName(rs.getString("product_name"));
+                    sale.setProductPrice(rs.getDouble("price"));
+                    EventBus.getInstance().publish(new SaleRecorded(sale, true));
+                }
+            }
+        }
+
+        lastSalePoll = pollStart;
+        long windowStart = overlapStart(pollStart).getTime();
+        deliveredSales.values().removeIf(date -> date < windowStart);
+    }
+
+    private static Timestamp overlapStart(Timestamp pollTime) {
+        return new Timestamp(pollTime.getTime() - SALE_OVERLAP_SECONDS * 1000L);
+    }
+
+    private static Timestamp serverTime(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT CURRENT_TIMESTAMP")) {
+            return rs.next() ? rs.getTimestamp(1) : new Timestamp(System.currentTimeMillis());
+        }
+    }
+}
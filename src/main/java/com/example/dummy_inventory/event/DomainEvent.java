@@ -0,0 +1,32 @@
+package com.example.dummy_inventory.event;
+
+import java.time.LocalDateTime;
+
+/**
+ * Base class for all domain events published on the EventBus
+ *
+ * Events are immutable and describe something that has already been committed
+ * to the database. They carry just enough data for views and caches to update
+ * incrementally instead of reloading whole tables.
+ */
+public abstract class DomainEvent {
+
+    private final LocalDateTime occurredAt;
+    private final boolean remote;
+
+    protected DomainEvent(boolean remote) {
+        this.occurredAt = LocalDateTime.now();
+        this.remote = remote;
+    }
+
+    public LocalDateTime getOccurredAt() {
+        return occurredAt;
+    }
+
+    /**
+     * @return true if the change was made by another node and picked up by the ChangePoller
+     */
+    public boolean isRemote() {
+        return remote;
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.dummy_inventory.event;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * In-process publish/subscribe bus for domain events
+ *
+ * DAOs publish typed events after their transaction commits; controllers and
+ * caches subscribe to the event types they care about and update incrementally.
+ *
+ * THREADING:
+ * - Listeners run synchronously on the publishing thread (usually a DAO caller)
+ * - UI listeners must hop to the FX thread themselves with Platform.runLater()
+ * - A failing listener is logged and never affects the publisher or other listeners
+ *
+ * USAGE:
+ *   EventBus.Subscription sub = EventBus.getInstance().subscribe(SaleRecorded.class, e -> ...);
+ *   ...
+ *   sub.close(); // when the view is discarded
+ */
+public final class EventBus {
+
+    private static final EventBus INSTANCE = new EventBus();
+
+    private final Map<Class<? extends DomainEvent>, List<Consumer<? super DomainEvent>>> listeners =
+            new ConcurrentHashMap<>();
+
+    private EventBus() {
+    }
+
+    public static EventBus getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Register a listener for one event type (and its subclasses)
+     *
+     * @param type Event class to listen for
+     * @param listener Callback invoked for each matching event
+     * @return Subscription used to unregister the listener
+     */
+    public <T extends DomainEvent> Subscription subscribe(Class<T> type, Consumer<? super T> listener) {
+        Consumer<? super DomainEvent> adapter = event -> listener.accept(type.cast(event));
+        List<Consumer<? super DomainEvent>> list =
+                listeners.computeIfAbsent(type, k -> new CopyOnWriteArrayList<>());
+        list.add(adapter);
+        return () -> list.remove(adapter);
+    }
+
+    /**
+     * Deliver an event to every listener registered for its type or a supertype
+     *
+     * @param event Event to publish
+     */
+    public void publish(DomainEvent event) {
+        for (Map.Entry<Class<? extends DomainEvent>, List<Consumer<? super DomainEvent>>> entry : listeners.entrySet()) {
+            if (!entry.getKey().isInstance(event)) {
+                continue;
+            }
+            for (Consumer<? super DomainEvent> listener : entry.getValue()) {
+                try {
+                    listener.accept(event);
+                } catch (RuntimeException e) {
+                    System.err.println("Event listener failed for " + event + ":");
+                    e.printStackTrace();
+                }
+            }
+        }
+    }
+
+    /**
+     * Handle returned by subscribe(); closing it removes the listener
+     */
+    @FunctionalInterface
+    public interface Subscription extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
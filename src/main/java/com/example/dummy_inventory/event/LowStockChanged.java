@@ -0,0 +1,47 @@
+package com.example.dummy_inventory.event;
+
+/**
+ * Published by LowStockTracker when a product enters, leaves or moves within
+ * the low-stock list, so low-stock panels can redraw without polling
+ */
+public final class LowStockChanged extends DomainEvent {
+
+    private final int productId;
+    private final boolean lowStock;
+
+    // productId used when the whole list was rebuilt (e.g. LOW_STOCK_THRESHOLD changed)
+    private static final int ALL_PRODUCTS = 0;
+
+    public LowStockChanged(int productId, boolean lowStock) {
+        super(false);
+        this.productId = productId;
+        this.lowStock = lowStock;
+    }
+
+    /**
+     * Event for a rebuild of the whole list rather than a single product
+     */
+    public static LowStockChanged rebuilt() {
+        return new LowStockChanged(ALL_PRODUCTS, true);
+    }
+
+    public boolean isRebuild() {
+        return productId == ALL_PRODUCTS;
+    }
+
+    public int getProductId() {
+        return productId;
+    }
+
+    /**
+     * @return true if the product is below its reorder level after the change
+     */
+    public boolean isLowStock() {
+        return lowStock;
+    }
+
+    @Override
+    public String toString() {
+        return "LowStockChanged{productId=" + productId + ", lowStock=" + lowStock + '}';
+    }
+}
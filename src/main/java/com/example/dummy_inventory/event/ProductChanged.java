@@ -0,0 +1,37 @@
+package com.example.dummy_inventory.event;
+
+/**
+ * Published when a product row is created, updated or deleted
+ */
+public final class ProductChanged extends DomainEvent {
+
+    public enum Kind {
+        CREATED, UPDATED, DELETED
+    }
+
+    private final int productId;
+    private final Kind kind;
+
+    public ProductChanged(int productId, Kind kind) {
+        this(productId, kind, false);
+    }
+
+    public ProductChanged(int productId, Kind kind, boolean remote) {
+        super(remote);
+        this.productId = productId;
+        this.kind = kind;
+    }
+
+    public int getProductId() {
+        return productId;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    @Override
+    public String toString() {
+        return "ProductChanged{productId=" + productId + ", kind=" + kind + ", remote=" + isRemote() + '}';
+    }
+}
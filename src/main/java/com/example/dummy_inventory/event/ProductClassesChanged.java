@@ -0,0 +1,32 @@
+package com.example.dummy_inventory.event;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published by InventoryClassifier after it loads a new set of ABC/XYZ classes,
+ * so screens showing or filtering by class can redraw
+ */
+public final class ProductClassesChanged extends DomainEvent {
+
+    private final LocalDateTime classifiedAt;
+
+    /**
+     * @param remote true if the classes were computed by another node
+     */
+    public ProductClassesChanged(LocalDateTime classifiedAt, boolean remote) {
+        super(remote);
+        this.classifiedAt = classifiedAt;
+    }
+
+    /**
+     * Time of the classification run the classes come from
+     */
+    public LocalDateTime getClassifiedAt() {
+        return classifiedAt;
+    }
+
+    @Override
+    public String toString() {
+        return "ProductClassesChanged{classifiedAt=" + classifiedAt + ", remote=" + isRemote() + '}';
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.dummy_inventory.event;
+
+import com.example.dummy_inventory.model.Sale;
+
+/**
+ * Published after a sale has been committed
+ */
+public final class SaleRecorded extends DomainEvent {
+
+    private final Sale sale;
+
+    public SaleRecorded(Sale sale) {
+        this(sale, false);
+    }
+
+    public SaleRecorded(Sale sale, boolean remote) {
+        super(remote);
+        this.sale = sale;
+    }
+
+    public Sale getSale() {
+        return sale;
+    }
+
+    @Override
+    public String toString() {
+        return "SaleRecorded{saleId=" + sale.getSaleId() + ", remote=" + isRemote() + '}';
+    }
+}
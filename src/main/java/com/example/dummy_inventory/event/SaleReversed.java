@@ -0,0 +1,52 @@
+package com.example.dummy_inventory.event;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published after a sale has been deleted and its stock restored
+ */
+public final class SaleReversed extends DomainEvent {
+
+    private final int saleId;
+    private final int productId;
+    private final int quantity;
+    private final double totalAmount;
+    private final LocalDateTime saleDate;
+
+    public SaleReversed(int saleId, int productId, int quantity, double totalAmount, LocalDateTime saleDate) {
+        super(false);
+        this.saleId = saleId;
+        this.productId = productId;
+        this.quantity = quantity;
+        this.totalAmount = totalAmount;
+        this.saleDate = saleDate;
+    }
+
+    public int getSaleId() {
+        return saleId;
+    }
+
+    public int getProductId() {
+        return productId;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public double getTotalAmount() {
+        return totalAmount;
+    }
+
+    /**
+     * When the reversed sale was made (so time-windowed figures take it back from the right window)
+     */
+    public LocalDateTime getSaleDate() {
+        return saleDate;
+    }
+
+    @Override
+    public String toString() {
+        return "SaleReversed{saleId=" + saleId + ", productId=" + productId + ", quantity=" + quantity + '}';
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.dummy_inventory.event;
+
+import com.example.dummy_inventory.model.AppSettings;
+
+/**
+ * Published when SettingsCache swaps in a new settings snapshot
+ * Views that render a setting (low-stock threshold, currency symbol) refresh
+ * from the new snapshot instead of querying SystemSettings.
+ */
+public final class SettingsChanged extends DomainEvent {
+
+    private final AppSettings previous;
+    private final AppSettings current;
+
+    public SettingsChanged(AppSettings previous, AppSettings current, boolean remote) {
+        super(remote);
+        this.previous = previous;
+        this.current = current;
+    }
+
+    public AppSettings getPrevious() {
+        return previous;
+    }
+
+    public AppSettings getCurrent() {
+        return current;
+    }
+
+    @Override
+    public String toString() {
+        return "SettingsChanged{" + current + ", remote=" + isRemote() + '}';
+    }
+}
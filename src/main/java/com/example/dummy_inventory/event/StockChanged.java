@@ -0,0 +1,47 @@
+package com.example.dummy_inventory.event;
+
+/**
+ * Published when a product's quantity_in_stock changes through a sale,
+ * a sale reversal or any other relative stock adjustment
+ */
+public final class StockChanged extends DomainEvent {
+
+    private final int productId;
+    private final int delta;
+    private final int newQuantity;
+
+    public StockChanged(int productId, int delta, int newQuantity) {
+        this(productId, delta, newQuantity, false);
+    }
+
+    public StockChanged(int productId, int delta, int newQuantity, boolean remote) {
+        super(remote);
+        this.productId = productId;
+        this.delta = delta;
+        this.newQuantity = newQuantity;
+    }
+
+    public int getProductId() {
+        return productId;
+    }
+
+    /**
+     * @return signed change applied to the stock (negative for sales)
+     */
+    public int getDelta() {
+        return delta;
+    }
+
+    /**
+     * @return stock level after the change was committed
+     */
+    public int getNewQuantity() {
+        return newQuantity;
+    }
+
+    @Override
+    public String toString() {
+        return "StockChanged{productId=" + productId + ", delta=" + delta +
+                ", newQuantity=" + newQuantity + ", remote=" + isRemote() + '}';
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.dummy_inventory.event;
+
+/**
+ * Published when a user account is updated, has its password changed or is deleted
+ * Listeners holding anything derived from the user (verified credentials, sessions)
+ * must drop it.
+ */
+public final class UserChanged extends DomainEvent {
+
+    public enum Kind {
+        UPDATED, PASSWORD_CHANGED, DELETED
+    }
+
+    private final int userId;
+    private final Kind kind;
+
+    public UserChanged(int userId, Kind kind) {
+        super(false);
+        this.userId = userId;
+        this.kind = kind;
+    }
+
+    public int getUserId() {
+        return userId;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    @Override
+    public String toString() {
+        return "UserChanged{userId=" + userId + ", kind=" + kind + '}';
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.dummy_inventory.model;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Immutable, typed snapshot of the SystemSettings table
+ *
+ * Values are parsed once when the snapshot is built; a missing or malformed row
+ * falls back to the default from database_schema.sql. A new snapshot replaces
+ * the old one as a whole, so readers never see a half-updated configuration.
+ */
+public final class AppSettings {
+
+    public static final String LOW_STOCK_THRESHOLD = "LOW_STOCK_THRESHOLD";
+    public static final String CURRENCY_SYMBOL = "CURRENCY_SYMBOL";
+    public static final String TAX_RATE = "TAX_RATE";
+    public static final String COMPANY_NAME = "COMPANY_NAME";
+    public static final String THEME = "THEME";
+    public static final String BACKUP_ENABLED = "BACKUP_ENABLED";
+    public static final String SESSION_TIMEOUT = "SESSION_TIMEOUT";
+
+    private static final AppSettings DEFAULTS = new AppSettings(Collections.emptyMap(), null);
+
+    private final int lowStockThreshold;
+    private final String currencySymbol;
+    private final double taxRate;
+    private final String companyName;
+    private final String theme;
+    private final boolean backupEnabled;
+    private final int sessionTimeoutMinutes;
+
+    // Raw values, for settings without a typed accessor
+    private final Map<String, String> values;
+
+    // MAX(updated_at) of the rows this snapshot was built from
+    private final LocalDateTime lastUpdated;
+
+    public AppSettings(Map<String, String> values, LocalDateTime lastUpdated) {
+        this.values = Collections.unmodifiableMap(new HashMap<>(values));
+        this.lastUpdated = lastUpdated;
+
+        this.lowStockThreshold = parseInt(values, LOW_STOCK_THRESHOLD, 20);
+        this.currencySymbol = values.getOrDefault(CURRENCY_SYMBOL, "$");
+        this.taxRate = parseDouble(values, TAX_RATE, 0.10);
+        this.companyName = values.getOrDefault(COMPANY_NAME, "My Inventory Store");
+        this.theme = values.getOrDefault(THEME, "LIGHT");
+        this.backupEnabled = Boolean.parseBoolean(values.getOrDefault(BACKUP_ENABLED, "true").trim());
+        this.sessionTimeoutMinutes = parseInt(values, SESSION_TIMEOUT, 30);
+    }
+
+    /**
+     * Settings used before the table has been read (schema defaults)
+     */
+    public static AppSettings defaults() {
+        return DEFAULTS;
+    }
+
+    public int getLowStockThreshold() {
+        return lowStockThreshold;
+    }
+
+    public String getCurrencySymbol() {
+        return currencySymbol;
+    }
+
+    public double getTaxRate() {
+        return taxRate;
+    }
+
+    public String getCompanyName() {
+        return companyName;
+    }
+
+    public String getTheme() {
+        return theme;
+    }
+
+    public boolean isBackupEnabled() {
+        return backupEnabled;
+    }
+
+    public int getSessionTimeoutMinutes() {
+        return sessionTimeoutMinutes;
+    }
+
+    public String getValue(String key, String defaultValue) {
+        return values.getOrDefault(key, defaultValue);
+    }
+
+    public LocalDateTime getLastUpdated() {
+        return lastUpdated;
+    }
+
+    /**
+     * True if both snapshots were built from the same key/value pairs
+     */
+    public boolean hasSameValues(AppSettings other) {
+        return other != null && values.equals(other.values);
+    }
+
+    private static int parseInt(Map<String, String> values, String key, int defaultValue) {
+        String value = values.get(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            System.err.println("Invalid " + key + " setting '" + value + "', using " + defaultValue);
+            return defaultValue;
+        }
+    }
+
+    private static double parseDouble(Map<String, String> values, String key, double defaultValue) {
+        String value = values.get(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            System.err.println("Invalid " + key + " setting '" + value + "', using " + defaultValue);
+            return defaultValue;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "AppSettings{lowStockThreshold=" + lowStockThreshold + ", currencySymbol='" + currencySymbol +
+                "', taxRate=" + taxRate + ", sessionTimeoutMinutes=" + sessionTimeoutMinutes +
+                ", lastUpdated=" + lastUpdated + '}';
+    }
+}
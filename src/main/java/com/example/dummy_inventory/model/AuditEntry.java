@@ -0,0 +1,64 @@
+package com.example.dummy_inventory.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * One AuditLog row, captured when the change is made and written later in a batch
+ */
+public final class AuditEntry {
+
+    private final Integer userId;
+    private final String action;       // CREATE, UPDATE, DELETE, LOGIN, LOGOUT
+    private final String tableName;
+    private final Integer recordId;
+    private final String oldValue;
+    private final String newValue;
+    private final LocalDateTime timestamp;
+
+    public AuditEntry(Integer userId, String action, String tableName, Integer recordId,
+                      String oldValue, String newValue) {
+        this.userId = userId;
+        this.action = action;
+        this.tableName = tableName;
+        this.recordId = recordId;
+        this.oldValue = oldValue;
+        this.newValue = newValue;
+        this.timestamp = LocalDateTime.now();
+    }
+
+    public Integer getUserId() {
+        return userId;
+    }
+
+    public String getAction() {
+        return action;
+    }
+
+    public String getTableName() {
+        return tableName;
+    }
+
+    public Integer getRecordId() {
+        return recordId;
+    }
+
+    public String getOldValue() {
+        return oldValue;
+    }
+
+    public String getNewValue() {
+        return newValue;
+    }
+
+    /**
+     * Time the change was made (not the time the row was written)
+     */
+    public LocalDateTime getTimestamp() {
+        return timestamp;
+    }
+
+    @Override
+    public String toString() {
+        return "AuditEntry{" + action + " " + tableName + "#" + recordId + ", userId=" + userId + '}';
+    }
+}
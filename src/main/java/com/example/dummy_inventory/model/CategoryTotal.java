@@ -0,0 +1,34 @@
+package com.example.dummy_inventory.model;
+
+/**
+ * One category's figure in a per-category report (revenue or product count)
+ */
+public final class CategoryTotal {
+
+    private final int categoryId;
+    private final String categoryName;
+    private final double value;
+
+    public CategoryTotal(int categoryId, String categoryName, double value) {
+        this.categoryId = categoryId;
+        this.categoryName = categoryName;
+        this.value = value;
+    }
+
+    public int getCategoryId() {
+        return categoryId;
+    }
+
+    public String getCategoryName() {
+        return categoryName;
+    }
+
+    public double getValue() {
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return categoryName + ": " + value;
+    }
+}
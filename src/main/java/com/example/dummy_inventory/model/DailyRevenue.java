@@ -0,0 +1,30 @@
+package com.example.dummy_inventory.model;
+
+import java.time.LocalDate;
+
+/**
+ * Revenue of one day
+ */
+public final class DailyRevenue {
+
+    private final LocalDate day;
+    private final double revenue;
+
+    public DailyRevenue(LocalDate day, double revenue) {
+        this.day = day;
+        this.revenue = revenue;
+    }
+
+    public LocalDate getDay() {
+        return day;
+    }
+
+    public double getRevenue() {
+        return revenue;
+    }
+
+    @Override
+    public String toString() {
+        return day + ": " + revenue;
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.dummy_inventory.model;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Fitted demand model of one product: units per day expected from tomorrow on
+ *
+ * Two lightweight models are kept side by side and updated one day at a time,
+ * with alpha as the weight of the newest observation:
+ * - simple exponential smoothing of units/day (smoothedRate), for products that
+ *   sell most days;
+ * - Croston's method for intermittent demand: the size of a sale day
+ *   (demandSize) and the days between sale days (demandInterval) are smoothed
+ *   separately, and only on days with sales.
+ * A product whose average interval exceeds INTERMITTENT_INTERVAL is forecast
+ * with Croston (Syntetos-Boylan corrected), the others with smoothing.
+ * mad is the smoothed absolute error of the one-step forecast, for bands and
+ * safety stock.
+ *
+ * The state is valid as of asOf. Days without sales between two sale days are
+ * folded in when the later one arrives, so a refit only has to visit products
+ * that sold; rateAt() brings an idle product forward to any later day.
+ */
+public final class DemandForecast {
+
+    // Average days between sales above which demand counts as intermittent
+    public static final double INTERMITTENT_INTERVAL = 1.32;
+
+    // Mean absolute deviation to standard deviation, for normally distributed errors
+    private static final double MAD_TO_SIGMA = 1.25;
+
+    private final int productId;
+    private LocalDate asOf;
+    private double smoothedRate;
+    private double demandSize;
+    private double demandInterval;
+    private LocalDate lastDemand;
+    private double mad;
+
+    /**
+     * A product with no history yet, as of the day before its first observed day
+     */
+    public DemandForecast(int productId, LocalDate asOf) {
+        this(productId, asOf, 0, 0, 1, null, 0);
+    }
+
+    public DemandForecast(int productId, LocalDate asOf, double smoothedRate, double demandSize,
+                          double demandInterval, LocalDate lastDemand, double mad) {
+        this.productId = productId;
+        this.asOf = asOf;
+        this.smoothedRate = smoothedRate;
+        this.demandSize = demandSize;
+        this.demandInterval = demandInterval;
+        this.lastDemand = lastDemand;
+        this.mad = mad;
+    }
+
+    public int getProductId() {
+        return productId;
+    }
+
+    public LocalDate getAsOf() {
+        return asOf;
+    }
+
+    public double getSmoothedRate() {
+        return smoothedRate;
+    }
+
+    public double getDemandSize() {
+        return demandSize;
+    }
+
+    public double getDemandInterval() {
+        return demandInterval;
+    }
+
+    /**
+     * Last day with sales, or null if the product never sold
+     */
+    public LocalDate getLastDemand() {
+        return lastDemand;
+    }
+
+    public double getMad() {
+        return mad;
+    }
+
+    public boolean isIntermittent() {
+        return lastDemand != null && demandInterval > INTERMITTENT_INTERVAL;
+    }
+
+    public String getModel() {
+        return isIntermittent() ? "Croston" : "Exponential smoothing";
+    }
+
+    /**
+     * Fold in the units sold on one day (days must be added in order)
+     * The days without sales since asOf are folded in first. Days up to asOf are
+     * ignored, so re-running a failed refit never counts a day twice.
+     *
+     * @return true if the day was folded in
+     */
+    public boolean addDay(LocalDate day, int quantitySold, double alpha) {
+        if (!day.isAfter(asOf)) {
+            return false;
+        }
+        for (LocalDate idle = asOf.plusDays(1); idle.isBefore(day); idle = idle.plusDays(1)) {
+            observe(idle, 0, alpha);
+        }
+        observe(day, quantitySold, alpha);
+        return true;
+    }
+
+    private void observe(LocalDate day, int quantity, double alpha) {
+        mad = (1 - alpha) * mad + alpha * Math.abs(quantity - rateAt(day.minusDays(1), alpha));
+        smoothedRate = (1 - alpha) * smoothedRate + alpha * quantity;
+        if (quantity > 0) {
+            if (lastDemand == null) {
+                demandSize = quantity;
+                demandInterval = 1;
+            } else {
+                demandSize = (1 - alpha) * demandSize + alpha * quantity;
+                demandInterval = (1 - alpha) * demandInterval + alpha * ChronoUnit.DAYS.between(lastDemand, day);
+            }
+            lastDemand = day;
+        }
+        asOf = day;
+    }
+
+    /**
+     * Units per day expected after the given day, assuming nothing sold since asOf
+     * An intermittent product that has been idle for longer than its usual
+     * interval is stretched to the idle time, so a product that stopped
+     * selling fades out instead of being reordered forever.
+     */
+    public double rateAt(LocalDate day, double alpha) {
+        long idleDays = Math.max(0, ChronoUnit.DAYS.between(asOf, day));
+        if (isIntermittent()) {
+            double interval = Math.max(demandInterval, ChronoUnit.DAYS.between(lastDemand, day));
+            return (1 - alpha / 2) * demandSize / interval;
+        }
+        return idleDays == 0 ? smoothedRate : smoothedRate * Math.pow(1 - alpha, idleDays);
+    }
+
+    /**
+     * Standard deviation of one day's demand around the forecast
+     */
+    public double getDailyDeviation() {
+        return MAD_TO_SIGMA * mad;
+    }
+
+    @Override
+    public String toString() {
+        return "DemandForecast{productId=" + productId + ", model=" + getModel() + ", smoothedRate=" + smoothedRate +
+                ", demandSize=" + demandSize + ", demandInterval=" + demandInterval + ", asOf=" + asOf + '}';
+    }
+}
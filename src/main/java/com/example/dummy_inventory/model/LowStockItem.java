@@ -0,0 +1,61 @@
+package com.example.dummy_inventory.model;
+
+/**
+ * Immutable stock position of one product, as tracked by LowStockTracker
+ * A stock change produces a new instance via withQuantity().
+ */
+public final class LowStockItem {
+
+    private final int productId;
+    private final String productName;
+    private final int quantityInStock;
+    private final int reorderLevel;
+    private final String categoryName;
+    private final String supplierName;
+
+    public LowStockItem(int productId, String productName, int quantityInStock, int reorderLevel,
+                        String categoryName, String supplierName) {
+        this.productId = productId;
+        this.productName = productName;
+        this.quantityInStock = quantityInStock;
+        this.reorderLevel = reorderLevel;
+        this.categoryName = categoryName;
+        this.supplierName = supplierName;
+    }
+
+    public int getProductId() {
+        return productId;
+    }
+
+    public String getProductName() {
+        return productName;
+    }
+
+    public int getQuantityInStock() {
+        return quantityInStock;
+    }
+
+    /**
+     * @return Product.reorder_level (0 if not set)
+     */
+    public int getReorderLevel() {
+        return reorderLevel;
+    }
+
+    public String getCategoryName() {
+        return categoryName;
+    }
+
+    public String getSupplierName() {
+        return supplierName;
+    }
+
+    public LowStockItem withQuantity(int quantity) {
+        return new LowStockItem(productId, productName, quantity, reorderLevel, categoryName, supplierName);
+    }
+
+    @Override
+    public String toString() {
+        return productName + " (Stock: " + quantityInStock + ", Reorder Level: " + reorderLevel + ")";
+    }
+}
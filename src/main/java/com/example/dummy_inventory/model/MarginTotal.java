@@ -0,0 +1,58 @@
+package com.example.dummy_inventory.model;
+
+/**
+ * Units, revenue and cost of one product, category, supplier or day over a
+ * report period; cost is what the goods cost when they were sold
+ */
+public final class MarginTotal {
+
+    private final int id;
+    private final String name;
+    private final long units;
+    private final double revenue;
+    private final double cost;
+
+    public MarginTotal(int id, String name, long units, double revenue, double cost) {
+        this.id = id;
+        this.name = name;
+        this.units = units;
+        this.revenue = revenue;
+        this.cost = cost;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getUnits() {
+        return units;
+    }
+
+    public double getRevenue() {
+        return revenue;
+    }
+
+    public double getCost() {
+        return cost;
+    }
+
+    public double getProfit() {
+        return revenue - cost;
+    }
+
+    /**
+     * Profit as a percentage of revenue (0 when nothing was sold)
+     */
+    public double getMarginPercent() {
+        return revenue != 0 ? getProfit() * 100 / revenue : 0;
+    }
+
+    @Override
+    public String toString() {
+        return name + " (Revenue: " + revenue + ", Profit: " + getProfit() + ")";
+    }
+}
@@ -1,6 +1,36 @@
 package com.example.dummy_inventory.model;
 
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Objects;
+import java.util.Set;
+
 public class Product {
+    // Database columns an update can write; setters record which ones changed
+    public enum Column {
+        NAME("name"),
+        DESCRIPTION("description"),
+        QUANTITY_IN_STOCK("quantity_in_stock"),
+        PRICE("price"),
+        COST_PRICE("cost_price"),
+        CATEGORY_ID("category_id"),
+        SUPPLIER_ID("supplier_id"),
+        REORDER_LEVEL("reorder_level"),
+        BARCODE("barcode"),
+        SKU("sku");
+
+        private final String columnName;
+
+        Column(String columnName) {
+            this.columnName = columnName;
+        }
+
+        public String getColumnName() {
+            return columnName;
+        }
+    }
+
     private int productId;
     private String name;
     private String description;
@@ -12,6 +42,12 @@ public class Product {
     private int reorderLevel;
     private String barcode;
     private String sku;
+    private int version;           // Product.version when loaded (optimistic locking)
+
+    // Columns changed since the product was loaded or saved, and the stock level seen at that time
+    private final EnumSet<Column> dirty = EnumSet.noneOf(Column.class);
+    private final EnumMap<Column, Object> originalValues = new EnumMap<>(Column.class);
+    private int loadedQuantityInStock;
 
     // Additional fields for display purposes (not in database)
     private String categoryName;
@@ -56,6 +92,9 @@ public class Product {
     }
 
     public void setName(String name) {
+        if (!Objects.equals(this.name, name)) {
+            markDirty(Column.NAME, this.name);
+        }
         this.name = name;
     }
 
@@ -64,6 +103,9 @@ public class Product {
     }
 
     public void setQuantityInStock(int quantityInStock) {
+        if (this.quantityInStock != quantityInStock) {
+            markDirty(Column.QUANTITY_IN_STOCK, this.quantityInStock);
+        }
         this.quantityInStock = quantityInStock;
     }
 
@@ -72,6 +114,9 @@ public class Product {
     }
 
     public void setPrice(double price) {
+        if (Double.compare(this.price, price) != 0) {
+            markDirty(Column.PRICE, this.price);
+        }
         this.price = price;
     }
 
@@ -80,6 +125,9 @@ public class Product {
     }
 
     public void setCategoryId(int categoryId) {
+        if (this.categoryId != categoryId) {
+            markDirty(Column.CATEGORY_ID, this.categoryId);
+        }
         this.categoryId = categoryId;
     }
 
@@ -88,6 +136,9 @@ public class Product {
     }
 
     public void setSupplierId(int supplierId) {
+        if (this.supplierId != supplierId) {
+            markDirty(Column.SUPPLIER_ID, this.supplierId);
+        }
         this.supplierId = supplierId;
     }
 
@@ -112,6 +163,9 @@ public class Product {
     }
 
     public void setDescription(String description) {
+        if (!Objects.equals(this.description, description)) {
+            markDirty(Column.DESCRIPTION, this.description);
+        }
         this.description = description;
     }
 
@@ -120,6 +174,9 @@ public class Product {
     }
 
     public void setCostPrice(double costPrice) {
+        if (Double.compare(this.costPrice, costPrice) != 0) {
+            markDirty(Column.COST_PRICE, this.costPrice);
+        }
         this.costPrice = costPrice;
     }
 
@@ -128,6 +185,9 @@ public class Product {
     }
 
     public void setReorderLevel(int reorderLevel) {
+        if (this.reorderLevel != reorderLevel) {
+            markDirty(Column.REORDER_LEVEL, this.reorderLevel);
+        }
         this.reorderLevel = reorderLevel;
     }
 
@@ -136,6 +196,9 @@ public class Product {
     }
 
     public void setBarcode(String barcode) {
+        if (!Objects.equals(this.barcode, barcode)) {
+            markDirty(Column.BARCODE, this.barcode);
+        }
         this.barcode = barcode;
     }
 
@@ -144,9 +207,71 @@ public class Product {
     }
 
     public void setSku(String sku) {
+        if (!Objects.equals(this.sku, sku)) {
+            markDirty(Column.SKU, this.sku);
+        }
         this.sku = sku;
     }
 
+    public int getVersion() {
+        return version;
+    }
+
+    public void setVersion(int version) {
+        this.version = version;
+    }
+
+    /**
+     * Columns changed through setters since the product was loaded or last saved
+     */
+    public Set<Column> getDirtyColumns() {
+        return Collections.unmodifiableSet(EnumSet.copyOf(dirty));
+    }
+
+    /**
+     * Value a dirty column had when the product was loaded or last saved (for the audit trail)
+     */
+    public Object getOriginalValue(Column column) {
+        return originalValues.get(column);
+    }
+
+    public boolean isDirty() {
+        return !dirty.isEmpty();
+    }
+
+    /**
+     * Stock level when the product was loaded or last saved
+     * (an edited quantity is only written if the row still has this value)
+     */
+    public int getLoadedQuantityInStock() {
+        return loadedQuantityInStock;
+    }
+
+    /**
+     * Record a stock level committed elsewhere (sale, receipt) without marking it as an edit
+     */
+    public void applyStockChange(int quantityInStock) {
+        this.quantityInStock = quantityInStock;
+        if (!dirty.contains(Column.QUANTITY_IN_STOCK)) {
+            loadedQuantityInStock = quantityInStock;
+        }
+    }
+
+    /**
+     * Forget pending changes - called by ProductDAO after loading or saving
+     */
+    public void markClean() {
+        dirty.clear();
+        originalValues.clear();
+        loadedQuantityInStock = quantityInStock;
+    }
+
+    private void markDirty(Column column, Object originalValue) {
+        if (dirty.add(column)) {
+            originalValues.put(column, originalValue);
+        }
+    }
+
     // Utility method to calculate total value
     public double getTotalValue() {
         return quantityInStock * price;
@@ -0,0 +1,75 @@
+package com.example.dummy_inventory.model;
+
+/**
+ * ABC/XYZ class of one product
+ *
+ * ABC ranks by share of revenue: the best sellers making up the first A share
+ * of revenue are A, the next ones up to the B share are B, the rest C.
+ * XYZ ranks by how steady daily demand is (coefficient of variation of units
+ * per day): X steady, Y fluctuating, Z sporadic or not selling.
+ */
+public final class ProductClassification {
+
+    private final int productId;
+    private final char abcClass;
+    private final char xyzClass;
+    private final double revenue;
+    private final double cumulativeShare;
+    private final Double demandCv;
+
+    public ProductClassification(int productId, char abcClass, char xyzClass, double revenue,
+                                 double cumulativeShare, Double demandCv) {
+        this.productId = productId;
+        this.abcClass = abcClass;
+        this.xyzClass = xyzClass;
+        this.revenue = revenue;
+        this.cumulativeShare = cumulativeShare;
+        this.demandCv = demandCv;
+    }
+
+    public int getProductId() {
+        return productId;
+    }
+
+    public char getAbcClass() {
+        return abcClass;
+    }
+
+    public char getXyzClass() {
+        return xyzClass;
+    }
+
+    /**
+     * Revenue over the classification period
+     */
+    public double getRevenue() {
+        return revenue;
+    }
+
+    /**
+     * Percentage of total revenue made by this product and all better sellers
+     */
+    public double getCumulativeShare() {
+        return cumulativeShare;
+    }
+
+    /**
+     * Standard deviation / mean of units per day, or null if the product did not sell
+     */
+    public Double getDemandCv() {
+        return demandCv;
+    }
+
+    /**
+     * Both classes, e.g. "AX"
+     */
+    public String getCombinedClass() {
+        return "" + abcClass + xyzClass;
+    }
+
+    @Override
+    public String toString() {
+        return "ProductClassification{productId=" + productId + ", class=" + getCombinedClass() +
+                ", revenue=" + revenue + ", demandCv=" + demandCv + '}';
+    }
+}
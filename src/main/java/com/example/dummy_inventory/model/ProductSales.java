@@ -0,0 +1,40 @@
+package com.example.dummy_inventory.model;
+
+/**
+ * Units sold and revenue of one product over a report period
+ */
+public final class ProductSales {
+
+    private final int productId;
+    private final String productName;
+    private final int quantitySold;
+    private final double revenue;
+
+    public ProductSales(int productId, String productName, int quantitySold, double revenue) {
+        this.productId = productId;
+        this.productName = productName;
+        this.quantitySold = quantitySold;
+        this.revenue = revenue;
+    }
+
+    public int getProductId() {
+        return productId;
+    }
+
+    public String getProductName() {
+        return productName;
+    }
+
+    public int getQuantitySold() {
+        return quantitySold;
+    }
+
+    public double getRevenue() {
+        return revenue;
+    }
+
+    @Override
+    public String toString() {
+        return productName + " (Sold: " + quantitySold + ", Revenue: " + revenue + ")";
+    }
+}
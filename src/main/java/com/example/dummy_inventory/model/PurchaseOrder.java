@@ -0,0 +1,168 @@
+package com.example.dummy_inventory.model;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+public class PurchaseOrder {
+    // Enum matching PurchaseOrder.status
+    public enum Status {
+        PENDING, RECEIVED, CANCELLED
+    }
+
+    private int orderId;
+    private int supplierId;
+    private int productId;
+    private int quantity;
+    private double unitCost;
+    private double totalCost;
+    private LocalDateTime orderDate;
+    private LocalDate expectedDelivery;
+    private Status status;
+    private LocalDateTime receivedDate;
+    private Integer userId;        // User who created the order (null = generated by the system)
+    private String notes;
+
+    // Additional fields for display purposes (not in database)
+    private String productName;
+    private String supplierName;
+
+    // Default constructor
+    public PurchaseOrder() {
+        this.status = Status.PENDING;
+    }
+
+    // Constructor for creating a new order
+    public PurchaseOrder(int supplierId, int productId, int quantity, double unitCost) {
+        this.supplierId = supplierId;
+        this.productId = productId;
+        this.quantity = quantity;
+        this.unitCost = unitCost;
+        this.totalCost = quantity * unitCost;
+        this.orderDate = LocalDateTime.now();
+        this.status = Status.PENDING;
+    }
+
+    // Getters and Setters
+    public int getOrderId() {
+        return orderId;
+    }
+
+    public void setOrderId(int orderId) {
+        this.orderId = orderId;
+    }
+
+    public int getSupplierId() {
+        return supplierId;
+    }
+
+    public void setSupplierId(int supplierId) {
+        this.supplierId = supplierId;
+    }
+
+    public int getProductId() {
+        return productId;
+    }
+
+    public void setProductId(int productId) {
+        this.productId = productId;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(int quantity) {
+        this.quantity = quantity;
+    }
+
+    public double getUnitCost() {
+        return unitCost;
+    }
+
+    public void setUnitCost(double unitCost) {
+        this.unitCost = unitCost;
+    }
+
+    public double getTotalCost() {
+        return totalCost;
+    }
+
+    public void setTotalCost(double totalCost) {
+        this.totalCost = totalCost;
+    }
+
+    public LocalDateTime getOrderDate() {
+        return orderDate;
+    }
+
+    public void setOrderDate(LocalDateTime orderDate) {
+        this.orderDate = orderDate;
+    }
+
+    public LocalDate getExpectedDelivery() {
+        return expectedDelivery;
+    }
+
+    public void setExpectedDelivery(LocalDate expectedDelivery) {
+        this.expectedDelivery = expectedDelivery;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public LocalDateTime getReceivedDate() {
+        return receivedDate;
+    }
+
+    public void setReceivedDate(LocalDateTime receivedDate) {
+        this.receivedDate = receivedDate;
+    }
+
+    public Integer getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Integer userId) {
+        this.userId = userId;
+    }
+
+    public String getNotes() {
+        return notes;
+    }
+
+    public void setNotes(String notes) {
+        this.notes = notes;
+    }
+
+    public String getProductName() {
+        return productName;
+    }
+
+    public void setProductName(String productName) {
+        this.productName = productName;
+    }
+
+    public String getSupplierName() {
+        return supplierName;
+    }
+
+    public void setSupplierName(String supplierName) {
+        this.supplierName = supplierName;
+    }
+
+    // toString method
+    @Override
+    public String toString() {
+        return "PurchaseOrder{" +
+                "orderId=" + orderId +
+                ", supplierId=" + supplierId +
+                ", productId=" + productId +
+                ", quantity=" + quantity +
+                ", status=" + status +
+                '}';
+    }
+}
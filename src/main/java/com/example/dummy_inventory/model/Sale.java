@@ -16,6 +16,7 @@ public class Sale {
     private Integer userId;        // User who made the sale
     private PaymentMethod paymentMethod;
     private String notes;
+    private double unitCost;       // Product cost at time of sale (set by SaleDAO)
 
     // Additional fields for display purposes (not in database)
     private String productName;
@@ -127,6 +128,14 @@ public class Sale {
         this.unitPrice = unitPrice;
     }
 
+    public double getUnitCost() {
+        return unitCost;
+    }
+
+    public void setUnitCost(double unitCost) {
+        this.unitCost = unitCost;
+    }
+
     public double getTotalAmount() {
         return totalAmount;
     }
@@ -0,0 +1,157 @@
+package com.example.dummy_inventory.service;
+
+import com.example.dummy_inventory.auth.SessionManager;
+import com.example.dummy_inventory.dao.AuditLogDAO;
+import com.example.dummy_inventory.db.DatabaseConnection;
+import com.example.dummy_inventory.model.AuditEntry;
+import com.example.dummy_inventory.model.User;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Asynchronous writer for the AuditLog table
+ *
+ * DAOs call record() after their transaction has committed. The entry goes into
+ * a bounded buffer and the call returns immediately; the "audit-writer" thread
+ * drains the buffer and inserts up to audit.batchSize rows per transaction, at
+ * least every audit.flushMillis. Audit writes therefore never hold locks on
+ * Product or Sale and never slow down a sale.
+ *
+ * The user is taken from the current session unless the caller passes one, so
+ * rows carry the real user_id (the old trigger always wrote NULL).
+ *
+ * If the buffer is full (database down for a long time) new entries are dropped
+ * and counted rather than blocking the UI; getDroppedCount() reports the loss.
+ * shutdown() flushes what is left on application exit.
+ *
+ * Tuning (database.properties): audit.bufferSize, audit.batchSize, audit.flushMillis.
+ */
+public final class AuditTrail {
+
+    public static final String CREATE = "CREATE";
+    public static final String UPDATE = "UPDATE";
+    public static final String DELETE = "DELETE";
+    public static final String LOGIN = "LOGIN";
+    public static final String LOGOUT = "LOGOUT";
+
+    private final AuditLogDAO auditLogDAO = new AuditLogDAO();
+
+    private final int batchSize = Math.max(1, DatabaseConnection.getIntProperty("audit.batchSize", 500));
+    private final long flushMillis = Math.max(10, DatabaseConnection.getIntProperty("audit.flushMillis", 1000));
+    private final BlockingQueue<AuditEntry> buffer =
+            new ArrayBlockingQueue<>(Math.max(16, DatabaseConnection.getIntProperty("audit.bufferSize", 8192)));
+
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    private AuditTrail() {
+        writer = new Thread(this::drainLoop, "audit-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    public static AuditTrail getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    private static final class Holder {
+        static final AuditTrail INSTANCE = new AuditTrail();
+    }
+
+    /**
+     * Queue an audit row for the current session's user
+     */
+    public void record(String action, String tableName, Integer recordId, String oldValue, String newValue) {
+        record(null, action, tableName, recordId, oldValue, newValue);
+    }
+
+    /**
+     * Queue an audit row
+     *
+     * @param userId User who made the change, or null for the current session's user
+     */
+    public void record(Integer userId, String action, String tableName, Integer recordId,
+                       String oldValue, String newValue) {
+        if (userId == null) {
+            // Not currentUser(): recording a change is not user activity and must not extend the session
+            User user = SessionManager.getInstance().peekUser();
+            userId = user != null ? user.getUserId() : null;
+        }
+        if (!buffer.offer(new AuditEntry(userId, action, tableName, recordId, oldValue, newValue))) {
+            if (dropped.incrementAndGet() % 1000 == 1) {
+                System.err.println("Audit buffer full, entries are being dropped (" + dropped.get() + " so far)");
+            }
+        }
+    }
+
+    /**
+     * Entries discarded because the buffer was full
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    /**
+     * Entries written to AuditLog since startup
+     */
+    public long getWrittenCount() {
+        return written.get();
+    }
+
+    /**
+     * Stop the writer after flushing the buffer - call on application exit
+     */
+    public void shutdown() {
+        // Not interrupted: the writer may be inside a JDBC call; it notices within flushMillis
+        running = false;
+        try {
+            writer.join(flushMillis + 5000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!buffer.isEmpty()) {
+            System.err.println("Audit writer stopped with " + buffer.size() + " entries unwritten");
+        }
+    }
+
+    private void drainLoop() {
+        List<AuditEntry> batch = new ArrayList<>(batchSize);
+        while (running || !buffer.isEmpty()) {
+            try {
+                AuditEntry first = running ? buffer.poll(flushMillis, TimeUnit.MILLISECONDS) : buffer.poll();
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                buffer.drainTo(batch, batchSize - 1);
+            } catch (InterruptedException e) {
+                running = false;
+                continue;
+            }
+            write(batch);
+            batch.clear();
+        }
+    }
+
+    private void write(List<AuditEntry> batch) {
+        if (auditLogDAO.insertEntries(batch)) {
+            written.addAndGet(batch.size());
+            return;
+        }
+        // One retry, then the batch is lost - auditing must not stall the application
+        if (running && auditLogDAO.insertEntries(batch)) {
+            written.addAndGet(batch.size());
+            return;
+        }
+        dropped.addAndGet(batch.size());
+        System.err.println("Audit batch of " + batch.size() + " entries could not be written");
+    }
+}
@@ -0,0 +1,221 @@
+package com.example.dummy_inventory.service;
+
+import com.example.dummy_inventory.dao.BaseDAO;
+import com.example.dummy_inventory.dao.ForecastDAO;
+import com.example.dummy_inventory.db.DatabaseConnection;
+import com.example.dummy_inventory.model.DemandForecast;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Fits a DemandForecast per product from daily sales (SalesMargin)
+ *
+ * A refit (part of the nightly replenishment run):
+ * 1. Streams the stored models (ProductForecast) into memory.
+ * 2. Streams the units sold per product and day for the days closed since the
+ *    last refit only - history is never re-scanned - grouping each product's
+ *    days into a compact array as they arrive (rows come ordered by product).
+ * 3. Folds each product's days into its model in parallel (ForkJoinPool; the
+ *    products are independent), then saves the models that changed in
+ *    batched transactions.
+ * Products without sales in the new days are not touched: their models decay
+ * lazily when read (DemandForecast.rateAt).
+ *
+ * 400k products cost one small object each; a nightly refit holds one day of
+ * sales. Only the very first refit reads historyDays of sales.
+ *
+ * Tuning (database.properties): replenishment.smoothing (alpha of both models),
+ * replenishment.historyDays, replenishment.parallelism.
+ */
+public final class DemandForecaster {
+
+    private final ForecastDAO forecastDAO = new ForecastDAO();
+
+    private final double alpha = DatabaseConnection.getDoubleProperty("replenishment.smoothing", 0.1);
+    private final int historyDays = DatabaseConnection.getIntProperty("replenishment.historyDays", 90);
+    private final int parallelism = DatabaseConnection.getIntProperty("replenishment.parallelism",
+            Runtime.getRuntime().availableProcessors());
+
+    private DemandForecaster() {
+    }
+
+    public static DemandForecaster getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    private static final class Holder {
+        static final DemandForecaster INSTANCE = new DemandForecaster();
+    }
+
+    /**
+     * Weight of the newest day in both models
+     */
+    public double getAlpha() {
+        return alpha;
+    }
+
+    /**
+     * Fold the sales days in [from, through] into every product's model and save the changed ones
+     *
+     * @return All models (the changed ones updated) and how many changed
+     * @throws IllegalStateException if a read or the save failed
+     */
+    public Refit refit(LocalDate from, LocalDate through) {
+        long started = System.currentTimeMillis();
+
+        Map<Integer, DemandForecast> forecasts = new HashMap<>();
+        stream(forecastDAO::streamForecasts, f -> forecasts.put(f.getProductId(), f));
+
+        List<History> histories = new ArrayList<>();
+        if (!from.isAfter(through)) {
+            LocalDate before = from.minusDays(1);
+            stream(s -> forecastDAO.streamDailySales(from, through.plusDays(1), s), (ForecastDAO.DailySales day) -> {
+                History last = histories.isEmpty() ? null : histories.get(histories.size() - 1);
+                if (last == null || last.forecast.getProductId() != day.getProductId()) {
+                    last = new History(forecasts.computeIfAbsent(day.getProductId(),
+                            id -> new DemandForecast(id, before)));
+                    histories.add(last);
+                }
+                last.add(day.getDay(), day.getQuantity());
+            });
+        }
+
+        List<DemandForecast> changed;
+        ForkJoinPool pool = new ForkJoinPool(Math.max(1, parallelism));
+        try {
+            changed = pool.submit(() -> histories.parallelStream()
+                    .filter(history -> history.fit(alpha))
+                    .map(history -> history.forecast)
+                    .collect(Collectors.toList())).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Forecast refit interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Forecast refit failed", e);
+        } finally {
+            pool.shutdown();
+        }
+
+        if (!forecastDAO.saveForecasts(changed)) {
+            throw new IllegalStateException("Could not save product forecasts");
+        }
+        System.out.println("Forecasts refit: " + changed.size() + " of " + forecasts.size() + " products in " +
+                (System.currentTimeMillis() - started) + " ms");
+        return new Refit(forecasts, changed.size());
+    }
+
+    /**
+     * One product's model brought up to yesterday (the Reports forecast chart)
+     * The stored model is caught up with the days closed since the last refit; a
+     * product that was never fitted is fitted from its last historyDays of
+     * sales. Nothing is saved - the nightly refit owns ProductForecast.
+     */
+    public DemandForecast forecastFor(int productId) {
+        LocalDate through = LocalDate.now().minusDays(1);
+        DemandForecast forecast = forecastDAO.getForecast(productId)
+                .orElseGet(() -> new DemandForecast(productId, through.minusDays(historyDays)));
+        if (forecast.getAsOf().isBefore(through)) {
+            for (ForecastDAO.DailySales day : forecastDAO.getDailySales(productId, forecast.getAsOf().plusDays(1), through)) {
+                forecast.addDay(day.getDay(), day.getQuantity(), alpha);
+            }
+        }
+        return forecast;
+    }
+
+    /**
+     * Run a streaming DAO read, turning a failed query into an exception
+     */
+    private static <T> void stream(StreamSource<T> source, Consumer<T> consumer) {
+        boolean[] failed = {false};
+        source.read(new BaseDAO.RowStream<T>() {
+            @Override
+            public boolean accept(T row) {
+                consumer.accept(row);
+                return true;
+            }
+
+            @Override
+            public void failed(SQLException e) {
+                failed[0] = true;
+            }
+        });
+        if (failed[0]) {
+            throw new IllegalStateException("Forecast read failed");
+        }
+    }
+
+    @FunctionalInterface
+    private interface StreamSource<T> {
+        void read(BaseDAO.RowStream<T> stream);
+    }
+
+    /**
+     * New sales days of one product, in order, waiting to be folded into its model
+     */
+    private static final class History {
+        final DemandForecast forecast;
+        // Epoch days and units, parallel arrays
+        long[] days = new long[4];
+        int[] quantities = new int[4];
+        int size;
+
+        History(DemandForecast forecast) {
+            this.forecast = forecast;
+        }
+
+        void add(LocalDate day, int quantity) {
+            if (size == days.length) {
+                days = Arrays.copyOf(days, size * 2);
+                quantities = Arrays.copyOf(quantities, size * 2);
+            }
+            days[size] = day.toEpochDay();
+            quantities[size] = quantity;
+            size++;
+        }
+
+        /**
+         * @return true if any day was folded in
+         */
+        boolean fit(double alpha) {
+            boolean folded = false;
+            for (int i = 0; i < size; i++) {
+                folded |= forecast.addDay(LocalDate.ofEpochDay(days[i]), quantities[i], alpha);
+            }
+            return folded;
+        }
+    }
+
+    /**
+     * Outcome of a refit
+     */
+    public static final class Refit {
+        private final Map<Integer, DemandForecast> forecasts;
+        private final int updated;
+
+        Refit(Map<Integer, DemandForecast> forecasts, int updated) {
+            this.forecasts = forecasts;
+            this.updated = updated;
+        }
+
+        /**
+         * Every product's model, by product id (products that never sold have none)
+         */
+        public Map<Integer, DemandForecast> getForecasts() {
+            return forecasts;
+        }
+
+        public int getUpdated() {
+            return updated;
+        }
+    }
+}
@@ -0,0 +1,419 @@
+package com.example.dummy_inventory.service;
+
+import com.example.dummy_inventory.dao.BaseDAO;
+import com.example.dummy_inventory.dao.ClassificationDAO;
+import com.example.dummy_inventory.db.DatabaseConnection;
+import com.example.dummy_inventory.event.EventBus;
+import com.example.dummy_inventory.event.ProductClassesChanged;
+import com.example.dummy_inventory.model.ProductClassification;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+/**
+ * Classifies every product ABC (share of revenue) and XYZ (steadiness of demand)
+ *
+ * A run reads the last classification.days complete days in a single streaming
+ * pass over the SalesMargin day totals - one row per product with its revenue,
+ * units and sum of squared daily units, enough for the mean and variance of
+ * units per day (days without sales count as zero). Products are then ranked
+ * by revenue in memory (one small entry per product that sold) and the
+ * classes are saved to ProductClass; products that did not sell are CZ.
+ *
+ * The classes are also held in memory as a compact sorted array, so screens
+ * can show and filter by class (classOf) without a query per row. The array is
+ * loaded at startup and replaced after each run, publishing ProductClassesChanged.
+ *
+ * Runs daily at classification.runAt and at startup when the stored classes
+ * are more than a day old. A MySQL named lock ensures only one node runs at a time.
+ * The other nodes poll every classification.pollSeconds: once the stored
+ * classified_at differs from the loaded one and the lock is free (the winner has
+ * finished writing), they load the new classes.
+ *
+ * Tuning (database.properties): classification.runAt ("HH:mm", "off" disables),
+ * days, aShare, bShare (cumulative revenue %), xMaxCv, yMaxCv, pollSeconds.
+ */
+public final class InventoryClassifier {
+
+    private static final String LOCK_NAME = "inventory.classification";
+
+    private static final char[] ABC = {'A', 'B', 'C'};
+    private static final char[] XYZ = {'X', 'Y', 'Z'};
+
+    private final ClassificationDAO classificationDAO = new ClassificationDAO();
+
+    private final int days = Math.max(1, DatabaseConnection.getIntProperty("classification.days", 90));
+    private final double aShare = DatabaseConnection.getDoubleProperty("classification.aShare", 80);
+    private final double bShare = DatabaseConnection.getDoubleProperty("classification.bShare", 95);
+    private final double xMaxCv = DatabaseConnection.getDoubleProperty("classification.xMaxCv", 0.5);
+    private final double yMaxCv = DatabaseConnection.getDoubleProperty("classification.yMaxCv", 1.0);
+    private final int pollSeconds = Math.max(5, DatabaseConnection.getIntProperty("classification.pollSeconds", 60));
+
+    private ScheduledExecutorService scheduler;
+
+    // Classes currently stored, by product id; replaced as a whole
+    private volatile Snapshot snapshot = new Snapshot(new int[0], new byte[0]);
+
+    // classified_at of the loaded classes (null: none loaded); only used on the classification thread
+    private LocalDateTime loadedAt;
+
+    private InventoryClassifier() {
+    }
+
+    public static InventoryClassifier getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    private static final class Holder {
+        static final InventoryClassifier INSTANCE = new InventoryClassifier();
+    }
+
+    /**
+     * Load the stored classes, catch up if they are stale and schedule the daily run
+     * Everything runs on the "classification" thread; startup does not wait.
+     */
+    public synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "classification");
+            t.setDaemon(true);
+            return t;
+        });
+
+        scheduler.execute(() -> {
+            Optional<LocalDateTime> last = classificationDAO.getLastClassified();
+            if (last.isEmpty() || last.get().isBefore(LocalDateTime.now().minusDays(1))) {
+                runScheduled();
+            } else {
+                refreshIfChanged();
+            }
+        });
+        scheduler.scheduleWithFixedDelay(this::refreshIfChanged, pollSeconds, pollSeconds, TimeUnit.SECONDS);
+
+        String runAt = DatabaseConnection.getProperty("classification.runAt", "03:00").trim();
+        if (runAt.equalsIgnoreCase("off")) {
+            return;
+        }
+        LocalTime time;
+        try {
+            time = LocalTime.parse(runAt);
+        } catch (DateTimeParseException e) {
+            System.err.println("Invalid classification.runAt: " + runAt + " (classification not scheduled)");
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime next = now.toLocalDate().atTime(time);
+        if (!next.isAfter(now)) {
+            next = next.plusDays(1);
+        }
+        scheduler.scheduleAtFixedRate(this::runScheduled,
+                Duration.between(now, next).toMillis(), TimeUnit.DAYS.toMillis(1), TimeUnit.MILLISECONDS);
+        System.out.println("✓ Product classification scheduled daily at " + time);
+    }
+
+    /**
+     * Stop the schedule - call on application exit
+     */
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    /**
+     * Class of a product, e.g. "AX", or null if it has not been classified yet
+     */
+    public String classOf(int productId) {
+        return snapshot.get(productId);
+    }
+
+    private void runScheduled() {
+        try {
+            run();
+        } catch (Exception e) {
+            System.err.println("Product classification failed:");
+            e.printStackTrace();
+            // Usually another node won the lock and is still writing; the poll picks up its classes
+            refreshIfChanged();
+        }
+    }
+
+    /**
+     * Load the stored classes if another node has classified since they were loaded
+     * and is no longer writing
+     *
+     * classified_at is read before the lock is checked: if a run starts in between,
+     * the classes loaded now may be partly new, but loadedAt still holds the old
+     * stamp, so they are loaded again once that run has finished.
+     */
+    private void refreshIfChanged() {
+        try {
+            Optional<LocalDateTime> stored = classificationDAO.getLastClassified();
+            if (stored.isEmpty() || stored.get().equals(loadedAt) || !isLockFree()) {
+                return;
+            }
+            if (reload()) {
+                loadedAt = stored.get();
+                EventBus.getInstance().publish(new ProductClassesChanged(loadedAt, true));
+            }
+        } catch (Exception e) {
+            System.err.println("Could not refresh product classes: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Classify all products now
+     *
+     * @return Number of products that sold in the period (the others are CZ)
+     * @throws IllegalStateException if another node is classifying or the run failed
+     */
+    public int run() {
+        try (Connection lockConn = DatabaseConnection.getConnection()) {
+            if (!acquireLock(lockConn)) {
+                throw new IllegalStateException("Classification is already running on another node");
+            }
+            try {
+                return runLocked();
+            } finally {
+                releaseLock(lockConn);
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Classification lock unavailable", e);
+        }
+    }
+
+    private int runLocked() {
+        long started = System.currentTimeMillis();
+        LocalDateTime classifiedAt = LocalDateTime.now().withNano(0);
+        LocalDate to = classifiedAt.toLocalDate();   // exclusive: today is not complete
+        LocalDate from = to.minusDays(days);
+
+        // 1. One pass: revenue and coefficient of variation of units/day per product
+        Demand demand = new Demand();
+        stream(s -> classificationDAO.streamDemand(from, to, s), demand::add);
+
+        // 2. ABC by cumulative share of revenue, best sellers first
+        int n = demand.size;
+        int[] order = IntStream.range(0, n).boxed()
+                .sorted(Comparator.comparingDouble((Integer i) -> demand.revenue[i]).reversed())
+                .mapToInt(Integer::intValue)
+                .toArray();
+        double total = Arrays.stream(demand.revenue, 0, n).filter(r -> r > 0).sum();
+
+        List<ProductClassification> classifications = new ArrayList<>(n);
+        int[][] counts = new int[3][3];
+        double cumulative = 0;
+        for (int i : order) {
+            double revenue = demand.revenue[i];
+            int abc;
+            if (revenue <= 0 || total <= 0) {
+                abc = 2;
+            } else {
+                // The product that crosses a boundary still belongs to the better class
+                double before = cumulative * 100 / total;
+                abc = before < aShare ? 0 : before < bShare ? 1 : 2;
+                cumulative += revenue;
+            }
+            double cv = demand.cv[i];
+            int xyz = Double.isNaN(cv) ? 2 : cv <= xMaxCv ? 0 : cv <= yMaxCv ? 1 : 2;
+            counts[abc][xyz]++;
+            classifications.add(new ProductClassification(demand.productIds[i], ABC[abc], XYZ[xyz], revenue,
+                    total > 0 ? Math.min(100, cumulative * 100 / total) : 100, Double.isNaN(cv) ? null : cv));
+        }
+
+        // 3. Save, then everything that did not sell becomes CZ
+        if (!classificationDAO.saveClassifications(classifications, classifiedAt)
+                || !classificationDAO.classifyUnsold(classifiedAt)) {
+            throw new IllegalStateException("Could not save product classes");
+        }
+        if (reload()) {
+            loadedAt = classifiedAt;
+            EventBus.getInstance().publish(new ProductClassesChanged(classifiedAt, false));
+        }
+
+        System.out.println("Products classified: " + n + " sold in " + days + " days (A " + sum(counts[0]) +
+                ", B " + sum(counts[1]) + ", C " + sum(counts[2]) + "; X " + column(counts, 0) +
+                ", Y " + column(counts, 1) + ", Z " + column(counts, 2) + ") in " +
+                (System.currentTimeMillis() - started) + " ms");
+        return n;
+    }
+
+    /**
+     * Replace the in-memory classes with the stored ones
+     *
+     * @return false if they could not be read (the previous classes are kept)
+     */
+    private boolean reload() {
+        SnapshotBuilder builder = new SnapshotBuilder();
+        try {
+            stream(classificationDAO::streamClassifications, builder::add);
+            snapshot = builder.build();
+            return true;
+        } catch (IllegalStateException e) {
+            System.err.println("Could not load product classes: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private static int sum(int[] values) {
+        return Arrays.stream(values).sum();
+    }
+
+    private static int column(int[][] counts, int xyz) {
+        return counts[0][xyz] + counts[1][xyz] + counts[2][xyz];
+    }
+
+    /**
+     * Run a streaming DAO read, turning a failed query into an exception
+     */
+    private static <T> void stream(StreamSource<T> source, Consumer<T> consumer) {
+        boolean[] failed = {false};
+        source.read(new BaseDAO.RowStream<T>() {
+            @Override
+            public boolean accept(T row) {
+                consumer.accept(row);
+                return true;
+            }
+
+            @Override
+            public void failed(SQLException e) {
+                failed[0] = true;
+            }
+        });
+        if (failed[0]) {
+            throw new IllegalStateException("Classification read failed");
+        }
+    }
+
+    @FunctionalInterface
+    private interface StreamSource<T> {
+        void read(BaseDAO.RowStream<T> stream);
+    }
+
+    /**
+     * Revenue and demand variability of the products that sold, parallel arrays
+     */
+    private final class Demand {
+        int[] productIds = new int[1024];
+        double[] revenue = new double[1024];
+        // NaN when the product sold nothing (all sales reversed)
+        double[] cv = new double[1024];
+        int size;
+
+        void add(ClassificationDAO.ProductDemand row) {
+            if (size == productIds.length) {
+                productIds = Arrays.copyOf(productIds, size * 2);
+                revenue = Arrays.copyOf(revenue, size * 2);
+                cv = Arrays.copyOf(cv, size * 2);
+            }
+            double mean = (double) row.getUnits() / days;
+            double variance = Math.max(0, row.getUnitsSquared() / days - mean * mean);
+            productIds[size] = row.getProductId();
+            revenue[size] = row.getRevenue();
+            cv[size] = mean > 0 ? Math.sqrt(variance) / mean : Double.NaN;
+            size++;
+        }
+    }
+
+    /**
+     * Classes by product id: sorted ids and one byte per product (abc * 3 + xyz)
+     */
+    private static final class Snapshot {
+        private static final String[] NAMES = new String[9];
+
+        static {
+            for (int abc = 0; abc < 3; abc++) {
+                for (int xyz = 0; xyz < 3; xyz++) {
+                    NAMES[abc * 3 + xyz] = "" + ABC[abc] + XYZ[xyz];
+                }
+            }
+        }
+
+        private final int[] productIds;
+        private final byte[] codes;
+
+        Snapshot(int[] productIds, byte[] codes) {
+            this.productIds = productIds;
+            this.codes = codes;
+        }
+
+        String get(int productId) {
+            int i = Arrays.binarySearch(productIds, productId);
+            return i >= 0 ? NAMES[codes[i]] : null;
+        }
+    }
+
+    private static final class SnapshotBuilder {
+        private int[] productIds = new int[1024];
+        private byte[] codes = new byte[1024];
+        private int size;
+
+        void add(ProductClassification classification) {
+            if (size == productIds.length) {
+                productIds = Arrays.copyOf(productIds, size * 2);
+                codes = Arrays.copyOf(codes, size * 2);
+            }
+            int abc = classification.getAbcClass() - 'A';
+            int xyz = classification.getXyzClass() - 'X';
+            productIds[size] = classification.getProductId();
+            codes[size] = (byte) (abc * 3 + xyz);
+            size++;
+        }
+
+        /**
+         * Rows arrive in product id order, so the ids are already sorted
+         */
+        Snapshot build() {
+            return new Snapshot(Arrays.copyOf(productIds, size), Arrays.copyOf(codes, size));
+        }
+    }
+
+    private static boolean acquireLock(Connection conn) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement("SELECT GET_LOCK(?, 0)")) {
+            pstmt.setString(1, LOCK_NAME);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() && rs.getInt(1) == 1;
+            }
+        }
+    }
+
+    private static boolean isLockFree() throws SQLException {
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement("SELECT IS_FREE_LOCK(?)")) {
+            pstmt.setString(1, LOCK_NAME);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() && rs.getInt(1) == 1;
+            }
+        }
+    }
+
+    private static void releaseLock(Connection conn) {
+        try (PreparedStatement pstmt = conn.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+            pstmt.setString(1, LOCK_NAME);
+            pstmt.execute();
+        } catch (SQLException e) {
+            // The lock is released anyway when the connection closes
+            System.err.println("Error releasing classification lock: " + e.getMessage());
+        }
+    }
+}
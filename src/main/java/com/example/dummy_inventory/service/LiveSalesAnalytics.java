@@ -0,0 +1,417 @@
+package com.example.dummy_inventory.service;
+
+import com.example.dummy_inventory.dao.BaseDAO;
+import com.example.dummy_inventory.dao.ReportsDAO;
+import com.example.dummy_inventory.event.EventBus;
+import com.example.dummy_inventory.event.SaleRecorded;
+import com.example.dummy_inventory.event.SaleReversed;
+import com.example.dummy_inventory.model.ProductSales;
+import com.example.dummy_inventory.model.Sale;
+import com.example.dummy_inventory.util.CountMinSketch;
+import com.example.dummy_inventory.util.HyperLogLog;
+import com.example.dummy_inventory.util.SpaceSaving;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Live sales figures for the last hour, day and week, kept in memory from sale events
+ *
+ * Each window is a ring of time buckets (e.g. the last day is 24 one-hour
+ * buckets). Every bucket holds small sketches of the sales that fell into it:
+ * - Count-Min sketches of units and revenue per product
+ * - a Space-Saving summary of its heaviest products (top-seller candidates)
+ * - HyperLogLog sketches of the distinct products sold and distinct cashiers
+ * The window also keeps the running sum of its buckets' Count-Min sketches;
+ * when a bucket falls out of the window it is subtracted and reused, so memory
+ * is fixed no matter how many sales there are.
+ *
+ * Top sellers are the window's candidates ranked by their Count-Min estimate
+ * (never below the true total, over by at most ~0.5% of the window's units).
+ * Results are memoized until the next sale or bucket expiry, so the dashboard
+ * reads them in O(1) and never queries the database.
+ *
+ * At startup start() replays the last week of sales once (streamed) to fill the
+ * windows; from then on SaleRecorded / SaleReversed keep them current, including
+ * sales made on other nodes when the ChangePoller is on.
+ */
+public final class LiveSalesAnalytics {
+
+    /**
+     * Sliding windows offered to the UI
+     */
+    public enum Window {
+        LAST_HOUR("Last hour", 12, Duration.ofMinutes(5)),
+        LAST_DAY("Last 24 hours", 24, Duration.ofHours(1)),
+        LAST_WEEK("Last 7 days", 28, Duration.ofHours(6));
+
+        private final String label;
+        private final int buckets;
+        private final long bucketMillis;
+
+        Window(String label, int buckets, Duration bucket) {
+            this.label = label;
+            this.buckets = buckets;
+            this.bucketMillis = bucket.toMillis();
+        }
+
+        public Duration getLength() {
+            return Duration.ofMillis(buckets * bucketMillis);
+        }
+
+        @Override
+        public String toString() {
+            return label;
+        }
+    }
+
+    /**
+     * Figures of one window at one moment
+     */
+    public static final class Snapshot {
+        private final List<ProductSales> topSellers;
+        private final int sales;
+        private final long units;
+        private final double revenue;
+        private final long distinctProducts;
+        private final long distinctCashiers;
+
+        Snapshot(List<ProductSales> topSellers, int sales, long units, double revenue,
+                 long distinctProducts, long distinctCashiers) {
+            this.topSellers = Collections.unmodifiableList(topSellers);
+            this.sales = sales;
+            this.units = units;
+            this.revenue = revenue;
+            this.distinctProducts = distinctProducts;
+            this.distinctCashiers = distinctCashiers;
+        }
+
+        /**
+         * This snapshot with at most k top sellers (a memoized snapshot may hold more)
+         */
+        Snapshot limit(int k) {
+            if (topSellers.size() <= k) {
+                return this;
+            }
+            return new Snapshot(topSellers.subList(0, k), sales, units, revenue, distinctProducts, distinctCashiers);
+        }
+
+        /**
+         * Best sellers by units, highest first (approximate totals)
+         */
+        public List<ProductSales> getTopSellers() {
+            return topSellers;
+        }
+
+        public int getSales() {
+            return sales;
+        }
+
+        public long getUnits() {
+            return units;
+        }
+
+        public double getRevenue() {
+            return revenue;
+        }
+
+        /**
+         * Approximate number of different products sold
+         */
+        public long getDistinctProducts() {
+            return distinctProducts;
+        }
+
+        /**
+         * Approximate number of different cashiers (users) who recorded sales
+         */
+        public long getDistinctCashiers() {
+            return distinctCashiers;
+        }
+    }
+
+    private static final int CM_WIDTH = 512;
+    private static final int CM_DEPTH = 4;
+    private static final int CANDIDATES = 32;
+    private static final int HLL_PRECISION = 11;
+
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+
+    private final ReportsDAO reportsDAO = new ReportsDAO();
+
+    private final Map<Window, SlidingWindow> windows = new EnumMap<>(Window.class);
+
+    // Product names seen in sales, for the top-seller list
+    private final Map<Integer, String> productNames = new ConcurrentHashMap<>();
+
+    // While the startup replay runs: sales that arrived as events (the replay skips them)
+    private Set<Integer> liveDuringLoad;
+
+    private volatile boolean loaded;
+
+    private LiveSalesAnalytics() {
+        for (Window window : Window.values()) {
+            windows.put(window, new SlidingWindow(window));
+        }
+        EventBus bus = EventBus.getInstance();
+        bus.subscribe(SaleRecorded.class, e -> onSale(e.getSale()));
+        bus.subscribe(SaleReversed.class, e -> {
+            if (e.getSaleDate() != null) {
+                apply(e.getProductId(), null, -e.getQuantity(), -e.getTotalAmount(), e.getSaleDate());
+            }
+        });
+    }
+
+    public static LiveSalesAnalytics getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    private static final class Holder {
+        static final LiveSalesAnalytics INSTANCE = new LiveSalesAnalytics();
+    }
+
+    /**
+     * Replay the last week of sales into the windows on a background thread; call once at startup
+     */
+    public void start() {
+        synchronized (this) {
+            if (liveDuringLoad != null || loaded) {
+                return;
+            }
+            liveDuringLoad = new HashSet<>();
+        }
+        Thread loader = new Thread(this::load, "sales-analytics-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    /**
+     * True once the startup replay has finished
+     */
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Current figures of a window
+     *
+     * @param k Number of top sellers wanted
+     */
+    public synchronized Snapshot snapshot(Window window, int k) {
+        return windows.get(window).snapshot(System.currentTimeMillis(), k);
+    }
+
+    private void load() {
+        long started = System.currentTimeMillis();
+        LocalDateTime end = LocalDateTime.now().plusMinutes(1);
+        LocalDateTime start = end.minus(Window.LAST_WEEK.getLength());
+        boolean[] failed = {false};
+
+        int rows = reportsDAO.streamSales(start, end, new BaseDAO.RowStream<>() {
+            @Override
+            public boolean accept(Sale sale) {
+                synchronized (LiveSalesAnalytics.this) {
+                    if (!liveDuringLoad.contains(sale.getSaleId())) {
+                        record(sale);
+                    }
+                }
+                return true;
+            }
+
+            @Override
+            public void failed(SQLException e) {
+                failed[0] = true;
+            }
+        });
+
+        synchronized (this) {
+            liveDuringLoad = null;
+            loaded = true;
+        }
+        if (failed[0]) {
+            System.err.println("Live sales analytics: history not loaded, showing new sales only");
+        } else {
+            System.out.println("✓ Live sales analytics loaded (" + rows + " sales in " +
+                    (System.currentTimeMillis() - started) + " ms)");
+        }
+    }
+
+    private void onSale(Sale sale) {
+        synchronized (this) {
+            if (liveDuringLoad != null) {
+                liveDuringLoad.add(sale.getSaleId());
+            }
+            record(sale);
+        }
+    }
+
+    private void record(Sale sale) {
+        if (sale.getProductName() != null) {
+            productNames.put(sale.getProductId(), sale.getProductName());
+        }
+        apply(sale.getProductId(), sale.getUserId(), sale.getQuantitySold(), sale.getTotalAmount(),
+                sale.getSaleDate() != null ? sale.getSaleDate() : LocalDateTime.now());
+    }
+
+    /**
+     * Add (or with negative amounts, take back) one sale in every window it falls into
+     */
+    private synchronized void apply(int productId, Integer userId, int units, double amount, LocalDateTime when) {
+        long time = when.atZone(ZONE).toInstant().toEpochMilli();
+        long now = System.currentTimeMillis();
+        for (SlidingWindow window : windows.values()) {
+            window.apply(Math.min(time, now), now, productId, userId, units, Math.round(amount * 100));
+        }
+    }
+
+    private final class SlidingWindow {
+        private final Window window;
+        private final Bucket[] ring;
+
+        // Sums over the live buckets
+        private final CountMinSketch units = new CountMinSketch(CM_WIDTH, CM_DEPTH);
+        private final CountMinSketch revenueCents = new CountMinSketch(CM_WIDTH, CM_DEPTH);
+        private long unitTotal;
+        private long revenueTotal;
+        private int sales;
+
+        // Bumped on every change; the memoized snapshot is valid for one version
+        private long version;
+        private long snapshotVersion = -1;
+        private int snapshotK;
+        private Snapshot snapshot;
+
+        SlidingWindow(Window window) {
+            this.window = window;
+            this.ring = new Bucket[window.buckets];
+            for (int i = 0; i < ring.length; i++) {
+                ring[i] = new Bucket();
+            }
+        }
+
+        void apply(long time, long now, int productId, Integer userId, int unitDelta, long centsDelta) {
+            long current = now / window.bucketMillis;
+            long index = time / window.bucketMillis;
+            expire(current);
+            if (index <= current - window.buckets) {
+                return;   // older than the window
+            }
+
+            Bucket bucket = ring[(int) (index % window.buckets)];
+            if (bucket.index != index) {
+                bucket.reset(index);
+            }
+            bucket.units.add(productId, unitDelta);
+            bucket.revenueCents.add(productId, centsDelta);
+            units.add(productId, unitDelta);
+            revenueCents.add(productId, centsDelta);
+            if (unitDelta > 0) {
+                bucket.heavy.offer(productId, unitDelta);
+                bucket.products.add(productId);
+                if (userId != null) {
+                    bucket.cashiers.add(userId);
+                }
+                bucket.sales++;
+                sales++;
+            } else {
+                bucket.heavy.retract(productId, -unitDelta);
+                bucket.sales--;
+                sales--;
+            }
+            bucket.unitTotal += unitDelta;
+            bucket.revenueTotal += centsDelta;
+            unitTotal += unitDelta;
+            revenueTotal += centsDelta;
+            version++;
+        }
+
+        Snapshot snapshot(long now, int k) {
+            expire(now / window.bucketMillis);
+            if (snapshot != null && snapshotVersion == version && snapshotK >= k) {
+                return snapshot.limit(k);
+            }
+
+            Set<Long> candidates = new HashSet<>();
+            HyperLogLog products = new HyperLogLog(HLL_PRECISION);
+            HyperLogLog cashiers = new HyperLogLog(HLL_PRECISION);
+            for (Bucket bucket : ring) {
+                if (bucket.index >= 0) {
+                    candidates.addAll(bucket.heavy.keys());
+                    products.merge(bucket.products);
+                    cashiers.merge(bucket.cashiers);
+                }
+            }
+
+            List<ProductSales> top = new ArrayList<>(candidates.size());
+            for (long productId : candidates) {
+                long sold = units.estimate(productId);
+                if (sold > 0) {
+                    top.add(new ProductSales((int) productId,
+                            productNames.getOrDefault((int) productId, "Product #" + productId),
+                            (int) sold, revenueCents.estimate(productId) / 100.0));
+                }
+            }
+            top.sort((a, b) -> Integer.compare(b.getQuantitySold(), a.getQuantitySold()));
+            if (top.size() > k) {
+                top = new ArrayList<>(top.subList(0, k));
+            }
+
+            snapshot = new Snapshot(top, sales, unitTotal, revenueTotal / 100.0,
+                    products.estimate(), cashiers.estimate());
+            snapshotVersion = version;
+            snapshotK = k;
+            return snapshot;
+        }
+
+        /**
+         * Drop buckets that have slid out of the window
+         */
+        private void expire(long current) {
+            for (Bucket bucket : ring) {
+                if (bucket.index >= 0 && bucket.index <= current - window.buckets) {
+                    units.subtract(bucket.units);
+                    revenueCents.subtract(bucket.revenueCents);
+                    unitTotal -= bucket.unitTotal;
+                    revenueTotal -= bucket.revenueTotal;
+                    sales -= bucket.sales;
+                    bucket.reset(-1);
+                    version++;
+                }
+            }
+        }
+    }
+
+    private static final class Bucket {
+        long index = -1;
+        final CountMinSketch units = new CountMinSketch(CM_WIDTH, CM_DEPTH);
+        final CountMinSketch revenueCents = new CountMinSketch(CM_WIDTH, CM_DEPTH);
+        final SpaceSaving heavy = new SpaceSaving(CANDIDATES);
+        final HyperLogLog products = new HyperLogLog(HLL_PRECISION);
+        final HyperLogLog cashiers = new HyperLogLog(HLL_PRECISION);
+        long unitTotal;
+        long revenueTotal;
+        int sales;
+
+        void reset(long newIndex) {
+            index = newIndex;
+            units.clear();
+            revenueCents.clear();
+            heavy.clear();
+            products.clear();
+            cashiers.clear();
+            unitTotal = 0;
+            revenueTotal = 0;
+            sales = 0;
+        }
+    }
+}
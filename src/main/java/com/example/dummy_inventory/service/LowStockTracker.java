@@ -0,0 +1,327 @@
+package com.example.dummy_inventory.service;
+
+import com.example.dummy_inventory.dao.BaseDAO;
+import com.example.dummy_inventory.dao.ProductDAO;
+import com.example.dummy_inventory.event.EventBus;
+import com.example.dummy_inventory.event.LowStockChanged;
+import com.example.dummy_inventory.event.ProductChanged;
+import com.example.dummy_inventory.event.SettingsChanged;
+import com.example.dummy_inventory.event.StockChanged;
+import com.example.dummy_inventory.model.LowStockItem;
+import com.example.dummy_inventory.util.SettingsCache;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * In-memory index of products below their reorder level
+ *
+ * The stock position of every product is read once at startup. Products whose
+ * quantity_in_stock is below their reorder_level (LOW_STOCK_THRESHOLD when the
+ * product has none) are kept in a sorted set ordered by stock / reorder_level,
+ * most urgent first. The index is maintained from events instead of re-scanning
+ * Product:
+ * - StockChanged   -> the product is re-positioned in O(log n)
+ * - ProductChanged -> the product row is re-read on a background thread
+ *                     (name or reorder level may have changed); if a StockChanged
+ *                     or delete for the product arrives while the read is in
+ *                     flight, the read row may be older, so its quantity is not
+ *                     used (a deleted product is not brought back)
+ * - SettingsChanged with a new LOW_STOCK_THRESHOLD -> the set is rebuilt
+ *
+ * Reads are O(k): the dashboard asks for top(5), counts are size(). Every change
+ * to the set publishes LowStockChanged so open panels can redraw.
+ *
+ * Same rule as view_low_stock_products: low means quantity_in_stock < reorder_level.
+ */
+public final class LowStockTracker {
+
+    private static final LowStockTracker INSTANCE = new LowStockTracker();
+
+    private final ProductDAO productDAO = new ProductDAO();
+
+    // Every product's stock position, by product_id
+    private final Map<Integer, LowStockItem> products = new HashMap<>();
+
+    // Products below their reorder level, most urgent first
+    private TreeSet<LowStockItem> lowStock;
+    private int threshold;
+
+    private volatile boolean loaded;
+
+    // Products with re-reads in flight (count), and the sequence number of the last
+    // stock event or delete each received meanwhile; guarded by this
+    private final Map<Integer, Integer> reloading = new HashMap<>();
+    private final Map<Integer, Long> touchedWhileReloading = new HashMap<>();
+    private long sequence;
+
+    private final ExecutorService loader = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "low-stock-loader");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private LowStockTracker() {
+        threshold = SettingsCache.get().getLowStockThreshold();
+        lowStock = new TreeSet<>(urgency(threshold));
+
+        EventBus bus = EventBus.getInstance();
+        bus.subscribe(StockChanged.class, this::onStockChanged);
+        bus.subscribe(ProductChanged.class, this::onProductChanged);
+        bus.subscribe(SettingsChanged.class, e -> {
+            if (e.getCurrent().getLowStockThreshold() != e.getPrevious().getLowStockThreshold()) {
+                rebuild(e.getCurrent().getLowStockThreshold());
+            }
+        });
+    }
+
+    public static LowStockTracker getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Read the stock position of every product; call once at startup
+     *
+     * @return false if Product could not be read (callers fall back to ReportsDAO)
+     */
+    public boolean load() {
+        Map<Integer, LowStockItem> fresh = new HashMap<>();
+        boolean[] failed = {false};
+        productDAO.streamStockLevels(new BaseDAO.RowStream<>() {
+            @Override
+            public boolean accept(LowStockItem row) {
+                fresh.put(row.getProductId(), row);
+                return true;
+            }
+
+            @Override
+            public void failed(SQLException e) {
+                failed[0] = true;
+            }
+        });
+        if (failed[0]) {
+            System.err.println("Low stock index not built: could not read Product");
+            return false;
+        }
+
+        synchronized (this) {
+            threshold = SettingsCache.get().getLowStockThreshold();
+            products.clear();
+            products.putAll(fresh);
+            lowStock = new TreeSet<>(urgency(threshold));
+            for (LowStockItem item : products.values()) {
+                if (isLow(item, threshold)) {
+                    lowStock.add(item);
+                }
+            }
+            loaded = true;
+        }
+        System.out.println("✓ Low stock index built (" + count() + " of " + fresh.size() + " products low)");
+        return true;
+    }
+
+    /**
+     * @return true once load() has succeeded
+     */
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * The k most urgent low-stock products (lowest stock / reorder_level first)
+     */
+    public synchronized List<LowStockItem> top(int k) {
+        List<LowStockItem> result = new ArrayList<>(Math.min(k, lowStock.size()));
+        Iterator<LowStockItem> it = lowStock.iterator();
+        while (result.size() < k && it.hasNext()) {
+            result.add(it.next());
+        }
+        return result;
+    }
+
+    /**
+     * All low-stock products, most urgent first
+     */
+    public synchronized List<LowStockItem> all() {
+        return Collections.unmodifiableList(new ArrayList<>(lowStock));
+    }
+
+    /**
+     * Number of products below their reorder level
+     */
+    public synchronized int count() {
+        return lowStock.size();
+    }
+
+    /**
+     * Same rule the index uses, for code that already holds the product
+     * (e.g. colouring the quantity cell in the products table)
+     */
+    public boolean isLow(int quantityInStock, int reorderLevel) {
+        return quantityInStock < effectiveLevel(reorderLevel, SettingsCache.get().getLowStockThreshold());
+    }
+
+    /**
+     * Stop the background loader - call on application exit
+     */
+    public void shutdown() {
+        loader.shutdownNow();
+    }
+
+    private void onStockChanged(StockChanged event) {
+        Boolean low;
+        synchronized (this) {
+            touched(event.getProductId());
+            LowStockItem current = products.get(event.getProductId());
+            if (current == null) {
+                // Product created on another node or before load() - read it
+                reloadLater(event.getProductId());
+                return;
+            }
+            low = replace(current, current.withQuantity(event.getNewQuantity()));
+        }
+        publishIfNeeded(event.getProductId(), low);
+    }
+
+    private void onProductChanged(ProductChanged event) {
+        if (event.getKind() == ProductChanged.Kind.DELETED) {
+            boolean wasLow;
+            synchronized (this) {
+                touched(event.getProductId());
+                LowStockItem removed = products.remove(event.getProductId());
+                wasLow = removed != null && lowStock.remove(removed);
+            }
+            if (wasLow) {
+                EventBus.getInstance().publish(new LowStockChanged(event.getProductId(), false));
+            }
+            return;
+        }
+        reloadLater(event.getProductId());
+    }
+
+    private void reloadLater(int productId) {
+        long started;
+        synchronized (this) {
+            started = ++sequence;
+            reloading.merge(productId, 1, Integer::sum);
+        }
+        loader.execute(() -> {
+            Optional<LowStockItem> read = Optional.empty();
+            try {
+                read = productDAO.getStockLevel(productId);
+            } finally {
+                Boolean low = null;
+                synchronized (this) {
+                    Long touched = touchedWhileReloading.get(productId);
+                    boolean stale = touched != null && touched > started;
+                    if (reloading.computeIfPresent(productId, (id, count) -> count > 1 ? count - 1 : null) == null) {
+                        touchedWhileReloading.remove(productId);
+                    }
+                    if (read.isPresent()) {
+                        low = applyReload(read.get(), stale);
+                    }
+                }
+                publishIfNeeded(productId, low);
+            }
+        });
+    }
+
+    /**
+     * Apply a re-read row; must be called while holding the lock
+     *
+     * @param stale A stock event or delete arrived while the row was being read
+     * @return as replace()
+     */
+    private Boolean applyReload(LowStockItem item, boolean stale) {
+        LowStockItem current = products.get(item.getProductId());
+        if (current == null) {
+            if (stale) {
+                // Deleted meanwhile, or a stock event queued its own (newer) re-read
+                return null;
+            }
+            products.put(item.getProductId(), item);
+            if (isLow(item, threshold)) {
+                lowStock.add(item);
+                return true;
+            }
+            return null;
+        }
+        // Keep the quantity from the newer stock event, take the rest from the row
+        return replace(current, stale ? item.withQuantity(current.getQuantityInStock()) : item);
+    }
+
+    /**
+     * Note a stock event or delete for a product that may have a re-read in flight
+     * Must be called while holding the lock.
+     */
+    private void touched(int productId) {
+        if (reloading.containsKey(productId)) {
+            touchedWhileReloading.put(productId, ++sequence);
+        }
+    }
+
+    /**
+     * Swap one product's entry, keeping the sorted set consistent
+     * Must be called while holding the lock.
+     *
+     * @return whether the product is low afterwards, or null if the low-stock list did not change
+     */
+    private Boolean replace(LowStockItem current, LowStockItem updated) {
+        boolean wasLow = lowStock.remove(current);
+        products.put(updated.getProductId(), updated);
+        boolean nowLow = isLow(updated, threshold);
+        if (nowLow) {
+            lowStock.add(updated);
+        }
+        return wasLow || nowLow ? nowLow : null;
+    }
+
+    private void publishIfNeeded(int productId, Boolean low) {
+        if (low != null) {
+            EventBus.getInstance().publish(new LowStockChanged(productId, low));
+        }
+    }
+
+    private void rebuild(int newThreshold) {
+        synchronized (this) {
+            threshold = newThreshold;
+            lowStock = new TreeSet<>(urgency(newThreshold));
+            for (LowStockItem item : products.values()) {
+                if (isLow(item, newThreshold)) {
+                    lowStock.add(item);
+                }
+            }
+        }
+        EventBus.getInstance().publish(LowStockChanged.rebuilt());
+    }
+
+    private static boolean isLow(LowStockItem item, int threshold) {
+        return item.getQuantityInStock() < effectiveLevel(item.getReorderLevel(), threshold);
+    }
+
+    private static int effectiveLevel(int reorderLevel, int threshold) {
+        return reorderLevel > 0 ? reorderLevel : threshold;
+    }
+
+    /**
+     * Order by stock / reorder level, then stock, then id (ids make the order total,
+     * so two products with equal ratios are both kept by the TreeSet)
+     */
+    private static Comparator<LowStockItem> urgency(int threshold) {
+        return Comparator
+                .comparingDouble((LowStockItem item) ->
+                        (double) item.getQuantityInStock() / Math.max(1, effectiveLevel(item.getReorderLevel(), threshold)))
+                .thenComparingInt(LowStockItem::getQuantityInStock)
+                .thenComparingInt(LowStockItem::getProductId);
+    }
+}
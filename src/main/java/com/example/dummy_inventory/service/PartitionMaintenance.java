@@ -0,0 +1,263 @@
+package com.example.dummy_inventory.service;
+
+import com.example.dummy_inventory.dao.PartitionDAO;
+import com.example.dummy_inventory.dao.SaleArchive;
+import com.example.dummy_inventory.db.DatabaseConnection;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps Sale and AuditLog split into monthly partitions and archives old months
+ *
+ * Each run (at startup, then daily):
+ * 1. Adds partitions so that partition.monthsAhead future months exist. New rows
+ *    then never land in the catch-all pmax partition, and splitting pmax stays a
+ *    metadata-only change. A table that still has only pmax (partitioned by an
+ *    older V5, which put all history there) is split only if pmax holds nothing
+ *    before the current month: splitting copies every row in pmax under a lock,
+ *    so for a table with history the statement is printed to be run offline.
+ * 2. Moves closed months older than the retention (partition.saleRetentionMonths,
+ *    partition.auditRetentionMonths; 0 keeps everything) into SaleArchive /
+ *    AuditLogArchive - compressed, unpartitioned copies - and drops the partition.
+ *    Dropping a partition is instant, unlike DELETE of a month of rows.
+ * 3. Publishes the sales archive horizon to SaleArchive so report queries only
+ *    read the archive when their range reaches back that far.
+ *
+ * The horizon is also re-read every partition.horizonRefreshSeconds (default 60),
+ * so a node picks up months archived by another node instead of leaving them
+ * out of its reports until its own next daily run.
+ *
+ * A MySQL named lock ensures only one node changes partitions at a time. Tables
+ * that are not partitioned (database not migrated yet) are left alone.
+ */
+public final class PartitionMaintenance {
+
+    private static final String LOCK_NAME = "inventory.partitions";
+
+    /**
+     * A partitioned table and its archive
+     */
+    private static final class ManagedTable {
+        final String table;
+        final String archiveTable;
+        final String idColumn;
+        final String dateColumn;
+        final String columns;
+        final int retentionMonths;
+
+        ManagedTable(String table, String archiveTable, String idColumn, String dateColumn, String columns,
+                     int retentionMonths) {
+            this.table = table;
+            this.archiveTable = archiveTable;
+            this.idColumn = idColumn;
+            this.dateColumn = dateColumn;
+            this.columns = columns;
+            this.retentionMonths = retentionMonths;
+        }
+    }
+
+    private final PartitionDAO partitionDAO = new PartitionDAO();
+
+    private final int monthsAhead = Math.max(1, DatabaseConnection.getIntProperty("partition.monthsAhead", 3));
+    private final int batchSize = Math.max(100, DatabaseConnection.getIntProperty("partition.archiveBatchSize", 10000));
+    private final int horizonRefreshSeconds =
+            Math.max(5, DatabaseConnection.getIntProperty("partition.horizonRefreshSeconds", 60));
+
+    private final List<ManagedTable> tables = List.of(
+            new ManagedTable("Sale", "SaleArchive", "sale_id", "sale_date",
+                    SaleArchive.COLUMNS,
+                    DatabaseConnection.getIntProperty("partition.saleRetentionMonths", 24)),
+            new ManagedTable("AuditLog", "AuditLogArchive", "log_id", "timestamp",
+                    "log_id, user_id, action, table_name, record_id, old_value, new_value, ip_address, timestamp",
+                    DatabaseConnection.getIntProperty("partition.auditRetentionMonths", 12)));
+
+    private ScheduledExecutorService scheduler;
+
+    private PartitionMaintenance() {
+    }
+
+    public static PartitionMaintenance getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    private static final class Holder {
+        static final PartitionMaintenance INSTANCE = new PartitionMaintenance();
+    }
+
+    /**
+     * Read the sales archive horizon, then run in the background now and once a day
+     * and keep following the horizon in between
+     */
+    public synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+        refreshSaleHorizon();
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "partition-maintenance");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                run();
+            } catch (Exception e) {
+                System.err.println("Partition maintenance failed:");
+                e.printStackTrace();
+            }
+        }, 0, 1, TimeUnit.DAYS);
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                refreshSaleHorizon();
+            } catch (Exception e) {
+                System.err.println("Refreshing the sales archive horizon failed: " + e.getMessage());
+            }
+        }, horizonRefreshSeconds, horizonRefreshSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Stop the daily schedule - call on application exit
+     */
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    /**
+     * Add upcoming partitions and archive expired months of every managed table
+     *
+     * @return false if another node holds the lock or the lock could not be taken
+     */
+    public boolean run() {
+        try (Connection lockConn = DatabaseConnection.getConnection()) {
+            if (!acquireLock(lockConn)) {
+                return false;
+            }
+            try {
+                YearMonth current = YearMonth.now();
+                for (ManagedTable table : tables) {
+                    maintain(table, current);
+                }
+            } finally {
+                releaseLock(lockConn);
+            }
+        } catch (SQLException e) {
+            System.err.println("Partition maintenance lock unavailable: " + e.getMessage());
+            return false;
+        } finally {
+            refreshSaleHorizon();
+        }
+        return true;
+    }
+
+    private void maintain(ManagedTable table, YearMonth current) {
+        List<String> partitions = partitionDAO.getPartitionNames(table.table);
+        if (!partitions.contains(PartitionDAO.FUTURE_PARTITION)) {
+            System.err.println(table.table + " is not partitioned by month - skipping partition maintenance");
+            return;
+        }
+
+        List<YearMonth> months = new ArrayList<>();
+        for (String name : partitions) {
+            PartitionDAO.monthOf(name).ifPresent(months::add);
+        }
+
+        // 1. Upcoming months
+        YearMonth last = current.plusMonths(monthsAhead);
+        YearMonth next;
+        if (months.isEmpty()) {
+            YearMonth oldest = partitionDAO.getDateBound(table.table, table.dateColumn, "MIN")
+                    .map(YearMonth::from).orElse(current);
+            if (oldest.isBefore(current)) {
+                List<YearMonth> backfill = new ArrayList<>();
+                for (YearMonth month = oldest; !month.isAfter(last); month = month.plusMonths(1)) {
+                    backfill.add(month);
+                }
+                System.err.println(table.table + " holds all its history in " + PartitionDAO.FUTURE_PARTITION +
+                        "; splitting it copies every row under a lock, so run this once offline:\n  " +
+                        PartitionDAO.splitStatement(table.table, backfill) + ";");
+                return;
+            }
+            next = current;
+        } else {
+            next = months.get(months.size() - 1).plusMonths(1);
+        }
+        if (!next.isAfter(last)) {
+            List<YearMonth> added = new ArrayList<>();
+            for (YearMonth month = next; !month.isAfter(last); month = month.plusMonths(1)) {
+                added.add(month);
+            }
+            if (partitionDAO.addMonthlyPartitions(table.table, added)) {
+                months.addAll(added);
+                System.out.println("✓ " + table.table + ": added partitions " + added.get(0) + " to " + last);
+            }
+        }
+
+        // 2. Expired months, oldest first; stop at the first failure so the archive stays contiguous
+        if (table.retentionMonths <= 0) {
+            return;
+        }
+        YearMonth keepFrom = current.minusMonths(table.retentionMonths);
+        for (YearMonth month : months) {
+            if (!month.isBefore(keepFrom)) {
+                break;
+            }
+            String partition = PartitionDAO.partitionName(month);
+            long started = System.currentTimeMillis();
+            long rows = partitionDAO.archivePartition(table.table, table.archiveTable, table.idColumn,
+                    table.columns, partition, batchSize);
+            if (rows < 0) {
+                break;
+            }
+            System.out.println("✓ " + table.table + ": archived " + month + " (" + rows + " rows, " +
+                    (System.currentTimeMillis() - started) + " ms)");
+        }
+    }
+
+    /**
+     * Sale holds everything from the month after the newest archived sale
+     * Another node may have archived since the last call, so this is re-read on a short period.
+     */
+    private void refreshSaleHorizon() {
+        if (!partitionDAO.tableExists("SaleArchive")) {
+            SaleArchive.setHorizon(null);
+            return;
+        }
+        Optional<LocalDateTime> newest = partitionDAO.getDateBound("SaleArchive", "sale_date", "MAX");
+        SaleArchive.setHorizon(newest
+                .map(date -> YearMonth.from(date).plusMonths(1).atDay(1).atStartOfDay())
+                .orElse(null));
+    }
+
+    private static boolean acquireLock(Connection conn) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement("SELECT GET_LOCK(?, 0)")) {
+            pstmt.setString(1, LOCK_NAME);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() && rs.getInt(1) == 1;
+            }
+        }
+    }
+
+    private static void releaseLock(Connection conn) {
+        try (PreparedStatement pstmt = conn.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+            pstmt.setString(1, LOCK_NAME);
+            pstmt.execute();
+        } catch (SQLException e) {
+            // The lock is released anyway when the connection closes
+            System.err.println("Error releasing partition lock: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,375 @@
+package com.example.dummy_inventory.service;
+
+import com.example.dummy_inventory.dao.BaseDAO;
+import com.example.dummy_inventory.dao.PurchaseOrderDAO;
+import com.example.dummy_inventory.dao.ReplenishmentDAO;
+import com.example.dummy_inventory.db.DatabaseConnection;
+import com.example.dummy_inventory.model.DemandForecast;
+import com.example.dummy_inventory.model.PurchaseOrder;
+import com.example.dummy_inventory.util.SettingsCache;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Generates PENDING purchase orders from forecast demand
+ *
+ * A run (normally nightly, see scheduleNightly()):
+ * 1. Refits each product's DemandForecast with the complete sales days since
+ *    the last completed run (DemandForecaster) - history is never re-scanned.
+ * 2. Streams every product's stock, reorder level and quantity already on
+ *    order, and decides in parallel (ForkJoinPool) which products need an order:
+ *    one is raised when stock + on order - forecast demand over the lead time
+ *    - safety stock would fall below the reorder level before a delivery could
+ *    arrive. The order covers lead time + cover days of demand and the safety
+ *    stock on top of the reorder level.
+ * 3. Groups the orders per supplier and writes each supplier's orders as one
+ *    batched transaction, suppliers in parallel.
+ *
+ * If some suppliers' transactions fail, the others' orders are kept and the run
+ * is recorded as PARTIAL with the failed suppliers listed. Their products still
+ * show the shortfall with nothing on order, so the next run plans them again.
+ *
+ * A MySQL named lock ensures only one node runs at a time. The projected
+ * stockout date is recorded in each order's notes.
+ *
+ * Tuning (database.properties): replenishment.leadTimeDays, coverDays,
+ * safetyFactor, smoothing, historyDays, parallelism, runAt.
+ */
+public final class ReplenishmentEngine {
+
+    private static final String LOCK_NAME = "inventory.replenishment";
+
+    // Below this many units/day a product counts as not selling
+    private static final double MIN_VELOCITY = 0.01;
+
+    private final ReplenishmentDAO replenishmentDAO = new ReplenishmentDAO();
+    private final PurchaseOrderDAO purchaseOrderDAO = new PurchaseOrderDAO();
+    private final DemandForecaster forecaster = DemandForecaster.getInstance();
+
+    private final int leadTimeDays = DatabaseConnection.getIntProperty("replenishment.leadTimeDays", 7);
+    private final int coverDays = DatabaseConnection.getIntProperty("replenishment.coverDays", 30);
+    // Standard deviations of lead-time demand held as safety stock (0 = none)
+    private final double safetyFactor = DatabaseConnection.getDoubleProperty("replenishment.safetyFactor", 0);
+    private final int historyDays = DatabaseConnection.getIntProperty("replenishment.historyDays", 90);
+    private final int parallelism = DatabaseConnection.getIntProperty("replenishment.parallelism",
+            Runtime.getRuntime().availableProcessors());
+
+    private ScheduledExecutorService scheduler;
+
+    private ReplenishmentEngine() {
+    }
+
+    public static ReplenishmentEngine getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    private static final class Holder {
+        static final ReplenishmentEngine INSTANCE = new ReplenishmentEngine();
+    }
+
+    /**
+     * Run every day at the given local time ("HH:mm"); blank disables the schedule
+     */
+    public synchronized void scheduleNightly(String runAt) {
+        if (scheduler != null || runAt == null || runAt.isBlank()) {
+            return;
+        }
+
+        LocalTime time;
+        try {
+            time = LocalTime.parse(runAt.trim());
+        } catch (DateTimeParseException e) {
+            System.err.println("Invalid replenishment.runAt: " + runAt + " (replenishment not scheduled)");
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime next = now.toLocalDate().atTime(time);
+        if (!next.isAfter(now)) {
+            next = next.plusDays(1);
+        }
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "replenishment");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleAtFixedRate(() -> {
+            try {
+                System.out.println("Replenishment: " + run(null));
+            } catch (Exception e) {
+                System.err.println("Replenishment run failed:");
+                e.printStackTrace();
+            }
+        }, Duration.between(now, next).toMillis(), TimeUnit.DAYS.toMillis(1), TimeUnit.MILLISECONDS);
+        System.out.println("✓ Replenishment scheduled daily at " + time);
+    }
+
+    /**
+     * Stop the nightly schedule - call on application exit
+     */
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    /**
+     * Refit forecasts and create purchase orders now
+     *
+     * @param userId User starting the run (stored on the orders), or null for the schedule
+     * @return Summary of the run
+     * @throws IllegalStateException if another node is running or the run could not complete
+     */
+    public RunResult run(Integer userId) {
+        try (Connection lockConn = DatabaseConnection.getConnection()) {
+            if (!acquireLock(lockConn)) {
+                throw new IllegalStateException("Replenishment is already running on another node");
+            }
+            try {
+                return runLocked(userId);
+            } finally {
+                releaseLock(lockConn);
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Replenishment lock unavailable", e);
+        }
+    }
+
+    private RunResult runLocked(Integer userId) {
+        long started = System.currentTimeMillis();
+        LocalDate today = LocalDate.now();
+        LocalDate salesThrough = today.minusDays(1);
+        LocalDate foldFrom = replenishmentDAO.getSalesWatermark()
+                .map(day -> day.plusDays(1))
+                .orElse(today.minusDays(historyDays));
+
+        int runId = replenishmentDAO.startRun(salesThrough)
+                .orElseThrow(() -> new IllegalStateException("Could not record replenishment run"));
+
+        int evaluated = 0;
+        int created = 0;
+        try {
+            // 1. Forecasts: stored models + only the sales days since the last run
+            DemandForecaster.Refit refit = forecaster.refit(foldFrom, salesThrough);
+            Map<Integer, DemandForecast> forecasts = refit.getForecasts();
+
+            // 2. Decide per product, in parallel
+            List<ReplenishmentDAO.StockPosition> positions = new ArrayList<>();
+            stream(replenishmentDAO::streamStockPositions, positions::add);
+            evaluated = positions.size();
+
+            int threshold = SettingsCache.get().getLowStockThreshold();
+            LocalDate deliveryDate = today.plusDays(leadTimeDays);
+            ForkJoinPool pool = new ForkJoinPool(Math.max(1, parallelism));
+            try {
+                ConcurrentMap<Integer, List<PurchaseOrder>> bySupplier = pool.submit(() -> positions.parallelStream()
+                        .map(p -> plan(p, forecasts.get(p.getProductId()), salesThrough, threshold))
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.groupingByConcurrent(PurchaseOrder::getSupplierId))).get();
+
+                bySupplier.values().forEach(orders -> orders.forEach(order -> {
+                    order.setExpectedDelivery(deliveryDate);
+                    order.setUserId(userId);
+                }));
+
+                // 3. One batched transaction per supplier, suppliers in parallel (0 = transaction failed)
+                Map<Integer, Integer> createdBySupplier = pool.submit(() -> bySupplier.entrySet().parallelStream()
+                        .collect(Collectors.toConcurrentMap(Map.Entry::getKey,
+                                e -> purchaseOrderDAO.createPurchaseOrders(e.getValue())))).get();
+
+                List<Integer> failedSuppliers = new ArrayList<>();
+                for (Map.Entry<Integer, Integer> supplier : createdBySupplier.entrySet()) {
+                    created += supplier.getValue();
+                    if (supplier.getValue() == 0) {
+                        failedSuppliers.add(supplier.getKey());
+                    }
+                }
+                Collections.sort(failedSuppliers);
+                if (!failedSuppliers.isEmpty()) {
+                    System.err.println("Replenishment: orders for suppliers " + failedSuppliers +
+                            " could not be written; the next run plans them again");
+                }
+
+                replenishmentDAO.finishRun(runId, true, evaluated, created, failedSuppliers);
+                return new RunResult(evaluated, refit.getUpdated(), created, bySupplier.size(), failedSuppliers,
+                        System.currentTimeMillis() - started);
+            } finally {
+                pool.shutdown();
+            }
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            replenishmentDAO.finishRun(runId, false, evaluated, created);
+            throw new IllegalStateException("Replenishment interrupted", e);
+        } catch (ExecutionException | RuntimeException e) {
+            replenishmentDAO.finishRun(runId, false, evaluated, created);
+            throw new IllegalStateException("Replenishment run failed", e);
+        }
+    }
+
+    /**
+     * Decide whether one product needs an order
+     *
+     * @return The order to place, or null if stock covers the lead time
+     */
+    private PurchaseOrder plan(ReplenishmentDAO.StockPosition position, DemandForecast forecast,
+                               LocalDate salesThrough, int defaultReorderLevel) {
+        double perDay = forecast == null ? 0 : forecast.rateAt(salesThrough, forecaster.getAlpha());
+        int reorderLevel = position.getReorderLevel() > 0 ? position.getReorderLevel() : defaultReorderLevel;
+        int available = position.getQuantityInStock() + position.getOpenOrderQuantity();
+
+        int quantity;
+        LocalDate stockout = null;
+        if (perDay < MIN_VELOCITY) {
+            // Not selling: only top up to the reorder level
+            quantity = reorderLevel - available;
+        } else {
+            double safetyStock = safetyFactor * forecast.getDailyDeviation() * Math.sqrt(leadTimeDays);
+            if (available - perDay * leadTimeDays - safetyStock >= reorderLevel) {
+                return null;
+            }
+            quantity = (int) Math.ceil(perDay * (leadTimeDays + coverDays) + safetyStock + reorderLevel - available);
+            stockout = salesThrough.plusDays(1).plusDays((long) Math.floor(position.getQuantityInStock() / perDay));
+        }
+        if (quantity <= 0) {
+            return null;
+        }
+
+        PurchaseOrder order = new PurchaseOrder(position.getSupplierId(), position.getProductId(),
+                quantity, position.getCostPrice());
+        order.setNotes(stockout != null
+                ? String.format("Auto-generated: %.2f units/day (%s), stockout projected %s",
+                        perDay, forecast.getModel(), stockout)
+                : "Auto-generated: below reorder level");
+        return order;
+    }
+
+    /**
+     * Run a streaming DAO read, turning a failed query into an exception
+     */
+    private static <T> void stream(StreamSource<T> source, Consumer<T> consumer) {
+        boolean[] failed = {false};
+        source.read(new BaseDAO.RowStream<T>() {
+            @Override
+            public boolean accept(T row) {
+                consumer.accept(row);
+                return true;
+            }
+
+            @Override
+            public void failed(SQLException e) {
+                failed[0] = true;
+            }
+        });
+        if (failed[0]) {
+            throw new IllegalStateException("Replenishment read failed");
+        }
+    }
+
+    @FunctionalInterface
+    private interface StreamSource<T> {
+        void read(BaseDAO.RowStream<T> stream);
+    }
+
+    private static boolean acquireLock(Connection conn) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement("SELECT GET_LOCK(?, 0)")) {
+            pstmt.setString(1, LOCK_NAME);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() && rs.getInt(1) == 1;
+            }
+        }
+    }
+
+    private static void releaseLock(Connection conn) {
+        try (PreparedStatement pstmt = conn.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+            pstmt.setString(1, LOCK_NAME);
+            pstmt.execute();
+        } catch (SQLException e) {
+            // The lock is released anyway when the connection closes
+            System.err.println("Error releasing replenishment lock: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Summary of one replenishment run
+     */
+    public static final class RunResult {
+        private final int productsEvaluated;
+        private final int forecastsUpdated;
+        private final int ordersCreated;
+        private final int suppliers;
+        private final List<Integer> failedSuppliers;
+        private final long elapsedMillis;
+
+        RunResult(int productsEvaluated, int forecastsUpdated, int ordersCreated, int suppliers,
+                  List<Integer> failedSuppliers, long elapsedMillis) {
+            this.productsEvaluated = productsEvaluated;
+            this.forecastsUpdated = forecastsUpdated;
+            this.ordersCreated = ordersCreated;
+            this.suppliers = suppliers;
+            this.failedSuppliers = List.copyOf(failedSuppliers);
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        public int getProductsEvaluated() {
+            return productsEvaluated;
+        }
+
+        public int getForecastsUpdated() {
+            return forecastsUpdated;
+        }
+
+        public int getOrdersCreated() {
+            return ordersCreated;
+        }
+
+        public int getSuppliers() {
+            return suppliers;
+        }
+
+        /**
+         * Suppliers whose orders could not be written (empty if the run completed fully)
+         */
+        public List<Integer> getFailedSuppliers() {
+            return failedSuppliers;
+        }
+
+        public boolean isPartial() {
+            return !failedSuppliers.isEmpty();
+        }
+
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+
+        @Override
+        public String toString() {
+            return productsEvaluated + " products evaluated, " + forecastsUpdated + " forecasts updated, " +
+                    ordersCreated + " orders for " + suppliers + " suppliers in " + elapsedMillis + " ms" +
+                    (failedSuppliers.isEmpty() ? "" : " - PARTIAL, failed suppliers " + failedSuppliers);
+        }
+    }
+}
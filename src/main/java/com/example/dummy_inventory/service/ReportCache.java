@@ -0,0 +1,170 @@
+package com.example.dummy_inventory.service;
+
+import com.example.dummy_inventory.db.DatabaseConnection;
+import com.example.dummy_inventory.event.EventBus;
+import com.example.dummy_inventory.event.ProductChanged;
+import com.example.dummy_inventory.event.SaleRecorded;
+import com.example.dummy_inventory.event.SaleReversed;
+import com.example.dummy_inventory.event.StockChanged;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Memory cache of report results keyed by (report, parameters, data version)
+ *
+ * The data version is a counter bumped by every sale, reversal, stock movement
+ * and product change (local, or remote when ChangePoller is on). A cached
+ * result is only returned while the version it was computed at is current, so
+ * generating the same report again is free until something changes, and never
+ * stale after a change. Entries also expire after reports.cacheTtlSeconds, for
+ * changes that publish no event (categories, suppliers, other nodes without
+ * polling).
+ *
+ * Cached results are shared between callers and must not be modified. A query
+ * must throw when it fails (ReportsDAO does) rather than return a placeholder
+ * such as 0 or an empty list: only results that were actually loaded are cached.
+ *
+ * USAGE:
+ *   List<ProductSales> top = ReportCache.getInstance().get("top-selling", List.of(10),
+ *           () -> reportsDAO.getTopSellingProducts(10));
+ */
+public final class ReportCache {
+
+    private static final int MAX_ENTRIES = 64;
+
+    private final long ttlMillis = Math.max(0, DatabaseConnection.getIntProperty("reports.cacheTtlSeconds", 300)) * 1000L;
+
+    private final AtomicLong dataVersion = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    // Access-ordered LRU; entries of older versions simply age out
+    private final Map<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    private ReportCache() {
+        EventBus bus = EventBus.getInstance();
+        bus.subscribe(SaleRecorded.class, e -> dataVersion.incrementAndGet());
+        bus.subscribe(SaleReversed.class, e -> dataVersion.incrementAndGet());
+        bus.subscribe(StockChanged.class, e -> dataVersion.incrementAndGet());
+        bus.subscribe(ProductChanged.class, e -> dataVersion.incrementAndGet());
+    }
+
+    public static ReportCache getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    private static final class Holder {
+        static final ReportCache INSTANCE = new ReportCache();
+    }
+
+    /**
+     * Cached result for the report and parameters, or the query's result (then cached)
+     *
+     * The query runs outside the lock; two threads missing at once both query
+     * and the later result wins, which is harmless for read-only reports.
+     * An exception from the query is passed to the caller and nothing is cached,
+     * so the next call queries again.
+     *
+     * @param report Report name, e.g. "top-selling"
+     * @param params Values that select the data (period, limit, threshold)
+     */
+    public <T> T get(String report, List<?> params, Supplier<T> query) {
+        long version = dataVersion.get();
+        Key key = new Key(report, params, version);
+        long now = System.currentTimeMillis();
+
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry != null && now - entry.createdMillis <= ttlMillis) {
+                hits.incrementAndGet();
+                @SuppressWarnings("unchecked")
+                T value = (T) entry.value;
+                return value;
+            }
+        }
+
+        misses.incrementAndGet();
+        T value = query.get();
+        if (ttlMillis > 0 && dataVersion.get() == version) {
+            // Only cache if nothing changed while the query ran
+            synchronized (entries) {
+                entries.put(key, new Entry(value, now));
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Current data version (changes whenever report data may have changed)
+     */
+    public long getDataVersion() {
+        return dataVersion.get();
+    }
+
+    /**
+     * Drop all entries (e.g. after a bulk import that published no events)
+     */
+    public void invalidate() {
+        dataVersion.incrementAndGet();
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    private static final class Key {
+        private final String report;
+        private final List<?> params;
+        private final long version;
+
+        Key(String report, List<?> params, long version) {
+            this.report = report;
+            this.params = List.copyOf(params);
+            this.version = version;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return version == other.version && report.equals(other.report) && params.equals(other.params);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(report, params, version);
+        }
+    }
+
+    private static final class Entry {
+        private final Object value;
+        private final long createdMillis;
+
+        Entry(Object value, long createdMillis) {
+            this.value = value;
+            this.createdMillis = createdMillis;
+        }
+    }
+}
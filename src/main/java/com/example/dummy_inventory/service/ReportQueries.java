@@ -0,0 +1,108 @@
+package com.example.dummy_inventory.service;
+
+import com.example.dummy_inventory.db.DatabaseConnection;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs independent report queries concurrently, off the FX thread
+ *
+ * Each submitted query runs on its own pool thread, and every ReportsDAO call
+ * opens its own (replica-aware) connection, so a screen that needs six
+ * aggregates waits for the slowest one instead of the sum of all six. Each
+ * future completes exceptionally with a TimeoutException after
+ * reports.queryTimeoutSeconds, so one slow aggregate cannot hold back the rest
+ * of the screen; callers render each value as its future completes.
+ *
+ * A query that times out keeps its pool thread until MySQL answers (JDBC calls
+ * are not interruptible); the pool is sized above the widest fan-out so the
+ * next refresh is not starved by it.
+ *
+ * USAGE:
+ *   ReportQueries.getInstance().submit("total revenue", reportsDAO::getTotalRevenue)
+ *       .whenComplete((revenue, error) -> Platform.runLater(() -> ...));
+ *
+ * Tuning (database.properties): reports.parallelism, reports.queryTimeoutSeconds.
+ */
+public final class ReportQueries {
+
+    private final long timeoutSeconds = Math.max(1, DatabaseConnection.getIntProperty("reports.queryTimeoutSeconds", 15));
+
+    private final AtomicInteger threadCount = new AtomicInteger();
+    private final ExecutorService executor = Executors.newFixedThreadPool(
+            Math.max(2, DatabaseConnection.getIntProperty("reports.parallelism", 8)), r -> {
+                Thread t = new Thread(r, "report-query-" + threadCount.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+
+    private ReportQueries() {
+    }
+
+    public static ReportQueries getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    private static final class Holder {
+        static final ReportQueries INSTANCE = new ReportQueries();
+    }
+
+    /**
+     * Start a query on the report pool
+     *
+     * @param name Shown in the log if the query fails or times out
+     * @return Future completed with the result, or exceptionally on error or timeout
+     */
+    public <T> CompletableFuture<T> submit(String name, Supplier<T> query) {
+        return CompletableFuture.supplyAsync(query, executor)
+                .orTimeout(timeoutSeconds, TimeUnit.SECONDS)
+                .whenComplete((result, error) -> {
+                    if (isTimeout(error)) {
+                        System.err.println("Report query '" + name + "' timed out after " + timeoutSeconds + " s");
+                    } else if (error != null) {
+                        System.err.println("Report query '" + name + "' failed:");
+                        unwrap(error).printStackTrace();
+                    }
+                });
+    }
+
+    /**
+     * Result of a completed future, or null if it is still running or failed
+     */
+    public static <T> T resultNow(CompletableFuture<T> future) {
+        if (!future.isDone() || future.isCompletedExceptionally()) {
+            return null;
+        }
+        try {
+            return future.get();
+        } catch (InterruptedException | ExecutionException e) {
+            return null;
+        }
+    }
+
+    /**
+     * True if the error (as passed to whenComplete/handle) is a query timeout
+     */
+    public static boolean isTimeout(Throwable error) {
+        return error != null && unwrap(error) instanceof TimeoutException;
+    }
+
+    /**
+     * Stop the pool - call on application exit
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+}
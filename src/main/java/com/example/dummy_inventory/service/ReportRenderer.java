@@ -0,0 +1,424 @@
+package com.example.dummy_inventory.service;
+
+import com.example.dummy_inventory.dao.BaseDAO;
+import com.example.dummy_inventory.dao.ReportsDAO;
+import com.example.dummy_inventory.model.CategoryTotal;
+import com.example.dummy_inventory.model.DailyRevenue;
+import com.example.dummy_inventory.model.LowStockItem;
+import com.example.dummy_inventory.model.MarginTotal;
+import com.example.dummy_inventory.model.ProductSales;
+import com.example.dummy_inventory.util.LineReportSink;
+import com.example.dummy_inventory.util.ReportSink;
+import com.example.dummy_inventory.util.SettingsCache;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Renders reports into a ReportSink on a background thread
+ *
+ * Long reports (low stock, sales detail) are read with a server-side cursor and
+ * each row is written to the sink as it arrives, so a report of any size goes
+ * to the export file and the preview without being held in memory, and the FX
+ * thread only ever receives finished batches of lines. Short aggregate reports
+ * come from ReportCache.
+ *
+ * A render can be cancelled (a newer report was requested): the running
+ * statement is cancelled on the server and the sink is closed.
+ *
+ * USAGE:
+ *   ReportRenderer.Job job = ReportRenderer.getInstance()
+ *       .render(ReportRenderer.LOW_STOCK, from, to, ReportSink.tee(preview.open(), ReportSink.forFile(file)));
+ *   job.getResult().whenComplete((rows, error) -> Platform.runLater(() -> ...));
+ */
+public final class ReportRenderer {
+
+    public static final String TOP_SELLING = "Top Selling Products";
+    public static final String SALES_BY_CATEGORY = "Sales by Category";
+    public static final String LOW_STOCK = "Low Stock Report";
+    public static final String INVENTORY_VALUATION = "Inventory Valuation";
+    public static final String MONTHLY_SALES = "Monthly Sales Summary";
+    public static final String SALES_DETAIL = "Sales Detail";
+    public static final String MARGIN_ANALYSIS = "Margin Analysis";
+
+    private static final List<String> REPORT_TYPES = List.of(TOP_SELLING, SALES_BY_CATEGORY, LOW_STOCK,
+            INVENTORY_VALUATION, MONTHLY_SALES, SALES_DETAIL, MARGIN_ANALYSIS);
+
+    // Products listed in the margin report
+    private static final int MARGIN_TOP_PRODUCTS = 20;
+
+    private final ReportsDAO reportsDAO = new ReportsDAO();
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "report-render");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private ReportRenderer() {
+    }
+
+    public static ReportRenderer getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    private static final class Holder {
+        static final ReportRenderer INSTANCE = new ReportRenderer();
+    }
+
+    /**
+     * Report names, in the order the Reports screen lists them
+     */
+    public static List<String> reportTypes() {
+        return REPORT_TYPES;
+    }
+
+    /**
+     * Start rendering a report; the sink is closed when the render ends
+     *
+     * @param type One of the report names
+     * @param from First day included (Sales Detail, Margin Analysis; other reports ignore it)
+     * @param to Last day included (Sales Detail, Margin Analysis)
+     * @param sink Receives the report; owned by the render from now on
+     * @return Handle completing with the number of table rows written
+     */
+    public Job render(String type, LocalDate from, LocalDate to, ReportSink sink) {
+        Job job = new Job();
+        return start(type, job, () -> {
+            try (ReportSink out = sink) {
+                return write(type, from, to, out, job);
+            }
+        });
+    }
+
+    /**
+     * Render a report on the calling thread (scheduled precompute); the caller closes the sink
+     *
+     * @return Number of table rows written
+     */
+    public int renderNow(String type, LocalDate from, LocalDate to, ReportSink sink) throws IOException {
+        return write(type, from, to, sink, new Job());
+    }
+
+    /**
+     * Copy a stored text report into a line sink (the preview), line by line
+     *
+     * @param name Report name, for the log
+     * @param file Text report written by ReportStore
+     * @param sink Receives the lines; closed when the copy ends
+     * @return Handle completing with the number of lines copied
+     */
+    public Job replay(String name, Path file, LineReportSink sink) {
+        Job job = new Job();
+        return start(name, job, () -> {
+            try (LineReportSink out = sink;
+                 BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                int lines = 0;
+                String line;
+                while (!job.cancelled && (line = reader.readLine()) != null) {
+                    out.line(line);
+                    lines++;
+                }
+                return lines;
+            }
+        });
+    }
+
+    private Job start(String name, Job job, RenderTask task) {
+        job.result = CompletableFuture.supplyAsync(() -> {
+            try {
+                int rows = task.run();
+                if (job.cancelled) {
+                    throw new CancellationException(name);
+                }
+                return rows;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, executor);
+        job.result.whenComplete((rows, error) -> {
+            if (error != null && !job.cancelled) {
+                System.err.println("Rendering report '" + name + "' failed:");
+                error.printStackTrace();
+            }
+        });
+        return job;
+    }
+
+    /**
+     * Stop the render thread - call on application exit
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private int write(String type, LocalDate from, LocalDate to, ReportSink sink, Job job) throws IOException {
+        ReportCache cache = ReportCache.getInstance();
+        switch (type) {
+            case TOP_SELLING: {
+                sink.title("TOP 10 SELLING PRODUCTS");
+                sink.columns("Product", "Quantity Sold", "Revenue");
+                List<ProductSales> products = cache.get("top selling", List.of(10),
+                        () -> reportsDAO.getTopSellingProducts(10));
+                for (ProductSales product : products) {
+                    sink.row(product.getProductName(), product.getQuantitySold(), product.getRevenue());
+                }
+                return products.size();
+            }
+            case SALES_BY_CATEGORY: {
+                sink.title("SALES BY CATEGORY");
+                sink.columns("Category", "Revenue");
+                List<CategoryTotal> categories = cache.get("sales by category", List.of(),
+                        reportsDAO::getSalesByCategory);
+                double total = 0;
+                for (CategoryTotal category : categories) {
+                    sink.row(category.getCategoryName(), category.getValue());
+                    total += category.getValue();
+                }
+                sink.summary("Total Revenue", total);
+                return categories.size();
+            }
+            case LOW_STOCK:
+                return writeLowStock(sink, job);
+            case INVENTORY_VALUATION: {
+                sink.title("INVENTORY VALUATION REPORT");
+                sink.summary("Total Inventory Value",
+                        cache.get("inventory value", List.of(), reportsDAO::getTotalInventoryValue));
+                sink.summary("Total Products", cache.get("product count", List.of(), reportsDAO::getTotalProductCount));
+                sink.summary("Total Categories", cache.get("category count", List.of(), reportsDAO::getTotalCategoryCount));
+                sink.columns("Category", "Products");
+                List<CategoryTotal> categories = cache.get("products by category", List.of(),
+                        reportsDAO::getProductCountByCategory);
+                for (CategoryTotal category : categories) {
+                    sink.row(category.getCategoryName(), (long) category.getValue());
+                }
+                return categories.size();
+            }
+            case MONTHLY_SALES: {
+                LocalDate now = LocalDate.now();
+                sink.title(String.format("SALES SUMMARY - %s %d", now.getMonth(), now.getYear()));
+                sink.columns("Day", "Revenue");
+                List<DailyRevenue> days = cache.get("monthly sales", List.of(now.getYear(), now.getMonthValue()),
+                        () -> reportsDAO.getMonthlySalesReport(now.getYear(), now.getMonthValue()));
+                double total = 0;
+                for (DailyRevenue day : days) {
+                    sink.row(day.getDay(), day.getRevenue());
+                    total += day.getRevenue();
+                }
+                sink.summary("Total Revenue", total);
+                return days.size();
+            }
+            case SALES_DETAIL:
+                return writeSalesDetail(from, to, sink, job);
+            case MARGIN_ANALYSIS:
+                return writeMarginAnalysis(from, to, sink);
+            default:
+                throw new IllegalArgumentException("Unknown report: " + type);
+        }
+    }
+
+    private int writeLowStock(ReportSink sink, Job job) throws IOException {
+        sink.title("LOW STOCK ALERT");
+        sink.columns("Product", "Current Stock", "Reorder Level", "Category", "Supplier");
+
+        LowStockTracker lowStock = LowStockTracker.getInstance();
+        if (lowStock.isLoaded()) {
+            // Already in memory - no query needed
+            int rows = 0;
+            for (LowStockItem item : lowStock.all()) {
+                if (job.cancelled) {
+                    break;
+                }
+                writeLowStockRow(sink, item);
+                rows++;
+            }
+            sink.summary("Products below reorder level", rows);
+            return rows;
+        }
+
+        int threshold = SettingsCache.get().getLowStockThreshold();
+        int rows = reportsDAO.streamLowStockReport(threshold, job.rows(item -> writeLowStockRow(sink, item)));
+        job.checkFailed();
+        sink.summary("Products below reorder level", rows);
+        return rows;
+    }
+
+    private static void writeLowStockRow(ReportSink sink, LowStockItem item) throws IOException {
+        sink.row(item.getProductName(), item.getQuantityInStock(), item.getReorderLevel(),
+                item.getCategoryName(), item.getSupplierName());
+    }
+
+    private int writeSalesDetail(LocalDate from, LocalDate to, ReportSink sink, Job job) throws IOException {
+        sink.title("SALES DETAIL - " + from + " to " + to);
+        sink.columns("Product", "Date", "Quantity", "Unit Price", "Total", "Payment");
+
+        double[] revenue = {0};
+        LocalDateTime start = from.atStartOfDay();
+        LocalDateTime end = to.plusDays(1).atStartOfDay();
+        int rows = reportsDAO.streamSales(start, end, job.rows(sale -> {
+            sink.row(sale.getProductName(), sale.getSaleDate(), sale.getQuantitySold(),
+                    sale.getUnitPrice(), sale.getTotalAmount(), sale.getPaymentMethod().name());
+            revenue[0] += sale.getTotalAmount();
+        }));
+        job.checkFailed();
+        sink.summary("Sales", rows);
+        sink.summary("Total Revenue", revenue[0]);
+        return rows;
+    }
+
+    /**
+     * Revenue, cost at time of sale and profit over the range, by category, supplier,
+     * product and day - all read from the SalesMargin day totals
+     */
+    private int writeMarginAnalysis(LocalDate from, LocalDate to, ReportSink sink) throws IOException {
+        ReportCache cache = ReportCache.getInstance();
+        List<Object> range = List.of(from, to);
+        List<MarginTotal> days = cache.get("margin by day", range, () -> reportsDAO.getMarginByDay(from, to));
+
+        sink.title("MARGIN ANALYSIS - " + from + " to " + to);
+        double revenue = 0;
+        double cost = 0;
+        for (MarginTotal day : days) {
+            revenue += day.getRevenue();
+            cost += day.getCost();
+        }
+        MarginTotal total = new MarginTotal(0, "Total", 0, revenue, cost);
+        sink.summary("Revenue", total.getRevenue());
+        sink.summary("Cost of Goods Sold", total.getCost());
+        sink.summary("Gross Profit", total.getProfit());
+        sink.summary("Gross Margin", percent(total.getMarginPercent()));
+
+        int rows = writeMarginTable(sink, "Category",
+                cache.get("margin by category", range, () -> reportsDAO.getMarginByCategory(from, to)));
+        rows += writeMarginTable(sink, "Supplier",
+                cache.get("margin by supplier", range, () -> reportsDAO.getMarginBySupplier(from, to)));
+        rows += writeMarginTable(sink, "Top " + MARGIN_TOP_PRODUCTS + " Products",
+                cache.get("margin by product", List.of(from, to, MARGIN_TOP_PRODUCTS),
+                        () -> reportsDAO.getMarginByProduct(from, to, MARGIN_TOP_PRODUCTS)));
+        rows += writeMarginTable(sink, "Day", days);
+        return rows;
+    }
+
+    private static int writeMarginTable(ReportSink sink, String heading, List<MarginTotal> totals) throws IOException {
+        sink.columns(heading, "Units", "Revenue", "Cost", "Profit", "Margin");
+        for (MarginTotal total : totals) {
+            sink.row(total.getName(), total.getUnits(), total.getRevenue(), total.getCost(), total.getProfit(),
+                    percent(total.getMarginPercent()));
+        }
+        return totals.size();
+    }
+
+    private static String percent(double value) {
+        return String.format("%.1f%%", value);
+    }
+
+    /**
+     * A running render
+     */
+    public static final class Job {
+
+        private CompletableFuture<Integer> result;
+        private volatile boolean cancelled;
+        private volatile Statement statement;
+
+        // First error of a streamed query, rethrown on the render thread
+        private IOException writeError;
+        private SQLException queryError;
+
+        /**
+         * Completes with the number of rows written, or exceptionally if the render
+         * failed or was cancelled
+         */
+        public CompletableFuture<Integer> getResult() {
+            return result;
+        }
+
+        /**
+         * Stop the render; the query is cancelled on the server and the sink closed
+         */
+        public void cancel() {
+            cancelled = true;
+            Statement running = statement;
+            if (running != null) {
+                try {
+                    running.cancel();
+                } catch (SQLException e) {
+                    System.err.println("Could not cancel report query: " + e.getMessage());
+                }
+            }
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        /**
+         * RowStream writing each row with the given writer until cancelled or a write fails
+         */
+        private <T> BaseDAO.RowStream<T> rows(RowWriter<T> writer) {
+            return new BaseDAO.RowStream<>() {
+                @Override
+                public void started(Statement running) {
+                    statement = running;
+                }
+
+                @Override
+                public boolean accept(T row) {
+                    if (cancelled) {
+                        return false;
+                    }
+                    try {
+                        writer.write(row);
+                        return true;
+                    } catch (IOException e) {
+                        writeError = e;
+                        return false;
+                    }
+                }
+
+                @Override
+                public boolean isCancelled() {
+                    return cancelled;
+                }
+
+                @Override
+                public void failed(SQLException e) {
+                    queryError = e;
+                }
+            };
+        }
+
+        private void checkFailed() throws IOException {
+            statement = null;
+            if (writeError != null) {
+                throw writeError;
+            }
+            if (queryError != null) {
+                throw new IOException("Report query failed", queryError);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface RowWriter<T> {
+        void write(T row) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface RenderTask {
+        int run() throws IOException;
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.dummy_inventory.service;
+
+import com.example.dummy_inventory.db.DatabaseConnection;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Precomputes the standard reports into ReportStore at fixed times of day
+ *
+ * The reports that do not depend on a user-picked range (PRECOMPUTED) are
+ * rendered headlessly on a background thread at each reports.precomputeAt time,
+ * so the Reports screen opens them instantly from the store. Reports with a
+ * custom range (Sales Detail) and the live low-stock list are still rendered on
+ * demand.
+ *
+ * At startup, reports that are missing or older than the last scheduled time
+ * (the application was not running then) are rendered right away.
+ *
+ * Tuning (database.properties): reports.precomputeAt = comma-separated "HH:mm"
+ * times, default 06:00; "off" disables precomputing.
+ */
+public final class ReportScheduler {
+
+    public static final List<String> PRECOMPUTED = List.of(
+            ReportRenderer.TOP_SELLING,
+            ReportRenderer.SALES_BY_CATEGORY,
+            ReportRenderer.INVENTORY_VALUATION,
+            ReportRenderer.MONTHLY_SALES);
+
+    private ScheduledExecutorService scheduler;
+
+    private ReportScheduler() {
+    }
+
+    public static ReportScheduler getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    private static final class Holder {
+        static final ReportScheduler INSTANCE = new ReportScheduler();
+    }
+
+    /**
+     * True if the report is served from the store rather than rendered on request
+     */
+    public static boolean isPrecomputed(String type) {
+        return PRECOMPUTED.contains(type);
+    }
+
+    /**
+     * Schedule the daily runs and catch up on reports missed while the application was closed
+     */
+    public synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+        List<LocalTime> times = parseTimes(DatabaseConnection.getProperty("reports.precomputeAt", "06:00"));
+        if (times.isEmpty()) {
+            return;
+        }
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "report-precompute");
+            t.setDaemon(true);
+            return t;
+        });
+
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime lastSlot = null;
+        for (LocalTime time : times) {
+            LocalDateTime next = now.toLocalDate().atTime(time);
+            if (!next.isAfter(now)) {
+                lastSlot = next;   // times are sorted: the last one passed wins
+                next = next.plusDays(1);
+            }
+            scheduler.scheduleAtFixedRate(() -> precompute(PRECOMPUTED),
+                    Duration.between(now, next).toMillis(), TimeUnit.DAYS.toMillis(1), TimeUnit.MILLISECONDS);
+        }
+        if (lastSlot == null) {
+            // Before today's first run: the last one was yesterday at the latest time
+            lastSlot = now.toLocalDate().minusDays(1).atTime(times.get(times.size() - 1));
+        }
+
+        List<String> stale = new ArrayList<>();
+        ReportStore store = ReportStore.getInstance();
+        for (String type : PRECOMPUTED) {
+            Optional<ReportStore.StoredReport> stored = store.latest(type);
+            if (stored.isEmpty() || stored.get().getGeneratedAt().isBefore(lastSlot)) {
+                stale.add(type);
+            }
+        }
+        if (!stale.isEmpty()) {
+            scheduler.execute(() -> precompute(stale));
+        }
+        System.out.println("✓ Reports precomputed daily at " + times);
+    }
+
+    /**
+     * Stop the schedule - call on application exit
+     */
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    /**
+     * Render the given reports into the store, one after another
+     * A report that fails keeps its previous stored version.
+     */
+    public void precompute(List<String> types) {
+        ReportRenderer renderer = ReportRenderer.getInstance();
+        ReportStore store = ReportStore.getInstance();
+        LocalDate today = LocalDate.now();
+        long started = System.currentTimeMillis();
+        int stored = 0;
+
+        for (String type : types) {
+            try {
+                store.save(type, sink -> renderer.renderNow(type, today, today, sink));
+                stored++;
+            } catch (Exception e) {
+                System.err.println("Precomputing report '" + type + "' failed:");
+                e.printStackTrace();
+            }
+        }
+        System.out.println("Reports precomputed: " + stored + " of " + types.size() + " in " +
+                (System.currentTimeMillis() - started) + " ms");
+    }
+
+    private static List<LocalTime> parseTimes(String value) {
+        TreeSet<LocalTime> times = new TreeSet<>();
+        if (value.equalsIgnoreCase("off")) {
+            return new ArrayList<>(times);
+        }
+        for (String part : value.split(",")) {
+            if (part.isBlank()) {
+                continue;
+            }
+            try {
+                times.add(LocalTime.parse(part.trim()));
+            } catch (DateTimeParseException e) {
+                System.err.println("Invalid reports.precomputeAt time: " + part.trim() + " (ignored)");
+            }
+        }
+        return new ArrayList<>(times);
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.dummy_inventory.service;
+
+import com.example.dummy_inventory.db.DatabaseConnection;
+import com.example.dummy_inventory.util.ReportSink;
+import com.example.dummy_inventory.util.TextReportSink;
+
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Local directory of precomputed reports, one text file per report
+ *
+ * A report is rendered into a temporary file next to its target and moved into
+ * place when complete, so readers always see either the previous or the new
+ * version, never a half-written one. The file's modification time is the time
+ * the report was generated.
+ *
+ * Location (database.properties): reports.storeDir, default ~/.inventory/reports.
+ */
+public final class ReportStore {
+
+    private final Path directory = Paths.get(DatabaseConnection.getProperty("reports.storeDir",
+            Paths.get(System.getProperty("user.home"), ".inventory", "reports").toString()));
+
+    private ReportStore() {
+    }
+
+    public static ReportStore getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    private static final class Holder {
+        static final ReportStore INSTANCE = new ReportStore();
+    }
+
+    /**
+     * A stored report file and when it was generated
+     */
+    public static final class StoredReport {
+        private final Path file;
+        private final LocalDateTime generatedAt;
+
+        StoredReport(Path file, LocalDateTime generatedAt) {
+            this.file = file;
+            this.generatedAt = generatedAt;
+        }
+
+        public Path getFile() {
+            return file;
+        }
+
+        public LocalDateTime getGeneratedAt() {
+            return generatedAt;
+        }
+    }
+
+    /**
+     * Writes one report into a sink
+     */
+    @FunctionalInterface
+    public interface ReportWriter {
+        void write(ReportSink sink) throws IOException;
+    }
+
+    /**
+     * Latest stored version of a report
+     *
+     * @return The report, or empty if it was never stored or cannot be read
+     */
+    public Optional<StoredReport> latest(String type) {
+        Path file = fileFor(type);
+        try {
+            if (!Files.isRegularFile(file)) {
+                return Optional.empty();
+            }
+            LocalDateTime generatedAt = LocalDateTime.ofInstant(
+                    Files.getLastModifiedTime(file).toInstant(), ZoneId.systemDefault());
+            return Optional.of(new StoredReport(file, generatedAt));
+        } catch (IOException e) {
+            System.err.println("Cannot read stored report " + file + ": " + e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Render a report into the store, replacing the previous version only if the render succeeds
+     */
+    public void save(String type, ReportWriter writer) throws IOException {
+        Files.createDirectories(directory);
+        Path target = fileFor(type);
+        Path temp = Files.createTempFile(directory, slug(type), ".tmp");
+        try {
+            try (TextReportSink sink = new TextReportSink(temp.toFile())) {
+                writer.write(sink);
+            }
+            try {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private Path fileFor(String type) {
+        return directory.resolve(slug(type) + ".txt");
+    }
+
+    private static String slug(String type) {
+        return type.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]+", "_");
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.dummy_inventory.util;
+
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.beans.value.ObservableValue;
+import javafx.scene.control.TableCell;
+import javafx.scene.control.TableColumn;
+import javafx.util.Callback;
+
+import java.time.temporal.TemporalAccessor;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.function.Function;
+
+/**
+ * Shared formatting for TableView cells
+ *
+ * Scrolling a large table calls the cell value factory and updateItem() for
+ * every cell that comes into view, so per-call allocations add up quickly:
+ * - formatters are compiled once here instead of DateTimeFormatter.ofPattern() per cell
+ * - currency is formatted with integer arithmetic into a per-thread StringBuilder
+ *   instead of String.format() (no Formatter, no regex, no varargs array)
+ * - value() reuses one property wrapper per row item instead of allocating a new
+ *   Simple*Property every time a cell asks for its value
+ *
+ * All cell factories must be used on the FX thread.
+ *
+ * USAGE:
+ *   colPrice.setCellValueFactory(CellFormat.value(Product::getPrice));
+ *   colPrice.setCellFactory(CellFormat.currencyCell());
+ *   colDate.setCellValueFactory(CellFormat.value(Sale::getSaleDate));
+ *   colDate.setCellFactory(CellFormat.dateTimeCell());
+ */
+public final class CellFormat {
+
+    public static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+    public static final DateTimeFormatter DATE = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(32));
+
+    private CellFormat() {
+    }
+
+    /**
+     * Format an amount as the CURRENCY_SYMBOL setting followed by two decimals,
+     * e.g. "$1234.56" or "€1234.56" - use this for every amount shown to the user
+     */
+    public static String currency(double amount) {
+        StringBuilder sb = BUFFER.get();
+        sb.setLength(0);
+        appendCurrency(sb, amount);
+        return sb.toString();
+    }
+
+    /**
+     * Append an amount as currency() formats it, without intermediate objects
+     */
+    public static void appendCurrency(StringBuilder sb, double amount) {
+        sb.append(SettingsCache.get().getCurrencySymbol());
+        if (Double.isNaN(amount) || Double.isInfinite(amount)) {
+            sb.append(amount);
+            return;
+        }
+
+        long cents = Math.round(amount * 100);
+        if (cents < 0) {
+            sb.append('-');
+            cents = -cents;
+        }
+        long fraction = cents % 100;
+        sb.append(cents / 100).append('.');
+        if (fraction < 10) {
+            sb.append('0');
+        }
+        sb.append(fraction);
+    }
+
+    /**
+     * Format a date/time with a precompiled formatter into the shared buffer
+     */
+    public static String format(DateTimeFormatter formatter, TemporalAccessor value) {
+        StringBuilder sb = BUFFER.get();
+        sb.setLength(0);
+        formatter.formatTo(value, sb);
+        return sb.toString();
+    }
+
+    /**
+     * Cell value factory that keeps one read-only wrapper per row item
+     * The wrapper is refreshed from the getter on every request, so rows that were
+     * edited in place still show current values.
+     *
+     * @param getter Extracts the column value from the row item
+     */
+    public static <S, V> Callback<TableColumn.CellDataFeatures<S, V>, ObservableValue<V>> value(Function<? super S, ? extends V> getter) {
+        // Weak keys: wrappers disappear together with the rows they belong to
+        Map<S, ReadOnlyObjectWrapper<V>> wrappers = new WeakHashMap<>();
+        return cellData -> {
+            S row = cellData.getValue();
+            ReadOnlyObjectWrapper<V> wrapper = wrappers.computeIfAbsent(row, key -> new ReadOnlyObjectWrapper<>());
+            wrapper.set(getter.apply(row));
+            return wrapper.getReadOnlyProperty();
+        };
+    }
+
+    /**
+     * Cell factory rendering a Double column as currency
+     */
+    public static <S> Callback<TableColumn<S, Double>, TableCell<S, Double>> currencyCell() {
+        return column -> new TableCell<>() {
+            // Last rendered value - a cell re-shown with the same amount keeps its text
+            private double lastAmount = Double.NaN;
+
+            @Override
+            protected void updateItem(Double amount, boolean empty) {
+                super.updateItem(amount, empty);
+                if (empty || amount == null) {
+                    lastAmount = Double.NaN;
+                    setText(null);
+                } else if (amount != lastAmount || getText() == null) {
+                    lastAmount = amount;
+                    setText(currency(amount));
+                }
+            }
+        };
+    }
+
+    /**
+     * Cell factory rendering a date/time column with the shared DATE_TIME pattern
+     */
+    public static <S, T extends TemporalAccessor> Callback<TableColumn<S, T>, TableCell<S, T>> dateTimeCell() {
+        return dateTimeCell(DATE_TIME);
+    }
+
+    /**
+     * Cell factory rendering a date/time column with a precompiled formatter
+     */
+    public static <S, T extends TemporalAccessor> Callback<TableColumn<S, T>, TableCell<S, T>> dateTimeCell(DateTimeFormatter formatter) {
+        return column -> new TableCell<>() {
+            private T lastValue;
+
+            @Override
+            protected void updateItem(T value, boolean empty) {
+                super.updateItem(value, empty);
+                if (empty || value == null) {
+                    lastValue = null;
+                    setText(null);
+                } else if (!value.equals(lastValue) || getText() == null) {
+                    lastValue = value;
+                    setText(format(formatter, value));
+                }
+            }
+        };
+    }
+}
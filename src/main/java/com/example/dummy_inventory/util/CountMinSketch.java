@@ -0,0 +1,78 @@
+package com.example.dummy_inventory.util;
+
+import java.util.Arrays;
+
+/**
+ * Count-Min sketch: approximate per-key totals in fixed memory
+ *
+ * depth rows of width counters; a key adds to one counter per row and its
+ * estimate is the smallest of those counters. With only positive updates the
+ * estimate never undercounts and overcounts by at most e/width of the sketch
+ * total with probability 1 - e^-depth.
+ *
+ * Negative updates (reversals) and subtract() are allowed as long as they undo
+ * earlier additions, which is how sliding windows drop an expired bucket.
+ *
+ * Not thread-safe; callers synchronize.
+ */
+public final class CountMinSketch {
+
+    private final int width;
+    private final long[][] counts;
+
+    public CountMinSketch(int width, int depth) {
+        this.width = width;
+        this.counts = new long[depth][width];
+    }
+
+    public void add(long key, long delta) {
+        for (int row = 0; row < counts.length; row++) {
+            counts[row][index(key, row)] += delta;
+        }
+    }
+
+    public long estimate(long key) {
+        long min = Long.MAX_VALUE;
+        for (int row = 0; row < counts.length; row++) {
+            min = Math.min(min, counts[row][index(key, row)]);
+        }
+        return Math.max(0, min);
+    }
+
+    /**
+     * Add another sketch of the same shape (counter-wise)
+     */
+    public void add(CountMinSketch other) {
+        combine(other, 1);
+    }
+
+    /**
+     * Remove another sketch of the same shape that was previously added
+     */
+    public void subtract(CountMinSketch other) {
+        combine(other, -1);
+    }
+
+    public void clear() {
+        for (long[] row : counts) {
+            Arrays.fill(row, 0);
+        }
+    }
+
+    private void combine(CountMinSketch other, int sign) {
+        if (other.width != width || other.counts.length != counts.length) {
+            throw new IllegalArgumentException("Sketch shapes differ");
+        }
+        for (int row = 0; row < counts.length; row++) {
+            long[] target = counts[row];
+            long[] source = other.counts[row];
+            for (int i = 0; i < width; i++) {
+                target[i] += sign * source[i];
+            }
+        }
+    }
+
+    private int index(long key, int row) {
+        return (int) Long.remainderUnsigned(Hashing.mix(key, row), width);
+    }
+}
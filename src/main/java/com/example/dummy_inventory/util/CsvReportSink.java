@@ -0,0 +1,68 @@
+package com.example.dummy_inventory.util;
+
+import com.opencsv.CSVWriter;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * CSV report file
+ *
+ * Numbers are written unformatted (no currency symbol) so spreadsheets read them
+ * as numbers; the title and summaries become single-cell / label,value rows.
+ */
+public class CsvReportSink implements ReportSink {
+
+    private final CSVWriter writer;
+
+    public CsvReportSink(File file) throws IOException {
+        writer = new CSVWriter(Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void title(String title) {
+        writer.writeNext(new String[] {title});
+    }
+
+    @Override
+    public void columns(String... names) {
+        writer.writeNext(new String[0]);
+        writer.writeNext(names);
+    }
+
+    @Override
+    public void row(Object... values) {
+        String[] cells = new String[values.length];
+        for (int i = 0; i < values.length; i++) {
+            cells[i] = format(values[i]);
+        }
+        writer.writeNext(cells);
+    }
+
+    @Override
+    public void summary(String label, Object value) {
+        writer.writeNext(new String[] {label, format(value)});
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+
+    private static String format(Object value) {
+        if (value == null) {
+            return "";
+        }
+        if (value instanceof Double) {
+            return String.format("%.2f", (Double) value);
+        }
+        if (value instanceof LocalDateTime || value instanceof LocalDate) {
+            return LineReportSink.format(value);
+        }
+        return value.toString();
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.dummy_inventory.util;
+
+import javafx.animation.AnimationTimer;
+import javafx.scene.Node;
+
+import java.util.Arrays;
+
+/**
+ * Development aid that measures JavaFX frame times while a view is on screen
+ *
+ * Records the interval between pulses and prints a summary (average, p95, p99,
+ * worst) every few seconds, e.g. while scrolling a large table. Disabled unless
+ * the JVM is started with -Dui.frameStats=true, so it costs nothing in normal use.
+ *
+ * Example output:
+ *   [FrameTime] Sales: 300 frames, avg 16.7 ms, p95 17.9 ms, p99 24.3 ms, max 31.0 ms
+ *
+ * USAGE:
+ *   FrameTimeMonitor.attachIfEnabled(salesTable, "Sales");
+ */
+public class FrameTimeMonitor extends AnimationTimer {
+
+    private static final boolean ENABLED = Boolean.getBoolean("ui.frameStats");
+    private static final long REPORT_INTERVAL_NANOS = 5_000_000_000L;
+    private static final int MAX_SAMPLES = 4096;
+
+    private final String label;
+    private final long[] samples = new long[MAX_SAMPLES];
+    private int count;
+    private long lastFrame;
+    private long windowStart;
+
+    private FrameTimeMonitor(String label) {
+        this.label = label;
+    }
+
+    /**
+     * Measure frames while the node is part of a scene (only if -Dui.frameStats=true)
+     */
+    public static void attachIfEnabled(Node node, String label) {
+        if (!ENABLED) {
+            return;
+        }
+        FrameTimeMonitor monitor = new FrameTimeMonitor(label);
+        node.sceneProperty().addListener((observable, oldScene, newScene) -> {
+            if (newScene != null) {
+                monitor.start();
+            } else {
+                monitor.stop();
+            }
+        });
+        if (node.getScene() != null) {
+            monitor.start();
+        }
+    }
+
+    @Override
+    public void start() {
+        lastFrame = 0;
+        count = 0;
+        super.start();
+    }
+
+    @Override
+    public void handle(long now) {
+        if (lastFrame == 0) {
+            lastFrame = now;
+            windowStart = now;
+            return;
+        }
+
+        if (count < MAX_SAMPLES) {
+            samples[count++] = now - lastFrame;
+        }
+        lastFrame = now;
+
+        if (now - windowStart >= REPORT_INTERVAL_NANOS) {
+            report();
+            count = 0;
+            windowStart = now;
+        }
+    }
+
+    private void report() {
+        if (count == 0) {
+            return;
+        }
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+
+        long total = 0;
+        for (long sample : sorted) {
+            total += sample;
+        }
+
+        System.out.println(String.format("[FrameTime] %s: %d frames, avg %.1f ms, p95 %.1f ms, p99 %.1f ms, max %.1f ms",
+                label, count,
+                millis(total / count),
+                millis(percentile(sorted, 0.95)),
+                millis(percentile(sorted, 0.99)),
+                millis(sorted[count - 1])));
+    }
+
+    private static long percentile(long[] sorted, double fraction) {
+        int index = (int) Math.ceil(fraction * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
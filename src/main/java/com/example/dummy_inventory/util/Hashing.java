@@ -0,0 +1,24 @@
+package com.example.dummy_inventory.util;
+
+/**
+ * 64-bit hashing of numeric keys for the sketches
+ */
+public final class Hashing {
+
+    private Hashing() {
+    }
+
+    /**
+     * Well-mixed hash of a key; different seeds give independent-looking hashes
+     * (MurmurHash3 fmix64 finalizer)
+     */
+    public static long mix(long key, int seed) {
+        long h = key ^ (0x9E3779B97F4A7C15L * (seed + 1));
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,244 @@
+package com.example.dummy_inventory.util;
+
+import javafx.application.Platform;
+import javafx.collections.ObservableList;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+
+/**
+ * Applies inserts, updates and removals to an existing ObservableList by primary key
+ *
+ * Instead of building a new list and calling TableView.setItems() after every
+ * edit (full re-layout, lost scroll position and selection), controllers keep
+ * one ObservableList for the lifetime of the view and push changes through
+ * this class:
+ * - upsert(item) / remove(key) can be called from any thread; changes are
+ *   queued and applied together on the next FX pulse, last change per key wins
+ * - replaceAll(items) diffs a freshly loaded result against the current rows,
+ *   so only rows that actually changed are touched
+ *
+ * Rows whose content is unchanged (per the sameContent predicate) are left alone;
+ * an item that was mutated in place and upserted again is always re-set so its
+ * row repaints.
+ *
+ * IMPORTANT: after construction the target list must only be modified through
+ * this updater, otherwise the key index gets out of sync.
+ *
+ * USAGE:
+ *   ObservableList<Product> rows = FXCollections.observableArrayList();
+ *   productTable.setItems(rows);
+ *   KeyedListUpdater<Product, Integer> updater =
+ *       new KeyedListUpdater<>(rows, Product::getProductId, (a, b) -> a.getQuantityInStock() == b.getQuantityInStock());
+ *   updater.replaceAll(productDAO.getAllProducts());
+ *   updater.upsert(changedProduct);
+ */
+public class KeyedListUpdater<T, K> {
+
+    private final ObservableList<T> target;
+    private final Function<? super T, ? extends K> keyFunction;
+    private final BiPredicate<? super T, ? super T> sameContent;
+
+    // Current rows by key - mirrors the target list
+    private final Map<K, T> byKey = new HashMap<>();
+
+    // Pending single-row changes, drained on the FX thread
+    private final Queue<Change<T, K>> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean(false);
+
+    private boolean insertAtTop = false;
+
+    /**
+     * @param target The list backing the TableView
+     * @param keyFunction Extracts the primary key of a row
+     * @param sameContent Returns true when two versions of a row render identically
+     */
+    public KeyedListUpdater(ObservableList<T> target,
+                            Function<? super T, ? extends K> keyFunction,
+                            BiPredicate<? super T, ? super T> sameContent) {
+        this.target = target;
+        this.keyFunction = keyFunction;
+        this.sameContent = sameContent;
+        for (T item : target) {
+            byKey.put(keyFunction.apply(item), item);
+        }
+    }
+
+    /**
+     * Insert new rows at the top instead of the bottom (e.g. newest sales first)
+     */
+    public void setInsertAtTop(boolean insertAtTop) {
+        this.insertAtTop = insertAtTop;
+    }
+
+    /**
+     * Queue an insert or update for the row with the item's key
+     */
+    public void upsert(T item) {
+        pending.add(new Change<>(keyFunction.apply(item), item));
+        scheduleFlush();
+    }
+
+    /**
+     * Queue removal of the row with the given key
+     */
+    public void remove(K key) {
+        pending.add(new Change<>(key, null));
+        scheduleFlush();
+    }
+
+    /**
+     * Look up the row currently shown for a key
+     * Must be called on the FX thread.
+     *
+     * @return The current row, or null if it is not in the list
+     */
+    public T find(K key) {
+        return byKey.get(key);
+    }
+
+    /**
+     * Replace the list contents with a freshly loaded result set, touching only
+     * the rows that were added, removed or changed
+     * Existing rows keep their position; new rows are added at the top or bottom.
+     *
+     * @param fresh The complete new contents of the list
+     */
+    public void replaceAll(Collection<? extends T> fresh) {
+        List<T> snapshot = new ArrayList<>(fresh);
+        runOnFxThread(() -> {
+            flush();
+
+            if (byKey.isEmpty()) {
+                for (T item : snapshot) {
+                    byKey.put(keyFunction.apply(item), item);
+                }
+                target.setAll(snapshot);
+                return;
+            }
+
+            Map<K, T> upserts = new LinkedHashMap<>();
+            for (T item : snapshot) {
+                upserts.put(keyFunction.apply(item), item);
+            }
+            Set<K> removals = new HashSet<>(byKey.keySet());
+            removals.removeAll(upserts.keySet());
+
+            apply(upserts, removals);
+        });
+    }
+
+    /**
+     * Apply all queued changes now
+     * Must be called on the FX thread; normally invoked automatically once per pulse.
+     */
+    public void flush() {
+        flushScheduled.set(false);
+
+        Map<K, T> upserts = new LinkedHashMap<>();
+        Set<K> removals = new HashSet<>();
+        Change<T, K> change;
+        while ((change = pending.poll()) != null) {
+            if (change.item == null) {
+                upserts.remove(change.key);
+                removals.add(change.key);
+            } else {
+                removals.remove(change.key);
+                upserts.put(change.key, change.item);
+            }
+        }
+
+        if (!upserts.isEmpty() || !removals.isEmpty()) {
+            apply(upserts, removals);
+        }
+    }
+
+    private void apply(Map<K, T> upserts, Set<K> removals) {
+        // Removals - one bulk change event
+        if (!removals.isEmpty()) {
+            Set<T> doomed = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (K key : removals) {
+                T old = byKey.remove(key);
+                if (old != null) {
+                    doomed.add(old);
+                }
+            }
+            if (!doomed.isEmpty()) {
+                target.removeAll(doomed);
+            }
+        }
+
+        if (upserts.isEmpty()) {
+            return;
+        }
+
+        // Updates in place - positions resolved with a single scan, only when needed
+        Map<K, Integer> positions = null;
+        List<T> additions = new ArrayList<>();
+        for (Map.Entry<K, T> entry : upserts.entrySet()) {
+            K key = entry.getKey();
+            T item = entry.getValue();
+            T old = byKey.get(key);
+
+            if (old == null) {
+                additions.add(item);
+                byKey.put(key, item);
+                continue;
+            }
+            if (old != item && sameContent.test(old, item)) {
+                continue;
+            }
+
+            if (positions == null) {
+                positions = new HashMap<>();
+                for (int i = 0; i < target.size(); i++) {
+                    positions.put(keyFunction.apply(target.get(i)), i);
+                }
+            }
+            Integer index = positions.get(key);
+            if (index != null) {
+                target.set(index, item);
+            }
+            byKey.put(key, item);
+        }
+
+        // Inserts - one bulk change event
+        if (!additions.isEmpty()) {
+            if (insertAtTop) {
+                target.addAll(0, additions);
+            } else {
+                target.addAll(additions);
+            }
+        }
+    }
+
+    private void scheduleFlush() {
+        if (flushScheduled.compareAndSet(false, true)) {
+            Platform.runLater(this::flush);
+        }
+    }
+
+    private static void runOnFxThread(Runnable action) {
+        if (Platform.isFxApplicationThread()) {
+            action.run();
+        } else {
+            Platform.runLater(action);
+        }
+    }
+
+    /**
+     * A queued single-row change; a null item means removal
+     */
+    private static final class Change<T, K> {
+        final K key;
+        final T item;
+
+        Change(K key, T item) {
+            this.key = key;
+            this.item = item;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.dummy_inventory.util;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Renders a report as fixed-width text lines (plain-text file and preview)
+ *
+ * Column widths cannot be measured up front without holding every row, so they
+ * are fixed: the first column (names) is NAME_WIDTH wide, the others
+ * VALUE_WIDTH or the header length; longer values are cut off with "…".
+ * Numbers are right-aligned.
+ */
+public abstract class LineReportSink implements ReportSink {
+
+    private static final int NAME_WIDTH = 32;
+    private static final int VALUE_WIDTH = 14;
+    private static final String GAP = "  ";
+
+    private int[] widths = new int[0];
+    // Set after the title or a table: the next summary starts a new paragraph
+    private boolean needsBreak;
+
+    /**
+     * Write one line of output as is (without line separator)
+     */
+    public abstract void line(String line) throws IOException;
+
+    @Override
+    public void title(String title) throws IOException {
+        line("=== " + title + " ===");
+        needsBreak = true;
+    }
+
+    @Override
+    public void columns(String... names) throws IOException {
+        widths = new int[names.length];
+        for (int i = 0; i < names.length; i++) {
+            widths[i] = Math.max(names[i].length(), i == 0 ? NAME_WIDTH : VALUE_WIDTH);
+        }
+        line("");
+        needsBreak = true;
+
+        StringBuilder header = new StringBuilder();
+        StringBuilder rule = new StringBuilder();
+        for (int i = 0; i < names.length; i++) {
+            if (i > 0) {
+                header.append(GAP);
+                rule.append(GAP);
+            }
+            pad(header, names[i], widths[i], false);
+            rule.append("-".repeat(widths[i]));
+        }
+        line(header.toString());
+        line(rule.toString());
+    }
+
+    @Override
+    public void row(Object... values) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                sb.append(GAP);
+            }
+            int width = i < widths.length ? widths[i] : VALUE_WIDTH;
+            pad(sb, format(values[i]), width, values[i] instanceof Number);
+        }
+        line(sb.toString());
+    }
+
+    @Override
+    public void summary(String label, Object value) throws IOException {
+        if (needsBreak) {
+            line("");
+            needsBreak = false;
+        }
+        line(label + ": " + format(value));
+    }
+
+    /**
+     * Text of one value; Doubles are amounts and use the currency format
+     */
+    static String format(Object value) {
+        if (value == null) {
+            return "";
+        }
+        if (value instanceof Double) {
+            return CellFormat.currency((Double) value);
+        }
+        if (value instanceof LocalDateTime) {
+            return CellFormat.format(CellFormat.DATE_TIME, (LocalDateTime) value);
+        }
+        if (value instanceof LocalDate) {
+            return CellFormat.format(CellFormat.DATE, (LocalDate) value);
+        }
+        return value.toString();
+    }
+
+    private static void pad(StringBuilder sb, String text, int width, boolean right) {
+        if (text.length() > width) {
+            sb.append(text, 0, width - 1).append('…');
+            return;
+        }
+        if (right) {
+            sb.append(" ".repeat(width - text.length())).append(text);
+        } else {
+            sb.append(text).append(" ".repeat(width - text.length()));
+        }
+    }
+}
@@ -0,0 +1,283 @@
+package com.example.dummy_inventory.util;
+
+import com.example.dummy_inventory.dao.BaseDAO;
+import javafx.animation.PauseTransition;
+import javafx.application.Platform;
+import javafx.scene.control.TextField;
+import javafx.util.Duration;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * As-you-type search for a list screen
+ *
+ * Typing restarts a short debounce timer; when it fires the term is searched on a
+ * background thread and rows are streamed into the table through a
+ * KeyedListUpdater in small chunks, so the first matches appear before the
+ * query has finished. A newer term cancels the query in flight
+ * (Statement.cancel) and any late chunks from it are dropped.
+ *
+ * Complete result sets are kept in a small LRU cache, so going back to a
+ * recent term (e.g. deleting a character) redraws without touching MySQL.
+ * Entries expire after CACHE_TTL_MILLIS; call invalidate() after local edits.
+ * A search whose query fails is never cached or reported as found: the rows
+ * already streamed stay, and onFailed is called instead of onFinished.
+ *
+ * USAGE:
+ *   LiveSearch<Product, Integer> search = new LiveSearch<>(searchField, productUpdater,
+ *       productDAO::streamSearchProducts, this::loadProducts,
+ *       (term, count) -> setStatus("Found " + count + " product(s)", true),
+ *       term -> setStatus("Search failed", false));
+ */
+public class LiveSearch<T, K> {
+
+    private static final Duration DEBOUNCE = Duration.millis(250);
+    private static final int MAX_ROWS = 500;
+    private static final int CHUNK_SIZE = 50;
+    private static final int CACHE_SIZE = 32;
+    private static final long CACHE_TTL_MILLIS = 30_000;
+
+    // Shared by all screens; daemon threads so they never block shutdown
+    private static final ExecutorService EXECUTOR = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "live-search");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * A DAO streaming search, e.g. ProductDAO::streamSearchProducts
+     */
+    @FunctionalInterface
+    public interface Source<T> {
+        void search(String term, int maxRows, BaseDAO.RowStream<T> stream);
+    }
+
+    private final TextField field;
+    private final KeyedListUpdater<T, K> updater;
+    private final Source<T> source;
+    private final Runnable onCleared;
+    private final BiConsumer<String, Integer> onFinished;
+    private final Consumer<String> onFailed;
+
+    private final PauseTransition debounce = new PauseTransition(DEBOUNCE);
+    private final AtomicInteger generation = new AtomicInteger();
+    private Run current;
+
+    // Access-ordered LRU of complete result sets; only touched on the FX thread
+    private final Map<String, CachedResult<T>> cache = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachedResult<T>> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
+    /**
+     * @param field Search text field to watch
+     * @param updater Updater of the table's item list
+     * @param source DAO streaming search
+     * @param onCleared Called when the field is emptied (typically reloads all rows)
+     * @param onFinished Called with the term and row count once a search completes
+     * @param onFailed Called with the term if the search query failed
+     */
+    public LiveSearch(TextField field, KeyedListUpdater<T, K> updater, Source<T> source,
+                      Runnable onCleared, BiConsumer<String, Integer> onFinished, Consumer<String> onFailed) {
+        this.field = field;
+        this.updater = updater;
+        this.source = source;
+        this.onCleared = onCleared;
+        this.onFinished = onFinished;
+        this.onFailed = onFailed;
+
+        debounce.setOnFinished(event -> searchNow());
+        field.textProperty().addListener((observable, oldValue, newValue) -> debounce.playFromStart());
+    }
+
+    /**
+     * Search the current field text immediately, skipping the debounce
+     */
+    public void searchNow() {
+        debounce.stop();
+        cancel();
+
+        String term = field.getText() == null ? "" : field.getText().trim();
+        if (term.isEmpty()) {
+            onCleared.run();
+            return;
+        }
+
+        String key = term.toLowerCase();
+        CachedResult<T> cached = cache.get(key);
+        if (cached != null && System.currentTimeMillis() - cached.createdAt < CACHE_TTL_MILLIS) {
+            updater.replaceAll(cached.rows);
+            onFinished.accept(term, cached.rows.size());
+            return;
+        }
+
+        Run run = new Run(generation.incrementAndGet(), term, key);
+        current = run;
+        EXECUTOR.execute(run::execute);
+    }
+
+    /**
+     * Cancel the search in flight, if any
+     */
+    public void cancel() {
+        generation.incrementAndGet();
+        Run run = current;
+        current = null;
+        if (run != null) {
+            run.cancel();
+        }
+    }
+
+    /**
+     * Drop cached results, e.g. after rows were added, edited or deleted
+     */
+    public void invalidate() {
+        cache.clear();
+    }
+
+    /**
+     * One search execution; streams rows to the FX thread in chunks
+     */
+    private final class Run implements BaseDAO.RowStream<T> {
+        private final int id;
+        private final String term;
+        private final String key;
+        private final List<T> rows = new ArrayList<>();
+        private List<T> chunk = new ArrayList<>();
+        private volatile Statement statement;
+        private volatile boolean cancelled;
+        private boolean failed;
+        private boolean firstChunkSent;
+
+        Run(int id, String term, String key) {
+            this.id = id;
+            this.term = term;
+            this.key = key;
+        }
+
+        void execute() {
+            if (isCancelled()) {
+                return;
+            }
+            source.search(term, MAX_ROWS, this);
+            if (isCancelled()) {
+                return;
+            }
+            if (failed) {
+                Platform.runLater(() -> {
+                    if (isCurrent()) {
+                        current = null;
+                        onFailed.accept(term);
+                    }
+                });
+                return;
+            }
+            List<T> last = chunk;
+            boolean replace = !firstChunkSent;
+            List<T> complete = new ArrayList<>(rows);
+            Platform.runLater(() -> {
+                if (!isCurrent()) {
+                    return;
+                }
+                deliver(last, replace);
+                current = null;
+                cache.put(key, new CachedResult<>(complete));
+                onFinished.accept(term, complete.size());
+            });
+        }
+
+        @Override
+        public void started(Statement statement) {
+            this.statement = statement;
+            if (cancelled) {
+                cancelStatement();
+            }
+        }
+
+        @Override
+        public boolean accept(T row) {
+            if (isCancelled()) {
+                return false;
+            }
+            rows.add(row);
+            chunk.add(row);
+            if (chunk.size() >= CHUNK_SIZE) {
+                List<T> full = chunk;
+                boolean replace = !firstChunkSent;
+                chunk = new ArrayList<>();
+                firstChunkSent = true;
+                Platform.runLater(() -> {
+                    if (isCurrent()) {
+                        deliver(full, replace);
+                    }
+                });
+            }
+            return true;
+        }
+
+        @Override
+        public void failed(SQLException e) {
+            // Called on the search thread before source.search returns
+            failed = true;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled || generation.get() != id;
+        }
+
+        void cancel() {
+            cancelled = true;
+            // Statement.cancel() opens a second connection to KILL QUERY - keep it off the FX thread
+            EXECUTOR.execute(this::cancelStatement);
+        }
+
+        private void cancelStatement() {
+            Statement running = statement;
+            if (running == null) {
+                return;
+            }
+            try {
+                running.cancel();
+            } catch (SQLException e) {
+                // Statement already finished or closed
+            }
+        }
+
+        private boolean isCurrent() {
+            return current == this && generation.get() == id;
+        }
+
+        private void deliver(List<T> batch, boolean replace) {
+            if (replace) {
+                updater.replaceAll(batch);
+            } else {
+                batch.forEach(updater::upsert);
+            }
+        }
+    }
+
+    /**
+     * A complete result set with its load time
+     */
+    private static final class CachedResult<T> {
+        final List<T> rows;
+        final long createdAt = System.currentTimeMillis();
+
+        CachedResult(List<T> rows) {
+            this.rows = rows;
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.dummy_inventory.util;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * PDF report file, same layout as the plain-text file
+ *
+ * The project has no PDF library, so this writes a minimal PDF 1.4 itself:
+ * landscape A4 pages of LINES_PER_PAGE lines in the built-in Courier font
+ * (WinAnsi encoding; characters it lacks print as "?"). Each page is written to
+ * disk as soon as it is full; only the byte offsets of the objects written so
+ * far are kept for the cross-reference table at the end, so the heap does not
+ * grow with the report.
+ */
+public class PdfReportSink extends LineReportSink {
+
+    private static final int PAGE_WIDTH = 842;
+    private static final int PAGE_HEIGHT = 595;
+    private static final int MARGIN = 36;
+    private static final int FONT_SIZE = 8;
+    private static final int LEADING = 10;
+    private static final int LINES_PER_PAGE = (PAGE_HEIGHT - 2 * MARGIN) / LEADING;
+
+    // Fixed object numbers; pages follow from FIRST_PAGE_OBJECT on, two objects each
+    private static final int CATALOG_OBJECT = 1;
+    private static final int PAGES_OBJECT = 2;
+    private static final int FONT_OBJECT = 3;
+    private static final int FIRST_PAGE_OBJECT = 4;
+
+    private static final Charset WIN_ANSI = Charset.forName("windows-1252");
+
+    private final OutputStream out;
+    private long position;
+    // Byte offset of each object, by object number - 1
+    private final List<Long> offsets = new ArrayList<>();
+    private final List<Integer> pageObjects = new ArrayList<>();
+
+    private final ByteArrayOutputStream page = new ByteArrayOutputStream();
+    private int linesOnPage;
+
+    public PdfReportSink(File file) throws IOException {
+        out = new BufferedOutputStream(Files.newOutputStream(file.toPath()));
+        write("%PDF-1.4\n%âãÏÓ\n".getBytes(StandardCharsets.ISO_8859_1));
+        object(CATALOG_OBJECT, "<< /Type /Catalog /Pages " + PAGES_OBJECT + " 0 R >>");
+        object(FONT_OBJECT, "<< /Type /Font /Subtype /Type1 /BaseFont /Courier /Encoding /WinAnsiEncoding >>");
+    }
+
+    @Override
+    public void line(String line) throws IOException {
+        if (linesOnPage == LINES_PER_PAGE) {
+            flushPage();
+        }
+        page.write('(');
+        for (byte b : line.getBytes(WIN_ANSI)) {
+            if (b == '(' || b == ')' || b == '\\') {
+                page.write('\\');
+            }
+            page.write(b);
+        }
+        page.write(") Tj T*\n".getBytes(StandardCharsets.US_ASCII));
+        linesOnPage++;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            if (linesOnPage > 0 || pageObjects.isEmpty()) {
+                flushPage();
+            }
+
+            StringBuilder kids = new StringBuilder();
+            for (int pageObject : pageObjects) {
+                kids.append(pageObject).append(" 0 R ");
+            }
+            object(PAGES_OBJECT, "<< /Type /Pages /Kids [" + kids + "] /Count " + pageObjects.size() + " >>");
+
+            long xref = position;
+            StringBuilder trailer = new StringBuilder();
+            trailer.append("xref\n0 ").append(offsets.size() + 1).append('\n');
+            trailer.append("0000000000 65535 f \n");
+            for (Long offset : offsets) {
+                trailer.append(String.format("%010d 00000 n \n", offset));
+            }
+            trailer.append("trailer\n<< /Size ").append(offsets.size() + 1)
+                    .append(" /Root ").append(CATALOG_OBJECT).append(" 0 R >>\n")
+                    .append("startxref\n").append(xref).append("\n%%EOF\n");
+            write(trailer.toString().getBytes(StandardCharsets.US_ASCII));
+        } finally {
+            out.close();
+        }
+    }
+
+    /**
+     * Write the buffered lines as one page (content stream + page object)
+     */
+    private void flushPage() throws IOException {
+        int contentObject = nextPageObject();
+        int pageObject = contentObject + 1;
+
+        String start = "BT /F1 " + FONT_SIZE + " Tf " + LEADING + " TL " +
+                MARGIN + " " + (PAGE_HEIGHT - MARGIN - FONT_SIZE) + " Td\n";
+        byte[] head = start.getBytes(StandardCharsets.US_ASCII);
+        byte[] tail = "ET\n".getBytes(StandardCharsets.US_ASCII);
+        int length = head.length + page.size() + tail.length;
+
+        begin(contentObject);
+        write(("<< /Length " + length + " >>\nstream\n").getBytes(StandardCharsets.US_ASCII));
+        write(head);
+        write(page.toByteArray());
+        write(tail);
+        write("\nendstream\nendobj\n".getBytes(StandardCharsets.US_ASCII));
+
+        object(pageObject, "<< /Type /Page /Parent " + PAGES_OBJECT + " 0 R /MediaBox [0 0 " + PAGE_WIDTH + " " +
+                PAGE_HEIGHT + "] /Resources << /Font << /F1 " + FONT_OBJECT + " 0 R >> >> /Contents " +
+                contentObject + " 0 R >>");
+        pageObjects.add(pageObject);
+
+        page.reset();
+        linesOnPage = 0;
+    }
+
+    private int nextPageObject() {
+        return FIRST_PAGE_OBJECT + 2 * pageObjects.size();
+    }
+
+    private void object(int number, String body) throws IOException {
+        begin(number);
+        write((body + "\nendobj\n").getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private void begin(int number) throws IOException {
+        while (offsets.size() < number) {
+            offsets.add(null);
+        }
+        offsets.set(number - 1, position);
+        write((number + " 0 obj\n").getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private void write(byte[] bytes) throws IOException {
+        out.write(bytes);
+        position += bytes.length;
+    }
+}
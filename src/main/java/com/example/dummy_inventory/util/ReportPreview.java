@@ -0,0 +1,110 @@
+package com.example.dummy_inventory.util;
+
+import javafx.application.Platform;
+import javafx.scene.control.ListView;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read-only report preview backed by a ListView (one item per line)
+ *
+ * A ListView only creates cells for the lines on screen, so a report with
+ * tens of thousands of lines scrolls as fast as a short one - unlike a
+ * TextArea, which lays out its whole text on every change.
+ *
+ * Reports are written from a background thread through the sink returned by
+ * open(). Lines are buffered and handed to the FX thread in batches: at most one
+ * Platform.runLater is outstanding per report, so a fast query never floods the
+ * event queue. Only the first maxLines lines are kept; the rest are counted and
+ * belong in an exported file.
+ *
+ * USAGE:
+ *   ReportPreview preview = new ReportPreview(reportListView, 10_000);
+ *   ReportSink sink = preview.open();        // FX thread
+ *   ... sink.row(...) from a worker ...
+ *   sink.close();                            // final batch + truncation note
+ */
+public class ReportPreview {
+
+    private final ListView<String> view;
+    private final int maxLines;
+
+    // Report currently shown; batches from older reports are dropped (FX thread only)
+    private Session current;
+
+    public ReportPreview(ListView<String> view, int maxLines) {
+        this.view = view;
+        this.maxLines = Math.max(1, maxLines);
+    }
+
+    /**
+     * Clear the pane and start a new report; the previous report's sink goes quiet
+     * Must be called on the FX thread.
+     */
+    public LineReportSink open() {
+        current = new Session();
+        view.getItems().clear();
+        return current;
+    }
+
+    /**
+     * Replace the pane with a short, already complete text (FX thread)
+     */
+    public void show(String text) {
+        current = null;
+        view.getItems().setAll(text.split("\n", -1));
+    }
+
+    private final class Session extends LineReportSink {
+
+        // Lines not yet on screen; guarded by this
+        private List<String> pending = new ArrayList<>();
+        private boolean scheduled;
+
+        // Written by the report thread only
+        private int lines;
+        private int hidden;
+
+        @Override
+        public void line(String line) {
+            if (++lines > maxLines) {
+                hidden++;
+                return;
+            }
+            enqueue(line);
+        }
+
+        @Override
+        public void close() {
+            if (hidden > 0) {
+                enqueue("");
+                enqueue("… " + hidden + " more lines not shown - export the report to see all of it");
+            }
+        }
+
+        private void enqueue(String line) {
+            boolean schedule;
+            synchronized (this) {
+                pending.add(line);
+                schedule = !scheduled;
+                scheduled = true;
+            }
+            if (schedule) {
+                Platform.runLater(this::flush);
+            }
+        }
+
+        private void flush() {
+            List<String> batch;
+            synchronized (this) {
+                batch = pending;
+                pending = new ArrayList<>();
+                scheduled = false;
+            }
+            if (this == current) {
+                view.getItems().addAll(batch);
+            }
+        }
+    }
+}
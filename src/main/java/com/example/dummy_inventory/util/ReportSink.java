@@ -0,0 +1,117 @@
+package com.example.dummy_inventory.util;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Destination of a rendered report, written one row at a time
+ *
+ * Reports are pushed through a sink as they are read from the database, so
+ * nothing holds the whole report: the file sinks write each row straight to
+ * disk and the preview keeps a bounded number of lines. A report is a title,
+ * then any number of sections (columns + rows), then summary lines.
+ *
+ * Values may be String, Number, LocalDate or LocalDateTime; Doubles are
+ * amounts of money. Text formats render them, spreadsheet formats keep them
+ * as typed cells.
+ *
+ * USAGE:
+ *   try (ReportSink sink = ReportSink.tee(preview.open(), ReportSink.forFile(file))) {
+ *       sink.title("LOW STOCK ALERT");
+ *       sink.columns("Product", "Stock", "Reorder Level");
+ *       sink.row(item.getProductName(), item.getQuantityInStock(), item.getReorderLevel());
+ *   }
+ */
+public interface ReportSink extends Closeable {
+
+    /**
+     * Report heading; called once, first
+     */
+    void title(String title) throws IOException;
+
+    /**
+     * Start a table; the following rows have these columns
+     */
+    void columns(String... names) throws IOException;
+
+    void row(Object... values) throws IOException;
+
+    /**
+     * A labelled figure outside the table (totals, counts)
+     */
+    void summary(String label, Object value) throws IOException;
+
+    /**
+     * Sink for an export file, chosen by extension: .csv, .xlsx, .pdf, anything else is plain text
+     */
+    static ReportSink forFile(File file) throws IOException {
+        String name = file.getName().toLowerCase(Locale.ROOT);
+        if (name.endsWith(".csv")) {
+            return new CsvReportSink(file);
+        }
+        if (name.endsWith(".xlsx")) {
+            return new XlsxReportSink(file);
+        }
+        if (name.endsWith(".pdf")) {
+            return new PdfReportSink(file);
+        }
+        return new TextReportSink(file);
+    }
+
+    /**
+     * Write the same report to several sinks; all of them are closed even if one fails
+     */
+    static ReportSink tee(ReportSink... sinks) {
+        List<ReportSink> targets = List.of(sinks);
+        return new ReportSink() {
+            @Override
+            public void title(String title) throws IOException {
+                for (ReportSink sink : targets) {
+                    sink.title(title);
+                }
+            }
+
+            @Override
+            public void columns(String... names) throws IOException {
+                for (ReportSink sink : targets) {
+                    sink.columns(names);
+                }
+            }
+
+            @Override
+            public void row(Object... values) throws IOException {
+                for (ReportSink sink : targets) {
+                    sink.row(values);
+                }
+            }
+
+            @Override
+            public void summary(String label, Object value) throws IOException {
+                for (ReportSink sink : targets) {
+                    sink.summary(label, value);
+                }
+            }
+
+            @Override
+            public void close() throws IOException {
+                List<IOException> errors = new ArrayList<>();
+                for (ReportSink sink : targets) {
+                    try {
+                        sink.close();
+                    } catch (IOException e) {
+                        errors.add(e);
+                    }
+                }
+                if (!errors.isEmpty()) {
+                    IOException first = errors.get(0);
+                    errors.subList(1, errors.size()).forEach(first::addSuppressed);
+                    throw first;
+                }
+            }
+        };
+    }
+}
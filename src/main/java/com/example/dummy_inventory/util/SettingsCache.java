@@ -0,0 +1,132 @@
+package com.example.dummy_inventory.util;
+
+import com.example.dummy_inventory.dao.SettingsDAO;
+import com.example.dummy_inventory.event.EventBus;
+import com.example.dummy_inventory.event.SettingsChanged;
+import com.example.dummy_inventory.model.AppSettings;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Process-wide cache of the SystemSettings table
+ *
+ * The table is read once at startup into an immutable AppSettings snapshot.
+ * Reading a setting is a volatile read, so it is safe on the FX thread and in
+ * cell factories:
+ *
+ *   int threshold = SettingsCache.get().getLowStockThreshold();
+ *
+ * A background thread checks MAX(updated_at) every settings.pollSeconds and
+ * reloads the table only when it moved, so edits made directly in the database
+ * or by another node are picked up without a restart. Changes saved through
+ * save() apply immediately. Every swap publishes SettingsChanged.
+ */
+public final class SettingsCache {
+
+    private static final SettingsCache INSTANCE = new SettingsCache();
+
+    private final SettingsDAO settingsDAO = new SettingsDAO();
+
+    private volatile AppSettings snapshot = AppSettings.defaults();
+    private ScheduledExecutorService scheduler;
+
+    private SettingsCache() {
+    }
+
+    public static SettingsCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Current settings snapshot (never null; schema defaults until load() succeeds)
+     */
+    public static AppSettings get() {
+        return INSTANCE.snapshot;
+    }
+
+    /**
+     * Read the table and start polling for changes; call once at startup
+     *
+     * @param pollSeconds Poll interval in seconds, 0 = load once without polling
+     */
+    public synchronized void start(int pollSeconds) {
+        if (!refresh(false)) {
+            System.err.println("Could not load SystemSettings, using defaults");
+        }
+
+        if (scheduler != null || pollSeconds <= 0) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "settings-poller");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(this::poll, pollSeconds, pollSeconds, TimeUnit.SECONDS);
+        System.out.println("✓ Settings loaded (" + snapshot + "), polling every " + pollSeconds + "s");
+    }
+
+    /**
+     * Stop polling - call on application exit
+     */
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    /**
+     * Save a setting and swap in a fresh snapshot right away
+     *
+     * @return true if the row was written
+     */
+    public boolean save(String key, String value, Integer userId) {
+        if (!settingsDAO.saveSetting(key, value, userId)) {
+            return false;
+        }
+        refresh(false);
+        return true;
+    }
+
+    /**
+     * Reload the whole table and publish SettingsChanged if anything differs
+     *
+     * @param remote true when triggered by the poll (change made outside this process)
+     * @return false if the table could not be read
+     */
+    private boolean refresh(boolean remote) {
+        Optional<AppSettings> loaded = settingsDAO.loadSettings();
+        if (loaded.isEmpty()) {
+            return false;
+        }
+
+        AppSettings previous;
+        synchronized (this) {
+            previous = snapshot;
+            snapshot = loaded.get();
+        }
+        if (!previous.hasSameValues(loaded.get())) {
+            EventBus.getInstance().publish(new SettingsChanged(previous, loaded.get(), remote));
+        }
+        return true;
+    }
+
+    private void poll() {
+        try {
+            Optional<LocalDateTime> lastUpdated = settingsDAO.getLastUpdated();
+            LocalDateTime known = snapshot.getLastUpdated();
+            if (lastUpdated.isPresent() && (known == null || lastUpdated.get().isAfter(known))) {
+                refresh(true);
+            }
+        } catch (Exception e) {
+            // Keep polling; the current snapshot stays valid
+            System.err.println("Error polling settings:");
+            e.printStackTrace();
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.dummy_inventory.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Space-Saving summary: the heaviest keys of a stream in fixed memory
+ *
+ * At most capacity keys are monitored. A new key that does not fit replaces the
+ * key with the smallest count and inherits that count (recorded as its error),
+ * so any key whose true total exceeds (stream total / capacity) is guaranteed to
+ * be monitored. Used here to find top-seller candidates; their totals are then
+ * read from a CountMinSketch.
+ *
+ * Eviction scans the monitored keys, which is cheap for the small capacities
+ * used here. Not thread-safe; callers synchronize.
+ */
+public final class SpaceSaving {
+
+    private final int capacity;
+    private final Map<Long, long[]> counters;   // key -> {count, error}
+
+    public SpaceSaving(int capacity) {
+        this.capacity = capacity;
+        this.counters = new HashMap<>(capacity * 2);
+    }
+
+    public void offer(long key, long weight) {
+        long[] counter = counters.get(key);
+        if (counter != null) {
+            counter[0] += weight;
+            return;
+        }
+        if (counters.size() < capacity) {
+            counters.put(key, new long[] {weight, 0});
+            return;
+        }
+
+        Long minKey = null;
+        long min = Long.MAX_VALUE;
+        for (Map.Entry<Long, long[]> entry : counters.entrySet()) {
+            if (entry.getValue()[0] < min) {
+                min = entry.getValue()[0];
+                minKey = entry.getKey();
+            }
+        }
+        counters.remove(minKey);
+        counters.put(key, new long[] {min + weight, min});
+    }
+
+    /**
+     * Take back weight from a monitored key (a reversed sale); unmonitored keys are ignored
+     */
+    public void retract(long key, long weight) {
+        long[] counter = counters.get(key);
+        if (counter != null) {
+            counter[0] = Math.max(0, counter[0] - weight);
+        }
+    }
+
+    /**
+     * Keys currently monitored
+     */
+    public Set<Long> keys() {
+        return counters.keySet();
+    }
+
+    /**
+     * Monitored keys, heaviest first
+     */
+    public List<Long> top(int k) {
+        List<Long> keys = new ArrayList<>(counters.keySet());
+        keys.sort((a, b) -> Long.compare(counters.get(b)[0], counters.get(a)[0]));
+        return keys.subList(0, Math.min(k, keys.size()));
+    }
+
+    public void clear() {
+        counters.clear();
+    }
+}
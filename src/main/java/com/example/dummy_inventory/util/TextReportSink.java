@@ -0,0 +1,30 @@
+package com.example.dummy_inventory.util;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+/**
+ * Plain-text report file, same layout as the preview pane
+ */
+public class TextReportSink extends LineReportSink {
+
+    private final BufferedWriter writer;
+
+    public TextReportSink(File file) throws IOException {
+        writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void line(String line) throws IOException {
+        writer.write(line);
+        writer.newLine();
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.dummy_inventory.util;
+
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.DataFormat;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Excel (.xlsx) report file
+ *
+ * Uses POI's streaming workbook: only the last WINDOW rows are kept in memory,
+ * older rows are flushed to a temporary file, so large reports do not grow the
+ * heap. The temporary file is removed on close().
+ *
+ * A sheet holds at most 1,048,576 rows; a longer report continues on further
+ * sheets ("Report (2)", ...), each starting with the current column headers.
+ */
+public class XlsxReportSink implements ReportSink {
+
+    private static final int WINDOW = 100;
+    private static final int MAX_ROWS = SpreadsheetVersion.EXCEL2007.getMaxRows();
+
+    private final File file;
+    private final SXSSFWorkbook workbook = new SXSSFWorkbook(WINDOW);
+    private SXSSFSheet sheet = workbook.createSheet("Report");
+    private final CellStyle bold;
+    private final CellStyle amount;
+    private final CellStyle date;
+    private final CellStyle dateTime;
+    private int nextRow;
+    // Headers of the current table, repeated at the top of a continuation sheet
+    private String[] columns;
+
+    public XlsxReportSink(File file) {
+        this.file = file;
+
+        Font boldFont = workbook.createFont();
+        boldFont.setBold(true);
+        bold = workbook.createCellStyle();
+        bold.setFont(boldFont);
+
+        DataFormat formats = workbook.createDataFormat();
+        amount = workbook.createCellStyle();
+        amount.setDataFormat(formats.getFormat("#,##0.00"));
+        date = workbook.createCellStyle();
+        date.setDataFormat(formats.getFormat("yyyy-mm-dd"));
+        dateTime = workbook.createCellStyle();
+        dateTime.setDataFormat(formats.getFormat("yyyy-mm-dd hh:mm"));
+    }
+
+    @Override
+    public void title(String title) {
+        Cell cell = newRow().createCell(0);
+        cell.setCellValue(title);
+        cell.setCellStyle(bold);
+    }
+
+    @Override
+    public void columns(String... names) {
+        columns = null;
+        if (nextRow < MAX_ROWS) {
+            nextRow++;
+        }
+        writeHeader(newRow(), names);
+        columns = names;
+    }
+
+    @Override
+    public void row(Object... values) {
+        Row row = newRow();
+        for (int i = 0; i < values.length; i++) {
+            setValue(row.createCell(i), values[i]);
+        }
+    }
+
+    @Override
+    public void summary(String label, Object value) {
+        Row row = newRow();
+        Cell cell = row.createCell(0);
+        cell.setCellValue(label);
+        cell.setCellStyle(bold);
+        setValue(row.createCell(1), value);
+    }
+
+    @Override
+    public void close() throws IOException {
+        try (OutputStream out = Files.newOutputStream(file.toPath())) {
+            workbook.write(out);
+        } finally {
+            workbook.dispose();
+            workbook.close();
+        }
+    }
+
+    /**
+     * Next row of the current sheet, or of a new sheet once the current one is full
+     */
+    private Row newRow() {
+        if (nextRow >= MAX_ROWS) {
+            sheet = workbook.createSheet("Report (" + (workbook.getNumberOfSheets() + 1) + ")");
+            nextRow = 0;
+            if (columns != null) {
+                writeHeader(sheet.createRow(nextRow++), columns);
+            }
+        }
+        return sheet.createRow(nextRow++);
+    }
+
+    private void writeHeader(Row row, String[] names) {
+        for (int i = 0; i < names.length; i++) {
+            Cell cell = row.createCell(i);
+            cell.setCellValue(names[i]);
+            cell.setCellStyle(bold);
+        }
+    }
+
+    private void setValue(Cell cell, Object value) {
+        if (value == null) {
+            return;
+        }
+        if (value instanceof Double) {
+            cell.setCellValue((Double) value);
+            cell.setCellStyle(amount);
+        } else if (value instanceof Number) {
+            cell.setCellValue(((Number) value).doubleValue());
+        } else if (value instanceof LocalDateTime) {
+            cell.setCellValue((LocalDateTime) value);
+            cell.setCellStyle(dateTime);
+        } else if (value instanceof LocalDate) {
+            cell.setCellValue((LocalDate) value);
+            cell.setCellStyle(date);
+        } else {
+            cell.setCellValue(value.toString());
+        }
+    }
+}
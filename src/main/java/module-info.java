@@ -36,4 +36,7 @@ module com.example.dummy_inventory {
     exports com.example.dummy_inventory.model;
     exports com.example.dummy_inventory.dao;
     exports com.example.dummy_inventory.util;
+    exports com.example.dummy_inventory.event;
+    exports com.example.dummy_inventory.auth;
+    exports com.example.dummy_inventory.service;
 }
\ No newline at end of file
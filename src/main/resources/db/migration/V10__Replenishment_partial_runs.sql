@@ -0,0 +1,4 @@
+-- Runs where some suppliers' orders could not be written, and which suppliers
+ALTER TABLE ReplenishmentRun
+    MODIFY status ENUM('RUNNING', 'COMPLETED', 'PARTIAL', 'FAILED') DEFAULT 'RUNNING',
+    ADD COLUMN failed_suppliers VARCHAR(1000) NULL;
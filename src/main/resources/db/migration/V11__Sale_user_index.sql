@@ -0,0 +1,15 @@
+-- UserDAO.deleteUser clears user_id on the sale and audit history. Partitioning
+-- dropped the foreign keys and with them the only index on Sale.user_id, so each
+-- UPDATE scanned (and next-key locked) every row, blocking checkout inserts.
+-- Built online: sales can be recorded while the indexes are created.
+ALTER TABLE Sale
+    ADD INDEX idx_sale_user (user_id),
+    ALGORITHM=INPLACE, LOCK=NONE;
+
+ALTER TABLE SaleArchive
+    ADD INDEX idx_sale_user (user_id),
+    ALGORITHM=INPLACE, LOCK=NONE;
+
+ALTER TABLE AuditLogArchive
+    ADD INDEX idx_user (user_id),
+    ALGORITHM=INPLACE, LOCK=NONE;
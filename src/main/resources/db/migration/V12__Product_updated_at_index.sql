@@ -0,0 +1,6 @@
+-- ChangePoller reads the products changed since its last poll
+-- (updated_at >= watermark) every few seconds on every node; without an index
+-- each poll scanned the whole Product table.
+ALTER TABLE Product
+    ADD INDEX idx_product_updated (updated_at),
+    ALGORITHM=INPLACE, LOCK=NONE;
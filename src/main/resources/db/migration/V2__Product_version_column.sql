@@ -0,0 +1,3 @@
+-- Optimistic locking for product edits (ProductDAO.updateChangedColumns)
+-- INSTANT: metadata-only, no table rebuild
+ALTER TABLE Product ADD COLUMN version INT NOT NULL DEFAULT 0, ALGORITHM=INSTANT;
@@ -0,0 +1,21 @@
+-- Sales velocity state and run history for ReplenishmentEngine
+CREATE TABLE ProductVelocity (
+    product_id INT PRIMARY KEY,
+    daily_velocity DOUBLE NOT NULL DEFAULT 0,
+    as_of DATE NOT NULL,
+    FOREIGN KEY (product_id) REFERENCES Product(product_id) ON DELETE CASCADE
+);
+
+CREATE TABLE ReplenishmentRun (
+    run_id INT PRIMARY KEY AUTO_INCREMENT,
+    started_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    finished_at TIMESTAMP NULL,
+    sales_through DATE NOT NULL,
+    products_evaluated INT DEFAULT 0,
+    orders_created INT DEFAULT 0,
+    status ENUM('RUNNING', 'COMPLETED', 'FAILED') DEFAULT 'RUNNING',
+    INDEX idx_run_status (status, sales_through)
+);
+
+-- Open quantity per product; built online
+ALTER TABLE PurchaseOrder ADD INDEX idx_status_product (status, product_id), ALGORITHM=INPLACE, LOCK=NONE;
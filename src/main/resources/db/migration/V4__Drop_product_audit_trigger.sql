@@ -0,0 +1,2 @@
+-- Product changes are audited by the application (AuditTrail) with the real user
+DROP TRIGGER IF EXISTS trg_product_update_log;
@@ -0,0 +1,7 @@
+-- Daily sales per product (replenishment) and date-range revenue are answered
+-- from the index alone; it starts with sale_date, so idx_sale_date is redundant.
+-- Built online: sales can be recorded while the index is created.
+ALTER TABLE Sale
+    ADD INDEX idx_sale_date_product (sale_date, product_id, quantity_sold, total_amount),
+    DROP INDEX idx_sale_date,
+    ALGORITHM=INPLACE, LOCK=NONE;
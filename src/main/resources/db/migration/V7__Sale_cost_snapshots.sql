@@ -0,0 +1,36 @@
+-- Cost at time of sale, and per-day margin totals kept up to date by SaleDAO
+ALTER TABLE Sale ADD COLUMN unit_cost DECIMAL(10, 2) NULL;
+ALTER TABLE SaleArchive ADD COLUMN unit_cost DECIMAL(10, 2) NULL;
+
+-- Sales recorded before this version: the cost they were sold at is unknown, use today's
+UPDATE Sale s JOIN Product p ON s.product_id = p.product_id
+SET s.unit_cost = COALESCE(p.cost_price, 0) WHERE s.unit_cost IS NULL;
+UPDATE SaleArchive s JOIN Product p ON s.product_id = p.product_id
+SET s.unit_cost = COALESCE(p.cost_price, 0) WHERE s.unit_cost IS NULL;
+
+CREATE TABLE SalesMargin (
+    sale_day DATE NOT NULL,
+    product_id INT NOT NULL,
+    category_id INT NULL,
+    supplier_id INT NULL,
+    sales_count INT NOT NULL DEFAULT 0,
+    units INT NOT NULL DEFAULT 0,
+    revenue DECIMAL(14, 2) NOT NULL DEFAULT 0,
+    cost DECIMAL(14, 2) NOT NULL DEFAULT 0,
+    PRIMARY KEY (sale_day, product_id),
+    INDEX idx_margin_product (product_id, sale_day),
+    INDEX idx_margin_category (category_id, sale_day),
+    INDEX idx_margin_supplier (supplier_id, sale_day)
+);
+
+INSERT INTO SalesMargin (sale_day, product_id, category_id, supplier_id, sales_count, units, revenue, cost)
+SELECT DATE(s.sale_date), s.product_id, p.category_id, p.supplier_id,
+       COUNT(*), SUM(s.quantity_sold), SUM(s.total_amount), SUM(s.quantity_sold * s.unit_cost)
+FROM (SELECT product_id, quantity_sold, total_amount, sale_date, unit_cost FROM Sale
+      UNION ALL
+      SELECT product_id, quantity_sold, total_amount, sale_date, unit_cost FROM SaleArchive) s
+JOIN Product p ON s.product_id = p.product_id
+GROUP BY DATE(s.sale_date), s.product_id, p.category_id, p.supplier_id;
+
+-- sp_record_sale is not used by the application; existing databases that call it
+-- should re-create it from database_schema.sql so its sales carry a cost too.
@@ -0,0 +1,17 @@
+-- Fitted demand models for DemandForecaster; replaces ProductVelocity
+CREATE TABLE ProductForecast (
+    product_id INT PRIMARY KEY,
+    as_of DATE NOT NULL,
+    smoothed_rate DOUBLE NOT NULL DEFAULT 0,
+    demand_size DOUBLE NOT NULL DEFAULT 0,
+    demand_interval DOUBLE NOT NULL DEFAULT 1,
+    last_demand DATE NULL,
+    mad DOUBLE NOT NULL DEFAULT 0,
+    FOREIGN KEY (product_id) REFERENCES Product(product_id) ON DELETE CASCADE
+);
+
+-- Keep the fitted velocities: as_of was the product's last day with sales
+INSERT INTO ProductForecast (product_id, as_of, smoothed_rate, demand_size, demand_interval, last_demand, mad)
+SELECT product_id, as_of, daily_velocity, daily_velocity, 1, as_of, 0 FROM ProductVelocity;
+
+DROP TABLE ProductVelocity;
@@ -0,0 +1,12 @@
+-- ABC/XYZ class per product, written by InventoryClassifier
+CREATE TABLE ProductClass (
+    product_id INT PRIMARY KEY,
+    abc_class CHAR(1) NOT NULL,
+    xyz_class CHAR(1) NOT NULL,
+    revenue DECIMAL(14, 2) NOT NULL DEFAULT 0,
+    cumulative_share DOUBLE NOT NULL DEFAULT 100,
+    demand_cv DOUBLE NULL,
+    classified_at TIMESTAMP NOT NULL,
+    INDEX idx_class (abc_class, xyz_class),
+    FOREIGN KEY (product_id) REFERENCES Product(product_id) ON DELETE CASCADE
+);